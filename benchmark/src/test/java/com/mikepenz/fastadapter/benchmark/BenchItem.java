@@ -0,0 +1,116 @@
+package com.mikepenz.fastadapter.benchmark;
+
+import android.view.View;
+
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.mikepenz.fastadapter.IExpandable;
+import com.mikepenz.fastadapter.ISubItem;
+import com.mikepenz.fastadapter.items.AbstractItem;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * the item used by the benchmarks, it has a name to filter by and can have sub items
+ */
+public class BenchItem extends AbstractItem<BenchItem, BenchItem.ViewHolder> implements IExpandable<BenchItem, BenchItem>, ISubItem<BenchItem, BenchItem> {
+    final String name;
+    private List<BenchItem> mSubItems;
+    private BenchItem mParent;
+    private boolean mExpanded = false;
+
+    public BenchItem(long identifier) {
+        this.name = "item " + identifier;
+        withIdentifier(identifier);
+    }
+
+    /**
+     * @param size the count of items
+     * @return the items with the identifiers `offset` to `offset + size - 1`
+     */
+    public static List<BenchItem> list(long offset, int size) {
+        List<BenchItem> items = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            items.add(new BenchItem(offset + i));
+        }
+        return items;
+    }
+
+    /**
+     * @param parentCount the count of parents
+     * @param subItemCount the count of sub items per parent
+     * @return the collapsed parents
+     */
+    public static List<BenchItem> parents(int parentCount, int subItemCount) {
+        List<BenchItem> parents = list(0, parentCount);
+        long identifier = parentCount;
+        for (BenchItem parent : parents) {
+            List<BenchItem> subItems = list(identifier, subItemCount);
+            identifier += subItemCount;
+            for (BenchItem subItem : subItems) {
+                subItem.withParent(parent);
+            }
+            parent.withSubItems(subItems);
+        }
+        return parents;
+    }
+
+    @Override
+    public int getLayoutRes() {
+        return -1;
+    }
+
+    @Override
+    public int getType() {
+        return -1;
+    }
+
+    @Override
+    public boolean isExpanded() {
+        return mExpanded;
+    }
+
+    @Override
+    public BenchItem withIsExpanded(boolean expanded) {
+        mExpanded = expanded;
+        return this;
+    }
+
+    @Override
+    public List<BenchItem> getSubItems() {
+        return mSubItems;
+    }
+
+    @Override
+    public boolean isAutoExpanding() {
+        return true;
+    }
+
+    public BenchItem withSubItems(List<BenchItem> subItems) {
+        this.mSubItems = subItems;
+        return this;
+    }
+
+    @Override
+    public BenchItem getParent() {
+        return mParent;
+    }
+
+    @Override
+    public BenchItem withParent(BenchItem parent) {
+        this.mParent = parent;
+        return this;
+    }
+
+    @Override
+    public ViewHolder getViewHolder(View v) {
+        return new ViewHolder(v);
+    }
+
+    public static class ViewHolder extends RecyclerView.ViewHolder {
+        public ViewHolder(View view) {
+            super(view);
+        }
+    }
+}
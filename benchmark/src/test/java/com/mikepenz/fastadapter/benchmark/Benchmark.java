@@ -0,0 +1,94 @@
+package com.mikepenz.fastadapter.benchmark;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * A minimal JMH style harness: every iteration prepares a fresh state (not measured) and measures a single run.
+ * The first iterations are dropped as warmup, the measured ones are summarized as min, median, mean and max.
+ */
+public abstract class Benchmark {
+    //stop measuring once this time was spent (but not before MIN_ITERATIONS)
+    private static final long BUDGET_NANOS = 2000000000L;
+    private static final int WARMUP_ITERATIONS = 3;
+    private static final int MIN_ITERATIONS = 5;
+    private static final int MAX_ITERATIONS = 50;
+
+    /**
+     * prepares the state for the next run, is not measured
+     *
+     * @param size the count of items to benchmark with
+     */
+    protected abstract void setUp(int size);
+
+    /**
+     * the measured operation
+     */
+    protected abstract void run();
+
+    /**
+     * runs the benchmark and records the result
+     *
+     * @param results the results to add the result to
+     * @param name    the name of the benchmark
+     * @param size    the count of items to benchmark with
+     * @return the result
+     */
+    public Result measure(BenchmarkResults results, String name, int size) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            setUp(size);
+            run();
+        }
+
+        long[] samples = new long[MAX_ITERATIONS];
+        int count = 0;
+        long spent = 0;
+        while (count < MAX_ITERATIONS && (count < MIN_ITERATIONS || spent < BUDGET_NANOS)) {
+            setUp(size);
+            long start = System.nanoTime();
+            run();
+            long duration = System.nanoTime() - start;
+            samples[count++] = duration;
+            spent += duration;
+        }
+
+        Result result = new Result(name, size, Arrays.copyOf(samples, count));
+        results.add(result);
+        System.out.println(result);
+        return result;
+    }
+
+    /**
+     * the summary of the measured runs of a benchmark
+     */
+    public static class Result {
+        final String name;
+        final int size;
+        final int iterations;
+        final long minNanos;
+        final long medianNanos;
+        final long meanNanos;
+        final long maxNanos;
+
+        Result(String name, int size, long[] samples) {
+            Arrays.sort(samples);
+            long total = 0;
+            for (long sample : samples) {
+                total += sample;
+            }
+            this.name = name;
+            this.size = size;
+            this.iterations = samples.length;
+            this.minNanos = samples[0];
+            this.medianNanos = samples[samples.length / 2];
+            this.meanNanos = total / samples.length;
+            this.maxNanos = samples[samples.length - 1];
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.US, "%-45s %7d items: median %9.3fms, min %9.3fms (%d iterations)",
+                    name, size, medianNanos / 1000000d, minNanos / 1000000d, iterations);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.mikepenz.fastadapter.benchmark;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Collects the benchmark results and writes them as JSON, so the results of two versions can be compared.
+ * <p>
+ * The file is written to the path of the system property `fastadapter.benchmark.output` (set by the Gradle build),
+ * the sizes are read from `fastadapter.benchmark.sizes` (comma separated). The benchmarks only run if
+ * `fastadapter.benchmark.enabled` is set (`-Pbenchmark`).
+ */
+public class BenchmarkResults {
+    private static final String ENABLED_PROPERTY = "fastadapter.benchmark.enabled";
+    private static final String OUTPUT_PROPERTY = "fastadapter.benchmark.output";
+    private static final String SIZES_PROPERTY = "fastadapter.benchmark.sizes";
+    private static final String DEFAULT_SIZES = "1000,10000,100000";
+
+    private final List<Benchmark.Result> mResults = new ArrayList<>();
+
+    /**
+     * @return true if the benchmarks should run
+     */
+    public static boolean isEnabled() {
+        return System.getProperty(ENABLED_PROPERTY) != null;
+    }
+
+    /**
+     * @return the sizes to run the benchmarks with
+     */
+    public static int[] sizes() {
+        String[] values = System.getProperty(SIZES_PROPERTY, DEFAULT_SIZES).split(",");
+        int[] sizes = new int[values.length];
+        for (int i = 0; i < values.length; i++) {
+            sizes[i] = Integer.parseInt(values[i].trim());
+        }
+        return sizes;
+    }
+
+    public synchronized void add(Benchmark.Result result) {
+        mResults.add(result);
+    }
+
+    /**
+     * writes all results collected so far, replacing the previous file
+     */
+    public synchronized void write() throws IOException {
+        String path = System.getProperty(OUTPUT_PROPERTY);
+        //skipped benchmarks do not replace the results of the last run
+        if (path == null || mResults.isEmpty()) {
+            return;
+        }
+        File file = new File(path);
+        File parent = file.getParentFile();
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+            throw new IOException("could not create " + parent);
+        }
+        Writer writer = new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+        try {
+            writer.write(toJson());
+        } finally {
+            writer.close();
+        }
+    }
+
+    /**
+     * @return the results as JSON object
+     */
+    public synchronized String toJson() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\n");
+        sb.append("  \"timestamp\": ").append(System.currentTimeMillis()).append(",\n");
+        sb.append("  \"jvm\": ").append(quote(System.getProperty("java.vm.name") + " " + System.getProperty("java.version"))).append(",\n");
+        sb.append("  \"results\": [");
+        for (int i = 0; i < mResults.size(); i++) {
+            Benchmark.Result result = mResults.get(i);
+            sb.append(i == 0 ? "\n" : ",\n");
+            sb.append("    {\"benchmark\": ").append(quote(result.name))
+                    .append(", \"size\": ").append(result.size)
+                    .append(", \"iterations\": ").append(result.iterations)
+                    .append(", \"minNanos\": ").append(result.minNanos)
+                    .append(", \"medianNanos\": ").append(result.medianNanos)
+                    .append(", \"meanNanos\": ").append(result.meanNanos)
+                    .append(", \"maxNanos\": ").append(result.maxNanos)
+                    .append('}');
+        }
+        sb.append("\n  ]\n}\n");
+        return sb.toString();
+    }
+
+    private static String quote(String value) {
+        StringBuilder sb = new StringBuilder("\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            } else if (c < 0x20) {
+                sb.append(String.format("\\u%04x", (int) c));
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.append('"').toString();
+    }
+}
@@ -0,0 +1,421 @@
+package com.mikepenz.fastadapter.benchmark;
+
+import androidx.annotation.Nullable;
+
+import com.mikepenz.fastadapter.FastAdapter;
+import com.mikepenz.fastadapter.IItemAdapter;
+import com.mikepenz.fastadapter.adapters.ItemAdapter;
+import com.mikepenz.fastadapter.adapters.ItemFilter;
+import com.mikepenz.fastadapter.adapters.ItemSearchIndex;
+import com.mikepenz.fastadapter.commons.utils.FastAdapterDiffUtil;
+import com.mikepenz.fastadapter.commons.utils.IdentifierDiffUtil;
+import com.mikepenz.fastadapter.expandable.ExpandableExtension;
+import com.mikepenz.fastadapter.select.SelectExtension;
+import com.mikepenz.fastadapter.utils.ComparableItemListImpl;
+import com.mikepenz.fastadapter.utils.DefaultItemListImpl;
+
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Benchmarks the hot paths of the item list, the filter, the diff, the selection and the expandable extension for
+ * all sizes of {@link BenchmarkResults#sizes()}. The results are printed and written as JSON after every test.
+ * The benchmarks are skipped unless they are enabled, see {@link BenchmarkResults#isEnabled()}.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class FastAdapterBenchmark {
+    private static final BenchmarkResults RESULTS = new BenchmarkResults();
+
+    private FastAdapter<BenchItem> fastAdapter;
+    private ItemAdapter<BenchItem> itemAdapter;
+
+    @Before
+    public void assumeEnabled() {
+        Assume.assumeTrue("the benchmarks run with -Pbenchmark", BenchmarkResults.isEnabled());
+    }
+
+    @After
+    public void writeResults() throws Exception {
+        RESULTS.write();
+    }
+
+    private void newAdapter() {
+        itemAdapter = new ItemAdapter<>();
+        //the ModelAdapter has no default ItemFilter, but `set` requires one
+        itemAdapter.withItemFilter(new ItemFilter<>(itemAdapter));
+        fastAdapter = FastAdapter.with(itemAdapter);
+    }
+
+    @Test
+    public void modelAdapter_add() {
+        for (int size : BenchmarkResults.sizes()) {
+            new Benchmark() {
+                private List<BenchItem> items;
+
+                @Override
+                protected void setUp(int size) {
+                    newAdapter();
+                    items = BenchItem.list(0, size);
+                }
+
+                @Override
+                protected void run() {
+                    itemAdapter.add(items);
+                }
+            }.measure(RESULTS, "ModelAdapter.add", size);
+        }
+    }
+
+    @Test
+    public void modelAdapter_set() {
+        for (int size : BenchmarkResults.sizes()) {
+            new Benchmark() {
+                private List<BenchItem> items;
+
+                @Override
+                protected void setUp(int size) {
+                    newAdapter();
+                    itemAdapter.set(BenchItem.list(0, size));
+                    items = BenchItem.list(0, size);
+                }
+
+                @Override
+                protected void run() {
+                    itemAdapter.set(items);
+                }
+            }.measure(RESULTS, "ModelAdapter.set", size);
+        }
+    }
+
+    @Test
+    public void modelAdapter_removeRange() {
+        for (int size : BenchmarkResults.sizes()) {
+            new Benchmark() {
+                @Override
+                protected void setUp(int size) {
+                    newAdapter();
+                    itemAdapter.set(BenchItem.list(0, size));
+                }
+
+                @Override
+                protected void run() {
+                    //remove the middle half
+                    itemAdapter.removeRange(itemAdapter.getAdapterItemCount() / 4, itemAdapter.getAdapterItemCount() / 2);
+                }
+            }.measure(RESULTS, "ModelAdapter.removeRange", size);
+        }
+    }
+
+    @Test
+    public void defaultItemList_getAdapterIndex() {
+        for (int size : BenchmarkResults.sizes()) {
+            measureUpdateStream("DefaultItemListImpl.getAdapterIndex", size, false);
+            measureUpdateStream("DefaultItemListImpl.getAdapterIndex(index)", size, true);
+        }
+    }
+
+    private void measureUpdateStream(String name, int size, final boolean index) {
+        //a stream of updates, each one resolves the position of an item by its identifier and replaces it
+        new Benchmark() {
+            private DefaultItemListImpl<BenchItem> itemList;
+            private List<BenchItem> replacements;
+            private Random random;
+
+            @Override
+            protected void setUp(int size) {
+                itemList = new DefaultItemListImpl<>(BenchItem.list(0, size)).withIdentifierIndex(index);
+                replacements = BenchItem.list(0, size);
+                random = new Random(7);
+            }
+
+            @Override
+            protected void run() {
+                for (int i = 0; i < 5000; i++) {
+                    int identifier = random.nextInt(replacements.size());
+                    itemList.set(itemList.getAdapterIndex(identifier), replacements.get(identifier), 0);
+                }
+            }
+        }.measure(RESULTS, name, size);
+    }
+
+    @Test
+    public void comparableItemList_add() {
+        for (int size : BenchmarkResults.sizes()) {
+            //a single item, like a new chat message
+            measureSortedAdd("ComparableItemListImpl.add(1)", size, 1);
+            measureSortedAdd("ComparableItemListImpl.add(1%)", size, Math.max(1, size / 100));
+        }
+    }
+
+    private void measureSortedAdd(String name, int size, final int count) {
+        new Benchmark() {
+            private List<BenchItem> items;
+
+            @Override
+            protected void setUp(int size) {
+                itemAdapter = new ItemAdapter<>(new ComparableItemListImpl<>(new Comparator<BenchItem>() {
+                    @Override
+                    public int compare(BenchItem lhs, BenchItem rhs) {
+                        return Long.compare(lhs.getIdentifier(), rhs.getIdentifier());
+                    }
+                }));
+                itemAdapter.withItemFilter(new ItemFilter<>(itemAdapter));
+                fastAdapter = FastAdapter.with(itemAdapter);
+                //every second identifier, the added items go in between
+                List<BenchItem> existing = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    existing.add(new BenchItem(i * 2L));
+                }
+                itemAdapter.set(existing);
+                items = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    items.add(new BenchItem((long) i * size / count * 2 + 1));
+                }
+            }
+
+            @Override
+            protected void run() {
+                itemAdapter.add(items);
+            }
+        }.measure(RESULTS, name, size);
+    }
+
+    @Test
+    public void itemFilter_performFiltering() {
+        for (int size : BenchmarkResults.sizes()) {
+            measureFiltering("ItemFilter.performFiltering", size, false);
+            measureFiltering("ItemFilter.performFiltering(searchIndex)", size, true);
+        }
+    }
+
+    private void measureFiltering(String name, int size, final boolean searchIndex) {
+        new Benchmark() {
+            private ItemFilter<BenchItem, BenchItem> itemFilter;
+
+            @Override
+            protected void setUp(int size) {
+                newAdapter();
+                itemFilter = itemAdapter.getItemFilter();
+                itemFilter.withFilterPredicate(new IItemAdapter.Predicate<BenchItem>() {
+                    @Override
+                    public boolean filter(BenchItem item, @Nullable CharSequence constraint) {
+                        return item.name.contains(constraint);
+                    }
+                });
+                if (searchIndex) {
+                    itemFilter.withSearchIndex(new ItemSearchIndex.TextExtractor<BenchItem>() {
+                        @Override
+                        public CharSequence getText(BenchItem item) {
+                            return item.name;
+                        }
+                    });
+                }
+                itemAdapter.set(BenchItem.list(0, size));
+                if (searchIndex) {
+                    //build the index, only the query is measured
+                    itemFilter.performFiltering("item");
+                }
+            }
+
+            @Override
+            protected void run() {
+                itemFilter.performFiltering("m 7");
+            }
+        }.measure(RESULTS, name, size);
+    }
+
+    @Test
+    public void fastAdapterDiffUtil_calculateDiff() {
+        for (int size : BenchmarkResults.sizes()) {
+            new Benchmark() {
+                private List<BenchItem> items;
+
+                @Override
+                protected void setUp(int size) {
+                    newAdapter();
+                    itemAdapter.set(BenchItem.list(0, size));
+                    items = modified(size);
+                }
+
+                @Override
+                protected void run() {
+                    FastAdapterDiffUtil.calculateDiff(itemAdapter, items);
+                }
+            }.measure(RESULTS, "FastAdapterDiffUtil.calculateDiff", size);
+
+            new Benchmark() {
+                private List<BenchItem> items;
+
+                @Override
+                protected void setUp(int size) {
+                    newAdapter();
+                    itemAdapter.set(BenchItem.list(0, size));
+                    items = modified(size);
+                }
+
+                @Override
+                protected void run() {
+                    IdentifierDiffUtil.calculateDiff(itemAdapter, items);
+                }
+            }.measure(RESULTS, "IdentifierDiffUtil.calculateDiff", size);
+        }
+    }
+
+    /**
+     * @return the items `0` to `size - 1` with 0.1% of them removed and 0.1% moved to the front, followed by 0.1% new items
+     */
+    private static List<BenchItem> modified(int size) {
+        int step = 1000;
+        List<BenchItem> items = new ArrayList<>(size);
+        List<BenchItem> moved = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            if (i % step == 1) {
+                continue;
+            } else if (i % step == 2) {
+                moved.add(new BenchItem(i));
+            } else {
+                items.add(new BenchItem(i));
+            }
+        }
+        items.addAll(0, moved);
+        items.addAll(BenchItem.list(size, Math.max(1, size / step)));
+        return items;
+    }
+
+    @Test
+    public void selectExtension_select() {
+        for (int size : BenchmarkResults.sizes()) {
+            new Benchmark() {
+                private SelectExtension<BenchItem> selectExtension;
+                private List<Integer> positions;
+
+                @Override
+                protected void setUp(int size) {
+                    newAdapter();
+                    fastAdapter.withSelectable(true).withMultiSelect(true);
+                    selectExtension = fastAdapter.getExtension(SelectExtension.class);
+                    itemAdapter.set(BenchItem.list(0, size));
+                    positions = new ArrayList<>(size / 2);
+                    for (int i = 0; i < size; i += 2) {
+                        positions.add(i);
+                    }
+                }
+
+                @Override
+                protected void run() {
+                    selectExtension.select(positions);
+                }
+            }.measure(RESULTS, "SelectExtension.select", size);
+
+            new Benchmark() {
+                private SelectExtension<BenchItem> selectExtension;
+
+                @Override
+                protected void setUp(int size) {
+                    newAdapter();
+                    fastAdapter.withSelectable(true).withMultiSelect(true);
+                    selectExtension = fastAdapter.getExtension(SelectExtension.class);
+                    itemAdapter.set(BenchItem.list(0, size));
+                    for (int i = 0; i < size; i += 10) {
+                        selectExtension.select(i);
+                    }
+                }
+
+                @Override
+                protected void run() {
+                    selectExtension.getSelections();
+                }
+            }.measure(RESULTS, "SelectExtension.getSelections", size);
+        }
+    }
+
+    @Test
+    public void selectExtension_selectByIdentifier() {
+        for (int size : BenchmarkResults.sizes()) {
+            measureSelectByIdentifier("SelectExtension.selectByIdentifier", size, false);
+            measureSelectByIdentifier("SelectExtension.selectByIdentifier(index)", size, true);
+        }
+    }
+
+    private void measureSelectByIdentifier(String name, int size, final boolean index) {
+        //restores 2000 selections of the collapsed sub items, like `withSavedInstanceState` does
+        final int parentCount = Math.max(1, size / 25);
+        new Benchmark() {
+            private SelectExtension<BenchItem> selectExtension;
+            private long[] identifiers;
+
+            @Override
+            protected void setUp(int size) {
+                newAdapter();
+                fastAdapter.withSelectable(true).withMultiSelect(true).withItemIdentifierIndex(index);
+                fastAdapter.addExtension(new ExpandableExtension<BenchItem>());
+                selectExtension = fastAdapter.getExtension(SelectExtension.class);
+                itemAdapter.set(BenchItem.parents(parentCount, 24));
+                identifiers = new long[2000];
+                for (int i = 0; i < identifiers.length; i++) {
+                    identifiers[i] = (i * 7919L) % (parentCount * 25L);
+                }
+            }
+
+            @Override
+            protected void run() {
+                for (long identifier : identifiers) {
+                    selectExtension.selectByIdentifier(identifier, false, true);
+                }
+            }
+        }.measure(RESULTS, name, size);
+    }
+
+    @Test
+    public void expandableExtension_expandCollapse() {
+        for (int size : BenchmarkResults.sizes()) {
+            //parents with 9 sub items each, expanded all of them add up to `size` items
+            final int parentCount = Math.max(1, size / 10);
+            new Benchmark() {
+                private ExpandableExtension<BenchItem> expandableExtension;
+
+                @Override
+                protected void setUp(int size) {
+                    newAdapter();
+                    expandableExtension = new ExpandableExtension<>();
+                    fastAdapter.addExtension(expandableExtension);
+                    itemAdapter.set(BenchItem.parents(parentCount, 9));
+                }
+
+                @Override
+                protected void run() {
+                    expandableExtension.expand();
+                }
+            }.measure(RESULTS, "ExpandableExtension.expand", size);
+
+            new Benchmark() {
+                private ExpandableExtension<BenchItem> expandableExtension;
+
+                @Override
+                protected void setUp(int size) {
+                    newAdapter();
+                    expandableExtension = new ExpandableExtension<>();
+                    fastAdapter.addExtension(expandableExtension);
+                    itemAdapter.set(BenchItem.parents(parentCount, 9));
+                    expandableExtension.expand();
+                }
+
+                @Override
+                protected void run() {
+                    expandableExtension.collapse();
+                }
+            }.measure(RESULTS, "ExpandableExtension.collapse", size);
+        }
+    }
+}
@@ -20,9 +20,16 @@ import com.mikepenz.fastadapter.listeners.OnTouchListener;
 import com.mikepenz.fastadapter.listeners.TouchEventHook;
 import com.mikepenz.fastadapter.select.SelectExtension;
 import com.mikepenz.fastadapter.utils.AdapterPredicate;
+import com.mikepenz.fastadapter.utils.AdapterSizeTree;
+import com.mikepenz.fastadapter.utils.AdapterStats;
+import com.mikepenz.fastadapter.utils.ChangeMask;
 import com.mikepenz.fastadapter.utils.DefaultTypeInstanceCache;
 import com.mikepenz.fastadapter.utils.EventHookUtil;
+import com.mikepenz.fastadapter.utils.ItemIdentifierIndex;
+import com.mikepenz.fastadapter.utils.PreInflatedViewPool;
+import com.mikepenz.fastadapter.utils.TraversalMatch;
 import com.mikepenz.fastadapter.utils.Triple;
+import com.mikepenz.fastadapter.utils.UpdateBatch;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -61,12 +68,17 @@ public class FastAdapter<Item extends IItem> extends RecyclerView.Adapter<Recycl
     // we remember all possible types so we can create a new view efficiently
     private ITypeInstanceCache<Item> mTypeInstanceCache;
     // cache the sizes of the different adapters so we can access the items more performant
-    final private SparseArray<IAdapter<Item>> mAdapterSizes = new SparseArray<>();
+    final private AdapterSizeTree mAdapterSizes = new AdapterSizeTree();
+    private int[] mAdapterSizesBuffer = new int[0];
     // the total size
     private int mGlobalSize = 0;
 
     // event hooks for the items
     private List<EventHook<Item>> eventHooks;
+    // the event hooks which are only bound to the ViewHolders of specific types
+    private SparseArray<List<EventHook<Item>>> mTypedEventHooks;
+    // the event hooks to bind per type (the ones for all types followed by the typed ones), built on demand
+    private SparseArray<List<EventHook<Item>>> mEventHooksByType;
     // the extensions we support
     final private Map<Class, IAdapterExtension<Item>> mExtensions = new ArrayMap<>();
 
@@ -76,9 +88,66 @@ public class FastAdapter<Item extends IItem> extends RecyclerView.Adapter<Recycl
     private boolean mLegacyBindViewMode = false;
     // if set to `false` will not attach any listeners to the list. click events will have to be handled manually
     private boolean mAttachDefaultListeners = true;
+    // if set to `true` the event hooks are dispatched by shared listeners instead of one listener per view
+    private boolean mSharedEventListeners = false;
+    // if set to `true` selection and expansion changes are notified with a ChangeMask payload
+    private boolean mStateChangePayloads = false;
 
     // verbose
     private boolean mVerbose = false;
+    // the performance stats, null if they are not collected
+    private AdapterStats mStats;
+    // the index of all items and sub items by their identifier, null if it is disabled
+    private ItemIdentifierIndex<Item> mItemIdentifierIndex;
+    // the notifications recorded within a transaction (see `beginUpdate`), and the depth of the nested transactions
+    final private UpdateBatch mUpdateBatch = new UpdateBatch();
+    private int mUpdateDepth = 0;
+    // dispatches the notifications to the RecyclerView, directly or at the end of a transaction
+    private final UpdateBatch.Listener mUpdateDispatcher = new UpdateBatch.Listener() {
+        @Override
+        public void onDataSetChanged() {
+            if (mStats != null) {
+                mStats.onDataSetChanged();
+            }
+            notifyDataSetChanged();
+        }
+
+        @Override
+        public void onInserted(int position, int count) {
+            if (mStats != null) {
+                mStats.onRangeNotification();
+            }
+            notifyItemRangeInserted(position, count);
+        }
+
+        @Override
+        public void onRemoved(int position, int count) {
+            if (mStats != null) {
+                mStats.onRangeNotification();
+            }
+            notifyItemRangeRemoved(position, count);
+        }
+
+        @Override
+        public void onMoved(int fromPosition, int toPosition) {
+            if (mStats != null) {
+                mStats.onRangeNotification();
+            }
+            notifyItemMoved(fromPosition, toPosition);
+        }
+
+        @Override
+        public void onChanged(int position, int count, @Nullable Object payload) {
+            if (mStats != null) {
+                mStats.onRangeNotification();
+            }
+            if (payload == null) {
+                notifyItemRangeChanged(position, count);
+            } else {
+                notifyItemRangeChanged(position, count, payload);
+            }
+        }
+    };
 
     // the listeners which can be hooked on an item
     private OnClickListener<Item> mOnPreClickListener;
@@ -91,14 +160,6 @@ public class FastAdapter<Item extends IItem> extends RecyclerView.Adapter<Recycl
     private OnCreateViewHolderListener mOnCreateViewHolderListener = new OnCreateViewHolderListenerImpl();
     private OnBindViewHolderListener mOnBindViewHolderListener = new OnBindViewHolderListenerImpl();
 
-    private static int floorIndex(SparseArray<?> sparseArray, int key) {
-        int index = sparseArray.indexOfKey(key);
-        if (index < 0) {
-            index = ~index - 1;
-        }
-        return index;
-    }
-
     /**
      * default CTOR
      */
@@ -116,6 +177,95 @@ public class FastAdapter<Item extends IItem> extends RecyclerView.Adapter<Recycl
         return this;
     }
 
+    /**
+     * enables or disables collecting the performance stats (create, bind, unbind and recycle durations per view type,
+     * failed recycles and notifications), disabling drops the collected stats
+     *
+     * @param enabled true to collect the stats
+     * @return this
+     */
+    public FastAdapter<Item> withStats(boolean enabled) {
+        if (!enabled) {
+            mStats = null;
+        } else if (mStats == null) {
+            mStats = new AdapterStats();
+        }
+        return this;
+    }
+
+    /**
+     * @return the collector of the performance stats, null if they are not collected
+     */
+    @Nullable
+    public AdapterStats getStats() {
+        return mStats;
+    }
+
+    /**
+     * if enabled the selection and expansion changes are notified with the {@link ChangeMask#SELECTION} and
+     * {@link ChangeMask#EXPANSION} payloads, so `bindView` can bind only the affected views (see `ChangeMask.of`).
+     * NOTE: the ItemAnimator reuses the ViewHolder for changes with payloads, so the change is not cross faded anymore
+     *
+     * @param enabled true to notify state changes with payloads
+     * @return this
+     */
+    public FastAdapter<Item> withStateChangePayloads(boolean enabled) {
+        this.mStateChangePayloads = enabled;
+        return this;
+    }
+
+    /**
+     * @return true if selection and expansion changes are notified with payloads
+     */
+    public boolean isStateChangePayloads() {
+        return mStateChangePayloads;
+    }
+
+    /**
+     * enables or disables the global identifier index. it covers the items of all adapters and the non displayed sub
+     * items of collapsed parents, so `getItemById`, `SelectExtension.selectByIdentifier` and
+     * `ModelAdapter.removeByIdentifier` do not have to traverse all items for every lookup
+     *
+     * @param enabled true to enable the index
+     * @return this
+     */
+    public FastAdapter<Item> withItemIdentifierIndex(boolean enabled) {
+        if (!enabled) {
+            mItemIdentifierIndex = null;
+        } else if (mItemIdentifierIndex == null) {
+            mItemIdentifierIndex = new ItemIdentifierIndex<>(this);
+        }
+        return this;
+    }
+
+    /**
+     * @return the global identifier index, null if it is disabled
+     */
+    @Nullable
+    public ItemIdentifierIndex<Item> getItemIdentifierIndex() {
+        return mItemIdentifierIndex;
+    }
+
+    /**
+     * finds the first item (in the order of `traverse`) with the given identifier, including the non displayed sub
+     * items. uses the global identifier index if it is enabled
+     *
+     * @param identifier the identifier to search for
+     * @param match      receives the item, its (parent) adapter and its position (-1 if it is not displayed)
+     * @return true if an item was found
+     */
+    public boolean findByIdentifier(final long identifier, @NonNull TraversalMatch<Item> match) {
+        if (mItemIdentifierIndex != null) {
+            return mItemIdentifierIndex.find(identifier, match);
+        }
+        return traverse(new AdapterPredicate<Item>() {
+            @Override
+            public boolean apply(@NonNull IAdapter<Item> lastParentAdapter, int lastParentPosition, @NonNull Item item, int position) {
+                return item.getIdentifier() == identifier;
+            }
+        }, 0, true, match);
+    }
+
     /**
      * Sets an type instance cache to this fast adapter instance.
      * The cache will manage the type instances to create new views more efficient.
@@ -276,12 +426,38 @@ public class FastAdapter<Item extends IItem> extends RecyclerView.Adapter<Recycl
     }
 
     /**
-     * @return the eventHooks handled by this FastAdapter
+     * @return the eventHooks handled by this FastAdapter, which are bound to the ViewHolders of all types
      */
     public List<EventHook<Item>> getEventHooks() {
         return eventHooks;
     }
 
+    /**
+     * @param viewType the type of the ViewHolder
+     * @return the eventHooks to bind to a ViewHolder of the given type, the ones for all types followed by the ones
+     * registered for this type
+     */
+    @Nullable
+    public List<EventHook<Item>> getEventHooks(int viewType) {
+        List<EventHook<Item>> typedEventHooks = mTypedEventHooks != null ? mTypedEventHooks.get(viewType) : null;
+        if (typedEventHooks == null) {
+            return eventHooks;
+        }
+        if (mEventHooksByType == null) {
+            mEventHooksByType = new SparseArray<>();
+        }
+        List<EventHook<Item>> hooks = mEventHooksByType.get(viewType);
+        if (hooks == null) {
+            hooks = new ArrayList<>();
+            if (eventHooks != null) {
+                hooks.addAll(eventHooks);
+            }
+            hooks.addAll(typedEventHooks);
+            mEventHooksByType.put(viewType, hooks);
+        }
+        return hooks;
+    }
+
     /**
      * adds a new event hook for an item
      * NOTE: this has to be called before adding the first items, as this won't be called anymore after the ViewHolders were created
@@ -294,9 +470,22 @@ public class FastAdapter<Item extends IItem> extends RecyclerView.Adapter<Recycl
             eventHooks = new LinkedList<>();
         }
         eventHooks.add(eventHook);
+        mEventHooksByType = null;
         return this;
     }
 
+    /**
+     * adds a new event hook which is only bound to the ViewHolders of the given types
+     * NOTE: this has to be called before adding the first items, as this won't be called anymore after the ViewHolders were created
+     *
+     * @param eventHook the event hook to be added for an item
+     * @param viewTypes the types of the ViewHolders to bind the hook to, if none are given it is bound to all
+     * @return this
+     */
+    public FastAdapter<Item> withEventHook(EventHook<Item> eventHook, int... viewTypes) {
+        return withEventHooks(Collections.singletonList(eventHook), viewTypes);
+    }
+
     /**
      * adds new event hooks for an item
      * NOTE: this has to be called before adding the first items, as this won't be called anymore after the ViewHolders were created
@@ -312,6 +501,37 @@ public class FastAdapter<Item extends IItem> extends RecyclerView.Adapter<Recycl
             this.eventHooks = new LinkedList<>();
         }
         this.eventHooks.addAll(eventHooks);
+        mEventHooksByType = null;
+        return this;
+    }
+
+    /**
+     * adds new event hooks which are only bound to the ViewHolders of the given types
+     * NOTE: this has to be called before adding the first items, as this won't be called anymore after the ViewHolders were created
+     *
+     * @param eventHooks the event hooks to be added for an item
+     * @param viewTypes  the types of the ViewHolders to bind the hooks to, if none are given they are bound to all
+     * @return this
+     */
+    public FastAdapter<Item> withEventHooks(@Nullable Collection<? extends EventHook<Item>> eventHooks, int... viewTypes) {
+        if (eventHooks == null) {
+            return this;
+        }
+        if (viewTypes.length == 0) {
+            return withEventHooks(eventHooks);
+        }
+        if (mTypedEventHooks == null) {
+            mTypedEventHooks = new SparseArray<>();
+        }
+        for (int viewType : viewTypes) {
+            List<EventHook<Item>> typedEventHooks = mTypedEventHooks.get(viewType);
+            if (typedEventHooks == null) {
+                typedEventHooks = new ArrayList<>();
+                mTypedEventHooks.put(viewType, typedEventHooks);
+            }
+            typedEventHooks.addAll(eventHooks);
+        }
+        mEventHooksByType = null;
         return this;
     }
 
@@ -487,6 +707,27 @@ public class FastAdapter<Item extends IItem> extends RecyclerView.Adapter<Recycl
         return this;
     }
 
+    /**
+     * if set to `true` the default listeners and the event hooks are attached using one shared listener instance per
+     * kind of event. the viewHolder and the hook are stored as tags of the view instead, so creating a ViewHolder does
+     * not create any listener. `CustomEventHook`s are not affected
+     * NOTE the listeners are attached at ViewHolder creation time, so set this before the first ViewHolder is created
+     *
+     * @param sharedEventListeners true to use the shared listeners (default = false)
+     * @return this
+     */
+    public FastAdapter<Item> withSharedEventListeners(boolean sharedEventListeners) {
+        this.mSharedEventListeners = sharedEventListeners;
+        return this;
+    }
+
+    /**
+     * @return true if the event hooks are dispatched by shared listeners
+     */
+    public boolean isSharedEventListeners() {
+        return mSharedEventListeners;
+    }
+
     /**
      * set a listener that get's notified whenever an item is selected or deselected
      *
@@ -559,12 +800,59 @@ public class FastAdapter<Item extends IItem> extends RecyclerView.Adapter<Recycl
     public void registerTypeInstance(Item item) {
         if (getTypeInstanceCache().register(item)) {
             //check if the item implements hookable when its added for the first time
+            //its hooks are only bound to the ViewHolders of its type
             if (item instanceof IHookable) {
-                withEventHooks(((IHookable<Item>) item).getEventHooks());
+                withEventHooks(((IHookable<Item>) item).getEventHooks(), item.getType());
+            }
+            if (mPreInflatedViewPool != null) {
+                mPreInflatedViewPool.register(item);
             }
         }
     }
 
+    // the pool of views inflated in advance, null if disabled
+    private PreInflatedViewPool<Item> mPreInflatedViewPool;
+    // the RecyclerView this adapter was attached to last, a pool created afterwards is attached to it right away
+    private RecyclerView mRecyclerView;
+
+    /**
+     * inflates the given count of views for each registered type in the background once the adapter is attached to the
+     * RecyclerView (right away if it is attached already). `onCreateViewHolder` takes the views from this pool before it
+     * inflates them on the main thread. only supported for types extending `AbstractItem`
+     *
+     * @param viewsPerType the count of views to inflate in advance for each type, 0 to disable
+     * @return this
+     */
+    public FastAdapter<Item> withPreInflation(int viewsPerType) {
+        if (mPreInflatedViewPool != null) {
+            mPreInflatedViewPool.detach();
+        }
+        if (viewsPerType <= 0) {
+            mPreInflatedViewPool = null;
+            return this;
+        }
+        mPreInflatedViewPool = new PreInflatedViewPool<>(viewsPerType);
+        //register the types which are known already
+        if (getTypeInstanceCache() instanceof DefaultTypeInstanceCache) {
+            DefaultTypeInstanceCache<Item> typeInstanceCache = (DefaultTypeInstanceCache<Item>) getTypeInstanceCache();
+            for (int i = 0, size = typeInstanceCache.size(); i < size; i++) {
+                mPreInflatedViewPool.register(typeInstanceCache.valueAt(i));
+            }
+        }
+        if (mRecyclerView != null) {
+            mPreInflatedViewPool.attach(mRecyclerView);
+        }
+        return this;
+    }
+
+    /**
+     * @return the pool of views inflated in advance, null if the pre inflation is disabled
+     */
+    @Nullable
+    public PreInflatedViewPool<Item> getPreInflatedViewPool() {
+        return mPreInflatedViewPool;
+    }
+
     /**
      * gets the TypeInstance remembered within the FastAdapter for an item
      *
@@ -580,6 +868,9 @@ public class FastAdapter<Item extends IItem> extends RecyclerView.Adapter<Recycl
      */
     public void clearTypeInstance() {
         getTypeInstanceCache().clear();
+        if (mPreInflatedViewPool != null) {
+            mPreInflatedViewPool.clear();
+        }
     }
 
     /**
@@ -702,24 +993,34 @@ public class FastAdapter<Item extends IItem> extends RecyclerView.Adapter<Recycl
     @SuppressWarnings("unchecked")
     public RecyclerView.ViewHolder onCreateViewHolder(ViewGroup parent, int viewType) {
         if (mVerbose) Log.v(TAG, "onCreateViewHolder: " + viewType);
+        final AdapterStats stats = mStats;
+        final long start = stats != null ? stats.beginCreate(viewType) : 0;
+        //the trace section is closed even if the item fails to create its ViewHolder
+        try {
+            final RecyclerView.ViewHolder holder = mOnCreateViewHolderListener.onPreCreateViewHolder(this, parent, viewType);
+
+            //set the adapter
+            holder.itemView.setTag(R.id.fastadapter_item_adapter, FastAdapter.this);
+            //remember the type, the holder does not know it before it is returned
+            holder.itemView.setTag(R.id.fastadapter_item_view_type, viewType);
+
+            if (mAttachDefaultListeners) {
+                //handle click behavior
+                EventHookUtil.attachToView(fastAdapterViewClickListener, holder, holder.itemView, mSharedEventListeners);
+
+                //handle long click behavior
+                EventHookUtil.attachToView(fastAdapterViewLongClickListener, holder, holder.itemView, mSharedEventListeners);
+
+                //handle touch behavior
+                EventHookUtil.attachToView(fastAdapterViewTouchListener, holder, holder.itemView, mSharedEventListeners);
+            }
 
-        final RecyclerView.ViewHolder holder = mOnCreateViewHolderListener.onPreCreateViewHolder(this, parent, viewType);
-
-        //set the adapter
-        holder.itemView.setTag(R.id.fastadapter_item_adapter, FastAdapter.this);
-
-        if (mAttachDefaultListeners) {
-            //handle click behavior
-            EventHookUtil.attachToView(fastAdapterViewClickListener, holder, holder.itemView);
-
-            //handle long click behavior
-            EventHookUtil.attachToView(fastAdapterViewLongClickListener, holder, holder.itemView);
-
-            //handle touch behavior
-            EventHookUtil.attachToView(fastAdapterViewTouchListener, holder, holder.itemView);
+            return mOnCreateViewHolderListener.onPostCreateViewHolder(this, holder);
+        } finally {
+            if (stats != null) {
+                stats.endCreate(viewType, start);
+            }
         }
-
-        return mOnCreateViewHolderListener.onPostCreateViewHolder(this, holder);
     }
 
     /**
@@ -740,7 +1041,15 @@ public class FastAdapter<Item extends IItem> extends RecyclerView.Adapter<Recycl
             //set the R.id.fastadapter_item_adapter tag to the adapter so we always have the proper bound adapter available
             holder.itemView.setTag(R.id.fastadapter_item_adapter, this);
             //now we bind the item to this viewHolder
-            mOnBindViewHolderListener.onBindViewHolder(holder, position, Collections.EMPTY_LIST);
+            final AdapterStats stats = mStats;
+            final long start = stats != null ? stats.beginBind(holder.getItemViewType()) : 0;
+            try {
+                mOnBindViewHolderListener.onBindViewHolder(holder, position, Collections.EMPTY_LIST);
+            } finally {
+                if (stats != null) {
+                    stats.endBind(holder.getItemViewType(), start);
+                }
+            }
         }
     }
 
@@ -760,7 +1069,15 @@ public class FastAdapter<Item extends IItem> extends RecyclerView.Adapter<Recycl
             //set the R.id.fastadapter_item_adapter tag to the adapter so we always have the proper bound adapter available
             holder.itemView.setTag(R.id.fastadapter_item_adapter, this);
             //now we bind the item to this viewHolder
-            mOnBindViewHolderListener.onBindViewHolder(holder, position, payloads);
+            final AdapterStats stats = mStats;
+            final long start = stats != null ? stats.beginBind(holder.getItemViewType()) : 0;
+            try {
+                mOnBindViewHolderListener.onBindViewHolder(holder, position, payloads);
+            } finally {
+                if (stats != null) {
+                    stats.endBind(holder.getItemViewType(), start);
+                }
+            }
         }
         super.onBindViewHolder(holder, position, payloads);
     }
@@ -773,8 +1090,15 @@ public class FastAdapter<Item extends IItem> extends RecyclerView.Adapter<Recycl
     @Override
     public void onViewRecycled(RecyclerView.ViewHolder holder) {
         if (mVerbose) Log.v(TAG, "onViewRecycled: " + holder.getItemViewType());
+        final AdapterStats stats = mStats;
+        final long start = stats != null ? System.nanoTime() : 0;
         super.onViewRecycled(holder);
+        final long unbindStart = stats != null ? System.nanoTime() : 0;
         mOnBindViewHolderListener.unBindViewHolder(holder, holder.getAdapterPosition());
+        if (stats != null) {
+            stats.endUnbind(unbindStart);
+            stats.endRecycle(start);
+        }
     }
 
     /**
@@ -811,6 +1135,9 @@ public class FastAdapter<Item extends IItem> extends RecyclerView.Adapter<Recycl
     @Override
     public boolean onFailedToRecycleView(RecyclerView.ViewHolder holder) {
         if (mVerbose) Log.v(TAG, "onFailedToRecycleView: " + holder.getItemViewType());
+        if (mStats != null) {
+            mStats.onFailedToRecycle();
+        }
         return mOnBindViewHolderListener.onFailedToRecycleView(holder, holder.getAdapterPosition()) || super.onFailedToRecycleView(holder);
     }
 
@@ -818,12 +1145,22 @@ public class FastAdapter<Item extends IItem> extends RecyclerView.Adapter<Recycl
     public void onAttachedToRecyclerView(RecyclerView recyclerView) {
         if (mVerbose) Log.v(TAG, "onAttachedToRecyclerView");
         super.onAttachedToRecyclerView(recyclerView);
+        mRecyclerView = recyclerView;
+        if (mPreInflatedViewPool != null) {
+            mPreInflatedViewPool.attach(recyclerView);
+        }
     }
 
     @Override
     public void onDetachedFromRecyclerView(RecyclerView recyclerView) {
         if (mVerbose) Log.v(TAG, "onDetachedFromRecyclerView");
         super.onDetachedFromRecyclerView(recyclerView);
+        if (mRecyclerView == recyclerView) {
+            mRecyclerView = null;
+        }
+        if (mPreInflatedViewPool != null) {
+            mPreInflatedViewPool.detach();
+        }
     }
 
     /**
@@ -878,8 +1215,8 @@ public class FastAdapter<Item extends IItem> extends RecyclerView.Adapter<Recycl
             return null;
         }
         //now get the adapter which is responsible for the given position
-        int index = floorIndex(mAdapterSizes, position);
-        return mAdapterSizes.valueAt(index).getAdapterItem(position - mAdapterSizes.keyAt(index));
+        int index = mAdapterSizes.indexOf(position);
+        return mAdapters.get(index).getAdapterItem(position - mAdapterSizes.getPrefix(index));
     }
 
     /**
@@ -893,16 +1230,11 @@ public class FastAdapter<Item extends IItem> extends RecyclerView.Adapter<Recycl
         if (identifier == -1) {
             return null;
         }
-        Triple result = recursive(new AdapterPredicate() {
-            @Override
-            public boolean apply(@NonNull IAdapter lastParentAdapter, int lastParentPosition, @NonNull IItem item, int position) {
-                return item.getIdentifier() == identifier;
-            }
-        }, true);
-        if (result.second == null) {
+        TraversalMatch<Item> match = new TraversalMatch<>();
+        if (!findByIdentifier(identifier, match)) {
             return null;
         } else {
-            return new Pair(result.second, result.third);
+            return new Pair(match.item, match.position != -1 ? match.position : null);
         }
     }
 
@@ -919,10 +1251,10 @@ public class FastAdapter<Item extends IItem> extends RecyclerView.Adapter<Recycl
         }
 
         RelativeInfo<Item> relativeInfo = new RelativeInfo<>();
-        int index = floorIndex(mAdapterSizes, position);
-        if (index != -1) {
-            relativeInfo.item = mAdapterSizes.valueAt(index).getAdapterItem(position - mAdapterSizes.keyAt(index));
-            relativeInfo.adapter = mAdapterSizes.valueAt(index);
+        int index = mAdapterSizes.indexOf(position);
+        if (index < mAdapters.size()) {
+            relativeInfo.item = mAdapters.get(index).getAdapterItem(position - mAdapterSizes.getPrefix(index));
+            relativeInfo.adapter = mAdapters.get(index);
             relativeInfo.position = position;
         }
         return relativeInfo;
@@ -942,7 +1274,7 @@ public class FastAdapter<Item extends IItem> extends RecyclerView.Adapter<Recycl
         }
         if (mVerbose) Log.v(TAG, "getAdapter");
         //now get the adapter which is responsible for the given position
-        return mAdapterSizes.valueAt(floorIndex(mAdapterSizes, position));
+        return mAdapters.get(mAdapterSizes.indexOf(position));
     }
 
     /**
@@ -964,7 +1296,8 @@ public class FastAdapter<Item extends IItem> extends RecyclerView.Adapter<Recycl
      */
     @Override
     public long getItemId(int position) {
-        return getItem(position).getIdentifier();
+        int index = mAdapterSizes.indexOf(position);
+        return mAdapters.get(index).getAdapterItemIdentifier(position - mAdapterSizes.getPrefix(index));
     }
 
     /**
@@ -988,15 +1321,8 @@ public class FastAdapter<Item extends IItem> extends RecyclerView.Adapter<Recycl
             return 0;
         }
 
-        int size = 0;
-
-        //count the number of items before the adapter with the given order
-        for (int i = 0; i < Math.min(order, mAdapters.size()); i++) {
-            size = size + mAdapters.get(i).getAdapterItemCount();
-        }
-
         //get the count of items which are before this order
-        return size;
+        return mAdapterSizes.getPrefix(order);
     }
 
 
@@ -1012,8 +1338,11 @@ public class FastAdapter<Item extends IItem> extends RecyclerView.Adapter<Recycl
             return 0;
         }
 
+        //find the adapter holding this position, or the last adapter with items if the position is out of range
+        int index = mAdapterSizes.indexOf(Math.min(position, mGlobalSize - 1));
+
         //get the count of items which are before this order
-        return mAdapterSizes.keyAt(floorIndex(mAdapterSizes, position));
+        return mAdapterSizes.getPrefix(index);
     }
 
 
@@ -1050,22 +1379,50 @@ public class FastAdapter<Item extends IItem> extends RecyclerView.Adapter<Recycl
      * we cache the sizes of our adapters so get accesses are faster
      */
     protected void cacheSizes() {
-        mAdapterSizes.clear();
-        int size = 0;
+        int count = mAdapters.size();
+        if (mAdapterSizesBuffer.length < count) {
+            mAdapterSizesBuffer = new int[count];
+        }
+        for (int i = 0; i < count; i++) {
+            mAdapterSizesBuffer[i] = mAdapters.get(i).getAdapterItemCount();
+        }
+        mAdapterSizes.setSizes(mAdapterSizesBuffer, count);
+        mGlobalSize = mAdapterSizes.getTotal();
+    }
 
-        for (IAdapter<Item> adapter : mAdapters) {
-            if (adapter.getAdapterItemCount() > 0) {
-                mAdapterSizes.append(size, adapter);
-                size = size + adapter.getAdapterItemCount();
-            }
+    /**
+     * updates the cached sizes after a range of items was inserted or removed. only the adapters touching the
+     * given position are checked, so this is O(log A). if the sizes do not add up (e.g. the adapter was modified
+     * without notifying each change) all sizes are cached again
+     *
+     * @param position  the global position where the items were inserted or removed
+     * @param itemCount the count of items inserted (positive) or removed (negative)
+     */
+    private void updateCachedSizes(int position, int itemCount) {
+        int count = mAdapters.size();
+        if (count != mAdapterSizes.getCount() || position < 0) {
+            cacheSizes();
+            return;
         }
 
-        //we also have to add this for the first adapter otherwise the floorIndex method will return the wrong value
-        if (size == 0 && mAdapters.size() > 0) {
-            mAdapterSizes.append(0, mAdapters.get(0));
+        //the adapters which may hold the position are the one ending at it and all starting at it
+        int end = itemCount < 0 ? position - itemCount : position;
+        int index = position > 0 ? mAdapterSizes.indexOf(position - 1) : 0;
+        while (index < count && mAdapterSizes.getPrefix(index) <= end) {
+            int size = mAdapters.get(index).getAdapterItemCount();
+            if (size != mAdapterSizes.getSize(index)) {
+                //a single change only touches one adapter
+                mAdapterSizes.setSize(index, size);
+                break;
+            }
+            index++;
         }
 
-        mGlobalSize = size;
+        if (mAdapterSizes.getTotal() != mGlobalSize + itemCount) {
+            cacheSizes();
+        } else {
+            mGlobalSize = mAdapterSizes.getTotal();
+        }
     }
 
     //-------------------------
@@ -1273,16 +1630,70 @@ public class FastAdapter<Item extends IItem> extends RecyclerView.Adapter<Recycl
     //-------------------------
     //-------------------------
 
+    /**
+     * runs the given updates as one transaction, see {@link #beginUpdate()}
+     *
+     * @param updates the updates to run
+     */
+    public void batch(@NonNull Runnable updates) {
+        beginUpdate();
+        try {
+            updates.run();
+        } finally {
+            endUpdate();
+        }
+    }
+
+    /**
+     * starts a transaction. until the matching {@link #endUpdate()} the notifications of the RecyclerView are
+     * recorded, merged where possible (e.g. adjacent removes) and dispatched at once when the transaction ends.
+     * the cached sizes and the extensions are still updated with every notification, so positions can be used within
+     * the transaction as usual. transactions can be nested, only the outermost one dispatches
+     */
+    public void beginUpdate() {
+        mUpdateDepth++;
+    }
+
+    /**
+     * ends a transaction started with {@link #beginUpdate()}. the outermost one caches the sizes of all adapters again
+     * and dispatches the recorded notifications to the RecyclerView
+     */
+    public void endUpdate() {
+        if (mUpdateDepth == 0) {
+            throw new IllegalStateException("endUpdate() called without beginUpdate()");
+        }
+        if (--mUpdateDepth > 0) {
+            return;
+        }
+        cacheSizes();
+        mUpdateBatch.dispatchTo(mUpdateDispatcher);
+    }
+
+    /**
+     * @return true if a transaction is running
+     */
+    public boolean isUpdating() {
+        return mUpdateDepth > 0;
+    }
+
     /**
      * wraps notifyDataSetChanged
      */
     public void notifyAdapterDataSetChanged() {
+        //update the sizes first, so the extensions can already access the new items
+        cacheSizes();
         // handle our extensions
         for (IAdapterExtension<Item> ext : mExtensions.values()) {
             ext.notifyAdapterDataSetChanged();
         }
-        cacheSizes();
-        notifyDataSetChanged();
+        if (mItemIdentifierIndex != null) {
+            mItemIdentifierIndex.invalidate();
+        }
+        if (mUpdateDepth > 0) {
+            mUpdateBatch.dataSetChanged();
+        } else {
+            mUpdateDispatcher.onDataSetChanged();
+        }
     }
 
     /**
@@ -1301,12 +1712,20 @@ public class FastAdapter<Item extends IItem> extends RecyclerView.Adapter<Recycl
      * @param itemCount the count of items inserted
      */
     public void notifyAdapterItemRangeInserted(int position, int itemCount) {
+        //update the sizes first, so the extensions can already access the new items
+        updateCachedSizes(position, itemCount);
         // handle our extensions
         for (IAdapterExtension<Item> ext : mExtensions.values()) {
             ext.notifyAdapterItemRangeInserted(position, itemCount);
         }
-        cacheSizes();
-        notifyItemRangeInserted(position, itemCount);
+        if (mItemIdentifierIndex != null) {
+            mItemIdentifierIndex.onInserted(position, itemCount);
+        }
+        if (mUpdateDepth > 0) {
+            mUpdateBatch.inserted(position, itemCount);
+        } else {
+            mUpdateDispatcher.onInserted(position, itemCount);
+        }
     }
 
     /**
@@ -1325,13 +1744,52 @@ public class FastAdapter<Item extends IItem> extends RecyclerView.Adapter<Recycl
      * @param itemCount the count of items removed
      */
     public void notifyAdapterItemRangeRemoved(int position, int itemCount) {
+        //update the sizes first, so the extensions can already access the remaining items
+        updateCachedSizes(position, -itemCount);
         // handle our extensions
         for (IAdapterExtension<Item> ext : mExtensions.values()) {
             ext.notifyAdapterItemRangeRemoved(position, itemCount);
         }
+        if (mItemIdentifierIndex != null) {
+            mItemIdentifierIndex.onRemoved(position, itemCount);
+        }
+        if (mUpdateDepth > 0) {
+            mUpdateBatch.removed(position, itemCount);
+        } else {
+            mUpdateDispatcher.onRemoved(position, itemCount);
+        }
+    }
 
-        cacheSizes();
-        notifyItemRangeRemoved(position, itemCount);
+    /**
+     * notifies several ranges removed at once, after the items of all of them were removed. the extensions and the
+     * identifier index handle all ranges in one pass, the RecyclerView is notified about every range within one
+     * transaction
+     *
+     * @param ranges the global start and count of every range, one after the other in ascending order
+     */
+    public void notifyAdapterItemRangesRemoved(int[] ranges) {
+        if (ranges.length == 0) {
+            return;
+        }
+        int removedCount = 0;
+        for (int i = 1; i < ranges.length; i += 2) {
+            removedCount += ranges[i];
+        }
+        //update the sizes first, so the extensions can already access the remaining items
+        updateCachedSizes(ranges[0], -removedCount);
+        // handle our extensions
+        for (IAdapterExtension<Item> ext : mExtensions.values()) {
+            ext.notifyAdapterItemRangesRemoved(ranges);
+        }
+        if (mItemIdentifierIndex != null) {
+            mItemIdentifierIndex.onRangesRemoved(ranges);
+        }
+        beginUpdate();
+        //from the last one, so the positions of the ranges before stay valid
+        for (int i = ranges.length - 2; i >= 0; i -= 2) {
+            mUpdateBatch.removed(ranges[i], ranges[i + 1]);
+        }
+        endUpdate();
     }
 
     /**
@@ -1345,7 +1803,14 @@ public class FastAdapter<Item extends IItem> extends RecyclerView.Adapter<Recycl
         for (IAdapterExtension<Item> ext : mExtensions.values()) {
             ext.notifyAdapterItemMoved(fromPosition, toPosition);
         }
-        notifyItemMoved(fromPosition, toPosition);
+        if (mItemIdentifierIndex != null) {
+            mItemIdentifierIndex.onMoved(fromPosition, toPosition);
+        }
+        if (mUpdateDepth > 0) {
+            mUpdateBatch.moved(fromPosition, toPosition);
+        } else {
+            mUpdateDispatcher.onMoved(fromPosition, toPosition);
+        }
     }
 
     /**
@@ -1389,10 +1854,60 @@ public class FastAdapter<Item extends IItem> extends RecyclerView.Adapter<Recycl
         for (IAdapterExtension<Item> ext : mExtensions.values()) {
             ext.notifyAdapterItemRangeChanged(position, itemCount, payload);
         }
-        if (payload == null) {
-            notifyItemRangeChanged(position, itemCount);
+        if (mItemIdentifierIndex != null) {
+            mItemIdentifierIndex.onChanged(position, itemCount);
+        }
+        if (mUpdateDepth > 0) {
+            mUpdateBatch.changed(position, itemCount, payload);
         } else {
-            notifyItemRangeChanged(position, itemCount, payload);
+            mUpdateDispatcher.onChanged(position, itemCount, payload);
+        }
+    }
+
+    /**
+     * notifies only the RecyclerView (not the extensions) about a changed item, e.g. about its changed selection or
+     * expanded state. within a transaction the notification is recorded in order with all others
+     *
+     * @param position the global position
+     */
+    public void notifyViewItemChanged(int position) {
+        notifyViewItemChanged(position, null);
+    }
+
+    /**
+     * notifies only the RecyclerView (not the extensions) about a changed item, see {@link #notifyViewItemChanged(int)}
+     *
+     * @param position the global position
+     * @param payload  additional payload
+     */
+    public void notifyViewItemChanged(int position, @Nullable Object payload) {
+        if (mUpdateDepth > 0) {
+            mUpdateBatch.changed(position, 1, payload);
+        } else {
+            mUpdateDispatcher.onChanged(position, 1, payload);
+        }
+    }
+
+    /**
+     * notifies only the RecyclerView (not the extensions) about a changed state of an item (e.g. its selection). the
+     * mask is sent as {@link ChangeMask} payload if {@link #withStateChangePayloads(boolean)} is enabled
+     *
+     * @param position the global position
+     * @param mask     the changed state, e.g. {@link ChangeMask#SELECTION}
+     */
+    public void notifyViewItemStateChanged(int position, long mask) {
+        notifyViewItemChanged(position, mStateChangePayloads ? ChangeMask.payload(mask) : null);
+    }
+
+    /**
+     * notifies only the RecyclerView (not the extensions) that all items have to be bound again. within a transaction
+     * the notification is recorded in order with all others
+     */
+    public void notifyViewDataSetChanged() {
+        if (mUpdateDepth > 0) {
+            mUpdateBatch.dataSetChanged();
+        } else {
+            mUpdateDispatcher.onDataSetChanged();
         }
     }
 
@@ -1479,24 +1994,67 @@ public class FastAdapter<Item extends IItem> extends RecyclerView.Adapter<Recycl
      */
     @NonNull
     public Triple<Boolean, Item, Integer> recursive(AdapterPredicate<Item> predicate, int globalStartPosition, boolean stopOnMatch) {
-        for (int i = globalStartPosition; i < getItemCount(); i++) {
-            //retrieve the item + it's adapter
-            RelativeInfo<Item> relativeInfo = getRelativeInfo(i);
-            Item item = relativeInfo.item;
+        if (!stopOnMatch) {
+            traverse(predicate, globalStartPosition, false, null);
+            return new Triple<>(false, null, null);
+        }
+        TraversalMatch<Item> match = new TraversalMatch<>();
+        if (traverse(predicate, globalStartPosition, true, match)) {
+            return new Triple<>(true, match.item, match.position != -1 ? match.position : null);
+        }
+        return new Triple<>(false, null, null);
+    }
 
-            if (predicate.apply(relativeInfo.adapter, i, item, i) && stopOnMatch) {
-                return new Triple<>(true, item, i);
-            }
+    /**
+     * iterates over all items and subItems like {@link #recursive(AdapterPredicate, boolean)}, but without allocating
+     * anything per item
+     *
+     * @param predicate   the predicate to run on every item, to check for a match or do some changes (e.g. select)
+     * @param stopOnMatch defines if we should stop iterating after the first match
+     * @return true if the predicate matched and stopOnMatch is set
+     */
+    public boolean traverse(AdapterPredicate<Item> predicate, boolean stopOnMatch) {
+        return traverse(predicate, 0, stopOnMatch, null);
+    }
 
-            if (item instanceof IExpandable) {
-                Triple<Boolean, Item, Integer> res = FastAdapter.recursiveSub(relativeInfo.adapter, i, (IExpandable) item, predicate, stopOnMatch);
-                if (res.first && stopOnMatch) {
-                    return res;
+    /**
+     * iterates over all items and subItems like {@link #recursive(AdapterPredicate, int, boolean)}, but without
+     * allocating anything per item. the adapters are walked directly instead of resolving every global position
+     *
+     * @param predicate           the predicate to run on every item, to check for a match or do some changes (e.g. select)
+     * @param globalStartPosition the start position at which we start to iterate over the items. (This will not stop at the end of a sub hierarchy!)
+     * @param stopOnMatch         defines if we should stop iterating after the first match
+     * @param match               receives the matched item and its position if stopOnMatch is set, may be null
+     * @return true if the predicate matched and stopOnMatch is set
+     */
+    public boolean traverse(AdapterPredicate<Item> predicate, int globalStartPosition, boolean stopOnMatch, @Nullable TraversalMatch<Item> match) {
+        if (match != null) {
+            match.clear();
+        }
+        if (globalStartPosition < 0 || globalStartPosition >= mGlobalSize) {
+            return false;
+        }
+        for (int index = mAdapterSizes.indexOf(globalStartPosition); index < mAdapters.size(); index++) {
+            IAdapter<Item> adapter = mAdapters.get(index);
+            int preItemCount = mAdapterSizes.getPrefix(index);
+            //the predicate may modify the adapter, so the count is read for every item
+            for (int i = Math.max(0, globalStartPosition - preItemCount); i < adapter.getAdapterItemCount(); i++) {
+                int position = preItemCount + i;
+                Item item = adapter.getAdapterItem(i);
+
+                if (predicate.apply(adapter, position, item, position) && stopOnMatch) {
+                    if (match != null) {
+                        match.set(adapter, item, position);
+                    }
+                    return true;
+                }
+
+                if (item instanceof IExpandable && traverseSub(adapter, position, (IExpandable) item, predicate, stopOnMatch, match)) {
+                    return true;
                 }
             }
         }
-
-        return new Triple<>(false, null, null);
+        return false;
     }
 
     /**
@@ -1511,26 +2069,42 @@ public class FastAdapter<Item extends IItem> extends RecyclerView.Adapter<Recycl
      * @param <Item>             the type of the `Item`
      * @return Triple&lt;Boolean, IItem, Integer&gt; The first value is true (it is always not null), the second contains the item and the third the position (if the item is visible) if we had a match, (always false and null and null in case of stopOnMatch == false)
      */
-    @SuppressWarnings("unchecked")
     public static <Item extends IItem> Triple<Boolean, Item, Integer> recursiveSub(IAdapter<Item> lastParentAdapter, int lastParentPosition, IExpandable parent, AdapterPredicate<Item> predicate, boolean stopOnMatch) {
+        TraversalMatch<Item> match = stopOnMatch ? new TraversalMatch<Item>() : null;
+        if (traverseSub(lastParentAdapter, lastParentPosition, parent, predicate, stopOnMatch, match)) {
+            return new Triple<>(true, match.item, null);
+        }
+        return new Triple<>(false, null, null);
+    }
+
+    /**
+     * iterates over all items of a `IExpandable` parent like {@link #recursiveSub(IAdapter, int, IExpandable, AdapterPredicate, boolean)},
+     * but without allocating anything per item
+     *
+     * @param match receives the matched item if stopOnMatch is set, may be null
+     * @return true if the predicate matched and stopOnMatch is set
+     */
+    @SuppressWarnings("unchecked")
+    public static <Item extends IItem> boolean traverseSub(IAdapter<Item> lastParentAdapter, int lastParentPosition, IExpandable parent, AdapterPredicate<Item> predicate, boolean stopOnMatch, @Nullable TraversalMatch<Item> match) {
         //in case it's expanded it can be selected via the normal way
         if (!parent.isExpanded() && parent.getSubItems() != null) {
-            for (int ii = 0; ii < parent.getSubItems().size(); ii++) {
-                Item sub = (Item) parent.getSubItems().get(ii);
+            List<Item> subItems = parent.getSubItems();
+            for (int ii = 0; ii < subItems.size(); ii++) {
+                Item sub = subItems.get(ii);
 
                 if (predicate.apply(lastParentAdapter, lastParentPosition, sub, -1) && stopOnMatch) {
-                    return new Triple<>(true, sub, null);
+                    if (match != null) {
+                        match.set(lastParentAdapter, sub, -1);
+                    }
+                    return true;
                 }
 
-                if (sub instanceof IExpandable) {
-                    Triple<Boolean, Item, Integer> res = FastAdapter.recursiveSub(lastParentAdapter, lastParentPosition, (IExpandable) sub, predicate, stopOnMatch);
-                    if (res.first) {
-                        return res;
-                    }
+                if (sub instanceof IExpandable && traverseSub(lastParentAdapter, lastParentPosition, (IExpandable) sub, predicate, stopOnMatch, match)) {
+                    return true;
                 }
             }
         }
-        return new Triple<>(false, null, null);
+        return false;
     }
 
     /**
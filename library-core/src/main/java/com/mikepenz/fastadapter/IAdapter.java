@@ -58,6 +58,14 @@ public interface IAdapter<Item extends IItem> {
      */
     Item getAdapterItem(int index);
 
+    /**
+     * @param index the relative position
+     * @return the identifier of the item at the given relative position, used for the stable ids of the `RecyclerView`
+     */
+    default long getAdapterItemIdentifier(int index) {
+        return getAdapterItem(index).getIdentifier();
+    }
+
     /**
      * Searches for the given item and calculates its relative position
      *
@@ -31,6 +31,18 @@ public interface IAdapterExtension<Item extends IItem> {
 
     void notifyAdapterItemRangeRemoved(int position, int itemCount);
 
+    /**
+     * called after several ranges were removed at once, the items are removed already. by default every range is passed
+     * to {@link #notifyAdapterItemRangeRemoved(int, int)}, starting with the last one
+     *
+     * @param ranges the global start and count of every range, one after the other in ascending order
+     */
+    default void notifyAdapterItemRangesRemoved(int[] ranges) {
+        for (int i = ranges.length - 2; i >= 0; i -= 2) {
+            notifyAdapterItemRangeRemoved(ranges[i], ranges[i + 1]);
+        }
+    }
+
     void notifyAdapterItemMoved(int fromPosition, int toPosition);
 
     void notifyAdapterItemRangeChanged(int position, int itemCount, @Nullable Object payload);
@@ -114,5 +114,25 @@ public interface IItemAdapter<Model, Item extends IItem> extends IAdapter<Item>
          * @return true if it should stay. false if it should get filtered away
          */
         boolean filter(Item item, @Nullable CharSequence constraint);
+
+        /**
+         * tells if a constraint can only match a subset of the items matched by a previous constraint (e.g. "abc" after
+         * "ab" for a contains check). the ItemFilter then filters only the previous result
+         *
+         * @param previous   the constraint used for the previous result
+         * @param constraint the new constraint
+         * @return true if every item matching the new constraint also matched the previous one. DEFAULT: false
+         */
+        default boolean isNarrowing(CharSequence previous, CharSequence constraint) {
+            return false;
+        }
+    }
+
+    /**
+     * a predicate which has to declare when a constraint narrows the previous one
+     */
+    interface NarrowingPredicate<Item extends IItem> extends Predicate<Item> {
+        @Override
+        boolean isNarrowing(CharSequence previous, CharSequence constraint);
     }
 }
@@ -22,6 +22,18 @@ public interface IItemList<Item> {
 
     void removeRange(int position, int itemCount, int preItemCount);
 
+    /**
+     * removes several ranges, by default one after the other starting with the last one
+     *
+     * @param ranges       the global start and count of every range, one after the other in ascending order
+     * @param preItemCount the count of items before this list
+     */
+    default void removeRanges(int[] ranges, int preItemCount) {
+        for (int i = ranges.length - 2; i >= 0; i -= 2) {
+            removeRange(ranges[i], ranges[i + 1], preItemCount);
+        }
+    }
+
     void move(int fromPosition, int toPosition, int preItemCount);
 
     int size();
@@ -42,5 +54,21 @@ public interface IItemList<Item> {
 
     List<Item> getItems();
 
+    /**
+     * @return false if the items can't be filtered by the `ItemFilter`, e.g. as they are created or loaded on demand
+     */
+    default boolean isFilterable() {
+        return true;
+    }
+
     Item get(int position);
+
+    /**
+     * @param position the relative position
+     * @return the identifier of the item at the position, lists which create their items on demand may read it
+     * without creating the item
+     */
+    default long getIdentifier(int position) {
+        return ((IIdentifyable<?>) get(position)).getIdentifier();
+    }
 }
@@ -1,20 +1,34 @@
 package com.mikepenz.fastadapter.adapters;
 
+import android.os.Handler;
+import android.os.Looper;
+import androidx.annotation.MainThread;
 import androidx.annotation.Nullable;
 import android.widget.Filter;
 
+import com.mikepenz.fastadapter.FastAdapter;
 import com.mikepenz.fastadapter.IAdapterExtension;
+import com.mikepenz.fastadapter.IAdapterNotifier;
 import com.mikepenz.fastadapter.IItem;
 import com.mikepenz.fastadapter.IItemAdapter;
 import com.mikepenz.fastadapter.listeners.ItemFilterListener;
 import com.mikepenz.fastadapter.utils.ComparableItemListImpl;
+import com.mikepenz.fastadapter.utils.FilterState;
+import com.mikepenz.fastadapter.utils.IdentifierIndex;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static java.util.Arrays.asList;
 
@@ -23,6 +37,9 @@ import static java.util.Arrays.asList;
  * This calls automatically all required methods, just overwrite the filterItems method
  */
 public class ItemFilter<Model, Item extends IItem> extends Filter {
+    //the executor shared by all filters which do not define their own
+    private static Executor sDefaultExecutor;
+
     private List<Item> mOriginalItems;
 
     ///[ADD#ItemFilter#mOriginalItems]
@@ -31,16 +48,21 @@ public class ItemFilter<Model, Item extends IItem> extends Filter {
     }
     public void setOriginalItems(List<Item> originalItems) {
         this.mOriginalItems = originalItems;
+        onOriginalItemsChanged();
     }
     public void sortOriginalItems() {
         if (mItemAdapter.getItemList() instanceof ComparableItemListImpl && mOriginalItems != null && mOriginalItems.size() > 0) {
             Comparator<Item> comparator = ((ComparableItemListImpl<Item>) mItemAdapter.getItemList()).getComparator();
             if (comparator != null) {
                 Collections.sort(mOriginalItems, comparator);
+                onOriginalItemsChanged();
             }
         }
     }
 
+    //maps the identifiers of the original items to their position, only used if the adapter uses an identifier index
+    private IdentifierIndex mOriginalItemsIndex;
+
     private CharSequence mConstraint;
     private ModelAdapter<?, Item> mItemAdapter;
 
@@ -71,18 +93,182 @@ public class ItemFilter<Model, Item extends IItem> extends Filter {
      */
     public ItemFilter<Model, Item> withFilterPredicate(IItemAdapter.Predicate<Item> filterPredicate) {
         this.mFilterPredicate = filterPredicate;
+        invalidateLastResult();
+        return this;
+    }
+
+    //if true a narrowed constraint only filters the previous result instead of all original items
+    private boolean mIncrementalFiltering = false;
+    //the generations of the filterings and the last result, reused by the incremental filtering
+    private final FilterState<Item> mState = new FilterState<>();
+
+    /**
+     * enables the incremental filtering. if the predicate declares the new constraint as narrowing the previous one
+     * ({@link IItemAdapter.Predicate#isNarrowing(CharSequence, CharSequence)}), only the items of the previous result
+     * are filtered.
+     * NOTE if items are modified without using this filter, call `invalidateLastResult()`
+     *
+     * @param incrementalFiltering true to reuse the previous result
+     * @return this
+     */
+    public ItemFilter<Model, Item> withIncrementalFiltering(boolean incrementalFiltering) {
+        this.mIncrementalFiltering = incrementalFiltering;
+        invalidateLastResult();
+        return this;
+    }
+
+    //the index used to find the items containing the constraint
+    private ItemSearchIndex<Item> mSearchIndex;
+
+    /**
+     * defines a search index, the items are then filtered to the ones whose text contains the constraint (ignoring the
+     * case) before the filter predicate (if any) is applied. the index is built once the original items are captured
+     * and updated by the modifications of this filter
+     *
+     * @param textExtractor extracts the text to index for an item, null to remove the index
+     * @return this
+     */
+    public ItemFilter<Model, Item> withSearchIndex(@Nullable ItemSearchIndex.TextExtractor<Item> textExtractor) {
+        this.mSearchIndex = textExtractor != null ? new ItemSearchIndex<>(textExtractor) : null;
+        invalidateLastResult();
+        return this;
+    }
+
+    /**
+     * @return the search index or null if none is used
+     */
+    @Nullable
+    public ItemSearchIndex<Item> getSearchIndex() {
+        return mSearchIndex;
+    }
+
+    /**
+     * forgets the previous result, so the next filtering checks all original items again
+     */
+    public void invalidateLastResult() {
+        mState.invalidateLastResult();
+    }
+
+    //the executor used by `filterAsync`
+    private Executor mExecutor;
+    //the executor used to filter chunks of big lists in parallel, and the minimum count of items to do so
+    private ExecutorService mParallelExecutor;
+    private int mParallelThreshold;
+    private Handler mMainHandler;
+
+    /**
+     * defines the executor used by `filterAsync`. by default a single background thread shared by all filters is used
+     *
+     * @param executor the executor to filter on
+     * @return this
+     */
+    public ItemFilter<Model, Item> withExecutor(Executor executor) {
+        checkExecutors(executor, mParallelExecutor);
+        this.mExecutor = executor;
+        return this;
+    }
+
+    /**
+     * splits the evaluation of the filter predicate into chunks which are evaluated in parallel, if at least `threshold`
+     * items have to be checked. the predicate has to be thread safe.
+     * NOTE the executor can't be the one used by `filterAsync`, the filtering waits for the chunks on it
+     *
+     * @param executor  the executor to evaluate the chunks on, null to disable the parallel filtering
+     * @param threshold the minimum count of items to filter in parallel
+     * @return this
+     */
+    public ItemFilter<Model, Item> withParallelFiltering(@Nullable ExecutorService executor, int threshold) {
+        checkExecutors(mExecutor, executor);
+        this.mParallelExecutor = executor;
+        this.mParallelThreshold = threshold;
+        return this;
+    }
+
+    /**
+     * filters the items on the executor and publishes the results on the main thread.
+     * the results are dropped if another filtering was started or the items were modified in the meantime
+     *
+     * @param constraint the constraint used to filter the items
+     */
+    @MainThread
+    public void filterAsync(@Nullable final CharSequence constraint) {
+        //return nothing
+        if (mOriginalItems == null && (constraint == null || constraint.length() == 0)) {
+            cancelFiltering();
+            return;
+        }
+
+        prepareFiltering(constraint);
+        //capturing the original items may have invalidated the generation
+        final int generation = mState.nextGeneration();
+        final int lastResultGeneration = mState.getLastResultGeneration();
+        //filter a snapshot, the original items may be modified on the main thread in the meantime
+        final List<Item> originalItems = new ArrayList<>(mOriginalItems);
+        //without a predicate and index the shown items are kept
+        final List<Item> shownItems = mFilterPredicate == null && mSearchIndex == null ? new ArrayList<>(mItemAdapter.getAdapterItems()) : null;
+        final Handler mainHandler = getMainHandler();
+
+        getExecutor().execute(new Runnable() {
+            @Override
+            public void run() {
+                if (!mState.isCurrent(generation)) {
+                    return;
+                }
+                final FilterResults results = filterItems(originalItems, shownItems, constraint, generation, lastResultGeneration);
+                mainHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (mState.isCurrent(generation)) {
+                            publishResults(constraint, results);
+                        }
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * drops the results of a running `filterAsync`
+     */
+    public void cancelFiltering() {
+        mState.nextGeneration();
+    }
+
+    //if true only the ranges which were filtered in or out are notified when the results are published
+    private boolean mMinimalPublish = false;
+
+    /**
+     * defines how the filtered items are published. by default all remaining items are notified as changed, with this
+     * enabled only the removed and inserted ranges are notified, so unchanged rows are not bound again and keep their
+     * animations. if the remaining items changed their order a full update is notified
+     *
+     * @param minimalPublish true to only notify the removed and inserted ranges
+     * @return this
+     */
+    public ItemFilter<Model, Item> withMinimalPublish(boolean minimalPublish) {
+        this.mMinimalPublish = minimalPublish;
         return this;
     }
 
     @Override
     public FilterResults performFiltering(@Nullable CharSequence constraint) {
-        FilterResults results = new FilterResults();
+        //a synchronous filtering supersedes a running `filterAsync`
+        mState.nextGeneration();
 
         //return nothing
         if (mOriginalItems == null && (constraint == null || constraint.length() == 0)) {
-            return results;
+            return new FilterResults();
         }
 
+        prepareFiltering(constraint);
+        return filterItems(mOriginalItems, mItemAdapter.getAdapterItems(), constraint, mState.getGeneration(), mState.getLastResultGeneration());
+    }
+
+    /**
+     * calls the extensions and captures the original items before filtering
+     */
+    private void prepareFiltering(@Nullable CharSequence constraint) {
+        checkFilterable();
         //call extensions
         for (IAdapterExtension<Item> ext : mItemAdapter.getFastAdapter().getExtensions()) {
             ext.performFiltering(constraint);
@@ -92,32 +278,76 @@ public class ItemFilter<Model, Item extends IItem> extends Filter {
 
         if (mOriginalItems == null) {
             mOriginalItems = new ArrayList<>(mItemAdapter.getAdapterItems());
+            onOriginalItemsChanged();
+        }
+    }
+
+    /**
+     * @throws UnsupportedOperationException if the item list of the adapter can't be filtered
+     */
+    void checkFilterable() {
+        if (!mItemAdapter.getItemList().isFilterable()) {
+            throw new UnsupportedOperationException("the items of a " + mItemAdapter.getItemList().getClass().getSimpleName() + " can't be filtered");
         }
+    }
+
+    /**
+     * filters the given original items, this may run on a background thread. a stale filtering returns no values
+     *
+     * @param shownItems           the items shown before, kept if there is neither a predicate nor a search index
+     * @param generation           the generation of this filtering
+     * @param lastResultGeneration the generation of the last result when the original items were captured
+     */
+    private FilterResults filterItems(List<Item> originalItems, List<Item> shownItems, @Nullable CharSequence constraint, int generation, int lastResultGeneration) {
+        FilterResults results = new FilterResults();
 
         // We implement here the filter logic
         if (constraint == null || constraint.length() == 0) {
             // No filter implemented we return all the list
-            results.values = mOriginalItems;
-            results.count = mOriginalItems.size();
+            results.values = originalItems;
+            results.count = originalItems.size();
             ///[FIX#ItemFilter#mOriginalItems = null]
 //            //our filter was cleared we can now forget the old OriginalItems
 //            mOriginalItems = null;
 
-            if (mItemFilterListener != null) {
-                mItemFilterListener.onReset();
-            }
+            //the listener is called by `publishResults`, on the main thread
         } else {
             List<Item> filteredItems = new ArrayList<>();
 
             // We perform filtering operation
             if (mFilterPredicate != null) {
-                for (Item item : mOriginalItems) {
-                    if (mFilterPredicate.filter(item, constraint)) {
-                        filteredItems.add(item);
+                //only the items of the previous result can match a narrowed constraint
+                List<Item> candidates = originalItems;
+                //a result stored by a stale filtering or before the items were modified is ignored
+                FilterState.LastResult<Item> lastResult = mState.getLastResult(lastResultGeneration);
+                if (mIncrementalFiltering && lastResult != null && mFilterPredicate != null
+                        && mFilterPredicate.isNarrowing(lastResult.constraint, constraint)) {
+                    candidates = lastResult.items;
+                } else if (mSearchIndex != null) {
+                    candidates = searchIndex(originalItems, constraint, generation);
+                    if (candidates == null) {
+                        return results;
                     }
                 }
+                if (mParallelExecutor != null && candidates.size() >= mParallelThreshold) {
+                    filteredItems = filterParallel(candidates, constraint);
+                } else {
+                    for (Item item : candidates) {
+                        if (mFilterPredicate.filter(item, constraint)) {
+                            filteredItems.add(item);
+                        }
+                    }
+                }
+                if (mIncrementalFiltering) {
+                    mState.setLastResult(lastResultGeneration, constraint.toString(), new ArrayList<>(filteredItems));
+                }
+            } else if (mSearchIndex != null) {
+                filteredItems = searchIndex(originalItems, constraint, generation);
+                if (filteredItems == null) {
+                    return results;
+                }
             } else {
-                filteredItems = mItemAdapter.getAdapterItems();
+                filteredItems = shownItems;
             }
 
             results.values = filteredItems;
@@ -126,6 +356,97 @@ public class ItemFilter<Model, Item extends IItem> extends Filter {
         return results;
     }
 
+    /**
+     * searches the items containing the constraint using the search index
+     *
+     * @return the found items, null if the items were modified since the snapshot was taken (the result is dropped)
+     */
+    @Nullable
+    private List<Item> searchIndex(List<Item> originalItems, CharSequence constraint, int generation) {
+        synchronized (mSearchIndex) {
+            if (!mState.isCurrent(generation)) {
+                return null;
+            }
+            return mSearchIndex.search(originalItems, constraint);
+        }
+    }
+
+    /**
+     * evaluates the filter predicate for chunks of the candidates in parallel, keeping the order of the candidates
+     */
+    private List<Item> filterParallel(final List<Item> candidates, final CharSequence constraint) {
+        final IItemAdapter.Predicate<Item> predicate = mFilterPredicate;
+        int size = candidates.size();
+        int chunks = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), size / Math.max(1, mParallelThreshold / 2)));
+        int chunkSize = (size + chunks - 1) / chunks;
+
+        List<Callable<List<Item>>> tasks = new ArrayList<>(chunks);
+        for (int start = 0; start < size; start += chunkSize) {
+            final int from = start;
+            final int to = Math.min(size, start + chunkSize);
+            tasks.add(new Callable<List<Item>>() {
+                @Override
+                public List<Item> call() {
+                    List<Item> filtered = new ArrayList<>();
+                    for (int i = from; i < to; i++) {
+                        Item item = candidates.get(i);
+                        if (predicate.filter(item, constraint)) {
+                            filtered.add(item);
+                        }
+                    }
+                    return filtered;
+                }
+            });
+        }
+
+        List<Item> filteredItems = new ArrayList<>();
+        try {
+            for (Future<List<Item>> future : mParallelExecutor.invokeAll(tasks)) {
+                filteredItems.addAll(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("filtering was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+        return filteredItems;
+    }
+
+    private Executor getExecutor() {
+        if (mExecutor != null) {
+            return mExecutor;
+        }
+        synchronized (ItemFilter.class) {
+            if (sDefaultExecutor == null) {
+                sDefaultExecutor = Executors.newSingleThreadExecutor();
+            }
+            return sDefaultExecutor;
+        }
+    }
+
+    /**
+     * the parallel chunks are awaited on a thread of the async executor, if both are the same it runs out of threads
+     */
+    private static void checkExecutors(@Nullable Executor executor, @Nullable ExecutorService parallelExecutor) {
+        if (parallelExecutor == null) {
+            return;
+        }
+        synchronized (ItemFilter.class) {
+            if (parallelExecutor == executor || (executor == null && parallelExecutor == sDefaultExecutor)) {
+                throw new IllegalArgumentException("the parallel executor can't be the executor used by filterAsync");
+            }
+        }
+    }
+
+    @MainThread
+    private Handler getMainHandler() {
+        if (mMainHandler == null) {
+            mMainHandler = new Handler(Looper.getMainLooper());
+        }
+        return mMainHandler;
+    }
+
     public CharSequence getConstraint() {
         return mConstraint;
     }
@@ -137,9 +458,17 @@ public class ItemFilter<Model, Item extends IItem> extends Filter {
 
     @Override
     protected void publishResults(@Nullable CharSequence constraint, FilterResults results) {
+        if ((constraint == null || constraint.length() == 0) && results.values != null && mItemFilterListener != null) {
+            mItemFilterListener.onReset();
+        }
+
         // Now we have to inform the adapter about the new list filtered
         if (results.values != null) {
-            mItemAdapter.setInternal((List<Item>) results.values, false, null);
+            IAdapterNotifier adapterNotifier = null;
+            if (mMinimalPublish) {
+                adapterNotifier = new MinimalPublishNotifier<>(mItemAdapter);
+            }
+            mItemAdapter.setInternal((List<Item>) results.values, false, adapterNotifier);
         }
 
         ///[FIX#ItemFilter#mOriginalItems = null]
@@ -218,6 +547,13 @@ public class ItemFilter<Model, Item extends IItem> extends Filter {
      * @return the relative position
      */
     public int getAdapterPosition(long identifier) {
+        if (mItemAdapter.isUseIdentifierIndex()) {
+            if (mOriginalItemsIndex == null) {
+                mOriginalItemsIndex = new IdentifierIndex(mOriginalItems.size());
+                mOriginalItemsIndex.invalidate();
+            }
+            return mOriginalItemsIndex.indexOf(mOriginalItems, identifier);
+        }
         for (int i = 0, size = mOriginalItems.size(); i < size; i++) {
             if (mOriginalItems.get(i).getIdentifier() == identifier) {
                 return i;
@@ -255,6 +591,8 @@ public class ItemFilter<Model, Item extends IItem> extends Filter {
             }
 
             mOriginalItems.addAll(items);
+            updateSearchIndex(null, items);
+            onOriginalItemsUpdated();
 
             if (isPublishResults) {
                 publishResults(mConstraint, performFiltering(mConstraint));
@@ -301,6 +639,7 @@ public class ItemFilter<Model, Item extends IItem> extends Filter {
             ///[FIX#ItemFilter#global position]
 //            mOriginalItems.addAll(getAdapterPosition(mItemAdapter.getAdapterItems().get(position)) - mItemAdapter.getFastAdapter().getPreItemCount(position), items);
             mOriginalItems.addAll(getAdapterPosition(mItemAdapter.getAdapterItems().get(position - mItemAdapter.getFastAdapter().getPreItemCount(position))), items);
+            onOriginalItemsChanged();
 
             if (isPublishResults) {
                 publishResults(mConstraint, performFiltering(mConstraint));
@@ -330,6 +669,7 @@ public class ItemFilter<Model, Item extends IItem> extends Filter {
             }
 
             mOriginalItems.addAll(index, items);
+            onOriginalItemsChanged();
 
             if (isPublishResults) {
                 publishResults(mConstraint, performFiltering(mConstraint));
@@ -359,6 +699,7 @@ public class ItemFilter<Model, Item extends IItem> extends Filter {
 
             mOriginalItems.clear();
             mOriginalItems.addAll(items);
+            onOriginalItemsChanged();
 
             if (isPublishResults) {
                 publishResults(mConstraint, performFiltering(mConstraint));
@@ -388,7 +729,9 @@ public class ItemFilter<Model, Item extends IItem> extends Filter {
 
             ///[FIX#ItemFilter#global position]
 //            mOriginalItems.set(getAdapterPosition(mItemAdapter.getAdapterItems().get(position)) - mItemAdapter.getFastAdapter().getPreItemCount(position), item);
-            mOriginalItems.set(getAdapterPosition(mItemAdapter.getAdapterItems().get(position - mItemAdapter.getFastAdapter().getPreItemCount(position))), item);
+            Item previousItem = mOriginalItems.set(getAdapterPosition(mItemAdapter.getAdapterItems().get(position - mItemAdapter.getFastAdapter().getPreItemCount(position))), item);
+            updateSearchIndex(previousItem, asList(item));
+            onOriginalItemsUpdated();
 
             if (isPublishResults) {
                 publishResults(mConstraint, performFiltering(mConstraint));
@@ -417,7 +760,9 @@ public class ItemFilter<Model, Item extends IItem> extends Filter {
                 mItemAdapter.getIdDistributor().checkId(item);
             }
 
-            mOriginalItems.set(index, item);
+            Item previousItem = mOriginalItems.set(index, item);
+            updateSearchIndex(previousItem, asList(item));
+            onOriginalItemsUpdated();
 
             if (isPublishResults) {
                 publishResults(mConstraint, performFiltering(mConstraint));
@@ -455,6 +800,7 @@ public class ItemFilter<Model, Item extends IItem> extends Filter {
             Item item = mOriginalItems.get(adjustedFrom);
             mOriginalItems.remove(adjustedFrom);
             mOriginalItems.add(adjustedTo, item);
+            onOriginalItemsChanged();
 
             if (isPerformFiltering) {
                 performFiltering(mConstraint);
@@ -480,7 +826,9 @@ public class ItemFilter<Model, Item extends IItem> extends Filter {
 
             ///[FIX#ItemFilter#global position]
 //            mOriginalItems.remove(getAdapterPosition(mItemAdapter.getAdapterItems().get(position)) - mItemAdapter.getFastAdapter().getPreItemCount(position));
-            mOriginalItems.remove(getAdapterPosition(mItemAdapter.getAdapterItems().get(position - mItemAdapter.getFastAdapter().getPreItemCount(position))));
+            Item removedItem = mOriginalItems.remove(getAdapterPosition(mItemAdapter.getAdapterItems().get(position - mItemAdapter.getFastAdapter().getPreItemCount(position))));
+            updateSearchIndex(removedItem, null);
+            onOriginalItemsUpdated();
 
             if (isPublishResults) {
                 publishResults(mConstraint, performFiltering(mConstraint));
@@ -504,7 +852,9 @@ public class ItemFilter<Model, Item extends IItem> extends Filter {
     ///[isPublishResults]
     public ModelAdapter<?, Item> removeInAdapter(boolean isPublishResults, int index) {
         if (mOriginalItems != null) {
-            mOriginalItems.remove(index);
+            Item removedItem = mOriginalItems.remove(index);
+            updateSearchIndex(removedItem, null);
+            onOriginalItemsUpdated();
 
             if (isPublishResults) {
                 publishResults(mConstraint, performFiltering(mConstraint));
@@ -529,6 +879,7 @@ public class ItemFilter<Model, Item extends IItem> extends Filter {
     public ModelAdapter<?, Item> remove(boolean isPublishResults, Item item) {
         if (mOriginalItems != null) {
             mOriginalItems.remove(item);
+            onOriginalItemsChanged();
 
             if (isPublishResults) {
                 publishResults(mConstraint, performFiltering(mConstraint));
@@ -556,9 +907,11 @@ public class ItemFilter<Model, Item extends IItem> extends Filter {
             for (Item item : mOriginalItems) {
                 if (item.getIdentifier() == identifier) {
                     mOriginalItems.remove(item);
+                    updateSearchIndex(item, null);
                     break;
                 }
             }
+            onOriginalItemsUpdated();
 
             if (isPublishResults) {
                 publishResults(mConstraint, performFiltering(mConstraint));
@@ -593,6 +946,7 @@ public class ItemFilter<Model, Item extends IItem> extends Filter {
                 mOriginalItems.remove(mItemAdapter.getAdapterItems().get(position - preItemCount));
 
             }
+            onOriginalItemsChanged();
 
             if (isPublishResults) {
                 publishResults(mConstraint, performFiltering(mConstraint));
@@ -622,6 +976,7 @@ public class ItemFilter<Model, Item extends IItem> extends Filter {
             for (int i = 0; i < saveItemCount; i++) {
                 mOriginalItems.remove(index + i);
             }
+            onOriginalItemsChanged();
 
             if (isPublishResults) {
                 publishResults(mConstraint, performFiltering(mConstraint));
@@ -643,6 +998,7 @@ public class ItemFilter<Model, Item extends IItem> extends Filter {
     public ModelAdapter<?, Item> clear(boolean isPublishResults) {
         if (mOriginalItems != null) {
             mOriginalItems.clear();
+            onOriginalItemsChanged();
 
             if (isPublishResults) {
                 publishResults(mConstraint, performFiltering(mConstraint));
@@ -661,6 +1017,129 @@ public class ItemFilter<Model, Item extends IItem> extends Filter {
     public void reset() {
         mOriginalItems = null;
         mConstraint = null;
+        onOriginalItemsChanged();
+    }
+
+    /**
+     * is called whenever the original items were modified, to invalidate everything derived from them
+     */
+    protected void onOriginalItemsChanged() {
+        if (mSearchIndex != null) {
+            //drop a running `filterAsync` first, so it does not rebuild the index from its snapshot afterwards
+            mState.nextGeneration();
+            mSearchIndex.invalidate();
+        }
+        onOriginalItemsUpdated();
     }
 
+    /**
+     * updates the search index after a single modification of the original items
+     *
+     * @param removedItem the removed (or replaced) item, null if items were appended
+     * @param addedItems  the appended items or the replacing item, null if an item was removed
+     */
+    private void updateSearchIndex(@Nullable Item removedItem, @Nullable List<Item> addedItems) {
+        if (mSearchIndex == null) {
+            return;
+        }
+        //drop a running `filterAsync` first, so it does not rebuild the index from its snapshot afterwards
+        mState.nextGeneration();
+        if (removedItem == null) {
+            mSearchIndex.addAll(addedItems);
+        } else if (addedItems == null) {
+            mSearchIndex.remove(removedItem);
+        } else {
+            mSearchIndex.replace(removedItem, addedItems.get(0));
+        }
+    }
+
+    /**
+     * is called after the original items were modified and the search index was already updated
+     */
+    private void onOriginalItemsUpdated() {
+        if (mOriginalItemsIndex != null) {
+            mOriginalItemsIndex.invalidate();
+        }
+        //a running `filterAsync` works with the previous items
+        mState.onItemsChanged();
+    }
+
+    /**
+     * notifies only the ranges which were removed or inserted between the previously shown items and the new ones.
+     * the items are compared by instance, as the filtered items are taken from the original items
+     */
+    private static class MinimalPublishNotifier<Item extends IItem> implements IAdapterNotifier {
+        private final ModelAdapter<?, Item> mItemAdapter;
+        private final List<Item> mPreviousItems;
+
+        MinimalPublishNotifier(ModelAdapter<?, Item> itemAdapter) {
+            this.mItemAdapter = itemAdapter;
+            //remember the shown items, the adapter is updated before it notifies
+            this.mPreviousItems = new ArrayList<>(itemAdapter.getAdapterItems());
+        }
+
+        @Override
+        public boolean notify(FastAdapter fastAdapter, int newItemsCount, int previousItemsCount, int itemsBeforeThisAdapter) {
+            List<Item> items = mItemAdapter.getAdapterItems();
+            //an extension (e.g. collapsing items) modified the list in the meantime
+            if (previousItemsCount != mPreviousItems.size() || newItemsCount != items.size()) {
+                return IAdapterNotifier.DEFAULT.notify(fastAdapter, newItemsCount, previousItemsCount, itemsBeforeThisAdapter);
+            }
+
+            IdentityHashMap<Item, Boolean> previous = new IdentityHashMap<>(previousItemsCount);
+            for (int i = 0; i < previousItemsCount; i++) {
+                previous.put(mPreviousItems.get(i), Boolean.TRUE);
+            }
+            IdentityHashMap<Item, Boolean> current = new IdentityHashMap<>(newItemsCount);
+            for (int i = 0; i < newItemsCount; i++) {
+                current.put(items.get(i), Boolean.TRUE);
+            }
+
+            //merge the items contained in both lists, they have to keep their order
+            int i = 0;
+            int j = 0;
+            while (true) {
+                while (i < previousItemsCount && !current.containsKey(mPreviousItems.get(i))) {
+                    i++;
+                }
+                while (j < newItemsCount && !previous.containsKey(items.get(j))) {
+                    j++;
+                }
+                if (i == previousItemsCount || j == newItemsCount) {
+                    break;
+                }
+                if (mPreviousItems.get(i) != items.get(j)) {
+                    return IAdapterNotifier.DEFAULT.notify(fastAdapter, newItemsCount, previousItemsCount, itemsBeforeThisAdapter);
+                }
+                i++;
+                j++;
+            }
+
+            //remove from the end, so the positions of the ranges before stay valid
+            for (i = previousItemsCount - 1; i >= 0; ) {
+                if (current.containsKey(mPreviousItems.get(i))) {
+                    i--;
+                    continue;
+                }
+                int end = i;
+                while (i >= 0 && !current.containsKey(mPreviousItems.get(i))) {
+                    i--;
+                }
+                fastAdapter.notifyAdapterItemRangeRemoved(itemsBeforeThisAdapter + i + 1, end - i);
+            }
+            //insert from the start, so all items before a range are already in place
+            for (j = 0; j < newItemsCount; ) {
+                if (previous.containsKey(items.get(j))) {
+                    j++;
+                    continue;
+                }
+                int start = j;
+                while (j < newItemsCount && !previous.containsKey(items.get(j))) {
+                    j++;
+                }
+                fastAdapter.notifyAdapterItemRangeInserted(itemsBeforeThisAdapter + start, j - start);
+            }
+            return false;
+        }
+    }
 }
@@ -19,6 +19,10 @@ import com.mikepenz.fastadapter.select.SelectExtension;
 import com.mikepenz.fastadapter.utils.AdapterPredicate;
 import com.mikepenz.fastadapter.utils.DefaultItemList;
 import com.mikepenz.fastadapter.utils.DefaultItemListImpl;
+import com.mikepenz.fastadapter.utils.ItemIdentifierIndex;
+import com.mikepenz.fastadapter.utils.LazyItemList;
+import com.mikepenz.fastadapter.utils.PagedItemList;
+import com.mikepenz.fastadapter.utils.TraversalMatch;
 import com.mikepenz.fastadapter.utils.Triple;
 
 import java.util.ArrayList;
@@ -45,6 +49,9 @@ public class ModelAdapter<Model, Item extends IItem> extends AbstractAdapter<Ite
     public ModelAdapter(IItemList<Item> itemList, IInterceptor<Model, Item> interceptor) {
         this.mInterceptor = interceptor;
         this.mItems = itemList;
+        if (itemList instanceof LazyItemList) {
+            ((LazyItemList<Model, Item>) itemList).setModelAdapter(this);
+        }
     }
 
     @Override
@@ -106,11 +113,15 @@ public class ModelAdapter<Model, Item extends IItem> extends AbstractAdapter<Ite
 
     /**
      * Generates a List of Item based on it's List of Model using the interceptor
+     * if a `LazyItemList` is used the models are only wrapped, their items are created once they are requested
      *
      * @param models the List of Model which will be used to create the List of Item
      * @return the generated List of Item
      */
     public List<Item> intercept(List<Model> models) {
+        if (mItems instanceof LazyItemList) {
+            return ((LazyItemList<Model, Item>) mItems).intercepted(models);
+        }
         List<Item> items = new ArrayList<>(models.size());
         Item item;
         for (Model model : models) {
@@ -134,6 +145,18 @@ public class ModelAdapter<Model, Item extends IItem> extends AbstractAdapter<Ite
         return this;
     }
 
+    /**
+     * provides an ID to all items which do not yet define one, if the DefaultIdDistributor is used.
+     * the items of a `LazyItemList` get their ID once they are created
+     *
+     * @param items the items to check
+     */
+    private void checkIds(List<Item> items) {
+        if (mUseIdDistributor && !LazyItemList.isLazy(items)) {
+            getIdDistributor().checkIds(items);
+        }
+    }
+
     public IIdDistributor<Item> getIdDistributor() {
         if (mIdDistributor == null) {
             return (IIdDistributor<Item>) IIdDistributor.DEFAULT;
@@ -162,6 +185,32 @@ public class ModelAdapter<Model, Item extends IItem> extends AbstractAdapter<Ite
         return mUseIdDistributor;
     }
 
+    //defines if identifiers are resolved to positions using an index instead of scanning the items
+    private boolean mUseIdentifierIndex = false;
+
+    /**
+     * defines if an index is kept which maps the identifiers of the items to their position
+     * this makes `getAdapterIndex(long)`, `FastAdapter.getPosition(long)` and the lookups of the `ItemFilter` constant time
+     * at the cost of some memory. only the default `IItemList` implementation supports the index
+     *
+     * @param useIdentifierIndex true to keep an identifier index
+     * @return this
+     */
+    public ModelAdapter<Model, Item> withIdentifierIndex(boolean useIdentifierIndex) {
+        this.mUseIdentifierIndex = useIdentifierIndex;
+        if (mItems instanceof DefaultItemListImpl) {
+            ((DefaultItemListImpl<Item>) mItems).withIdentifierIndex(useIdentifierIndex);
+        }
+        return this;
+    }
+
+    /**
+     * @return if an identifier index is kept for this adapter
+     */
+    public boolean isUseIdentifierIndex() {
+        return mUseIdentifierIndex;
+    }
+
     ///[UPGRADE#mItemFilter = new ItemFilter]
     //filters the items
 //    private ItemFilter<Model, Item> mItemFilter = new ItemFilter<>(this);
@@ -191,6 +240,10 @@ public class ModelAdapter<Model, Item extends IItem> extends AbstractAdapter<Ite
      * @param constraint the string used to filter the list
      */
     public void filter(@Nullable CharSequence constraint) {
+        //fail on the calling thread, the filter runs on a background thread
+        if (constraint != null && constraint.length() > 0) {
+            mItemFilter.checkFilterable();
+        }
         mItemFilter.filter(constraint);
     }
 
@@ -201,6 +254,9 @@ public class ModelAdapter<Model, Item extends IItem> extends AbstractAdapter<Ite
      * @return a List of initial Model's
      */
     public List<Model> getModels() {
+        if (mItems instanceof LazyItemList) {
+            return new ArrayList<>(((LazyItemList<Model, Item>) mItems).getModels());
+        }
         ArrayList<Model> list = new ArrayList<>(mItems.size());
         for (Item item : mItems.getItems()) {
             if (mReverseInterceptor != null) {
@@ -282,6 +338,15 @@ public class ModelAdapter<Model, Item extends IItem> extends AbstractAdapter<Ite
         return mItems.get(index);
     }
 
+    /**
+     * @param index the relative position
+     * @return the identifier of the item, read by the item list (which may not have to create the item)
+     */
+    @Override
+    public long getAdapterItemIdentifier(int index) {
+        return mItems.getIdentifier(index);
+    }
+
     /**
      * set a new list of items and apply it to the existing list (clear - add) for this adapter
      * NOTE may consider using setNewList if the items list is a reference to the list which is used inside the adapter
@@ -307,6 +372,7 @@ public class ModelAdapter<Model, Item extends IItem> extends AbstractAdapter<Ite
      * @return this
      */
     public ModelAdapter<Model, Item> set(List<Model> list, boolean resetFilter, @Nullable IAdapterNotifier adapterNotifier) {
+        checkResizable();
         List<Item> items = intercept(list);
         return setInternal(items, resetFilter, adapterNotifier);
     }
@@ -321,9 +387,8 @@ public class ModelAdapter<Model, Item extends IItem> extends AbstractAdapter<Ite
      * @return this
      */
     public ModelAdapter<Model, Item> setInternal(List<Item> items, boolean resetFilter, @Nullable IAdapterNotifier adapterNotifier) {
-        if (mUseIdDistributor) {
-            getIdDistributor().checkIds(items);
-        }
+        checkResizable();
+        checkIds(items);
 
         //reset the filter
         if (resetFilter && getItemFilter().getConstraint() != null) {
@@ -361,11 +426,10 @@ public class ModelAdapter<Model, Item extends IItem> extends AbstractAdapter<Ite
      * @return this
      */
     public ModelAdapter<Model, Item> setNewList(List<Model> list, boolean retainFilter) {
+        checkResizable();
         List<Item> items = intercept(list);
 
-        if (mUseIdDistributor) {
-            getIdDistributor().checkIds(items);
-        }
+        checkIds(items);
 
         //reset the filter
         CharSequence filter = null;
@@ -385,11 +449,29 @@ public class ModelAdapter<Model, Item extends IItem> extends AbstractAdapter<Ite
         return this;
     }
 
+    /**
+     * registers the types of the items, the items of a `LazyItemList` register their type once they are created
+     *
+     * @param items the items to register
+     */
+    @Override
+    public void mapPossibleTypes(@Nullable Iterable<Item> items) {
+        if (LazyItemList.isLazy(items)) {
+            return;
+        }
+        super.mapPossibleTypes(items);
+    }
+
     /**
      * forces to remap all possible types for the RecyclerView
      */
     public void remapMappedTypes() {
         getFastAdapter().clearTypeInstance();
+        if (mItems instanceof LazyItemList) {
+            //all other items register their type once they are created
+            ((LazyItemList<Model, Item>) mItems).registerCachedTypes();
+            return;
+        }
         mapPossibleTypes(mItems.getItems());
     }
 
@@ -414,9 +496,8 @@ public class ModelAdapter<Model, Item extends IItem> extends AbstractAdapter<Ite
     }
 
     public ModelAdapter<Model, Item> addInternal(List<Item> items) {
-        if (mUseIdDistributor) {
-            getIdDistributor().checkIds(items);
-        }
+        checkResizable();
+        checkIds(items);
         FastAdapter<Item> fastAdapter = getFastAdapter();
         if (fastAdapter != null) {
             mItems.addAll(items, fastAdapter.getPreItemCountByOrder(getOrder()));
@@ -450,9 +531,8 @@ public class ModelAdapter<Model, Item extends IItem> extends AbstractAdapter<Ite
     }
 
     public ModelAdapter<Model, Item> addInternal(int position, List<Item> items) {
-        if (mUseIdDistributor) {
-            getIdDistributor().checkIds(items);
-        }
+        checkResizable();
+        checkIds(items);
         if (items.size() > 0) {
             mItems.addAll(position, items, getFastAdapter().getPreItemCountByOrder(getOrder()));
             mapPossibleTypes(items);
@@ -472,9 +552,8 @@ public class ModelAdapter<Model, Item extends IItem> extends AbstractAdapter<Ite
         return addInternalInAdapter(index, items);
     }
     public ModelAdapter<Model, Item> addInternalInAdapter(int index, List<Item> items) {
-        if (mUseIdDistributor) {
-            getIdDistributor().checkIds(items);
-        }
+        checkResizable();
+        checkIds(items);
         if (items.size() > 0) {
             int preItemCount = getFastAdapter().getPreItemCountByOrder(getOrder());
             mItems.addAll(index + preItemCount, items, preItemCount);
@@ -490,6 +569,10 @@ public class ModelAdapter<Model, Item extends IItem> extends AbstractAdapter<Ite
      * @param element  the item to set
      */
     public ModelAdapter<Model, Item> set(int position, Model element) {
+        if (mItems instanceof LazyItemList) {
+            ((LazyItemList<Model, Item>) mItems).setModel(position, element, getFastAdapter().getPreItemCount(position));
+            return this;
+        }
         Item item = intercept(element);
         if (item == null) return this;
         return setInternal(position, item);
@@ -512,6 +595,11 @@ public class ModelAdapter<Model, Item extends IItem> extends AbstractAdapter<Ite
      * @param element  the item to set
      */
     public ModelAdapter<Model, Item> setInAdapter(int index, Model element) {
+        if (mItems instanceof LazyItemList) {
+            int preItemCount = getFastAdapter().getPreItemCountByOrder(getOrder());
+            ((LazyItemList<Model, Item>) mItems).setModel(index + preItemCount, element, preItemCount);
+            return this;
+        }
         Item item = intercept(element);
         if (item == null) return this;
         return setInternalInAdapter(index, item);
@@ -534,6 +622,7 @@ public class ModelAdapter<Model, Item extends IItem> extends AbstractAdapter<Ite
      * @return this
      */
     public ModelAdapter<Model, Item> move(int fromPosition, int toPosition) {
+        checkResizable();
         mItems.move(fromPosition, toPosition, getFastAdapter().getPreItemCount(fromPosition));
         return this;
     }
@@ -544,6 +633,7 @@ public class ModelAdapter<Model, Item extends IItem> extends AbstractAdapter<Ite
      * @param position the global position
      */
     public ModelAdapter<Model, Item> remove(int position) {
+        checkResizable();
         mItems.remove(position, getFastAdapter().getPreItemCount(position));
         return this;
     }
@@ -555,6 +645,7 @@ public class ModelAdapter<Model, Item extends IItem> extends AbstractAdapter<Ite
      * @param index the relative position
      */
     public ModelAdapter<Model, Item> removeInAdapter(int index) {
+        checkResizable();
         int preItemCount = getFastAdapter().getPreItemCountByOrder(getOrder());
         mItems.remove(index + preItemCount, preItemCount);
         return this;
@@ -567,6 +658,7 @@ public class ModelAdapter<Model, Item extends IItem> extends AbstractAdapter<Ite
      * @param item     the item to remove
      */
     public ModelAdapter<Model, Item> remove(Item item) {
+        checkResizable();
         mItems.remove(item, getFastAdapter().getPosition(item));
         return this;
     }
@@ -578,10 +670,25 @@ public class ModelAdapter<Model, Item extends IItem> extends AbstractAdapter<Ite
      * @param itemCount the count of items which were removed
      */
     public ModelAdapter<Model, Item> removeRange(int position, int itemCount) {
+        checkResizable();
         mItems.removeRange(position, itemCount, getFastAdapter().getPreItemCount(position));
         return this;
     }
 
+    /**
+     * removes several ranges of items of this adapter at once, the list is compacted once and all ranges are notified
+     * within one transaction
+     *
+     * @param ranges the global start and count of every range, one after the other in ascending order
+     */
+    public ModelAdapter<Model, Item> removeRanges(int[] ranges) {
+        checkResizable();
+        if (ranges.length > 0) {
+            mItems.removeRanges(ranges, getFastAdapter().getPreItemCount(ranges[0]));
+        }
+        return this;
+    }
+
     ///[UPGRADE#xxxInAdapter()]
     /**
      * removes a range of items starting with the given position within the existing icons
@@ -590,6 +697,7 @@ public class ModelAdapter<Model, Item extends IItem> extends AbstractAdapter<Ite
      * @param itemCount the count of items which were removed
      */
     public ModelAdapter<Model, Item> removeRangeInAdapter(int index, int itemCount) {
+        checkResizable();
         int preItemCount = getFastAdapter().getPreItemCountByOrder(getOrder());
         mItems.removeRange(index + preItemCount, itemCount, preItemCount);
         return this;
@@ -610,31 +718,59 @@ public class ModelAdapter<Model, Item extends IItem> extends AbstractAdapter<Ite
      * @return this
      */
     public ModelAdapter<Model, Item> removeByIdentifier(final long identifier) {
-        recursive(new AdapterPredicate<Item>() {
+        checkResizable();
+        //the index finds only the first item, it can be used if the identifiers are unique
+        ItemIdentifierIndex<Item> itemIdentifierIndex = getFastAdapter().getItemIdentifierIndex();
+        if (itemIdentifierIndex != null && !itemIdentifierIndex.hasDuplicates()) {
+            TraversalMatch<Item> match = new TraversalMatch<>();
+            if (itemIdentifierIndex.find(identifier, match) && match.adapter == this) {
+                removeByIdentifier(match.item, match.position);
+            }
+            return this;
+        }
+
+        traverse(new AdapterPredicate<Item>() {
             @Override
             public boolean apply(@NonNull IAdapter<Item> lastParentAdapter, int lastParentPosition, Item item, int position) {
                 if (identifier == item.getIdentifier()) {
-                    //if it's a subitem remove it from the parent
-                    if (item instanceof ISubItem) {
-                        //a sub item which is not in the list can be instantly deleted
-                        IExpandable parent = (IExpandable) ((ISubItem) item).getParent();
-                        //parent should not be null, but check in any case..
-                        if (parent != null) {
-                            parent.getSubItems().remove(item);
-                        }
-                    }
-                    if (position != -1) {
-                        //a normal displayed item can only be deleted afterwards
-                        remove(position);
-                    }
+                    removeByIdentifier(item, position);
                 }
                 return false;
             }
-        }, false);
+        }, false, null);
 
         return this;
     }
 
+    private void removeByIdentifier(Item item, int position) {
+        //if it's a subitem remove it from the parent
+        if (item instanceof ISubItem) {
+            //a sub item which is not in the list can be instantly deleted
+            IExpandable parent = (IExpandable) ((ISubItem) item).getParent();
+            //parent should not be null, but check in any case..
+            if (parent != null) {
+                parent.getSubItems().remove(item);
+                ItemIdentifierIndex<Item> itemIdentifierIndex = getFastAdapter().getItemIdentifierIndex();
+                if (position == -1 && itemIdentifierIndex != null) {
+                    itemIdentifierIndex.invalidate();
+                }
+            }
+        }
+        if (position != -1) {
+            //a normal displayed item can only be deleted afterwards
+            remove(position);
+        }
+    }
+
+    /**
+     * the count of items of a `PagedItemList` is fixed, fail before the ids, the types or the parents are touched
+     */
+    private void checkResizable() {
+        if (mItems instanceof PagedItemList) {
+            throw new UnsupportedOperationException("items can't be added, moved, removed or set in a PagedItemList, use setTotalCount(int) or invalidate()");
+        }
+    }
+
     /**
      * util function which recursively iterates over all items and subItems of the given adapter.
      * It executes the given `predicate` on every item and will either stop if that function returns true, or continue (if stopOnMatch is false)
@@ -645,27 +781,48 @@ public class ModelAdapter<Model, Item extends IItem> extends AbstractAdapter<Ite
      */
     @NonNull
     public Triple<Boolean, Item, Integer> recursive(AdapterPredicate<Item> predicate, boolean stopOnMatch) {
+        if (!stopOnMatch) {
+            traverse(predicate, false, null);
+            return new Triple<>(false, null, null);
+        }
+        TraversalMatch<Item> match = new TraversalMatch<>();
+        if (traverse(predicate, true, match)) {
+            return new Triple<>(true, match.item, match.position != -1 ? match.position : null);
+        }
+        return new Triple<>(false, null, null);
+    }
+
+    /**
+     * iterates over all items and subItems of this adapter like {@link #recursive(AdapterPredicate, boolean)}, but
+     * without allocating anything per item
+     *
+     * @param predicate   the predicate to run on every item, to check for a match or do some changes (e.g. select)
+     * @param stopOnMatch defines if we should stop iterating after the first match
+     * @param match       receives the matched item and its position if stopOnMatch is set, may be null
+     * @return true if the predicate matched and stopOnMatch is set
+     */
+    public boolean traverse(AdapterPredicate<Item> predicate, boolean stopOnMatch, @Nullable TraversalMatch<Item> match) {
+        if (match != null) {
+            match.clear();
+        }
         int preItemCount = getFastAdapter().getPreItemCountByOrder(getOrder());
+        //the predicate may modify this adapter, so the count is read for every item
         for (int i = 0; i < getAdapterItemCount(); i++) {
             int globalPosition = i + preItemCount;
+            Item item = getAdapterItem(i);
 
-            //retrieve the item + it's adapter
-            FastAdapter.RelativeInfo<Item> relativeInfo = getFastAdapter().getRelativeInfo(globalPosition);
-            Item item = relativeInfo.item;
-
-            if (predicate.apply(relativeInfo.adapter, globalPosition, item, globalPosition) && stopOnMatch) {
-                return new Triple<>(true, item, globalPosition);
+            if (predicate.apply(this, globalPosition, item, globalPosition) && stopOnMatch) {
+                if (match != null) {
+                    match.set(this, item, globalPosition);
+                }
+                return true;
             }
 
-            if (item instanceof IExpandable) {
-                Triple<Boolean, Item, Integer> res = FastAdapter.recursiveSub(relativeInfo.adapter, globalPosition, (IExpandable) item, predicate, stopOnMatch);
-                if (res.first && stopOnMatch) {
-                    return res;
-                }
+            if (item instanceof IExpandable && FastAdapter.traverseSub(this, globalPosition, (IExpandable) item, predicate, stopOnMatch, match)) {
+                return true;
             }
         }
-
-        return new Triple<>(false, null, null);
+        return false;
     }
 
     ///[FIX#ItemFilter/ModelAdapter#getSelections()/getSelectedItems()]
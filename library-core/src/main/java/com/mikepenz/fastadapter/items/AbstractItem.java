@@ -12,6 +12,7 @@ import android.view.ViewGroup;
 import com.mikepenz.fastadapter.IClickable;
 import com.mikepenz.fastadapter.IItem;
 import com.mikepenz.fastadapter.listeners.OnClickListener;
+import com.mikepenz.fastadapter.utils.ChangeMask;
 
 import java.util.Collections;
 import java.util.List;
@@ -182,6 +183,19 @@ public abstract class AbstractItem<Item extends IItem & IClickable, VH extends R
 
     /**
      * Binds the data of this item to the given holder
+     * <p>
+     * the payloads may be {@link ChangeMask}s (sent for items implementing `IChangeMaskItem` by the diff, and for
+     * selection and expansion changes if `FastAdapter.withStateChangePayloads` is enabled), so only the changed views
+     * have to be bound again:
+     * <pre>
+     * super.bindView(holder, payloads);
+     * long mask = ChangeMask.of(payloads);
+     * if (ChangeMask.contains(mask, FIELD_NAME)) {
+     *     holder.name.setText(name);
+     * }
+     * </pre>
+     * the selected state is bound here for every bind, a change of the selection alone ({@link ChangeMask#SELECTION})
+     * requires nothing else
      *
      * @param holder
      * @param payloads
@@ -1,18 +1,25 @@
 package com.mikepenz.fastadapter.listeners;
 
 import androidx.recyclerview.widget.RecyclerView;
+import android.view.View;
 import android.view.ViewGroup;
 
 import com.mikepenz.fastadapter.FastAdapter;
 import com.mikepenz.fastadapter.IItem;
+import com.mikepenz.fastadapter.R;
+import com.mikepenz.fastadapter.items.AbstractItem;
+import com.mikepenz.fastadapter.utils.PreInflatedViewPool;
 import com.mikepenz.fastadapter.utils.EventHookUtil;
 
+import java.util.List;
+
 /**
  * default implementation of the OnCreateViewHolderListener
  */
 public class OnCreateViewHolderListenerImpl<Item extends IItem> implements OnCreateViewHolderListener<Item> {
     /**
      * is called inside the onCreateViewHolder method and creates the viewHolder based on the provided viewTyp
+     * a view inflated in advance is used if the FastAdapter has one for this type
      *
      * @param parent   the parent which will host the View
      * @param viewType the type of the ViewHolder we want to create
@@ -20,7 +27,15 @@ public class OnCreateViewHolderListenerImpl<Item extends IItem> implements OnCre
      */
     @Override
     public RecyclerView.ViewHolder onPreCreateViewHolder(FastAdapter<Item> fastAdapter, ViewGroup parent, int viewType) {
-        return fastAdapter.getTypeInstance(viewType).getViewHolder(parent);
+        Item typeInstance = fastAdapter.getTypeInstance(viewType);
+        PreInflatedViewPool<Item> preInflatedViewPool = fastAdapter.getPreInflatedViewPool();
+        if (preInflatedViewPool != null && typeInstance instanceof AbstractItem) {
+            View view = preInflatedViewPool.obtain(viewType);
+            if (view != null) {
+                return ((AbstractItem) typeInstance).getViewHolder(view);
+            }
+        }
+        return typeInstance.getViewHolder(parent);
     }
 
     /**
@@ -31,7 +46,10 @@ public class OnCreateViewHolderListenerImpl<Item extends IItem> implements OnCre
      */
     @Override
     public RecyclerView.ViewHolder onPostCreateViewHolder(FastAdapter<Item> fastAdapter, RecyclerView.ViewHolder viewHolder) {
-        EventHookUtil.bind(viewHolder, fastAdapter.getEventHooks());
+        //only bind the hooks registered for the type of this holder
+        Object viewType = viewHolder.itemView.getTag(R.id.fastadapter_item_view_type);
+        List<EventHook<Item>> eventHooks = viewType instanceof Integer ? fastAdapter.getEventHooks((Integer) viewType) : fastAdapter.getEventHooks();
+        EventHookUtil.bind(viewHolder, eventHooks, fastAdapter.isSharedEventListeners());
         return viewHolder;
     }
 }
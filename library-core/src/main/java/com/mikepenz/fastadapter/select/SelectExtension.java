@@ -15,9 +15,16 @@ import com.mikepenz.fastadapter.IItemAdapter;
 import com.mikepenz.fastadapter.ISelectionListener;
 import com.mikepenz.fastadapter.ISelectionStateListener;
 import com.mikepenz.fastadapter.ISubItem;
+import com.mikepenz.fastadapter.adapters.ModelAdapter;
 import com.mikepenz.fastadapter.utils.AdapterPredicate;
+import com.mikepenz.fastadapter.utils.ChangeMask;
+import com.mikepenz.fastadapter.utils.LazyItemList;
+import com.mikepenz.fastadapter.utils.PositionMap;
+import com.mikepenz.fastadapter.utils.SelectionIndex;
+import com.mikepenz.fastadapter.utils.TraversalMatch;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
@@ -49,16 +56,16 @@ public class SelectExtension<Item extends IItem> implements IAdapterExtension<It
     //listeners we can attach
     private ISelectionListener<Item> mSelectionListener;
 
+    //live index of the selected items (including sub items) and the positions of the displayed ones. the items of a
+    //`LazyItemList` are not indexed, the list keeps their selection without creating them
+    private final SelectionIndex<Item> mSelectionIndex = new SelectionIndex<>();
+
     ///[UPGRADE#ISelectionStateListener]
     private ISelectionStateListener mSelectionStateListener;
     private boolean hasSelected;
     private boolean hasSelected() {
-        for (int i = 0, size = mFastAdapter.getItemCount(); i < size; i++) {
-            if (mFastAdapter.getItem(i).isSelected()) {
-                return true;
-            }
-        }
-        return false;
+        //only the displayed items count, not the selected sub items of collapsed items
+        return ensureSelectedPositions().size() > 0 || getLazySelectedCount() > 0;
     }
     public SelectExtension<Item> withSelectionStateListener(ISelectionStateListener selectionStateListener) {
         this.mSelectionStateListener = selectionStateListener;
@@ -220,22 +227,93 @@ public class SelectExtension<Item extends IItem> implements IAdapterExtension<It
 
     @Override
     public void notifyAdapterDataSetChanged() {
+        invalidateSelections();
     }
 
     @Override
     public void notifyAdapterItemRangeInserted(int position, int itemCount) {
+        if (!mSelectionIndex.isValid()) {
+            return;
+        }
+        mSelectionIndex.onInserted(position, itemCount);
+        if (lazyItemList(mFastAdapter.getAdapter(position)) != null) {
+            return;
+        }
+        for (int i = position; i < position + itemCount; i++) {
+            Item item = mFastAdapter.getItem(i);
+            if (item != null) {
+                trackSelection(item, i);
+            }
+        }
     }
 
     @Override
     public void notifyAdapterItemRangeRemoved(int position, int itemCount) {
+        if (!mSelectionIndex.isValid()) {
+            return;
+        }
+        if (!mSelectionIndex.canUpdateIncrementally()) {
+            invalidateSelections();
+            return;
+        }
+        //the removed items are gone already, the selected ones are known by their position. a sub item of a collapsed
+        //parent was only hidden and stays selected
+        PositionMap<Item> selectedPositions = mSelectionIndex.getPositions();
+        for (int i = selectedPositions.lowerBound(position), to = selectedPositions.lowerBound(position + itemCount); i < to; i++) {
+            Item item = selectedPositions.itemAt(i);
+            if (!isHiddenSubItem(item)) {
+                mSelectionIndex.remove(item);
+            }
+        }
+        selectedPositions.onRemoved(position, itemCount);
     }
 
     @Override
     public void notifyAdapterItemMoved(int fromPosition, int toPosition) {
+        mSelectionIndex.onMoved(fromPosition, toPosition);
     }
 
     @Override
     public void notifyAdapterItemRangeChanged(int position, int itemCount, @Nullable Object payload) {
+        //a payload rebinds the same items
+        if (payload != null || !mSelectionIndex.isValid()) {
+            return;
+        }
+        if (!mSelectionIndex.canUpdateIncrementally()) {
+            invalidateSelections();
+            return;
+        }
+        if (lazyItemList(mFastAdapter.getAdapter(position)) != null) {
+            return;
+        }
+        //the items may have been replaced, or their selection was changed before notifying them
+        PositionMap<Item> selectedPositions = mSelectionIndex.getPositions();
+        for (int i = position; i < position + itemCount; i++) {
+            Item item = mFastAdapter.getItem(i);
+            int index = selectedPositions.indexOf(i);
+            if (index != -1) {
+                Item previous = selectedPositions.itemAt(index);
+                if (previous == item && item.isSelected()) {
+                    continue;
+                }
+                mSelectionIndex.remove(previous, i);
+            }
+            if (item != null) {
+                trackSelection(item, i);
+            }
+        }
+    }
+
+    /**
+     * @param item the item
+     * @return true if the item is a sub item of a collapsed parent, which is still contained but not displayed
+     */
+    private boolean isHiddenSubItem(Item item) {
+        if (!(item instanceof ISubItem)) {
+            return false;
+        }
+        IExpandable parent = (IExpandable) ((ISubItem) item).getParent();
+        return parent != null && !parent.isExpanded() && parent.getSubItems() != null && parent.getSubItems().contains(item);
     }
 
     @Override
@@ -258,30 +336,243 @@ public class SelectExtension<Item extends IItem> implements IAdapterExtension<It
      * @return a set with the global positions of all selected items (which are currently in the list (includes expanded expandable items))
      */
     public Set<Integer> getSelections() {
-        Set<Integer> selections = new ArraySet<>();
-        for (int i = 0, size = mFastAdapter.getItemCount(); i < size; i++) {
-            if (mFastAdapter.getItem(i).isSelected()) {
-                selections.add(i);
+        PositionMap<Item> selectedPositions = ensureSelectedPositions();
+        int count = selectedPositions.size();
+        int lazyCount = getLazySelectedCount();
+        if (count + lazyCount == 0) {
+            return new ArraySet<>();
+        }
+
+        int[] positions = new int[count + lazyCount];
+        for (int i = 0; i < count; i++) {
+            positions[i] = selectedPositions.positionAt(i);
+        }
+        if (lazyCount > 0) {
+            IAdapter<Item> adapter;
+            for (int order = 0; (adapter = mFastAdapter.adapter(order)) != null; order++) {
+                LazyItemList<?, Item> lazyItemList = lazyItemList(adapter);
+                if (lazyItemList != null) {
+                    int preItemCount = mFastAdapter.getPreItemCountByOrder(order);
+                    for (int position : lazyItemList.getSelectedPositions()) {
+                        positions[count++] = preItemCount + position;
+                    }
+                }
             }
+            Arrays.sort(positions, 0, count);
+        }
+
+        //add the positions in ascending order, this way the ArraySet only appends
+        Set<Integer> selections = new ArraySet<>(count);
+        for (int i = 0; i < count; i++) {
+            selections.add(positions[i]);
         }
         return selections;
     }
 
     /**
-     * @return a set with all items which are currently selected (includes subitems)
+     * @return a set with all items which are currently selected (includes subitems). only the selected items of a
+     * `LazyItemList` are created
      */
     public List<Item> getSelectedItems() {
-        final List<Item> items = new ArrayList<>();
-        mFastAdapter.recursive(new AdapterPredicate<Item>() {
+        ensureSelectionIndex();
+        final List<Item> items = new ArrayList<>(mSelectionIndex.size());
+        if (mSelectionIndex.hasConflict()) {
+            traverseIndexed(new AdapterPredicate<Item>() {
+                @Override
+                public boolean apply(@NonNull IAdapter<Item> lastParentAdapter, int lastParentPosition, Item item, int position) {
+                    if (item.isSelected()) {
+                        items.add(item);
+                    }
+                    return false;
+                }
+            });
+        } else {
+            for (int i = 0, size = mSelectionIndex.getSlotCount(); i < size; i++) {
+                Item item = mSelectionIndex.getSlot(i);
+                if (item != null && item.isSelected()) {
+                    items.add(item);
+                }
+            }
+        }
+        IAdapter<Item> adapter;
+        for (int order = 0; (adapter = mFastAdapter.adapter(order)) != null; order++) {
+            LazyItemList<?, Item> lazyItemList = lazyItemList(adapter);
+            if (lazyItemList != null) {
+                for (int position : lazyItemList.getSelectedPositions()) {
+                    items.add(adapter.getAdapterItem(position));
+                }
+            }
+        }
+        return items;
+    }
+
+    /**
+     * @return the count of all items which are currently selected (includes subitems)
+     */
+    public int getSelectedItemCount() {
+        ensureSelectionIndex();
+        if (mSelectionIndex.hasConflict()) {
+            final int[] count = new int[1];
+            traverseIndexed(new AdapterPredicate<Item>() {
+                @Override
+                public boolean apply(@NonNull IAdapter<Item> lastParentAdapter, int lastParentPosition, Item item, int position) {
+                    if (item.isSelected()) {
+                        count[0]++;
+                    }
+                    return false;
+                }
+            });
+            return count[0] + getLazySelectedCount();
+        }
+        return mSelectionIndex.size() + getLazySelectedCount();
+    }
+
+    /**
+     * @return the count of selected items within the `LazyItemList`s, without creating their items
+     */
+    private int getLazySelectedCount() {
+        int count = 0;
+        IAdapter<Item> adapter;
+        for (int order = 0; (adapter = mFastAdapter.adapter(order)) != null; order++) {
+            LazyItemList<?, Item> lazyItemList = lazyItemList(adapter);
+            if (lazyItemList != null) {
+                count += lazyItemList.getSelectedCount();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @param adapter the adapter
+     * @return the item list of the adapter if it is a `LazyItemList`, which keeps the selection of its items itself
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    private LazyItemList<?, Item> lazyItemList(@Nullable IAdapter<Item> adapter) {
+        if (adapter instanceof ModelAdapter && ((ModelAdapter<?, Item>) adapter).getItemList() instanceof LazyItemList) {
+            return (LazyItemList<?, Item>) ((ModelAdapter<?, Item>) adapter).getItemList();
+        }
+        return null;
+    }
+
+    /**
+     * @param item the item
+     * @return true if the item is one of the created items of a `LazyItemList`
+     */
+    private boolean isLazyItem(Item item) {
+        IAdapter<Item> adapter;
+        for (int order = 0; (adapter = mFastAdapter.adapter(order)) != null; order++) {
+            LazyItemList<?, Item> lazyItemList = lazyItemList(adapter);
+            if (lazyItemList != null && lazyItemList.isCached(item)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * traverses all items and sub items like `FastAdapter.traverse`, but skips the adapters of a `LazyItemList` which
+     * would create all of their items
+     *
+     * @param predicate the predicate to run on every item
+     */
+    private void traverseIndexed(AdapterPredicate<Item> predicate) {
+        IAdapter<Item> adapter;
+        for (int order = 0; (adapter = mFastAdapter.adapter(order)) != null; order++) {
+            if (lazyItemList(adapter) != null) {
+                continue;
+            }
+            int preItemCount = mFastAdapter.getPreItemCountByOrder(order);
+            for (int i = 0; i < adapter.getAdapterItemCount(); i++) {
+                int position = preItemCount + i;
+                Item item = adapter.getAdapterItem(i);
+                predicate.apply(adapter, position, item, position);
+                if (item instanceof IExpandable) {
+                    FastAdapter.traverseSub(adapter, position, (IExpandable) item, predicate, false, null);
+                }
+            }
+        }
+    }
+
+    /**
+     * marks the selection index as outdated, it will be rebuilt from the items the next time it is required.
+     * call this if you changed the selected state of items without using this extension
+     */
+    public void invalidateSelections() {
+        mSelectionIndex.invalidate();
+    }
+
+    /**
+     * rebuilds the selection index by traversing all items if it was invalidated
+     */
+    private void ensureSelectionIndex() {
+        if (mSelectionIndex.isValid()) {
+            return;
+        }
+        mSelectionIndex.reset();
+        traverseIndexed(new AdapterPredicate<Item>() {
             @Override
             public boolean apply(@NonNull IAdapter<Item> lastParentAdapter, int lastParentPosition, Item item, int position) {
                 if (item.isSelected()) {
-                    items.add(item);
+                    addToSelectionIndex(item, position);
                 }
                 return false;
             }
-        }, false);
-        return items;
+        });
+    }
+
+    /**
+     * collects the positions of the displayed selected items again if they are unknown
+     *
+     * @return the positions of the displayed selected items, without the ones of a `LazyItemList`
+     */
+    private PositionMap<Item> ensureSelectedPositions() {
+        ensureSelectionIndex();
+        if (!mSelectionIndex.hasPositions()) {
+            PositionMap<Item> selectedPositions = mSelectionIndex.resetPositions();
+            IAdapter<Item> adapter;
+            for (int order = 0; (adapter = mFastAdapter.adapter(order)) != null; order++) {
+                if (lazyItemList(adapter) != null) {
+                    continue;
+                }
+                int preItemCount = mFastAdapter.getPreItemCountByOrder(order);
+                for (int i = 0, size = adapter.getAdapterItemCount(); i < size; i++) {
+                    Item item = adapter.getAdapterItem(i);
+                    if (item.isSelected()) {
+                        selectedPositions.put(preItemCount + i, item);
+                    }
+                }
+            }
+        }
+        return mSelectionIndex.getPositions();
+    }
+
+    /**
+     * adds the item and its collapsed selected sub items to the selection index
+     *
+     * @param item     the item which was added to the adapter
+     * @param position the global position, -1 for the sub items which are not displayed
+     */
+    private void trackSelection(Item item, int position) {
+        if (item.isSelected()) {
+            addToSelectionIndex(item, position);
+        }
+        if (item instanceof IExpandable && !((IExpandable) item).isExpanded() && ((IExpandable) item).getSubItems() != null) {
+            List<Item> subItems = ((IExpandable) item).getSubItems();
+            for (int i = 0, size = subItems.size(); i < size; i++) {
+                trackSelection(subItems.get(i), -1);
+            }
+        }
+    }
+
+    /**
+     * @param item     the selected item
+     * @param position the global position, &lt; 0 if the item is not displayed
+     */
+    private void addToSelectionIndex(Item item, int position) {
+        if (!isLazyItem(item)) {
+            mSelectionIndex.add(item, position);
+        }
     }
 
     /**
@@ -306,7 +597,7 @@ public class SelectExtension<Item extends IItem> implements IAdapterExtension<It
         final ISelectionStateListener selectionStateListener = mSelectionStateListener;
         mSelectionStateListener = null;
 
-        mFastAdapter.recursive(new AdapterPredicate<Item>() {
+        mFastAdapter.traverse(new AdapterPredicate<Item>() {
             @Override
             public boolean apply(@NonNull IAdapter<Item> lastParentAdapter, int lastParentPosition, Item item, int position) {
                 if (item.isSelectable()) {
@@ -385,6 +676,11 @@ public class SelectExtension<Item extends IItem> implements IAdapterExtension<It
             //we toggle the state of the view
             item.withSetSelected(!selected);
             view.setSelected(!selected);
+            if (selected) {
+                mSelectionIndex.remove(item, position);
+            } else {
+                addToSelectionIndex(item, position);
+            }
 
             //notify that the selection changed
             if (mSelectionListener != null)
@@ -416,14 +712,18 @@ public class SelectExtension<Item extends IItem> implements IAdapterExtension<It
         final ISelectionStateListener selectionStateListener = mSelectionStateListener;
         mSelectionStateListener = null;
 
-        mFastAdapter.recursive(new AdapterPredicate<Item>() {
+        mFastAdapter.traverse(new AdapterPredicate<Item>() {
             @Override
             public boolean apply(@NonNull IAdapter<Item> lastParentAdapter, int lastParentPosition, Item item, int position) {
                 select(lastParentAdapter, item, -1, false, considerSelectableFlag);
+                //the adapter is notified once afterwards, but the position of a displayed item is known
+                if (position != -1 && item.isSelected()) {
+                    addToSelectionIndex(item, position);
+                }
                 return false;
             }
         }, false);
-        mFastAdapter.notifyDataSetChanged();
+        mFastAdapter.notifyViewDataSetChanged();
 
         ///[UPGRADE#ISelectionStateListener]
         mSelectionStateListener = selectionStateListener;
@@ -449,6 +749,9 @@ public class SelectExtension<Item extends IItem> implements IAdapterExtension<It
         }
 
         item.withSetSelected(true);
+        addToSelectionIndex(item, -1);
+        //the item may be displayed, its position is collected once it is required
+        mSelectionIndex.invalidatePositions();
 
         if (mSelectionListener != null) {
             mSelectionListener.onSelectionChanged(item, true);
@@ -538,11 +841,12 @@ public class SelectExtension<Item extends IItem> implements IAdapterExtension<It
         }
 
         item.withSetSelected(true);
+        addToSelectionIndex(item, position);
 
         ///[FIX#if position is -1, won't notify the adapter]
 //        mFastAdapter.notifyItemChanged(position);
         if (position >= 0) {
-            mFastAdapter.notifyItemChanged(position);
+            mFastAdapter.notifyViewItemStateChanged(position, ChangeMask.SELECTION);
         }
 
         if (mSelectionListener != null)
@@ -569,16 +873,10 @@ public class SelectExtension<Item extends IItem> implements IAdapterExtension<It
      * @param considerSelectableFlag true if the select method should not select an item if its not selectable
      */
     public void selectByIdentifier(final long identifier, final boolean fireEvent, final boolean considerSelectableFlag) {
-        mFastAdapter.recursive(new AdapterPredicate<Item>() {
-            @Override
-            public boolean apply(@NonNull IAdapter<Item> lastParentAdapter, int lastParentPosition, Item item, int position) {
-                if (item.getIdentifier() == identifier) {
-                    select(lastParentAdapter, item, position, fireEvent, considerSelectableFlag);
-                    return true;
-                }
-                return false;
-            }
-        }, true);
+        TraversalMatch<Item> match = new TraversalMatch<>();
+        if (mFastAdapter.findByIdentifier(identifier, match)) {
+            select(match.adapter, match.item, match.position, fireEvent, considerSelectableFlag);
+        }
     }
 
     public void selectByItems(@NonNull final List<Item> items) {
@@ -607,7 +905,7 @@ public class SelectExtension<Item extends IItem> implements IAdapterExtension<It
         final ISelectionStateListener selectionStateListener = mSelectionStateListener;
         mSelectionStateListener = null;
 
-        mFastAdapter.recursive(new AdapterPredicate<Item>() {
+        mFastAdapter.traverse(new AdapterPredicate<Item>() {
             @Override
             public boolean apply(@NonNull IAdapter<Item> lastParentAdapter, int lastParentPosition, Item item, int position) {
                 if (identifiers.contains(item.getIdentifier())) {
@@ -625,21 +923,30 @@ public class SelectExtension<Item extends IItem> implements IAdapterExtension<It
     }
 
     /**
-     * deselects all selections
+     * deselects all selections, only the selected items of a `LazyItemList` are created
      */
     public void deselect() {
         ///[UPGRADE#ISelectionStateListener]
         final ISelectionStateListener selectionStateListener = mSelectionStateListener;
         mSelectionStateListener = null;
 
-        mFastAdapter.recursive(new AdapterPredicate<Item>() {
+        traverseIndexed(new AdapterPredicate<Item>() {
             @Override
             public boolean apply(@NonNull IAdapter<Item> lastParentAdapter, int lastParentPosition, Item item, int position) {
                 deselect(item);
                 return false;
             }
-        }, false);
-        mFastAdapter.notifyDataSetChanged();
+        });
+        IAdapter<Item> adapter;
+        for (int order = 0; (adapter = mFastAdapter.adapter(order)) != null; order++) {
+            LazyItemList<?, Item> lazyItemList = lazyItemList(adapter);
+            if (lazyItemList != null) {
+                for (int position : lazyItemList.getSelectedPositions()) {
+                    deselect(adapter.getAdapterItem(position));
+                }
+            }
+        }
+        mFastAdapter.notifyViewDataSetChanged();
 
         ///[UPGRADE#ISelectionStateListener]
         mSelectionStateListener = selectionStateListener;
@@ -724,11 +1031,12 @@ public class SelectExtension<Item extends IItem> implements IAdapterExtension<It
         }
 
         item.withSetSelected(false);
+        mSelectionIndex.remove(item, position);
         if (entries != null) {
             entries.remove();
         }
         if (position >= 0) {
-            mFastAdapter.notifyItemChanged(position);
+            mFastAdapter.notifyViewItemStateChanged(position, ChangeMask.SELECTION);
         }
 
         if (mSelectionListener != null) {
@@ -751,16 +1059,10 @@ public class SelectExtension<Item extends IItem> implements IAdapterExtension<It
      * @param identifier the identifier of the item to deselect
      */
     public void deselectByIdentifier(final long identifier) {
-        mFastAdapter.recursive(new AdapterPredicate<Item>() {
-            @Override
-            public boolean apply(@NonNull IAdapter<Item> lastParentAdapter, int lastParentPosition, Item item, int position) {
-                if (item.getIdentifier() == identifier) {
-                    deselect(item, position, null);
-                    return true;
-                }
-                return false;
-            }
-        }, true);
+        TraversalMatch<Item> match = new TraversalMatch<>();
+        if (mFastAdapter.findByIdentifier(identifier, match)) {
+            deselect(match.item, match.position, null);
+        }
     }
 
     /**
@@ -771,7 +1073,7 @@ public class SelectExtension<Item extends IItem> implements IAdapterExtension<It
         final ISelectionStateListener selectionStateListener = mSelectionStateListener;
         mSelectionStateListener = null;
 
-        mFastAdapter.recursive(new AdapterPredicate<Item>() {
+        mFastAdapter.traverse(new AdapterPredicate<Item>() {
             @Override
             public boolean apply(@NonNull IAdapter<Item> lastParentAdapter, int lastParentPosition, Item item, int position) {
                 if (identifiers.contains(item.getIdentifier())) {
@@ -796,7 +1098,7 @@ public class SelectExtension<Item extends IItem> implements IAdapterExtension<It
         final ISelectionStateListener selectionStateListener = mSelectionStateListener;
         mSelectionStateListener = null;
 
-        mFastAdapter.recursive(new AdapterPredicate<Item>() {
+        mFastAdapter.traverse(new AdapterPredicate<Item>() {
             @Override
             public boolean apply(@NonNull IAdapter<Item> lastParentAdapter, int lastParentPosition, Item item, int position) {
                 if (items.contains(item)) {
@@ -825,7 +1127,7 @@ public class SelectExtension<Item extends IItem> implements IAdapterExtension<It
         List<Item> deletedItems = new ArrayList<>();
 
         final List<Integer> positions = new ArrayList<>();
-        mFastAdapter.recursive(new AdapterPredicate<Item>() {
+        mFastAdapter.traverse(new AdapterPredicate<Item>() {
             @Override
             public boolean apply(@NonNull IAdapter<Item> lastParentAdapter, int lastParentPosition, Item item, int position) {
                 if (item.isSelected()) {
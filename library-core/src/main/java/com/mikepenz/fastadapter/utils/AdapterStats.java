@@ -0,0 +1,421 @@
+package com.mikepenz.fastadapter.utils;
+
+import android.util.SparseArray;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.core.os.TraceCompat;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Collects the performance stats of a FastAdapter: the count and duration of the created and bound ViewHolders per
+ * view type, the duration of unbinding and recycling, the failed recycles and the notifications. The durations are
+ * recorded in histograms with log2 buckets of microseconds.
+ * <p>
+ * Creating and binding a ViewHolder is also wrapped in a trace section (`FastAdapter.create:{type}` and
+ * `FastAdapter.bind:{type}`), so the slow types can be found in a systrace.
+ * <p>
+ * The stats are only collected on the main thread, use {@link #snapshot()} to read them.
+ */
+public class AdapterStats {
+    /**
+     * the count of buckets of a histogram, bucket `i` covers the durations from `2^(i-1)` (inclusive) to `2^i`
+     * (exclusive) microseconds, the last bucket contains all longer durations
+     */
+    public static final int BUCKET_COUNT = 24;
+
+    private final SparseArray<TypeStats> mTypes = new SparseArray<>();
+    private final Histogram mCreate = new Histogram();
+    private final Histogram mBind = new Histogram();
+    private final Histogram mUnbind = new Histogram();
+    private final Histogram mRecycle = new Histogram();
+    private long mFailedRecycles;
+    private long mDataSetChangedNotifications;
+    private long mRangeNotifications;
+
+    /**
+     * starts measuring the creation of a ViewHolder, call {@link #endCreate(int, long)} in a finally block, so the trace
+     * section is also closed if the item throws
+     *
+     * @param viewType the type of the ViewHolder
+     * @return the start time to pass to {@link #endCreate(int, long)}
+     */
+    public long beginCreate(int viewType) {
+        TraceCompat.beginSection(getTypeStats(viewType).mCreateSection);
+        return System.nanoTime();
+    }
+
+    /**
+     * records the creation of a ViewHolder
+     *
+     * @param viewType the type of the ViewHolder
+     * @param start    the time returned by {@link #beginCreate(int)}
+     */
+    public void endCreate(int viewType, long start) {
+        long duration = System.nanoTime() - start;
+        TraceCompat.endSection();
+        getTypeStats(viewType).mCreate.record(duration);
+        mCreate.record(duration);
+    }
+
+    /**
+     * starts measuring the binding of a ViewHolder, call {@link #endBind(int, long)} in a finally block, so the trace
+     * section is also closed if the item throws
+     *
+     * @param viewType the type of the ViewHolder
+     * @return the start time to pass to {@link #endBind(int, long)}
+     */
+    public long beginBind(int viewType) {
+        TraceCompat.beginSection(getTypeStats(viewType).mBindSection);
+        return System.nanoTime();
+    }
+
+    /**
+     * records the binding of a ViewHolder
+     *
+     * @param viewType the type of the ViewHolder
+     * @param start    the time returned by {@link #beginBind(int)}
+     */
+    public void endBind(int viewType, long start) {
+        long duration = System.nanoTime() - start;
+        TraceCompat.endSection();
+        getTypeStats(viewType).mBind.record(duration);
+        mBind.record(duration);
+    }
+
+    /**
+     * records the unbinding of a ViewHolder
+     *
+     * @param start the time unbinding started (`System.nanoTime()`)
+     */
+    public void endUnbind(long start) {
+        mUnbind.record(System.nanoTime() - start);
+    }
+
+    /**
+     * records the recycling of a ViewHolder
+     *
+     * @param start the time recycling started (`System.nanoTime()`)
+     */
+    public void endRecycle(long start) {
+        mRecycle.record(System.nanoTime() - start);
+    }
+
+    /**
+     * counts a ViewHolder which failed to recycle
+     */
+    public void onFailedToRecycle() {
+        mFailedRecycles++;
+    }
+
+    /**
+     * counts a notification which rebinds all items
+     */
+    public void onDataSetChanged() {
+        mDataSetChangedNotifications++;
+    }
+
+    /**
+     * counts a notification of an inserted, removed, moved or changed range
+     */
+    public void onRangeNotification() {
+        mRangeNotifications++;
+    }
+
+    /**
+     * drops all collected stats
+     */
+    public void reset() {
+        mTypes.clear();
+        mCreate.clear();
+        mBind.clear();
+        mUnbind.clear();
+        mRecycle.clear();
+        mFailedRecycles = 0;
+        mDataSetChangedNotifications = 0;
+        mRangeNotifications = 0;
+    }
+
+    /**
+     * @return a copy of the stats collected so far
+     */
+    @NonNull
+    public Snapshot snapshot() {
+        TypeStats[] types = new TypeStats[mTypes.size()];
+        for (int i = 0; i < types.length; i++) {
+            TypeStats type = mTypes.valueAt(i);
+            types[i] = new TypeStats(type.mViewType, type.mCreate.copy(), type.mBind.copy());
+        }
+        return new Snapshot(types, mCreate.copy(), mBind.copy(), mUnbind.copy(), mRecycle.copy(),
+                mFailedRecycles, mDataSetChangedNotifications, mRangeNotifications);
+    }
+
+    private TypeStats getTypeStats(int viewType) {
+        TypeStats type = mTypes.get(viewType);
+        if (type == null) {
+            type = new TypeStats(viewType, new Histogram(), new Histogram());
+            mTypes.put(viewType, type);
+        }
+        return type;
+    }
+
+    /**
+     * the durations of an operation in log2 buckets of microseconds
+     */
+    public static class Histogram {
+        private final long[] mBuckets;
+        private long mCount;
+        private long mTotalNanos;
+        private long mMaxNanos;
+
+        Histogram() {
+            this.mBuckets = new long[BUCKET_COUNT];
+        }
+
+        private Histogram(Histogram histogram) {
+            this.mBuckets = histogram.mBuckets.clone();
+            this.mCount = histogram.mCount;
+            this.mTotalNanos = histogram.mTotalNanos;
+            this.mMaxNanos = histogram.mMaxNanos;
+        }
+
+        void record(long nanos) {
+            mBuckets[bucketOf(nanos)]++;
+            mCount++;
+            mTotalNanos += nanos;
+            mMaxNanos = Math.max(mMaxNanos, nanos);
+        }
+
+        void clear() {
+            Arrays.fill(mBuckets, 0);
+            mCount = 0;
+            mTotalNanos = 0;
+            mMaxNanos = 0;
+        }
+
+        Histogram copy() {
+            return new Histogram(this);
+        }
+
+        /**
+         * @return the count of recorded durations
+         */
+        public long getCount() {
+            return mCount;
+        }
+
+        /**
+         * @return the sum of all recorded durations
+         */
+        public long getTotalNanos() {
+            return mTotalNanos;
+        }
+
+        /**
+         * @return the longest recorded duration
+         */
+        public long getMaxNanos() {
+            return mMaxNanos;
+        }
+
+        /**
+         * @param bucket the bucket, see {@link #BUCKET_COUNT}
+         * @return the count of durations within the bucket
+         */
+        public long getBucketCount(int bucket) {
+            return mBuckets[bucket];
+        }
+
+        /**
+         * @param percentile the percentile (0 - 100)
+         * @return the upper bound (in microseconds) of the bucket containing the percentile, or 0 if nothing was recorded
+         */
+        public long getPercentileMicros(double percentile) {
+            if (mCount == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(mCount * percentile / 100d);
+            long count = 0;
+            for (int i = 0; i < BUCKET_COUNT - 1; i++) {
+                count += mBuckets[i];
+                if (count >= rank) {
+                    //the bucket may reach beyond the longest duration
+                    return Math.min(1L << i, (mMaxNanos + 999) / 1000);
+                }
+            }
+            return (mMaxNanos + 999) / 1000;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.US, "count=%d avg=%dus p50=%dus p90=%dus p99=%dus max=%dus",
+                    mCount, mCount == 0 ? 0 : mTotalNanos / mCount / 1000,
+                    getPercentileMicros(50), getPercentileMicros(90), getPercentileMicros(99), mMaxNanos / 1000);
+        }
+
+        private static int bucketOf(long nanos) {
+            long micros = nanos / 1000;
+            return Math.min(BUCKET_COUNT - 1, 64 - Long.numberOfLeadingZeros(micros));
+        }
+    }
+
+    /**
+     * the stats of a single view type
+     */
+    public static class TypeStats {
+        private final int mViewType;
+        private final Histogram mCreate;
+        private final Histogram mBind;
+        private final String mCreateSection;
+        private final String mBindSection;
+
+        TypeStats(int viewType, Histogram create, Histogram bind) {
+            this.mViewType = viewType;
+            this.mCreate = create;
+            this.mBind = bind;
+            this.mCreateSection = "FastAdapter.create:" + viewType;
+            this.mBindSection = "FastAdapter.bind:" + viewType;
+        }
+
+        public int getViewType() {
+            return mViewType;
+        }
+
+        /**
+         * @return the count of created ViewHolders
+         */
+        public long getCreateCount() {
+            return mCreate.getCount();
+        }
+
+        /**
+         * @return the count of bound ViewHolders
+         */
+        public long getBindCount() {
+            return mBind.getCount();
+        }
+
+        public Histogram getCreateHistogram() {
+            return mCreate;
+        }
+
+        public Histogram getBindHistogram() {
+            return mBind;
+        }
+
+        @Override
+        public String toString() {
+            return "type " + mViewType + ": create(" + mCreate + ") bind(" + mBind + ")";
+        }
+    }
+
+    /**
+     * an immutable copy of the collected stats
+     */
+    public static class Snapshot {
+        private final TypeStats[] mTypes;
+        private final Histogram mCreate;
+        private final Histogram mBind;
+        private final Histogram mUnbind;
+        private final Histogram mRecycle;
+        private final long mFailedRecycles;
+        private final long mDataSetChangedNotifications;
+        private final long mRangeNotifications;
+
+        Snapshot(TypeStats[] types, Histogram create, Histogram bind, Histogram unbind, Histogram recycle,
+                 long failedRecycles, long dataSetChangedNotifications, long rangeNotifications) {
+            this.mTypes = types;
+            this.mCreate = create;
+            this.mBind = bind;
+            this.mUnbind = unbind;
+            this.mRecycle = recycle;
+            this.mFailedRecycles = failedRecycles;
+            this.mDataSetChangedNotifications = dataSetChangedNotifications;
+            this.mRangeNotifications = rangeNotifications;
+        }
+
+        /**
+         * @return the count of view types which were created or bound
+         */
+        public int getTypeCount() {
+            return mTypes.length;
+        }
+
+        /**
+         * @param index the index (0 - getTypeCount()), the types are sorted ascending
+         * @return the stats of the view type
+         */
+        public TypeStats getTypeStatsAt(int index) {
+            return mTypes[index];
+        }
+
+        /**
+         * @param viewType the view type
+         * @return the stats of the view type, or null if it was never created or bound
+         */
+        @Nullable
+        public TypeStats getTypeStats(int viewType) {
+            for (TypeStats type : mTypes) {
+                if (type.mViewType == viewType) {
+                    return type;
+                }
+            }
+            return null;
+        }
+
+        public Histogram getCreateHistogram() {
+            return mCreate;
+        }
+
+        public Histogram getBindHistogram() {
+            return mBind;
+        }
+
+        public Histogram getUnbindHistogram() {
+            return mUnbind;
+        }
+
+        public Histogram getRecycleHistogram() {
+            return mRecycle;
+        }
+
+        /**
+         * @return the count of ViewHolders which failed to recycle
+         */
+        public long getFailedRecycleCount() {
+            return mFailedRecycles;
+        }
+
+        /**
+         * @return the count of notifications which rebind all items
+         */
+        public long getDataSetChangedCount() {
+            return mDataSetChangedNotifications;
+        }
+
+        /**
+         * @return the count of notifications of inserted, removed, moved or changed ranges
+         */
+        public long getRangeNotificationCount() {
+            return mRangeNotifications;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append("create(").append(mCreate).append(")\n");
+            sb.append("bind(").append(mBind).append(")\n");
+            sb.append("unbind(").append(mUnbind).append(")\n");
+            sb.append("recycle(").append(mRecycle).append(")\n");
+            sb.append("failedRecycles=").append(mFailedRecycles)
+                    .append(" dataSetChanged=").append(mDataSetChangedNotifications)
+                    .append(" rangeNotifications=").append(mRangeNotifications);
+            for (TypeStats type : mTypes) {
+                sb.append('\n').append(type);
+            }
+            return sb.toString();
+        }
+    }
+}
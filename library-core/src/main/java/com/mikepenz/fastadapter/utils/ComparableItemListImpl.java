@@ -1,14 +1,26 @@
 package com.mikepenz.fastadapter.utils;
 
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.MainThread;
 import androidx.annotation.Nullable;
 
+import com.mikepenz.fastadapter.FastAdapter;
+import com.mikepenz.fastadapter.IAdapter;
 import com.mikepenz.fastadapter.IAdapterNotifier;
 import com.mikepenz.fastadapter.IItem;
+import com.mikepenz.fastadapter.adapters.ItemFilter;
+import com.mikepenz.fastadapter.adapters.ModelAdapter;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * The default item list implementation
@@ -16,16 +28,28 @@ import java.util.List;
 
 public class ComparableItemListImpl<Item extends IItem> extends DefaultItemListImpl<Item> {
 
+    //up to this count the added items are inserted one by one, larger batches are merged
+    private static final int BINARY_INSERT_THRESHOLD = 4;
+    //if an async sort requires more moves the whole list is notified as changed instead
+    private static final int MAX_MOVES = 200;
+
+    //the executor shared by all lists which do not define their own
+    private static Executor sDefaultExecutor;
+
     private Comparator<Item> mComparator;
+    //true if the items are known to be sorted by the comparator, otherwise the next addition sorts all items
+    private boolean mSorted;
 
     public ComparableItemListImpl(@Nullable Comparator<Item> comparator) {
         this.mItems = new ArrayList<>();
         this.mComparator = comparator;
+        this.mSorted = true;
     }
 
     public ComparableItemListImpl(@Nullable Comparator<Item> comparator, List<Item> items) {
         this.mItems = items;
         this.mComparator = comparator;
+        this.mSorted = items.isEmpty();
     }
 
     /**
@@ -61,11 +85,16 @@ public class ComparableItemListImpl<Item extends IItem> extends DefaultItemListI
         return withComparator(comparator, sortNow, true);
     }
     public ComparableItemListImpl<Item> withComparator(@Nullable Comparator<Item> comparator, boolean sortNow, boolean notify) {
+        //supersedes a running `withComparatorAsync`
+        mSortGeneration.incrementAndGet();
         this.mComparator = comparator;
+        this.mSorted = mItems == null || mItems.isEmpty();
 
         //we directly sort the list with the defined comparator
         if (mItems != null && mComparator != null && sortNow) {
             Collections.sort(mItems, mComparator);
+            mSorted = true;
+            invalidateIdentifierIndex();
             ///[UPGRADE#ComparableItemListImpl#withComparator(@Nullable Comparator<Item> comparator, boolean sortNow, boolean notify)]
 //            getFastAdapter().notifyAdapterDataSetChanged();
             if (notify) {
@@ -76,33 +105,356 @@ public class ComparableItemListImpl<Item extends IItem> extends DefaultItemListI
         return this;
     }
 
+    //the executor used by `withComparatorAsync`
+    private Executor mExecutor;
+    //the executor used to sort chunks of big lists in parallel, and the minimum count of items to do so
+    private ExecutorService mParallelExecutor;
+    private int mParallelThreshold;
+    //incremented by every change of the comparator, older sorts are dropped
+    private final AtomicInteger mSortGeneration = new AtomicInteger();
+    private Handler mMainHandler;
+
+    /**
+     * defines the executor used by `withComparatorAsync`. by default a single background thread shared by all lists is used
+     *
+     * @param executor the executor to sort on
+     * @return this
+     */
+    public ComparableItemListImpl<Item> withExecutor(Executor executor) {
+        checkExecutors(executor, mParallelExecutor);
+        this.mExecutor = executor;
+        return this;
+    }
+
+    /**
+     * sorts chunks of the items in parallel and merges them afterwards, if at least `threshold` items are sorted.
+     * the comparator has to be thread safe.
+     * NOTE the executor can't be the one used by `withComparatorAsync`, the sort waits for the chunks on it
+     *
+     * @param executor  the executor to sort the chunks on, null to disable the parallel sorting
+     * @param threshold the minimum count of items to sort in parallel
+     * @return this
+     */
+    public ComparableItemListImpl<Item> withParallelSorting(@Nullable ExecutorService executor, int threshold) {
+        checkExecutors(mExecutor, executor);
+        this.mParallelExecutor = executor;
+        this.mParallelThreshold = threshold;
+        return this;
+    }
+
+    /**
+     * defines a new comparator and sorts a snapshot of the items (and the original items of an active filter) on the
+     * executor. the sorted order is applied on the main thread, notifying the moves of the items (or the whole list if
+     * too many items moved). the comparator is only used for the following modifications once the sorted order is
+     * applied. a sort is dropped if the comparator was changed again in the meantime, and started again if the items
+     * were modified
+     *
+     * @param comparator used to sort the list
+     */
+    @MainThread
+    public void withComparatorAsync(@Nullable final Comparator<Item> comparator) {
+        final int generation = mSortGeneration.incrementAndGet();
+        if (comparator == null) {
+            mComparator = null;
+            mSorted = false;
+            return;
+        }
+
+        //sort snapshots, the items may be modified on the main thread in the meantime
+        final List<Item> items = new ArrayList<>(mItems);
+        final ItemFilter<?, Item> itemFilter = getItemFilter();
+        final List<Item> originalItems = itemFilter != null && itemFilter.getOriginalItems() != null ? new ArrayList<>(itemFilter.getOriginalItems()) : null;
+        final ExecutorService parallelExecutor = mParallelExecutor;
+        final int parallelThreshold = mParallelThreshold;
+        final Handler mainHandler = getMainHandler();
+
+        getExecutor().execute(new Runnable() {
+            @Override
+            public void run() {
+                if (generation != mSortGeneration.get()) {
+                    return;
+                }
+                final int[] order = SortMoves.sortedOrder(items, comparator, parallelExecutor, parallelThreshold);
+                final int[] moves = SortMoves.moves(order, MAX_MOVES);
+                final int[] originalOrder = originalItems != null ? SortMoves.sortedOrder(originalItems, comparator, parallelExecutor, parallelThreshold) : null;
+                mainHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (generation != mSortGeneration.get()) {
+                            return;
+                        }
+                        if (!isSnapshot(mItems, items) || (originalItems != null
+                                && (getItemFilter() != itemFilter || !isSnapshot(itemFilter.getOriginalItems(), originalItems)))) {
+                            //the items were modified, sort them again
+                            withComparatorAsync(comparator);
+                            return;
+                        }
+                        applySortedOrder(comparator, items, order, moves);
+                        if (originalItems != null) {
+                            List<Item> sortedOriginalItems = itemFilter.getOriginalItems();
+                            sortedOriginalItems.clear();
+                            for (int index : originalOrder) {
+                                sortedOriginalItems.add(originalItems.get(index));
+                            }
+                            itemFilter.setOriginalItems(sortedOriginalItems);
+                        }
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * drops a running `withComparatorAsync`, the previous comparator stays in use
+     */
+    public void cancelSort() {
+        mSortGeneration.incrementAndGet();
+    }
+
+    private void applySortedOrder(Comparator<Item> comparator, List<Item> items, int[] order, @Nullable int[] moves) {
+        mComparator = comparator;
+        mItems.clear();
+        for (int index : order) {
+            mItems.add(items.get(index));
+        }
+        mSorted = true;
+        invalidateIdentifierIndex();
+
+        FastAdapter<Item> fastAdapter = getFastAdapter();
+        if (fastAdapter == null) {
+            return;
+        }
+        ModelAdapter<?, Item> adapter = getModelAdapter();
+        if (moves == null || adapter == null) {
+            fastAdapter.notifyAdapterDataSetChanged();
+            return;
+        }
+        int preItemCount = fastAdapter.getPreItemCountByOrder(adapter.getOrder());
+        fastAdapter.beginUpdate();
+        try {
+            for (int i = 0; i < moves.length; i += 2) {
+                fastAdapter.notifyAdapterItemMoved(moves[i] + preItemCount, moves[i + 1] + preItemCount);
+            }
+        } finally {
+            fastAdapter.endUpdate();
+        }
+    }
+
+    /**
+     * @return true if the list still contains exactly the items of the snapshot
+     */
+    private static <Item> boolean isSnapshot(@Nullable List<Item> list, List<Item> snapshot) {
+        if (list == null || list.size() != snapshot.size()) {
+            return false;
+        }
+        for (int i = 0, size = snapshot.size(); i < size; i++) {
+            if (list.get(i) != snapshot.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the adapter using this list
+     */
+    @Nullable
+    private ModelAdapter<?, Item> getModelAdapter() {
+        FastAdapter<Item> fastAdapter = getFastAdapter();
+        if (fastAdapter == null) {
+            return null;
+        }
+        IAdapter<Item> adapter;
+        for (int order = 0; (adapter = fastAdapter.adapter(order)) != null; order++) {
+            if (adapter instanceof ModelAdapter && ((ModelAdapter) adapter).getItemList() == this) {
+                return (ModelAdapter<?, Item>) adapter;
+            }
+        }
+        return null;
+    }
+
+    @Nullable
+    private ItemFilter<?, Item> getItemFilter() {
+        ModelAdapter<?, Item> adapter = getModelAdapter();
+        return adapter != null ? adapter.getItemFilter() : null;
+    }
+
+    private Executor getExecutor() {
+        if (mExecutor != null) {
+            return mExecutor;
+        }
+        synchronized (ComparableItemListImpl.class) {
+            if (sDefaultExecutor == null) {
+                sDefaultExecutor = Executors.newSingleThreadExecutor();
+            }
+            return sDefaultExecutor;
+        }
+    }
+
+    /**
+     * the parallel chunks are awaited on a thread of the async executor, if both are the same it runs out of threads
+     */
+    private static void checkExecutors(@Nullable Executor executor, @Nullable ExecutorService parallelExecutor) {
+        if (parallelExecutor == null) {
+            return;
+        }
+        synchronized (ComparableItemListImpl.class) {
+            if (parallelExecutor == executor || (executor == null && parallelExecutor == sDefaultExecutor)) {
+                throw new IllegalArgumentException("the parallel executor can't be the executor used by withComparatorAsync");
+            }
+        }
+    }
+
+    @MainThread
+    private Handler getMainHandler() {
+        if (mMainHandler == null) {
+            mMainHandler = new Handler(Looper.getMainLooper());
+        }
+        return mMainHandler;
+    }
+
+    /**
+     * with a comparator the item can only move within the items which are equal to it, as the list stays sorted
+     */
     @Override
     public void move(int fromPosition, int toPosition, int preItemCount) {
-        Item item = mItems.get(fromPosition - preItemCount);
-        mItems.remove(fromPosition - preItemCount);
-        mItems.add(toPosition - preItemCount, item);
-        if (mComparator != null) {
-            Collections.sort(mItems, mComparator);
+        if (mComparator == null) {
+            super.move(fromPosition, toPosition, preItemCount);
+            return;
+        }
+        int fromIndex = fromPosition - preItemCount;
+        Item item = mItems.remove(fromIndex);
+        if (!mSorted) {
+            mItems.add(toPosition - preItemCount, item);
+            sortAll();
+            return;
+        }
+        //a stable sort keeps the item at the requested position within its equal items
+        int size = mItems.size();
+        int toIndex = Math.min(Math.max(toPosition - preItemCount, SortedLists.lowerBound(mItems, item, mComparator, 0, size)),
+                SortedLists.upperBound(mItems, item, mComparator, 0, size));
+        mItems.add(toIndex, item);
+        if (toIndex != fromIndex) {
+            onItemsRemoved(fromIndex, Collections.singletonList(item));
+            onItemsInserted(toIndex, 1);
+            if (getFastAdapter() != null) {
+                getFastAdapter().notifyAdapterItemMoved(fromPosition, toIndex + preItemCount);
+            }
         }
-        getFastAdapter().notifyAdapterDataSetChanged();
     }
 
+    /**
+     * with a comparator the items are inserted at their sorted positions, after the equal items which are already in
+     * the list (the same order a stable sort results in)
+     */
     @Override
     public void addAll(List<Item> items, int preItemCount) {
-        mItems.addAll(items);
-        if (mComparator != null) {
-            Collections.sort(mItems, mComparator);
+        if (mComparator == null) {
+            super.addAll(items, preItemCount);
+        } else if (!mSorted) {
+            mItems.addAll(items);
+            sortAll();
+        } else {
+            addSorted(items, preItemCount);
         }
-        getFastAdapter().notifyAdapterDataSetChanged();
     }
 
+    /**
+     * with a comparator the position is ignored, the items are inserted at their sorted positions
+     */
     @Override
     public void addAll(int position, List<Item> items, int preItemCount) {
-        mItems.addAll(position - preItemCount, items);
+        if (mComparator == null) {
+            super.addAll(position, items, preItemCount);
+        } else if (!mSorted) {
+            mItems.addAll(position - preItemCount, items);
+            sortAll();
+        } else {
+            addSorted(items, preItemCount);
+        }
+    }
+
+    /**
+     * the replacing item may not belong to this position, the items are sorted again by the next addition
+     */
+    @Override
+    public void set(int position, Item item, int preItemCount) {
+        super.set(position, item, preItemCount);
         if (mComparator != null) {
-            Collections.sort(mItems, mComparator);
+            mSorted = false;
+        }
+    }
+
+    /**
+     * sorts all items and notifies the whole list as changed, used while the items are not known to be sorted
+     */
+    private void sortAll() {
+        Collections.sort(mItems, mComparator);
+        mSorted = true;
+        //any position may have changed, the index is rebuilt on the next lookup
+        invalidateIdentifierIndex();
+        if (getFastAdapter() != null) {
+            getFastAdapter().notifyAdapterDataSetChanged();
+        }
+    }
+
+    /**
+     * inserts a few items by binary search, and merges larger batches in O(n + k log k). every run of inserted items is
+     * notified at its resulting position
+     *
+     * @param items        the items to insert
+     * @param preItemCount the count of items before this list
+     */
+    private void addSorted(List<Item> items, int preItemCount) {
+        int count = items.size();
+        if (count == 0) {
+            return;
+        }
+        FastAdapter<Item> fastAdapter = getFastAdapter();
+        if (count <= BINARY_INSERT_THRESHOLD) {
+            if (fastAdapter != null) {
+                fastAdapter.beginUpdate();
+            }
+            try {
+                for (int i = 0; i < count; i++) {
+                    Item item = items.get(i);
+                    int index = SortedLists.upperBound(mItems, item, mComparator, 0, mItems.size());
+                    mItems.add(index, item);
+                    onItemsInserted(index, 1);
+                    if (fastAdapter != null) {
+                        fastAdapter.notifyAdapterItemInserted(index + preItemCount);
+                    }
+                }
+            } finally {
+                if (fastAdapter != null) {
+                    fastAdapter.endUpdate();
+                }
+            }
+            return;
+        }
+
+        int[] runs = SortedLists.merge(mItems, items, mComparator);
+        if (runs.length / 2 <= BINARY_INSERT_THRESHOLD) {
+            //in ascending order the items before every run are in place already
+            for (int r = 0; r < runs.length; r += 2) {
+                onItemsInserted(runs[r], runs[r + 1]);
+            }
+        } else {
+            //every run shifts the tail of the index, rebuilding it is linear like the merge
+            invalidateIdentifierIndex();
+        }
+
+        if (fastAdapter != null) {
+            fastAdapter.beginUpdate();
+            try {
+                //in ascending order every run is inserted at its final position
+                for (int r = 0; r < runs.length; r += 2) {
+                    fastAdapter.notifyAdapterItemRangeInserted(runs[r] + preItemCount, runs[r + 1]);
+                }
+            } finally {
+                fastAdapter.endUpdate();
+            }
         }
-        getFastAdapter().notifyAdapterDataSetChanged();
     }
 
     @Override
@@ -111,6 +463,8 @@ public class ComparableItemListImpl<Item extends IItem> extends DefaultItemListI
         if (mComparator != null) {
             Collections.sort(mItems, mComparator);
         }
+        mSorted = true;
+        invalidateIdentifierIndex();
         if (notify) {
             getFastAdapter().notifyAdapterDataSetChanged();
         }
@@ -136,6 +490,8 @@ public class ComparableItemListImpl<Item extends IItem> extends DefaultItemListI
         if (mComparator != null) {
             Collections.sort(mItems, mComparator);
         }
+        mSorted = true;
+        invalidateIdentifierIndex();
         if (getFastAdapter() == null) return;
         //now properly notify the adapter about the changes
         if (adapterNotifier == null) {
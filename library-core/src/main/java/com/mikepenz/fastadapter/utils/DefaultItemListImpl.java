@@ -4,6 +4,7 @@ import com.mikepenz.fastadapter.IAdapterNotifier;
 import com.mikepenz.fastadapter.IItem;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import androidx.annotation.Nullable;
@@ -16,6 +17,9 @@ public class DefaultItemListImpl<Item extends IItem> extends DefaultItemList<Ite
 
     protected List<Item> mItems;
 
+    //optional index to resolve identifiers to positions in constant time
+    private IdentifierIndex mIdentifierIndex;
+
     public DefaultItemListImpl() {
         this(new ArrayList<Item>());
     }
@@ -34,8 +38,46 @@ public class DefaultItemListImpl<Item extends IItem> extends DefaultItemList<Ite
         return mItems;
     }
 
+    /**
+     * enables an index which maps identifiers to positions, so `getAdapterIndex(long)` no longer scans the whole list
+     * the index is kept up to date by the modifying methods of this list, items inserted, removed or moved before the
+     * end shift the positions within the index (one pass over it, but no rebuild). if the list returned by `getItems()`
+     * is modified directly call `invalidateIdentifierIndex()` afterwards
+     *
+     * @param enabled true to enable the identifier index
+     * @return this
+     */
+    public DefaultItemListImpl<Item> withIdentifierIndex(boolean enabled) {
+        if (!enabled) {
+            mIdentifierIndex = null;
+        } else if (mIdentifierIndex == null) {
+            mIdentifierIndex = new IdentifierIndex(mItems.size());
+            mIdentifierIndex.invalidate();
+        }
+        return this;
+    }
+
+    /**
+     * @return true if the identifier index is enabled
+     */
+    public boolean isIdentifierIndexEnabled() {
+        return mIdentifierIndex != null;
+    }
+
+    /**
+     * marks the identifier index as outdated, it will be rebuilt with the next lookup
+     */
+    public void invalidateIdentifierIndex() {
+        if (mIdentifierIndex != null) {
+            mIdentifierIndex.invalidate();
+        }
+    }
+
     @Override
     public int getAdapterIndex(long identifier) {
+        if (mIdentifierIndex != null) {
+            return mIdentifierIndex.indexOf(mItems, identifier);
+        }
         for (int i = 0, size = mItems.size(); i < size; i++) {
             if (mItems.get(i).getIdentifier() == identifier) {
                 return i;
@@ -46,7 +88,8 @@ public class DefaultItemListImpl<Item extends IItem> extends DefaultItemList<Ite
 
     @Override
     public void remove(int position, int preItemCount) {
-        mItems.remove(position - preItemCount);
+        Item item = mItems.remove(position - preItemCount);
+        onItemsRemoved(position - preItemCount, Collections.singletonList(item));
         if (getFastAdapter() != null) {
             getFastAdapter().notifyAdapterItemRemoved(position);
         }
@@ -55,7 +98,11 @@ public class DefaultItemListImpl<Item extends IItem> extends DefaultItemList<Ite
     ///[UPGRADE#remove(Item item)]
     @Override
     public void remove(Item item, int position) {
-        mItems.remove(item);
+        int index = mItems.indexOf(item);
+        if (index != -1) {
+            mItems.remove(index);
+            onItemsRemoved(index, Collections.singletonList(item));
+        }
         if (getFastAdapter() != null) {
             getFastAdapter().notifyAdapterItemRemoved(position);
         }
@@ -68,7 +115,8 @@ public class DefaultItemListImpl<Item extends IItem> extends DefaultItemList<Ite
         if (adapterPosition == -1) {
             return;
         }
-        mItems.remove(adapterPosition);
+        Item item = mItems.remove(adapterPosition);
+        onItemsRemoved(adapterPosition, Collections.singletonList(item));
         if (getFastAdapter() != null) {
             getFastAdapter().notifyAdapterItemRemoved(position);
         }
@@ -81,19 +129,51 @@ public class DefaultItemListImpl<Item extends IItem> extends DefaultItemList<Ite
         //make sure we do not delete to many items
         int saveItemCount = Math.min(itemCount, length - position + preItemCount);
 
-        for (int i = 0; i < saveItemCount; i++) {
-            mItems.remove(position - preItemCount);
+        //clear the whole range at once, so the following items are only shifted once
+        List<Item> range = mItems.subList(position - preItemCount, position - preItemCount + saveItemCount);
+        List<Item> removed = mIdentifierIndex != null ? new ArrayList<>(range) : null;
+        range.clear();
+        if (removed != null) {
+            onItemsRemoved(position - preItemCount, removed);
         }
         if (getFastAdapter() != null) {
             getFastAdapter().notifyAdapterItemRangeRemoved(position, saveItemCount);
         }
     }
 
+    /**
+     * compacts the list once, so every following item is shifted only once, and notifies all ranges together. the
+     * ranges have to be within this list and must not overlap
+     */
+    @Override
+    public void removeRanges(int[] ranges, int preItemCount) {
+        if (ranges.length == 0) {
+            return;
+        }
+        int size = mItems.size();
+        int kept = ranges[0] - preItemCount;
+        for (int r = 0; r < ranges.length; r += 2) {
+            int end = ranges[r] - preItemCount + ranges[r + 1];
+            int next = r + 2 < ranges.length ? ranges[r + 2] - preItemCount : size;
+            for (int i = end; i < next; i++) {
+                mItems.set(kept++, mItems.get(i));
+            }
+        }
+        mItems.subList(kept, size).clear();
+        //a rebuild is linear like the compaction
+        invalidateIdentifierIndex();
+        if (getFastAdapter() != null) {
+            getFastAdapter().notifyAdapterItemRangesRemoved(ranges);
+        }
+    }
+
     @Override
     public void move(int fromPosition, int toPosition, int preItemCount) {
         Item item = mItems.get(fromPosition - preItemCount);
         mItems.remove(fromPosition - preItemCount);
+        onItemsRemoved(fromPosition - preItemCount, Collections.singletonList(item));
         mItems.add(toPosition - preItemCount, item);
+        onItemsInserted(toPosition - preItemCount, 1);
         if (getFastAdapter() != null) {
             getFastAdapter().notifyAdapterItemMoved(fromPosition, toPosition);
         }
@@ -108,6 +188,9 @@ public class DefaultItemListImpl<Item extends IItem> extends DefaultItemList<Ite
     public void clear(int position) {
         int size = mItems.size();
         mItems.clear();
+        if (mIdentifierIndex != null) {
+            mIdentifierIndex.clear();
+        }
         if (getFastAdapter() != null) {
             getFastAdapter().notifyAdapterItemRangeRemoved(position, size);
         }
@@ -120,7 +203,8 @@ public class DefaultItemListImpl<Item extends IItem> extends DefaultItemList<Ite
 
     @Override
     public void set(int position, Item item, int preItemCount) {
-        mItems.set(position - preItemCount, item);
+        Item previous = mItems.set(position - preItemCount, item);
+        onItemReplaced(position - preItemCount, previous, item);
         if (getFastAdapter() != null) {
             getFastAdapter().notifyAdapterItemChanged(position);
         }
@@ -130,6 +214,7 @@ public class DefaultItemListImpl<Item extends IItem> extends DefaultItemList<Ite
     public void addAll(List<Item> items, int position) {
         int countBefore = mItems.size();
         mItems.addAll(items);
+        onItemsAppended(countBefore);
         if (getFastAdapter() != null) {
             getFastAdapter().notifyAdapterItemRangeInserted(position + countBefore, items.size());
         }
@@ -137,7 +222,13 @@ public class DefaultItemListImpl<Item extends IItem> extends DefaultItemList<Ite
 
     @Override
     public void addAll(int position, List<Item> items, int preItemCount) {
+        int countBefore = mItems.size();
         mItems.addAll(position - preItemCount, items);
+        if (position - preItemCount == countBefore) {
+            onItemsAppended(countBefore);
+        } else {
+            onItemsInserted(position - preItemCount, items.size());
+        }
         if (getFastAdapter() != null) {
             getFastAdapter().notifyAdapterItemRangeInserted(position, items.size());
         }
@@ -159,6 +250,7 @@ public class DefaultItemListImpl<Item extends IItem> extends DefaultItemList<Ite
             //add all new items to the list
             mItems.addAll(items);
         }
+        invalidateIdentifierIndex();
         if (getFastAdapter() == null) return;
         //now properly notify the adapter about the changes
         if (adapterNotifier == null) {
@@ -170,8 +262,95 @@ public class DefaultItemListImpl<Item extends IItem> extends DefaultItemList<Ite
     @Override
     public void setNewList(List<Item> items, boolean notify) {
         mItems = new ArrayList<>(items);
+        invalidateIdentifierIndex();
         if (getFastAdapter() != null && notify) {
             getFastAdapter().notifyAdapterDataSetChanged();
         }
     }
+
+    /**
+     * keeps the identifier index up to date after items were appended to the end of the list
+     *
+     * @param countBefore the size of the list before the items were appended
+     */
+    private void onItemsAppended(int countBefore) {
+        if (mIdentifierIndex == null || !mIdentifierIndex.isValid()) {
+            return;
+        }
+        for (int i = countBefore, size = mItems.size(); i < size; i++) {
+            mIdentifierIndex.putIfAbsent(mItems.get(i).getIdentifier(), i);
+        }
+    }
+
+    /**
+     * keeps the identifier index up to date after items were inserted before the end of the list, the following
+     * positions are shifted. an identifier which is contained already invalidates the index, the inserted item may be
+     * the first one now
+     *
+     * @param index the relative position of the first inserted item
+     * @param count the count of inserted items
+     */
+    protected void onItemsInserted(int index, int count) {
+        if (mIdentifierIndex == null || !mIdentifierIndex.isValid()) {
+            return;
+        }
+        if (mIdentifierIndex.hasDuplicates()) {
+            mIdentifierIndex.invalidate();
+            return;
+        }
+        mIdentifierIndex.shift(index, count);
+        for (int i = index; i < index + count; i++) {
+            if (!mIdentifierIndex.putIfAbsent(mItems.get(i).getIdentifier(), i)) {
+                mIdentifierIndex.invalidate();
+                return;
+            }
+        }
+    }
+
+    /**
+     * keeps the identifier index up to date after items were removed, the following positions are shifted. if an
+     * identifier is contained more than once the index is invalidated, another item may be the first one now
+     *
+     * @param index the relative position the items were removed from
+     * @param items the removed items
+     */
+    protected void onItemsRemoved(int index, List<Item> items) {
+        if (mIdentifierIndex == null || !mIdentifierIndex.isValid()) {
+            return;
+        }
+        if (mIdentifierIndex.hasDuplicates()) {
+            mIdentifierIndex.invalidate();
+            return;
+        }
+        for (int i = 0, size = items.size(); i < size; i++) {
+            long identifier = items.get(i).getIdentifier();
+            if (mIdentifierIndex.get(identifier) != index + i) {
+                mIdentifierIndex.invalidate();
+                return;
+            }
+            mIdentifierIndex.remove(identifier);
+        }
+        if (index < mItems.size()) {
+            mIdentifierIndex.shift(index + items.size(), -items.size());
+        }
+    }
+
+    /**
+     * keeps the identifier index up to date after an item was replaced
+     *
+     * @param index    the relative position of the item
+     * @param previous the item which was replaced
+     * @param item     the new item
+     */
+    private void onItemReplaced(int index, Item previous, Item item) {
+        if (mIdentifierIndex == null || !mIdentifierIndex.isValid() || previous.getIdentifier() == item.getIdentifier()) {
+            return;
+        }
+        if (!mIdentifierIndex.hasDuplicates() && !mIdentifierIndex.contains(item.getIdentifier())) {
+            mIdentifierIndex.remove(previous.getIdentifier());
+            mIdentifierIndex.put(item.getIdentifier(), index);
+        } else {
+            mIdentifierIndex.invalidate();
+        }
+    }
 }
@@ -28,6 +28,21 @@ public class DefaultTypeInstanceCache<Item extends IItem> implements ITypeInstan
         return mTypeInstances.get(type);
     }
 
+    /**
+     * @return the count of registered types
+     */
+    public int size() {
+        return mTypeInstances.size();
+    }
+
+    /**
+     * @param index the index of the type, between 0 and `size()`
+     * @return the type instance at the given index
+     */
+    public Item valueAt(int index) {
+        return mTypeInstances.valueAt(index);
+    }
+
     @Override
     public void clear() {
         mTypeInstances.clear();
@@ -28,22 +28,138 @@ public class EventHookUtil {
      * @param viewHolder the viewHolder of the item
      */
     public static <Item extends IItem> void bind(RecyclerView.ViewHolder viewHolder, @Nullable final List<EventHook<Item>> eventHooks) {
+        bind(viewHolder, eventHooks, false);
+    }
+
+    /**
+     * binds the hooks to the viewHolder
+     *
+     * @param viewHolder      the viewHolder of the item
+     * @param sharedListeners true to use the shared listeners instead of creating new ones (see `attachToView`)
+     */
+    public static <Item extends IItem> void bind(RecyclerView.ViewHolder viewHolder, @Nullable final List<EventHook<Item>> eventHooks, boolean sharedListeners) {
         if (eventHooks == null) {
             return;
         }
         for (final EventHook<Item> event : eventHooks) {
             View view = event.onBind(viewHolder);
             if (view != null) {
-                attachToView(event, viewHolder, view);
+                attachToView(event, viewHolder, view, sharedListeners);
             }
 
             List<? extends View> views = event.onBindMany(viewHolder);
             if (views != null) {
                 for (View v : views) {
-                    attachToView(event, viewHolder, v);
+                    attachToView(event, viewHolder, v, sharedListeners);
+                }
+            }
+        }
+    }
+
+    /**
+     * attaches the specific event to a view
+     * with shared listeners the viewHolder and the hook are stored as tags of the view and one listener instance per
+     * kind of event is used for all views, so no listener has to be created per view
+     *
+     * @param event           the event to attach
+     * @param viewHolder      the viewHolder containing this view
+     * @param view            the view to attach to
+     * @param sharedListeners true to use the shared listeners
+     */
+    public static <Item extends IItem> void attachToView(final EventHook<Item> event, final RecyclerView.ViewHolder viewHolder, View view, boolean sharedListeners) {
+        if (!sharedListeners || event instanceof CustomEventHook) {
+            attachToView(event, viewHolder, view);
+            return;
+        }
+        view.setTag(R.id.fastadapter_view_holder, viewHolder);
+        if (event instanceof ClickEventHook) {
+            view.setTag(R.id.fastadapter_click_event_hook, event);
+            view.setOnClickListener(SHARED_CLICK_LISTENER);
+        } else if (event instanceof LongClickEventHook) {
+            view.setTag(R.id.fastadapter_long_click_event_hook, event);
+            view.setOnLongClickListener(SHARED_LONG_CLICK_LISTENER);
+        } else if (event instanceof TouchEventHook) {
+            view.setTag(R.id.fastadapter_touch_event_hook, event);
+            view.setOnTouchListener(SHARED_TOUCH_LISTENER);
+        }
+    }
+
+    private static final View.OnClickListener SHARED_CLICK_LISTENER = new View.OnClickListener() {
+        @Override
+        @SuppressWarnings("unchecked")
+        public void onClick(View v) {
+            Object event = v.getTag(R.id.fastadapter_click_event_hook);
+            RecyclerView.ViewHolder viewHolder = (RecyclerView.ViewHolder) v.getTag(R.id.fastadapter_view_holder);
+            FastAdapter adapter = getFastAdapter(viewHolder);
+            if (adapter != null && event instanceof ClickEventHook) {
+                //we get the adapterPosition from the viewHolder
+                int pos = adapter.getHolderAdapterPosition(viewHolder);
+                IItem item = getItem(adapter, pos);
+                if (item != null) {
+                    ((ClickEventHook) event).onClick(v, pos, adapter, item);
+                }
+            }
+        }
+    };
+
+    private static final View.OnLongClickListener SHARED_LONG_CLICK_LISTENER = new View.OnLongClickListener() {
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean onLongClick(View v) {
+            Object event = v.getTag(R.id.fastadapter_long_click_event_hook);
+            RecyclerView.ViewHolder viewHolder = (RecyclerView.ViewHolder) v.getTag(R.id.fastadapter_view_holder);
+            FastAdapter adapter = getFastAdapter(viewHolder);
+            if (adapter != null && event instanceof LongClickEventHook) {
+                int pos = adapter.getHolderAdapterPosition(viewHolder);
+                IItem item = getItem(adapter, pos);
+                if (item != null) {
+                    return ((LongClickEventHook) event).onLongClick(v, pos, adapter, item);
+                }
+            }
+            return false;
+        }
+    };
+
+    private static final View.OnTouchListener SHARED_TOUCH_LISTENER = new View.OnTouchListener() {
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean onTouch(View v, MotionEvent e) {
+            Object event = v.getTag(R.id.fastadapter_touch_event_hook);
+            RecyclerView.ViewHolder viewHolder = (RecyclerView.ViewHolder) v.getTag(R.id.fastadapter_view_holder);
+            FastAdapter adapter = getFastAdapter(viewHolder);
+            if (adapter != null && event instanceof TouchEventHook) {
+                int pos = adapter.getHolderAdapterPosition(viewHolder);
+                IItem item = getItem(adapter, pos);
+                if (item != null) {
+                    return ((TouchEventHook) event).onTouch(v, e, pos, adapter, item);
                 }
             }
+            return false;
+        }
+    };
+
+    /**
+     * @return the FastAdapter the viewHolder belongs to, or null
+     */
+    @Nullable
+    private static FastAdapter getFastAdapter(@Nullable RecyclerView.ViewHolder viewHolder) {
+        if (viewHolder == null) {
+            return null;
+        }
+        Object tagAdapter = viewHolder.itemView.getTag(R.id.fastadapter_item_adapter);
+        return tagAdapter instanceof FastAdapter ? (FastAdapter) tagAdapter : null;
+    }
+
+    /**
+     * @return the item at the given position, or null if the position is not valid
+     */
+    @Nullable
+    private static IItem getItem(FastAdapter adapter, int pos) {
+        //make sure the click was done on a valid item
+        if (pos == RecyclerView.NO_POSITION) {
+            return null;
         }
+        return adapter.getItem(pos);
     }
 
     /**
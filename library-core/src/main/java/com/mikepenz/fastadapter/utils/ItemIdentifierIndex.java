@@ -0,0 +1,555 @@
+package com.mikepenz.fastadapter.utils;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.mikepenz.fastadapter.FastAdapter;
+import com.mikepenz.fastadapter.IAdapter;
+import com.mikepenz.fastadapter.IExpandable;
+import com.mikepenz.fastadapter.IItem;
+import com.mikepenz.fastadapter.ISubItem;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A global index from identifiers to the items of all adapters of a FastAdapter, including the non displayed sub items
+ * of collapsed parents. Each entry remembers the item, the adapter and the global position of its (last visible)
+ * parent, and its own position (-1 if it is not displayed), the same values `FastAdapter.traverse` passes to a predicate.
+ * <p>
+ * The index is built lazily with one traversal and then kept up to date by the notify calls of the FastAdapter. The
+ * entries are kept sorted by the position of their parent (like {@link ExpandedPositions}), so inserted, removed and
+ * moved ranges are found with a binary search and only the entries behind them are shifted. Inserted items and the sub
+ * items of collapsed parents are added, removed ones are dropped. A range larger than a quarter of the index, a data
+ * set change or an identifier which is contained more than once invalidate it, as a rebuild is cheaper (or needed to
+ * find the first item in the order of the traversal, the same as a search with `stopOnMatch` would).
+ * <p>
+ * A hit is verified (the displayed item is still at its position, or the parent chain of a sub item still leads to its
+ * collapsed parent), so it is never wrong, a failed verification rebuilds the index. A miss is not verified, sub items
+ * added directly to a collapsed parent are only found after the parent was notified as changed
+ * (`notifyAdapterItemChanged`) or {@link #invalidate()} was called. Sub items without a parent are found, but their
+ * lookup rebuilds the index every time.
+ */
+public class ItemIdentifierIndex<Item extends IItem> {
+    //guards the walk up the parent chain against cycles
+    private static final int MAX_DEPTH = 64;
+    //ranges up to this size are always applied, larger ones only if the index holds four times as many entries
+    private static final int MIN_INCREMENTAL = 16;
+
+    private final FastAdapter<Item> mFastAdapter;
+    private final IdentifierIndex mSlots = new IdentifierIndex();
+    private Object[] mItems = new Object[16];
+    private IAdapter[] mAdapters = new IAdapter[16];
+    private int[] mParentPositions = new int[16];
+    private int[] mPositions = new int[16];
+    private int mCount = 0;
+    //count of dropped entries, their slots are reused by the next compaction
+    private int mDropped = 0;
+    //the slots sorted by the position of their parent. dropped slots may stay in here, they are shifted along
+    private int[] mOrder = new int[16];
+    private int mOrderSize = 0;
+    //the slots added by the current notification, sorted by the position of their parent, merged into mOrder at its end
+    private int[] mPending = new int[16];
+    private int mPendingCount = 0;
+
+    private boolean mValid = false;
+
+    public ItemIdentifierIndex(FastAdapter<Item> fastAdapter) {
+        this.mFastAdapter = fastAdapter;
+    }
+
+    /**
+     * marks this index as outdated, it is rebuilt with the next lookup. call this (or notify the parent as changed)
+     * after sub items of a collapsed parent were modified directly
+     */
+    public void invalidate() {
+        mValid = false;
+    }
+
+    /**
+     * called after items were inserted, shifts the following entries and adds the new items with their hidden sub items
+     *
+     * @param position  the global position
+     * @param itemCount the count of items inserted
+     */
+    public void onInserted(int position, int itemCount) {
+        if (!isIncremental(itemCount)) {
+            return;
+        }
+        shift(lowerBound(position), itemCount);
+        for (int i = position; i < position + itemCount && mValid; i++) {
+            index(i);
+        }
+        flush();
+    }
+
+    /**
+     * called after items were removed, drops them (and their hidden sub items) and shifts the following entries. if the
+     * item in front of the range is a collapsed parent (the range were its sub items), they are added as hidden ones
+     *
+     * @param position  the global position
+     * @param itemCount the count of items removed
+     */
+    public void onRemoved(int position, int itemCount) {
+        if (!isIncremental(itemCount)) {
+            return;
+        }
+        int from = lowerBound(position);
+        dropRange(from, lowerBound(position + itemCount));
+        shift(from, -itemCount);
+        if (position > 0) {
+            indexSubItems(position - 1);
+        }
+        flush();
+        compact();
+    }
+
+    /**
+     * called after several ranges were removed at once, like {@link #onRemoved(int, int)} for every range but with one
+     * pass over the following entries
+     *
+     * @param ranges the global start and count of every range, one after the other in ascending order
+     */
+    public void onRangesRemoved(int[] ranges) {
+        int removedCount = 0;
+        for (int r = 1; r < ranges.length; r += 2) {
+            removedCount += ranges[r];
+        }
+        if (ranges.length == 0 || !isIncremental(removedCount)) {
+            return;
+        }
+        int from = lowerBound(ranges[0]);
+        int kept = from;
+        int range = 0;
+        int removedBefore = 0;
+        for (int i = from; i < mOrderSize; i++) {
+            int slot = mOrder[i];
+            int parentPosition = mParentPositions[slot];
+            while (range < ranges.length && ranges[range] + ranges[range + 1] <= parentPosition) {
+                removedBefore += ranges[range + 1];
+                range += 2;
+            }
+            if (range < ranges.length && parentPosition >= ranges[range]) {
+                if (mItems[slot] != null) {
+                    drop(slot);
+                }
+                continue;
+            }
+            mParentPositions[slot] -= removedBefore;
+            if (mPositions[slot] != -1) {
+                mPositions[slot] -= removedBefore;
+            }
+            mOrder[kept++] = slot;
+        }
+        mOrderSize = kept;
+        //the items in front of the ranges may be collapsed parents
+        removedBefore = 0;
+        for (int r = 0; r < ranges.length && mValid; r += 2) {
+            if (ranges[r] > 0) {
+                indexSubItems(ranges[r] - removedBefore - 1);
+            }
+            removedBefore += ranges[r + 1];
+        }
+        flush();
+        compact();
+    }
+
+    /**
+     * called after an item was moved, the moved item takes its hidden sub items along
+     *
+     * @param fromPosition the global fromPosition
+     * @param toPosition   the global toPosition
+     */
+    public void onMoved(int fromPosition, int toPosition) {
+        if (!isIncremental(1) || fromPosition == toPosition) {
+            return;
+        }
+        IAdapter<Item> adapter = mFastAdapter.getAdapter(toPosition);
+        int groupStart = lowerBound(fromPosition);
+        int groupEnd = lowerBound(fromPosition + 1);
+        int[] group = Arrays.copyOfRange(mOrder, groupStart, groupEnd);
+        for (int slot : group) {
+            if (mItems[slot] != null) {
+                mAdapters[slot] = adapter;
+            }
+            mParentPositions[slot] = toPosition;
+            if (mPositions[slot] != -1) {
+                mPositions[slot] = toPosition;
+            }
+        }
+        //the entries in between take the place of the moved ones
+        if (fromPosition < toPosition) {
+            int end = lowerBound(toPosition + 1);
+            shift(groupEnd, end, -1);
+            System.arraycopy(mOrder, groupEnd, mOrder, groupStart, end - groupEnd);
+            System.arraycopy(group, 0, mOrder, end - group.length, group.length);
+        } else {
+            int start = lowerBound(toPosition);
+            shift(start, groupStart, 1);
+            System.arraycopy(mOrder, start, mOrder, start + group.length, groupStart - start);
+            System.arraycopy(group, 0, mOrder, start, group.length);
+        }
+    }
+
+    /**
+     * called after items were changed. a replaced item is dropped and the new one is added, the hidden sub items of a
+     * collapsed parent are added again, so sub items added to it are found after the parent was notified
+     *
+     * @param position  the global position
+     * @param itemCount the count of items changed
+     */
+    public void onChanged(int position, int itemCount) {
+        if (!isIncremental(itemCount)) {
+            return;
+        }
+        boolean replaced = false;
+        for (int i = position; i < position + itemCount; i++) {
+            Item item = mFastAdapter.getItem(i);
+            int slot = item != null ? mSlots.get(item.getIdentifier()) : -1;
+            if (slot == -1 || mItems[slot] != item || mPositions[slot] != i) {
+                replaced = true;
+                break;
+            }
+        }
+        int end = position + itemCount;
+        if (replaced) {
+            dropRange(lowerBound(position), lowerBound(end));
+            for (int i = position; i < end && mValid; i++) {
+                index(i);
+            }
+        } else {
+            for (int i = position; i < end && mValid; i++) {
+                indexSubItems(i);
+            }
+        }
+        flush();
+        compact();
+    }
+
+    /**
+     * @return true if an identifier is contained more than once
+     */
+    public boolean hasDuplicates() {
+        if (!mValid) {
+            rebuild();
+        }
+        return mSlots.hasDuplicates();
+    }
+
+    /**
+     * finds the first item with the given identifier
+     *
+     * @param identifier the identifier to search for
+     * @param match      receives the item, its (parent) adapter and position, may be null
+     * @return true if an item was found
+     */
+    public boolean find(long identifier, @Nullable TraversalMatch<Item> match) {
+        boolean rebuilt = false;
+        if (!mValid) {
+            rebuild();
+            rebuilt = true;
+        }
+        int slot = mSlots.get(identifier);
+        if (slot != -1 && (rebuilt || verify(slot, identifier))) {
+            return found(slot, match);
+        }
+        //the hit is outdated, the items were modified without a notification
+        if (!rebuilt && slot != -1) {
+            rebuild();
+            slot = mSlots.get(identifier);
+            if (slot != -1) {
+                return found(slot, match);
+            }
+        }
+        if (match != null) {
+            match.clear();
+        }
+        return false;
+    }
+
+    /**
+     * rebuilds this index from all items and sub items of the FastAdapter
+     */
+    public void rebuild() {
+        mSlots.clear();
+        Arrays.fill(mItems, 0, mCount, null);
+        Arrays.fill(mAdapters, 0, mCount, null);
+        mCount = 0;
+        mDropped = 0;
+        mPendingCount = 0;
+        mFastAdapter.traverse(new AdapterPredicate<Item>() {
+            @Override
+            public boolean apply(@NonNull IAdapter<Item> lastParentAdapter, int lastParentPosition, Item item, int position) {
+                if (mSlots.putIfAbsent(item.getIdentifier(), mCount)) {
+                    add(lastParentAdapter, lastParentPosition, item, position);
+                }
+                return false;
+            }
+        }, false);
+        //the traversal visits the parents in ascending order
+        if (mOrder.length < mCount) {
+            mOrder = new int[mItems.length];
+        }
+        for (int i = 0; i < mCount; i++) {
+            mOrder[i] = i;
+        }
+        mOrderSize = mCount;
+        mValid = true;
+    }
+
+    /**
+     * @return true if the notified range can be applied to this index, otherwise it is invalidated (if it was valid)
+     */
+    private boolean isIncremental(int itemCount) {
+        if (!mValid) {
+            return false;
+        }
+        //the first of several equal identifiers is only known after a traversal, large ranges are cheaper to rebuild
+        if (mSlots.hasDuplicates() || itemCount > Math.max(MIN_INCREMENTAL, (mCount - mDropped) / 4)) {
+            mValid = false;
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * adds the displayed item at the given position and its hidden sub items
+     */
+    private void index(int position) {
+        Item item = mFastAdapter.getItem(position);
+        IAdapter<Item> adapter = mFastAdapter.getAdapter(position);
+        if (item == null || adapter == null) {
+            mValid = false;
+            return;
+        }
+        index(adapter, position, item, position);
+        indexSubItems(position);
+    }
+
+    /**
+     * adds the hidden sub items of the item at the given position, if it is a collapsed parent
+     */
+    private void indexSubItems(int position) {
+        Item item = mFastAdapter.getItem(position);
+        if (!(item instanceof IExpandable) || !mValid) {
+            return;
+        }
+        FastAdapter.traverseSub(mFastAdapter.getAdapter(position), position, (IExpandable) item, new AdapterPredicate<Item>() {
+            @Override
+            public boolean apply(@NonNull IAdapter<Item> lastParentAdapter, int lastParentPosition, Item item, int position) {
+                index(lastParentAdapter, lastParentPosition, item, position);
+                return !mValid;
+            }
+        }, true, null);
+    }
+
+    /**
+     * adds or updates the entry of an item. the entry of the same item is updated (e.g. a sub item which is displayed
+     * now), another item with the same identifier invalidates this index
+     */
+    private void index(IAdapter<Item> adapter, int parentPosition, Item item, int position) {
+        long identifier = item.getIdentifier();
+        int slot = mSlots.get(identifier);
+        if (slot != -1 && mItems[slot] == item && mParentPositions[slot] != parentPosition) {
+            //the entry moves to another parent, it is added again at its sorted position
+            drop(slot);
+            slot = -1;
+        }
+        if (slot == -1) {
+            mSlots.put(identifier, mCount);
+            add(adapter, parentPosition, item, position);
+            if (mPendingCount == mPending.length) {
+                mPending = Arrays.copyOf(mPending, mPendingCount * 2);
+            }
+            mPending[mPendingCount++] = mCount - 1;
+        } else if (mItems[slot] == item) {
+            mAdapters[slot] = adapter;
+            mPositions[slot] = position;
+        } else {
+            mValid = false;
+        }
+    }
+
+    private void drop(int slot) {
+        long identifier = ((IItem) mItems[slot]).getIdentifier();
+        if (mSlots.get(identifier) == slot) {
+            mSlots.remove(identifier);
+        }
+        mItems[slot] = null;
+        mAdapters[slot] = null;
+        mDropped++;
+    }
+
+    /**
+     * drops the entries of the given range of the sorted slots and removes them from it
+     */
+    private void dropRange(int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (mItems[mOrder[i]] != null) {
+                drop(mOrder[i]);
+            }
+        }
+        System.arraycopy(mOrder, to, mOrder, from, mOrderSize - to);
+        mOrderSize -= to - from;
+    }
+
+    /**
+     * moves the remaining entries together (in sorted order) once more than half of them were dropped
+     */
+    private void compact() {
+        if (mDropped <= MIN_INCREMENTAL || mDropped * 2 < mCount) {
+            return;
+        }
+        Object[] items = new Object[mItems.length];
+        IAdapter[] adapters = new IAdapter[mItems.length];
+        int[] parentPositions = new int[mItems.length];
+        int[] positions = new int[mItems.length];
+        int count = 0;
+        for (int i = 0; i < mOrderSize; i++) {
+            int slot = mOrder[i];
+            if (mItems[slot] != null) {
+                items[count] = mItems[slot];
+                adapters[count] = mAdapters[slot];
+                parentPositions[count] = mParentPositions[slot];
+                positions[count] = mPositions[slot];
+                mSlots.put(((IItem) items[count]).getIdentifier(), count);
+                mOrder[count] = count;
+                count++;
+            }
+        }
+        mItems = items;
+        mAdapters = adapters;
+        mParentPositions = parentPositions;
+        mPositions = positions;
+        mCount = count;
+        mOrderSize = count;
+        mDropped = 0;
+    }
+
+    /**
+     * merges the slots added by the current notification into the sorted slots, behind the ones with the same parent
+     */
+    private void flush() {
+        int count = mPendingCount;
+        mPendingCount = 0;
+        if (count == 0 || !mValid) {
+            return;
+        }
+        if (mOrderSize + count > mOrder.length) {
+            mOrder = Arrays.copyOf(mOrder, Math.max(mOrder.length * 2, mOrderSize + count));
+        }
+        int at = lowerBound(mParentPositions[mPending[0]] + 1);
+        int end = mOrderSize + count;
+        System.arraycopy(mOrder, at, mOrder, at + count, mOrderSize - at);
+        //the write index never passes the read index of the moved slots
+        for (int i = at + count, j = 0, k = at; j < count; k++) {
+            if (i < end && mParentPositions[mOrder[i]] <= mParentPositions[mPending[j]]) {
+                mOrder[k] = mOrder[i++];
+            } else {
+                mOrder[k] = mPending[j++];
+            }
+        }
+        mOrderSize = end;
+    }
+
+    /**
+     * @return the index of the first sorted slot with a parent at or after the given position
+     */
+    private int lowerBound(int position) {
+        int low = 0;
+        int high = mOrderSize;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (mParentPositions[mOrder[mid]] < position) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private void shift(int from, int delta) {
+        shift(from, mOrderSize, delta);
+    }
+
+    /**
+     * shifts the positions of the sorted slots within the given range
+     */
+    private void shift(int from, int to, int delta) {
+        for (int i = from; i < to; i++) {
+            int slot = mOrder[i];
+            mParentPositions[slot] += delta;
+            if (mPositions[slot] != -1) {
+                mPositions[slot] += delta;
+            }
+        }
+    }
+
+    private void add(IAdapter<Item> adapter, int parentPosition, Item item, int position) {
+        if (mCount == mItems.length) {
+            int capacity = mCount * 2;
+            mItems = Arrays.copyOf(mItems, capacity);
+            mAdapters = Arrays.copyOf(mAdapters, capacity);
+            mParentPositions = Arrays.copyOf(mParentPositions, capacity);
+            mPositions = Arrays.copyOf(mPositions, capacity);
+        }
+        mItems[mCount] = item;
+        mAdapters[mCount] = adapter;
+        mParentPositions[mCount] = parentPosition;
+        mPositions[mCount] = position;
+        mCount++;
+    }
+
+    @SuppressWarnings("unchecked")
+    private boolean found(int slot, @Nullable TraversalMatch<Item> match) {
+        if (match != null) {
+            match.set(mAdapters[slot], (Item) mItems[slot], mPositions[slot]);
+        }
+        return true;
+    }
+
+    /**
+     * @return true if the item of the slot is still where the index expects it
+     */
+    private boolean verify(int slot, long identifier) {
+        Object item = mItems[slot];
+        if (((IItem) item).getIdentifier() != identifier) {
+            return false;
+        }
+        int parentPosition = mParentPositions[slot];
+        if (parentPosition >= mFastAdapter.getItemCount()) {
+            return false;
+        }
+        Item parent = mFastAdapter.getItem(parentPosition);
+        if (mPositions[slot] != -1) {
+            return parent == item;
+        }
+        //a sub item is traversed if all parents up to the displayed one are collapsed and contain it
+        Object child = item;
+        for (int depth = 0; depth < MAX_DEPTH && child instanceof ISubItem; depth++) {
+            Object childParent = ((ISubItem) child).getParent();
+            if (!(childParent instanceof IExpandable) || ((IExpandable) childParent).isExpanded()
+                    || !containsInstance(((IExpandable) childParent).getSubItems(), child)) {
+                return false;
+            }
+            if (childParent == parent) {
+                return true;
+            }
+            child = childParent;
+        }
+        return false;
+    }
+
+    private static boolean containsInstance(@Nullable List<?> list, Object item) {
+        if (list == null) {
+            return false;
+        }
+        for (int i = 0, size = list.size(); i < size; i++) {
+            if (list.get(i) == item) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,607 @@
+package com.mikepenz.fastadapter.utils;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.mikepenz.fastadapter.IAdapterNotifier;
+import com.mikepenz.fastadapter.IExpandable;
+import com.mikepenz.fastadapter.IInterceptor;
+import com.mikepenz.fastadapter.IItem;
+import com.mikepenz.fastadapter.IModelItem;
+import com.mikepenz.fastadapter.adapters.ModelAdapter;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An item list for a {@link ModelAdapter} which keeps the models instead of the items. The items are only created by the
+ * interceptor of the adapter if they are requested, and the most recently used ones are kept in a bounded cache.
+ * The selected and expanded state of evicted items is kept by position and restored if they are created again, so the
+ * selection can be queried without creating the items (see {@link #getSelectedPositions()}).
+ * <pre>
+ * ModelAdapter&lt;Model, Item&gt; adapter = new ModelAdapter&lt;&gt;(new LazyItemList&lt;Model, Item&gt;(100), interceptor);
+ * </pre>
+ * NOTE the interceptor must not return null, and the items should define their identifier based on their model, as an
+ * item can be created several times. `getModels()` of the adapter doesn't require a reverse interceptor, but adding or
+ * replacing items does if the items don't implement `IModelItem`.
+ * Without an {@link IdentifierExtractor}, looking up an identifier which is not cached (e.g. by `getPosition(identifier)`
+ * or `remove(item)`) creates the item of every model which is not cached.
+ * The items can't be filtered by the `ItemFilter`, as that creates all of them. Filter the models and set them instead.
+ */
+public class LazyItemList<Model, Item extends IItem> extends DefaultItemList<Item> {
+    /**
+     * reads the identifier of an item from its model, so it can be looked up without creating the item
+     */
+    public interface IdentifierExtractor<Model> {
+        /**
+         * @param model the model
+         * @return the identifier of the item created for the model
+         */
+        long getIdentifier(Model model);
+    }
+
+    private final PositionCache<Item> mCache;
+    private List<Model> mModels;
+    private ModelAdapter<Model, Item> mModelAdapter;
+    private IdentifierExtractor<Model> mIdentifierExtractor;
+
+    //the state of the evicted items, by relative position. the state of a cached item is kept by the item itself
+    private final PositionSet mSelected = new PositionSet();
+    private final PositionSet mExpanded = new PositionSet();
+
+    /**
+     * @param cacheSize the count of items which are kept, should be larger than the count of visible items
+     */
+    public LazyItemList(int cacheSize) {
+        this(cacheSize, new ArrayList<Model>());
+    }
+
+    /**
+     * @param cacheSize the count of items which are kept
+     * @param models    the initial models
+     */
+    protected LazyItemList(int cacheSize, List<Model> models) {
+        if (cacheSize <= 0) {
+            throw new IllegalArgumentException("cacheSize has to be positive");
+        }
+        this.mModels = models;
+        this.mCache = new PositionCache<Item>(cacheSize) {
+            @Override
+            protected void onEvicted(int position, Item item) {
+                saveState(position, item);
+            }
+        };
+    }
+
+    /**
+     * called by the `ModelAdapter` using this list
+     *
+     * @param modelAdapter the adapter which intercepts the models
+     */
+    public void setModelAdapter(ModelAdapter<Model, Item> modelAdapter) {
+        this.mModelAdapter = modelAdapter;
+    }
+
+    /**
+     * defines how the identifier of an item is read from its model, so identifiers are looked up without creating the
+     * items. the identifier has to be the one of the created item, so it can't be used with the `IdDistributor`
+     *
+     * @param identifierExtractor the extractor, null to create the items to get their identifier
+     * @return this
+     */
+    public LazyItemList<Model, Item> withIdentifierExtractor(@Nullable IdentifierExtractor<Model> identifierExtractor) {
+        this.mIdentifierExtractor = identifierExtractor;
+        return this;
+    }
+
+    /**
+     * @return the models of this list
+     */
+    public List<Model> getModels() {
+        return mModels;
+    }
+
+    /**
+     * @return the count of items which are currently created
+     */
+    public int getCachedItemCount() {
+        return mCache.size();
+    }
+
+    /**
+     * registers the types of the cached items again, e.g. after the type instances were cleared
+     */
+    public void registerCachedTypes() {
+        if (getFastAdapter() != null) {
+            for (int i = 0, size = mCache.size(); i < size; i++) {
+                getFastAdapter().registerTypeInstance(mCache.itemAt(i));
+            }
+        }
+    }
+
+    /**
+     * wraps models, so they can be passed through the adapter without creating their items
+     *
+     * @param models the models
+     * @return a list of the items, creating them on every access
+     */
+    public List<Item> intercepted(List<Model> models) {
+        return new InterceptedModels<>(this, models);
+    }
+
+    /**
+     * @param items the items passed to or returned by the `ModelAdapter`
+     * @return true if the items are wrapped models (see {@link #intercepted(List)}) or the items of a `LazyItemList`,
+     * which are created as they are accessed
+     */
+    public static boolean isLazy(Iterable<?> items) {
+        return items instanceof InterceptedModels || items instanceof LazyItemList.Items;
+    }
+
+    @Override
+    public Item get(int position) {
+        Item item = mCache.get(position);
+        if (item == null) {
+            item = create(mModels.get(position));
+            restoreState(position, item);
+            mCache.put(position, item);
+        }
+        return item;
+    }
+
+    /**
+     * @return the count of selected items, without creating the evicted ones
+     */
+    public int getSelectedCount() {
+        int count = getEvictedSelectedCount();
+        for (int i = 0, size = mCache.size(); i < size; i++) {
+            if (mCache.itemAt(i).isSelected()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return the relative positions of the selected items in ascending order, without creating the evicted ones
+     */
+    public int[] getSelectedPositions() {
+        int[] positions = new int[getSelectedCount()];
+        int count = 0;
+        //the evicted and the cached positions never overlap, both are merged in ascending order
+        int evicted = nextEvictedSelected(0);
+        for (int i = 0, size = mCache.size(); i < size; i++) {
+            int position = mCache.positionAt(i);
+            while (evicted != -1 && evicted < position) {
+                positions[count++] = evicted;
+                evicted = nextEvictedSelected(evicted + 1);
+            }
+            if (mCache.itemAt(i).isSelected()) {
+                positions[count++] = position;
+            }
+        }
+        while (evicted != -1) {
+            positions[count++] = evicted;
+            evicted = nextEvictedSelected(evicted + 1);
+        }
+        return positions;
+    }
+
+    /**
+     * @param item the item
+     * @return true if the item is one of the cached items of this list
+     */
+    public boolean isCached(Item item) {
+        for (int i = 0, size = mCache.size(); i < size; i++) {
+            if (mCache.itemAt(i) == item) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * lazy lists can't be filtered, the `ItemFilter` would create every item
+     */
+    @Override
+    public boolean isFilterable() {
+        return false;
+    }
+
+    /**
+     * @param position the relative position
+     * @return the identifier of the item at the position, read by the `IdentifierExtractor` if the item isn't cached
+     */
+    @Override
+    public long getIdentifier(int position) {
+        if (mIdentifierExtractor != null && !mCache.contains(position)) {
+            return mIdentifierExtractor.getIdentifier(mModels.get(position));
+        }
+        return get(position).getIdentifier();
+    }
+
+    /**
+     * @return a view of all items, creating them as they are accessed
+     */
+    @Override
+    public List<Item> getItems() {
+        return new Items();
+    }
+
+    @Override
+    public int getAdapterIndex(long identifier) {
+        for (int i = 0, size = mCache.size(); i < size; i++) {
+            if (mCache.itemAt(i).getIdentifier() == identifier) {
+                return mCache.positionAt(i);
+            }
+        }
+        if (mIdentifierExtractor != null) {
+            for (int i = 0, size = mModels.size(); i < size; i++) {
+                if (!mCache.contains(i) && mIdentifierExtractor.getIdentifier(mModels.get(i)) == identifier) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+        //not cached, the items are created without caching them to keep the cache intact
+        for (int i = 0, size = mModels.size(); i < size; i++) {
+            if (!mCache.contains(i) && create(mModels.get(i)).getIdentifier() == identifier) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public void remove(int position, int preItemCount) {
+        mModels.remove(position - preItemCount);
+        reindex(position - preItemCount, 1, 0);
+        if (getFastAdapter() != null) {
+            getFastAdapter().notifyAdapterItemRemoved(position);
+        }
+    }
+
+    ///[UPGRADE#remove(Item item)]
+    @Override
+    public void remove(Item item, int position) {
+        int index = getAdapterIndex(item.getIdentifier());
+        if (index != -1) {
+            mModels.remove(index);
+            reindex(index, 1, 0);
+        }
+        if (getFastAdapter() != null) {
+            getFastAdapter().notifyAdapterItemRemoved(position);
+        }
+    }
+
+    ///[UPGRADE#removeByIdentifier(long identifier)]
+    @Override
+    public void removeByIdentifier(long identifier, int position) {
+        int index = getAdapterIndex(identifier);
+        if (index == -1) {
+            return;
+        }
+        mModels.remove(index);
+        reindex(index, 1, 0);
+        if (getFastAdapter() != null) {
+            getFastAdapter().notifyAdapterItemRemoved(position);
+        }
+    }
+
+    @Override
+    public void removeRange(int position, int itemCount, int preItemCount) {
+        int index = position - preItemCount;
+        //make sure we do not delete to many items
+        int saveItemCount = Math.min(itemCount, mModels.size() - index);
+        mModels.subList(index, index + saveItemCount).clear();
+        reindex(index, saveItemCount, 0);
+        if (getFastAdapter() != null) {
+            getFastAdapter().notifyAdapterItemRangeRemoved(position, saveItemCount);
+        }
+    }
+
+    @Override
+    public void move(int fromPosition, int toPosition, int preItemCount) {
+        int fromIndex = fromPosition - preItemCount;
+        int toIndex = toPosition - preItemCount;
+        mModels.add(toIndex, mModels.remove(fromIndex));
+        Item item = mCache.remove(fromIndex);
+        boolean selected = mSelected.remove(fromIndex);
+        boolean expanded = mExpanded.remove(fromIndex);
+        reindex(fromIndex, 1, 0);
+        reindex(toIndex, 0, 1);
+        if (item != null) {
+            mCache.put(toIndex, item);
+        }
+        if (selected) {
+            mSelected.add(toIndex);
+        }
+        if (expanded) {
+            mExpanded.add(toIndex);
+        }
+        if (getFastAdapter() != null) {
+            getFastAdapter().notifyAdapterItemMoved(fromPosition, toPosition);
+        }
+    }
+
+    @Override
+    public int size() {
+        return mModels.size();
+    }
+
+    @Override
+    public void clear(int position) {
+        int size = mModels.size();
+        mModels.clear();
+        reset(null);
+        if (getFastAdapter() != null) {
+            getFastAdapter().notifyAdapterItemRangeRemoved(position, size);
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return mModels.isEmpty();
+    }
+
+    @Override
+    public void set(int position, Item item, int preItemCount) {
+        int index = position - preItemCount;
+        mCache.remove(index);
+        forgetState(index);
+        mModels.set(index, toModel(item));
+        mCache.put(index, item);
+        if (getFastAdapter() != null) {
+            getFastAdapter().notifyAdapterItemChanged(position);
+        }
+    }
+
+    /**
+     * replaces the model at the given position, its item is created once it is requested
+     *
+     * @param position     the global position
+     * @param model        the new model
+     * @param preItemCount the count of items before this list
+     */
+    public void setModel(int position, Model model, int preItemCount) {
+        int index = position - preItemCount;
+        mCache.remove(index);
+        forgetState(index);
+        mModels.set(index, model);
+        if (getFastAdapter() != null) {
+            getFastAdapter().notifyAdapterItemChanged(position);
+        }
+    }
+
+    @Override
+    public void addAll(List<Item> items, int position) {
+        int countBefore = mModels.size();
+        mModels.addAll(toModels(items));
+        if (getFastAdapter() != null) {
+            getFastAdapter().notifyAdapterItemRangeInserted(position + countBefore, items.size());
+        }
+    }
+
+    @Override
+    public void addAll(int position, List<Item> items, int preItemCount) {
+        mModels.addAll(position - preItemCount, toModels(items));
+        reindex(position - preItemCount, 0, items.size());
+        if (getFastAdapter() != null) {
+            getFastAdapter().notifyAdapterItemRangeInserted(position, items.size());
+        }
+    }
+
+    @Override
+    public void set(List<Item> items, int preItemCount, @Nullable IAdapterNotifier adapterNotifier) {
+        int newItemsCount = items.size();
+        int previousItemsCount = mModels.size();
+        mModels = new ArrayList<>(toModels(items));
+        reset(items);
+        if (getFastAdapter() == null) return;
+        //now properly notify the adapter about the changes
+        if (adapterNotifier == null) {
+            adapterNotifier = IAdapterNotifier.DEFAULT;
+        }
+        adapterNotifier.notify(getFastAdapter(), newItemsCount, previousItemsCount, preItemCount);
+    }
+
+    @Override
+    public void setNewList(List<Item> items, boolean notify) {
+        mModels = new ArrayList<>(toModels(items));
+        reset(items);
+        if (getFastAdapter() != null && notify) {
+            getFastAdapter().notifyAdapterDataSetChanged();
+        }
+    }
+
+    /**
+     * uses the given list of models, the state of all items is dropped
+     *
+     * @param models the models, the list is used (not copied)
+     * @param notify true to notify the adapter about the new list
+     */
+    protected void setModels(List<Model> models, boolean notify) {
+        mModels = models;
+        reset(null);
+        if (getFastAdapter() != null && notify) {
+            getFastAdapter().notifyAdapterDataSetChanged();
+        }
+    }
+
+    /**
+     * creates the item of a model, its state is restored by the caller
+     *
+     * @param model the model
+     */
+    @NonNull
+    Item create(Model model) {
+        Item item = mModelAdapter.intercept(model);
+        if (item == null) {
+            throw new IllegalStateException("the interceptor of a LazyItemList must not return null");
+        }
+        if (mModelAdapter.isUseIdDistributor()) {
+            mModelAdapter.getIdDistributor().checkId(item);
+        }
+        if (getFastAdapter() != null) {
+            getFastAdapter().registerTypeInstance(item);
+        }
+        return item;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Model> toModels(List<Item> items) {
+        if (items instanceof InterceptedModels) {
+            return ((InterceptedModels<Model, Item>) items).mModels;
+        }
+        List<Model> models = new ArrayList<>(items.size());
+        for (int i = 0, size = items.size(); i < size; i++) {
+            models.add(toModel(items.get(i)));
+        }
+        return models;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Model toModel(Item item) {
+        IInterceptor<Item, Model> reverseInterceptor = mModelAdapter.getReverseInterceptor();
+        if (reverseInterceptor != null) {
+            return reverseInterceptor.intercept(item);
+        } else if (item instanceof IModelItem) {
+            return (Model) ((IModelItem) item).getModel();
+        } else if (mModelAdapter.getInterceptor() == IInterceptor.DEFAULT) {
+            //the items are the models
+            return (Model) item;
+        }
+        throw new UnsupportedOperationException("to add items to a LazyItemList, the item either needs to implement `IModelItem` or you have to provide a `reverseInterceptor`");
+    }
+
+    /**
+     * updates the cached positions after items were removed and / or inserted at the given position
+     *
+     * @param index         the relative position
+     * @param removedCount  the count of items removed at the position
+     * @param insertedCount the count of items inserted at the position
+     */
+    private void reindex(int index, int removedCount, int insertedCount) {
+        if (removedCount > 0) {
+            mCache.onRemoved(index, removedCount);
+            mSelected.onRemoved(index, removedCount);
+            mExpanded.onRemoved(index, removedCount);
+        }
+        if (insertedCount > 0) {
+            mCache.onInserted(index, insertedCount);
+            mSelected.onInserted(index, insertedCount);
+            mExpanded.onInserted(index, insertedCount);
+        }
+    }
+
+    /**
+     * drops the cached items and the state of the previous items
+     *
+     * @param items the new items, their state is kept until they are created again. null if all state is dropped
+     */
+    private void reset(@Nullable List<Item> items) {
+        mCache.clear();
+        mSelected.clear();
+        mExpanded.clear();
+        //the items of wrapped models are created on access, they have no state yet
+        if (items != null && !isLazy(items)) {
+            for (int i = 0, size = items.size(); i < size; i++) {
+                saveState(i, items.get(i));
+            }
+        }
+    }
+
+    /**
+     * restores the state of an item which was evicted before, the item keeps its state while it is cached
+     *
+     * @param index the relative position of the item
+     * @param item  the created item
+     */
+    protected void restoreState(int index, Item item) {
+        if (mSelected.remove(index)) {
+            item.withSetSelected(true);
+        }
+        if (mExpanded.remove(index) && item instanceof IExpandable) {
+            ((IExpandable) item).withIsExpanded(true);
+        }
+    }
+
+    /**
+     * keeps the state of an item which is evicted
+     *
+     * @param index the relative position of the item
+     * @param item  the evicted item
+     */
+    protected void saveState(int index, Item item) {
+        if (item.isSelected()) {
+            mSelected.add(index);
+        }
+        if (item instanceof IExpandable && ((IExpandable) item).isExpanded()) {
+            mExpanded.add(index);
+        }
+    }
+
+    /**
+     * drops the state of an evicted item which was replaced
+     *
+     * @param index the relative position of the item
+     */
+    protected void forgetState(int index) {
+        mSelected.remove(index);
+        mExpanded.remove(index);
+    }
+
+    /**
+     * @return the count of evicted items which are selected
+     */
+    protected int getEvictedSelectedCount() {
+        return mSelected.size();
+    }
+
+    /**
+     * @param from the relative position to start at
+     * @return the relative position of the next evicted item which is selected, -1 if there is none
+     */
+    protected int nextEvictedSelected(int from) {
+        return mSelected.next(from);
+    }
+
+    /**
+     * the items of this list, which are created as they are accessed
+     */
+    private final class Items extends AbstractList<Item> {
+        @Override
+        public Item get(int index) {
+            return LazyItemList.this.get(index);
+        }
+
+        @Override
+        public int size() {
+            return mModels.size();
+        }
+    }
+
+    /**
+     * the items of a list of models, which are created on every access. used to pass models through the `ModelAdapter`
+     */
+    private static final class InterceptedModels<Model, Item extends IItem> extends AbstractList<Item> {
+        private final LazyItemList<Model, Item> mList;
+        private final List<Model> mModels;
+
+        InterceptedModels(LazyItemList<Model, Item> list, List<Model> models) {
+            this.mList = list;
+            this.mModels = models;
+        }
+
+        @Override
+        public Item get(int index) {
+            return mList.create(mModels.get(index));
+        }
+
+        @Override
+        public int size() {
+            return mModels.size();
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.mikepenz.fastadapter.utils;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.mikepenz.fastadapter.IAdapterNotifier;
+import com.mikepenz.fastadapter.IItem;
+
+import java.util.AbstractList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * A read-only item list for a {@link com.mikepenz.fastadapter.adapters.ModelAdapter} whose models are the records of a
+ * (memory-mapped) buffer. The items are created on demand by the interceptor of the adapter and the most recently used
+ * ones are kept in a bounded cache, identifiers are read from the buffer directly, and the selected state of evicted
+ * items is kept in a bitset, which the `SelectExtension` queries without creating the items. This keeps the heap usage
+ * constant, no matter how many records there are, as long as the identifiers of the records are ascending (see
+ * {@link MappedRecords#indexOf(long)}).
+ * <pre>
+ * MappedRecords records = MappedRecords.fixed(MappedRecords.map(file), 64, 0);
+ * ModelAdapter&lt;MappedRecords.Record, Item&gt; adapter = new ModelAdapter&lt;&gt;(new MappedItemList&lt;Item&gt;(records, 100), interceptor);
+ * </pre>
+ * NOTE the interceptor must not keep the `Record`, and the identifier of an item has to be the one of its record.
+ * Items can't be added, moved or removed, use {@link #setRecords(MappedRecords)} to replace all of them. So they can't be
+ * expanded either, as that inserts their sub items.
+ */
+public class MappedItemList<Item extends IItem> extends LazyItemList<MappedRecords.Record, Item> {
+    private MappedRecords mRecords;
+    //the selected state of the evicted items, by position
+    private final BitSet mSelectedPositions = new BitSet();
+    private int mSelectedCount = 0;
+
+    /**
+     * @param records   the records
+     * @param cacheSize the count of items which are kept, should be larger than the count of visible items
+     */
+    public MappedItemList(@NonNull MappedRecords records, int cacheSize) {
+        this(new Records(records), cacheSize);
+    }
+
+    private MappedItemList(Records records, int cacheSize) {
+        super(cacheSize, records);
+        this.mRecords = records.mRecords;
+    }
+
+    /**
+     * @return the records of this list
+     */
+    public MappedRecords getRecords() {
+        return mRecords;
+    }
+
+    /**
+     * replaces all records, the state of all items is dropped
+     *
+     * @param records the new records
+     */
+    public void setRecords(@NonNull MappedRecords records) {
+        mRecords = records;
+        mSelectedPositions.clear();
+        mSelectedCount = 0;
+        setModels(new Records(records), true);
+    }
+
+    @Override
+    public long getIdentifier(int position) {
+        return mRecords.getIdentifier(position);
+    }
+
+    @Override
+    public int getAdapterIndex(long identifier) {
+        return mRecords.indexOf(identifier);
+    }
+
+    @Override
+    protected void restoreState(int index, Item item) {
+        if (mSelectedPositions.get(index)) {
+            item.withSetSelected(true);
+            forgetState(index);
+        }
+    }
+
+    @Override
+    protected void saveState(int index, Item item) {
+        if (item.isSelected() && !mSelectedPositions.get(index)) {
+            mSelectedPositions.set(index);
+            mSelectedCount++;
+        }
+    }
+
+    @Override
+    protected void forgetState(int index) {
+        if (mSelectedPositions.get(index)) {
+            mSelectedPositions.clear(index);
+            mSelectedCount--;
+        }
+    }
+
+    @Override
+    protected int getEvictedSelectedCount() {
+        return mSelectedCount;
+    }
+
+    @Override
+    protected int nextEvictedSelected(int from) {
+        return mSelectedPositions.nextSetBit(from);
+    }
+
+    @Override
+    public void remove(int position, int preItemCount) {
+        throw unsupported();
+    }
+
+    @Override
+    public void remove(Item item, int position) {
+        throw unsupported();
+    }
+
+    @Override
+    public void removeByIdentifier(long identifier, int position) {
+        throw unsupported();
+    }
+
+    @Override
+    public void removeRange(int position, int itemCount, int preItemCount) {
+        throw unsupported();
+    }
+
+    @Override
+    public void move(int fromPosition, int toPosition, int preItemCount) {
+        throw unsupported();
+    }
+
+    @Override
+    public void clear(int position) {
+        throw unsupported();
+    }
+
+    @Override
+    public void set(int position, Item item, int preItemCount) {
+        throw unsupported();
+    }
+
+    @Override
+    public void setModel(int position, MappedRecords.Record model, int preItemCount) {
+        throw unsupported();
+    }
+
+    @Override
+    public void addAll(List<Item> items, int position) {
+        throw unsupported();
+    }
+
+    @Override
+    public void addAll(int position, List<Item> items, int preItemCount) {
+        throw unsupported();
+    }
+
+    @Override
+    public void set(List<Item> items, int preItemCount, @Nullable IAdapterNotifier adapterNotifier) {
+        throw unsupported();
+    }
+
+    @Override
+    public void setNewList(List<Item> items, boolean notify) {
+        throw unsupported();
+    }
+
+    private static UnsupportedOperationException unsupported() {
+        return new UnsupportedOperationException("the items of a MappedItemList are read-only, use setRecords(MappedRecords)");
+    }
+
+    /**
+     * the records as models, a record view is only created if its item is created
+     */
+    private static final class Records extends AbstractList<MappedRecords.Record> {
+        private final MappedRecords mRecords;
+
+        Records(MappedRecords records) {
+            this.mRecords = records;
+        }
+
+        @Override
+        public MappedRecords.Record get(int index) {
+            return mRecords.get(index);
+        }
+
+        @Override
+        public int size() {
+            return mRecords.size();
+        }
+    }
+}
@@ -124,8 +124,15 @@ public abstract class ModelAdapterUtil {
             if (items == null) {
                 clear(isPublishResults, adapter);
             } else if (!items.isEmpty()) {
-                for (Item item : items) {
-                    remove(false, itemAdapters, adapter, item);
+                //the removals are dispatched at once, adjacent ones merged
+                FastAdapter<Item> fastAdapter = adapter.getFastAdapter();
+                fastAdapter.beginUpdate();
+                try {
+                    for (Item item : items) {
+                        remove(false, itemAdapters, adapter, item);
+                    }
+                } finally {
+                    fastAdapter.endUpdate();
                 }
 
                 if (isPublishResults) {
@@ -241,6 +248,18 @@ public abstract class ModelAdapterUtil {
     }
 
 
+    /**
+     * like `compare`, but sorts the items (and the original items of an active filter) on a background thread and
+     * notifies the resulting moves, see {@link ComparableItemListImpl#withComparatorAsync(Comparator)}
+     */
+    public static <Item extends IItem> void compareAsync(@NonNull ModelAdapter<Item, Item> adapter, @Nullable Comparator<Item> comparator) {
+        if (adapter.getItemList() == null || !(adapter.getItemList() instanceof ComparableItemListImpl)) {
+            return;
+        }
+        ((ComparableItemListImpl<Item>) adapter.getItemList()).withComparatorAsync(comparator);
+    }
+
+
     public static <Item extends IItem> List<Item> getAdapterOriginalItems(@NonNull ModelAdapter<Item, Item> adapter) {
         if (adapter.getItemFilter() == null || adapter.getItemFilter().getOriginalItems() == null) {
             return adapter.getAdapterItems();
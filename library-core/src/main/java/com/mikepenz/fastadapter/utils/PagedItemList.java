@@ -0,0 +1,516 @@
+package com.mikepenz.fastadapter.utils;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.mikepenz.fastadapter.FastAdapter;
+import com.mikepenz.fastadapter.IAdapter;
+import com.mikepenz.fastadapter.IAdapterNotifier;
+import com.mikepenz.fastadapter.IItem;
+import com.mikepenz.fastadapter.R;
+import com.mikepenz.fastadapter.adapters.ModelAdapter;
+import com.mikepenz.fastadapter.listeners.OnBindViewHolderListener;
+import com.mikepenz.fastadapter.listeners.OnBindViewHolderListenerImpl;
+
+import java.util.AbstractList;
+import java.util.List;
+
+/**
+ * An item list with a fixed total count which holds only some pages of the items, all other positions are represented
+ * by placeholder items. Binding a position (see {@link BindListener}) loads the pages within the prefetch distance via
+ * the {@link PageLoader}, if more than the maximum count of pages are loaded the least recently bound pages outside of
+ * the prefetch distance are evicted again. Only the ranges of loaded and evicted pages are notified (as changed).
+ * <p>
+ * The count of items is fixed (see {@link #setTotalCount(int)}), adding, moving or removing single items, setting a
+ * list of items and filtering the items (the filter would load every placeholder) is not supported.
+ * <pre>
+ * PagedItemList&lt;Item&gt; list = new PagedItemList&lt;&gt;(totalCount, 50, placeholders, loader);
+ * ItemAdapter&lt;Item&gt; itemAdapter = new ItemAdapter&lt;&gt;(list);
+ * FastAdapter&lt;Item&gt; fastAdapter = FastAdapter.with(itemAdapter)
+ *         .withOnBindViewHolderListener(new PagedItemList.BindListener());
+ * </pre>
+ */
+public class PagedItemList<Item extends IItem> extends DefaultItemList<Item> {
+    private static final int NOT_LOADED = 0;
+    private static final int LOADING = 1;
+    private static final int LOADED = 2;
+
+    /**
+     * loads the pages of a {@link PagedItemList}
+     */
+    public interface PageLoader<Item extends IItem> {
+        /**
+         * starts loading a page, synchronously or on any thread. the result is passed to `request.deliver(items)`
+         *
+         * @param request the page to load
+         */
+        void loadPage(@NonNull PageRequest<Item> request);
+    }
+
+    /**
+     * creates the placeholders of the positions which are not loaded. they should be lightweight, and have distinct
+     * identifiers (e.g. `-2 - position`) as they are used as stable ids
+     */
+    public interface Placeholders<Item> {
+        Item getPlaceholder(int position);
+    }
+
+    /**
+     * a request to load the items `offset` to `offset + count - 1`
+     */
+    public static final class PageRequest<Item extends IItem> {
+        public final int page;
+        public final int offset;
+        public final int count;
+        private final PagedItemList<Item> mList;
+        private final int mGeneration;
+
+        PageRequest(PagedItemList<Item> list, int page, int offset, int count, int generation) {
+            this.mList = list;
+            this.page = page;
+            this.offset = offset;
+            this.count = count;
+            this.mGeneration = generation;
+        }
+
+        /**
+         * delivers the loaded items, can be called from any thread. results of outdated requests are dropped
+         *
+         * @param items exactly `count` items
+         */
+        public void deliver(@NonNull final List<Item> items) {
+            if (items.size() != count) {
+                throw new IllegalArgumentException("expected " + count + " items for page " + page + ", got " + items.size());
+            }
+            //never notify within a bind or a layout
+            mList.getMainHandler().post(new Runnable() {
+                @Override
+                public void run() {
+                    mList.onPageLoaded(PageRequest.this, items);
+                }
+            });
+        }
+
+        /**
+         * reports that the page could not be loaded, it is requested again with the next bind of one of its positions
+         */
+        public void fail() {
+            mList.getMainHandler().post(new Runnable() {
+                @Override
+                public void run() {
+                    mList.onPageFailed(PageRequest.this);
+                }
+            });
+        }
+    }
+
+    private final int mPageSize;
+    private final Placeholders<Item> mPlaceholders;
+    private final PageLoader<Item> mPageLoader;
+    //the items of the loaded pages, null for all others
+    private Object[][] mPages;
+    private byte[] mStates;
+    //the last bind of each page, for the LRU eviction
+    private long[] mLastAccess;
+    private long mAccessCount = 0;
+    private int mLoadedPages = 0;
+    private int mTotalCount;
+    //incremented whenever all pages are dropped, older requests are ignored
+    private int mGeneration = 0;
+
+    private int mPrefetchDistance;
+    private int mMaxLoadedPages = 10;
+    private int mLastBoundPosition = 0;
+    private Handler mMainHandler;
+
+    /**
+     * @param totalCount   the count of items
+     * @param pageSize     the count of items per page
+     * @param placeholders creates the placeholders of the positions which are not loaded
+     * @param pageLoader   loads the pages
+     */
+    public PagedItemList(int totalCount, int pageSize, @NonNull Placeholders<Item> placeholders, @NonNull PageLoader<Item> pageLoader) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("pageSize has to be positive");
+        }
+        this.mPageSize = pageSize;
+        this.mPlaceholders = placeholders;
+        this.mPageLoader = pageLoader;
+        this.mPrefetchDistance = pageSize;
+        reset(totalCount);
+    }
+
+    /**
+     * @param prefetchDistance the count of items before and after a bound position which are loaded. DEFAULT: the
+     *                         page size
+     * @return this
+     */
+    public PagedItemList<Item> withPrefetchDistance(int prefetchDistance) {
+        this.mPrefetchDistance = Math.max(0, prefetchDistance);
+        return this;
+    }
+
+    /**
+     * @param maxLoadedPages the count of pages kept loaded, the pages within the prefetch distance of the last bound
+     *                       position are never evicted. DEFAULT: 10
+     * @return this
+     */
+    public PagedItemList<Item> withMaxLoadedPages(int maxLoadedPages) {
+        this.mMaxLoadedPages = Math.max(1, maxLoadedPages);
+        trim();
+        return this;
+    }
+
+    /**
+     * @return the count of items per page
+     */
+    public int getPageSize() {
+        return mPageSize;
+    }
+
+    /**
+     * @return the count of currently loaded pages
+     */
+    public int getLoadedPageCount() {
+        return mLoadedPages;
+    }
+
+    /**
+     * @param position the relative position
+     * @return true if the item at the position is loaded (and not a placeholder)
+     */
+    public boolean isLoaded(int position) {
+        return mStates[position / mPageSize] == LOADED;
+    }
+
+    /**
+     * changes the count of items, all pages are dropped and loaded again with the next binds
+     *
+     * @param totalCount the new count of items
+     */
+    public void setTotalCount(int totalCount) {
+        reset(totalCount);
+        if (getFastAdapter() != null) {
+            getFastAdapter().notifyAdapterDataSetChanged();
+        }
+    }
+
+    /**
+     * drops all pages (e.g. after the data changed), they are loaded again with the next binds
+     */
+    public void invalidate() {
+        int totalCount = mTotalCount;
+        reset(totalCount);
+        notifyRangeChanged(0, totalCount);
+    }
+
+    /**
+     * called if an item was bound, loads the pages within the prefetch distance and evicts the least recently bound
+     * pages if too many are loaded
+     *
+     * @param position the relative position
+     */
+    public void onBind(int position) {
+        if (position < 0 || position >= mTotalCount) {
+            return;
+        }
+        mLastBoundPosition = position;
+        mLastAccess[position / mPageSize] = ++mAccessCount;
+        int firstPage = Math.max(0, position - mPrefetchDistance) / mPageSize;
+        int lastPage = Math.min(mTotalCount - 1, position + mPrefetchDistance) / mPageSize;
+        for (int page = firstPage; page <= lastPage; page++) {
+            if (mStates[page] == NOT_LOADED) {
+                mStates[page] = LOADING;
+                int offset = page * mPageSize;
+                mPageLoader.loadPage(new PageRequest<>(this, page, offset, Math.min(mPageSize, mTotalCount - offset), mGeneration));
+            }
+        }
+    }
+
+    private void onPageLoaded(PageRequest<Item> request, List<Item> items) {
+        if (request.mGeneration != mGeneration || mStates[request.page] != LOADING) {
+            return;
+        }
+        mPages[request.page] = items.toArray();
+        mStates[request.page] = LOADED;
+        if (mLastAccess[request.page] == 0) {
+            mLastAccess[request.page] = ++mAccessCount;
+        }
+        mLoadedPages++;
+
+        FastAdapter<Item> fastAdapter = getFastAdapter();
+        if (fastAdapter != null) {
+            fastAdapter.beginUpdate();
+        }
+        try {
+            notifyRangeChanged(request.offset, request.count);
+            trim();
+        } finally {
+            if (fastAdapter != null) {
+                fastAdapter.endUpdate();
+            }
+        }
+    }
+
+    private void onPageFailed(PageRequest<Item> request) {
+        if (request.mGeneration == mGeneration && mStates[request.page] == LOADING) {
+            mStates[request.page] = NOT_LOADED;
+        }
+    }
+
+    /**
+     * evicts the least recently bound pages outside of the prefetch distance until at most `maxLoadedPages` are loaded
+     */
+    private void trim() {
+        if (mTotalCount == 0) {
+            return;
+        }
+        int firstKept = Math.max(0, mLastBoundPosition - mPrefetchDistance) / mPageSize;
+        int lastKept = Math.min(mTotalCount - 1, mLastBoundPosition + mPrefetchDistance) / mPageSize;
+        while (mLoadedPages > mMaxLoadedPages) {
+            int oldest = -1;
+            for (int page = 0; page < mStates.length; page++) {
+                if (mStates[page] == LOADED && (page < firstKept || page > lastKept)
+                        && (oldest == -1 || mLastAccess[page] < mLastAccess[oldest])) {
+                    oldest = page;
+                }
+            }
+            if (oldest == -1) {
+                return;
+            }
+            mPages[oldest] = null;
+            mStates[oldest] = NOT_LOADED;
+            mLoadedPages--;
+            int offset = oldest * mPageSize;
+            notifyRangeChanged(offset, Math.min(mPageSize, mTotalCount - offset));
+        }
+    }
+
+    private void reset(int totalCount) {
+        if (totalCount < 0) {
+            throw new IllegalArgumentException("totalCount can't be negative");
+        }
+        int pageCount = (totalCount + mPageSize - 1) / mPageSize;
+        mTotalCount = totalCount;
+        mPages = new Object[pageCount][];
+        mStates = new byte[pageCount];
+        mLastAccess = new long[pageCount];
+        mLoadedPages = 0;
+        mLastBoundPosition = 0;
+        mGeneration++;
+    }
+
+    private void notifyRangeChanged(int offset, int count) {
+        FastAdapter<Item> fastAdapter = getFastAdapter();
+        if (fastAdapter == null || count == 0) {
+            return;
+        }
+        //find the adapter using this list
+        IAdapter<Item> adapter;
+        for (int order = 0; (adapter = fastAdapter.adapter(order)) != null; order++) {
+            if (adapter instanceof ModelAdapter && ((ModelAdapter) adapter).getItemList() == this) {
+                fastAdapter.notifyAdapterItemRangeChanged(fastAdapter.getPreItemCountByOrder(order) + offset, count);
+                return;
+            }
+        }
+    }
+
+    private Handler getMainHandler() {
+        if (mMainHandler == null) {
+            mMainHandler = new Handler(Looper.getMainLooper());
+        }
+        return mMainHandler;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Item get(int position) {
+        Object[] items = mPages[position / mPageSize];
+        if (items != null) {
+            return (Item) items[position % mPageSize];
+        }
+        return mPlaceholders.getPlaceholder(position);
+    }
+
+    /**
+     * @return a view of all items, with the placeholders for the positions which are not loaded
+     */
+    @Override
+    public List<Item> getItems() {
+        return new AbstractList<Item>() {
+            @Override
+            public Item get(int index) {
+                return PagedItemList.this.get(index);
+            }
+
+            @Override
+            public int size() {
+                return mTotalCount;
+            }
+        };
+    }
+
+    /**
+     * @return the position of the loaded item with the given identifier, -1 if none of the loaded pages contains it
+     */
+    @Override
+    public int getAdapterIndex(long identifier) {
+        for (int page = 0; page < mPages.length; page++) {
+            Object[] items = mPages[page];
+            if (items == null) {
+                continue;
+            }
+            for (int i = 0; i < items.length; i++) {
+                if (((IItem) items[i]).getIdentifier() == identifier) {
+                    return page * mPageSize + i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int size() {
+        return mTotalCount;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return mTotalCount == 0;
+    }
+
+    /**
+     * replaces a loaded item
+     */
+    @Override
+    public void set(int position, Item item, int preItemCount) {
+        int index = position - preItemCount;
+        Object[] items = mPages[index / mPageSize];
+        if (items == null) {
+            throw new IllegalStateException("the page of position " + index + " is not loaded");
+        }
+        items[index % mPageSize] = item;
+        if (getFastAdapter() != null) {
+            getFastAdapter().notifyAdapterItemChanged(position);
+        }
+    }
+
+    @Override
+    public void clear(int position) {
+        int count = mTotalCount;
+        reset(0);
+        if (getFastAdapter() != null) {
+            getFastAdapter().notifyAdapterItemRangeRemoved(position, count);
+        }
+    }
+
+    @Override
+    public void remove(int position, int preItemCount) {
+        throw unsupported();
+    }
+
+    @Override
+    public void remove(Item item, int position) {
+        throw unsupported();
+    }
+
+    @Override
+    public void removeByIdentifier(long identifier, int position) {
+        throw unsupported();
+    }
+
+    @Override
+    public void removeRange(int position, int itemCount, int preItemCount) {
+        throw unsupported();
+    }
+
+    @Override
+    public void move(int fromPosition, int toPosition, int preItemCount) {
+        throw unsupported();
+    }
+
+    @Override
+    public void addAll(List<Item> items, int position) {
+        throw unsupported();
+    }
+
+    @Override
+    public void addAll(int position, List<Item> items, int preItemCount) {
+        throw unsupported();
+    }
+
+    @Override
+    public void set(List<Item> items, int preItemCount, @Nullable IAdapterNotifier adapterNotifier) {
+        throw unsupported();
+    }
+
+    @Override
+    public void setNewList(List<Item> items, boolean notify) {
+        throw unsupported();
+    }
+
+    /**
+     * the filter would load every placeholder, and the placeholders can't be set again when the filter is reset
+     */
+    @Override
+    public boolean isFilterable() {
+        return false;
+    }
+
+    private static UnsupportedOperationException unsupported() {
+        return new UnsupportedOperationException("the items of a PagedItemList are loaded by pages, use setTotalCount(int) or invalidate()");
+    }
+
+    /**
+     * forwards the binds of all `PagedItemList`s of a FastAdapter to {@link #onBind(int)}, wrapping the listener which
+     * binds the items
+     */
+    public static class BindListener implements OnBindViewHolderListener {
+        private final OnBindViewHolderListener mDelegate;
+
+        public BindListener() {
+            this(new OnBindViewHolderListenerImpl());
+        }
+
+        public BindListener(@NonNull OnBindViewHolderListener delegate) {
+            this.mDelegate = delegate;
+        }
+
+        @Override
+        public void onBindViewHolder(RecyclerView.ViewHolder viewHolder, int position, List<Object> payloads) {
+            mDelegate.onBindViewHolder(viewHolder, position, payloads);
+            Object tag = viewHolder.itemView.getTag(R.id.fastadapter_item_adapter);
+            if (tag instanceof FastAdapter) {
+                FastAdapter<?> fastAdapter = (FastAdapter<?>) tag;
+                IAdapter<?> adapter = fastAdapter.getAdapter(position);
+                if (adapter instanceof ModelAdapter && ((ModelAdapter) adapter).getItemList() instanceof PagedItemList) {
+                    ((PagedItemList) ((ModelAdapter) adapter).getItemList()).onBind(position - fastAdapter.getPreItemCount(position));
+                }
+            }
+        }
+
+        @Override
+        public void unBindViewHolder(RecyclerView.ViewHolder viewHolder, int position) {
+            mDelegate.unBindViewHolder(viewHolder, position);
+        }
+
+        @Override
+        public void onViewAttachedToWindow(RecyclerView.ViewHolder viewHolder, int position) {
+            mDelegate.onViewAttachedToWindow(viewHolder, position);
+        }
+
+        @Override
+        public void onViewDetachedFromWindow(RecyclerView.ViewHolder viewHolder, int position) {
+            mDelegate.onViewDetachedFromWindow(viewHolder, position);
+        }
+
+        @Override
+        public boolean onFailedToRecycleView(RecyclerView.ViewHolder viewHolder, int position) {
+            return mDelegate.onFailedToRecycleView(viewHolder, position);
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.mikepenz.fastadapter.utils;
+
+import android.content.Context;
+import android.util.SparseArray;
+import android.view.View;
+import android.view.ViewGroup;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.asynclayoutinflater.view.AsyncLayoutInflater;
+
+import com.mikepenz.fastadapter.IItem;
+import com.mikepenz.fastadapter.items.AbstractItem;
+
+import java.util.ArrayDeque;
+
+/**
+ * Inflates the views of the registered types in the background, so the first ViewHolders of a type do not have to be
+ * inflated on the main thread while scrolling.
+ * <p>
+ * Only types of {@link AbstractItem}s which create their view from `getLayoutRes()` (do not overwrite `createView`)
+ * are pre inflated. The views are inflated once the pool is attached to the parent (the RecyclerView) and dropped
+ * when it is detached. If the pool of a type is empty the ViewHolder is inflated synchronously as before.
+ * <p>
+ * The inflation thread of the {@link AsyncLayoutInflater} is shared and its queue is small, a full queue blocks the
+ * main thread. So at most {@link #MAX_REQUESTS} views are requested at once, the next one is requested once a view is
+ * finished.
+ */
+public class PreInflatedViewPool<Item extends IItem> {
+    //the count of views requested from the AsyncLayoutInflater at once, its queue holds 10 requests
+    public static final int MAX_REQUESTS = 8;
+
+    private final int mViewsPerType;
+
+    //the types which can be pre inflated
+    private final SparseArray<Item> mTypes = new SparseArray<>();
+    //the inflated views per type
+    private final SparseArray<ArrayDeque<View>> mViews = new SparseArray<>();
+    //the types of the views which are not requested yet, one entry per view
+    private final ArrayDeque<Item> mQueue = new ArrayDeque<>();
+    //the count of views requested but not finished, also the ones requested before the pool was detached
+    private int mRequests = 0;
+
+    private ViewGroup mParent;
+    private AsyncLayoutInflater mInflater;
+
+    /**
+     * @param viewsPerType the count of views inflated in advance for each type
+     */
+    public PreInflatedViewPool(int viewsPerType) {
+        this.mViewsPerType = viewsPerType;
+    }
+
+    /**
+     * @return the count of views inflated in advance for each type
+     */
+    public int getViewsPerType() {
+        return mViewsPerType;
+    }
+
+    /**
+     * registers a type, its views are inflated once the pool is attached
+     *
+     * @param item the type instance
+     */
+    @MainThread
+    public void register(Item item) {
+        if (!canPreInflate(item) || mTypes.indexOfKey(item.getType()) >= 0) {
+            return;
+        }
+        mTypes.put(item.getType(), item);
+        if (mParent != null) {
+            enqueue(item);
+        }
+    }
+
+    /**
+     * starts inflating the views of all registered types
+     *
+     * @param parent the parent the views will be added to, used for the context and the LayoutParams
+     */
+    @MainThread
+    public void attach(@NonNull ViewGroup parent) {
+        if (mParent == parent) {
+            return;
+        }
+        detach();
+        mParent = parent;
+        mInflater = new AsyncLayoutInflater(parent.getContext());
+        for (int i = 0, size = mTypes.size(); i < size; i++) {
+            enqueue(mTypes.valueAt(i));
+        }
+    }
+
+    /**
+     * drops all inflated views, views which are inflated right now are dropped once they are finished
+     */
+    @MainThread
+    public void detach() {
+        mParent = null;
+        mInflater = null;
+        mViews.clear();
+        mQueue.clear();
+    }
+
+    /**
+     * takes a pre inflated view
+     *
+     * @param type the type of the view
+     * @return the view or null if none is available
+     */
+    @Nullable
+    @MainThread
+    public View obtain(int type) {
+        ArrayDeque<View> views = mViews.get(type);
+        return views != null ? views.pollFirst() : null;
+    }
+
+    /**
+     * clears all registered types and inflated views
+     */
+    @MainThread
+    public void clear() {
+        mTypes.clear();
+        mViews.clear();
+        mQueue.clear();
+    }
+
+    private void enqueue(Item item) {
+        for (int i = 0; i < mViewsPerType; i++) {
+            mQueue.addLast(item);
+        }
+        requestNext();
+    }
+
+    /**
+     * requests the queued views until {@link #MAX_REQUESTS} are requested
+     */
+    private void requestNext() {
+        while (mRequests < MAX_REQUESTS && mParent != null && !mQueue.isEmpty()) {
+            Item item = mQueue.pollFirst();
+            mRequests++;
+            mInflater.inflate(item.getLayoutRes(), mParent, new Listener(item.getType(), mParent));
+        }
+    }
+
+    /**
+     * @return true if the views of this item are inflated from its layout res
+     */
+    private static boolean canPreInflate(IItem item) {
+        if (!(item instanceof AbstractItem)) {
+            return false;
+        }
+        try {
+            return item.getClass().getMethod("createView", Context.class, ViewGroup.class).getDeclaringClass() == AbstractItem.class;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    /**
+     * adds a finished view to the pool of its type and requests the next one
+     */
+    private class Listener implements AsyncLayoutInflater.OnInflateFinishedListener {
+        private final int mType;
+        private final ViewGroup mRequestParent;
+
+        Listener(int type, ViewGroup parent) {
+            this.mType = type;
+            this.mRequestParent = parent;
+        }
+
+        @Override
+        public void onInflateFinished(@NonNull View view, int resid, @Nullable ViewGroup parent) {
+            mRequests--;
+            //the pool was detached or attached to another parent in the meantime
+            if (mRequestParent == mParent && mTypes.indexOfKey(mType) >= 0) {
+                ArrayDeque<View> views = mViews.get(mType);
+                if (views == null) {
+                    views = new ArrayDeque<>(mViewsPerType);
+                    mViews.put(mType, views);
+                }
+                views.addLast(view);
+            }
+            requestNext();
+        }
+    }
+}
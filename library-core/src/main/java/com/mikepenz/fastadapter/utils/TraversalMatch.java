@@ -0,0 +1,44 @@
+package com.mikepenz.fastadapter.utils;
+
+import androidx.annotation.Nullable;
+
+import com.mikepenz.fastadapter.IAdapter;
+import com.mikepenz.fastadapter.IItem;
+
+/**
+ * A reusable holder for the match of a traversal (see `FastAdapter.traverse`), so the traversal itself does not
+ * allocate anything.
+ */
+public class TraversalMatch<Item extends IItem> {
+    /**
+     * the last (visible) adapter managing the matched item or its parent
+     */
+    @Nullable
+    public IAdapter<Item> adapter;
+    /**
+     * the matched item
+     */
+    @Nullable
+    public Item item;
+    /**
+     * the global position of the matched item, or -1 if it is a non displayed sub item (or nothing matched)
+     */
+    public int position = -1;
+
+    /**
+     * @return true if an item matched
+     */
+    public boolean isMatch() {
+        return item != null;
+    }
+
+    public void set(@Nullable IAdapter<Item> adapter, @Nullable Item item, int position) {
+        this.adapter = adapter;
+        this.item = item;
+        this.position = position;
+    }
+
+    public void clear() {
+        set(null, null, -1);
+    }
+}
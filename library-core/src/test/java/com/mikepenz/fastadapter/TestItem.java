@@ -0,0 +1,52 @@
+package com.mikepenz.fastadapter;
+
+import android.view.View;
+
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.mikepenz.fastadapter.items.AbstractItem;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * the item used by the tests of the core, it is never bound to a view
+ */
+public class TestItem extends AbstractItem<TestItem, TestItem.ViewHolder> {
+
+    public TestItem(long identifier) {
+        withIdentifier(identifier);
+    }
+
+    /**
+     * @return the items with the identifiers `offset` to `offset + size - 1`
+     */
+    public static List<TestItem> list(long offset, int size) {
+        List<TestItem> items = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            items.add(new TestItem(offset + i));
+        }
+        return items;
+    }
+
+    @Override
+    public int getLayoutRes() {
+        return -1;
+    }
+
+    @Override
+    public int getType() {
+        return -1;
+    }
+
+    @Override
+    public ViewHolder getViewHolder(View v) {
+        return new ViewHolder(v);
+    }
+
+    public static class ViewHolder extends RecyclerView.ViewHolder {
+        public ViewHolder(View view) {
+            super(view);
+        }
+    }
+}
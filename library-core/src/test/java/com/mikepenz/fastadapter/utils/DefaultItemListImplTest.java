@@ -0,0 +1,89 @@
+package com.mikepenz.fastadapter.utils;
+
+import com.mikepenz.fastadapter.TestItem;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Resolves identifiers of a {@link DefaultItemListImpl} with and without the identifier index, while items are
+ * inserted, removed (also several ranges at once), moved and replaced anywhere in the list.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class DefaultItemListImplTest {
+    private static final int SIZE = 2000;
+
+    @Test
+    public void indexedLookup_MatchesScan() {
+        DefaultItemListImpl<TestItem> scanned = new DefaultItemListImpl<>(TestItem.list(0, SIZE));
+        DefaultItemListImpl<TestItem> indexed = new DefaultItemListImpl<>(TestItem.list(0, SIZE)).withIdentifierIndex(true);
+        assertLookupsMatch(scanned, indexed);
+
+        Random random = new Random(42);
+        long nextIdentifier = SIZE;
+        for (int round = 0; round < 500; round++) {
+            int size = scanned.size();
+            int position = random.nextInt(size);
+            switch (random.nextInt(7)) {
+                case 0:
+                    scanned.remove(position, 0);
+                    indexed.remove(position, 0);
+                    break;
+                case 1:
+                    int count = Math.min(1 + random.nextInt(20), size - position);
+                    scanned.removeRange(position, count, 0);
+                    indexed.removeRange(position, count, 0);
+                    break;
+                case 2:
+                    scanned.addAll(position, TestItem.list(nextIdentifier, 3), 0);
+                    indexed.addAll(position, TestItem.list(nextIdentifier, 3), 0);
+                    nextIdentifier += 3;
+                    break;
+                case 3:
+                    int toPosition = random.nextInt(size);
+                    scanned.move(position, toPosition, 0);
+                    indexed.move(position, toPosition, 0);
+                    break;
+                case 4:
+                    //sometimes an identifier which is contained already
+                    long identifier = random.nextBoolean() ? nextIdentifier++ : random.nextInt(SIZE);
+                    scanned.set(position, new TestItem(identifier), 0);
+                    indexed.set(position, new TestItem(identifier), 0);
+                    break;
+                case 5:
+                    //two ranges separated by at least one item
+                    int first = Math.min(1 + random.nextInt(5), size - position);
+                    int second = position + first + 1 < size ? Math.min(1 + random.nextInt(5), size - position - first - 1) : 0;
+                    int[] ranges = second > 0 ? new int[]{position, first, position + first + 1, second} : new int[]{position, first};
+                    scanned.removeRanges(ranges, 0);
+                    indexed.removeRanges(ranges, 0);
+                    break;
+                default:
+                    scanned.addAll(TestItem.list(nextIdentifier, 2), 0);
+                    indexed.addAll(TestItem.list(nextIdentifier, 2), 0);
+                    nextIdentifier += 2;
+                    break;
+            }
+            if (round % 25 == 0) {
+                assertLookupsMatch(scanned, indexed);
+            } else {
+                long identifier = random.nextInt((int) nextIdentifier);
+                assertEquals(scanned.getAdapterIndex(identifier), indexed.getAdapterIndex(identifier));
+            }
+        }
+        assertLookupsMatch(scanned, indexed);
+    }
+
+    private static void assertLookupsMatch(DefaultItemListImpl<TestItem> scanned, DefaultItemListImpl<TestItem> indexed) {
+        for (long identifier = -1; identifier < SIZE * 2; identifier++) {
+            assertEquals(scanned.getAdapterIndex(identifier), indexed.getAdapterIndex(identifier));
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.mikepenz.fastadapter.utils;
+
+import android.os.Looper;
+
+import com.mikepenz.fastadapter.FastAdapter;
+import com.mikepenz.fastadapter.TestItem;
+import com.mikepenz.fastadapter.adapters.ItemAdapter;
+import com.mikepenz.fastadapter.adapters.ItemFilter;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * Loads and evicts the pages of a {@link PagedItemList}, the requests are answered by the tests.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class PagedItemListTest {
+    private final List<PagedItemList.PageRequest<TestItem>> requests = new ArrayList<>();
+    private PagedItemList<TestItem> list;
+    private ItemAdapter<TestItem> itemAdapter;
+    private FastAdapter<TestItem> fastAdapter;
+
+    @Before
+    public void setUp() {
+        list = new PagedItemList<>(1000, 50, new PagedItemList.Placeholders<TestItem>() {
+            @Override
+            public TestItem getPlaceholder(int position) {
+                return new TestItem(-2 - position);
+            }
+        }, new PagedItemList.PageLoader<TestItem>() {
+            @Override
+            public void loadPage(PagedItemList.PageRequest<TestItem> request) {
+                requests.add(request);
+            }
+        });
+        list.withMaxLoadedPages(3);
+        itemAdapter = new ItemAdapter<>(list);
+        itemAdapter.withItemFilter(new ItemFilter<>(itemAdapter));
+        fastAdapter = FastAdapter.with(itemAdapter);
+    }
+
+    @Test
+    public void onBind_LoadsPagesWithinPrefetchDistance() {
+        list.onBind(120);
+        assertEquals(3, requests.size());
+        assertEquals(1, requests.get(0).page);
+        assertEquals(3, requests.get(2).page);
+        assertEquals(-122, fastAdapter.getItem(120).getIdentifier());
+
+        deliverAll();
+        assertTrue(list.isLoaded(120));
+        assertEquals(120, fastAdapter.getItem(120).getIdentifier());
+        assertFalse(list.isLoaded(0));
+
+        //loaded or loading pages are not requested again
+        list.onBind(121);
+        assertEquals(0, requests.size());
+    }
+
+    @Test
+    public void onBind_EvictsLeastRecentlyBoundPages() {
+        list.onBind(0);
+        deliverAll();
+        list.onBind(500);
+        deliverAll();
+
+        assertEquals(3, list.getLoadedPageCount());
+        assertFalse(list.isLoaded(0));
+        assertTrue(list.isLoaded(450));
+        assertTrue(list.isLoaded(599));
+        assertEquals(-2, fastAdapter.getItem(0).getIdentifier());
+    }
+
+    @Test
+    public void deliver_DropsResultsOfInvalidatedRequests() {
+        list.onBind(0);
+        List<PagedItemList.PageRequest<TestItem>> stale = new ArrayList<>(requests);
+        requests.clear();
+        list.invalidate();
+        for (PagedItemList.PageRequest<TestItem> request : stale) {
+            deliver(request);
+        }
+        assertEquals(0, list.getLoadedPageCount());
+        assertFalse(list.isLoaded(0));
+
+        //the pages are requested again with the next bind
+        list.onBind(0);
+        assertEquals(stale.size(), requests.size());
+    }
+
+    @Test
+    public void filter_IsNotSupported_AndKeepsThePages() {
+        list.onBind(0);
+        deliverAll();
+        try {
+            itemAdapter.getItemFilter().filterAsync("1");
+            fail("the placeholders were filtered");
+        } catch (UnsupportedOperationException expected) {
+            //the pages are loaded on demand
+        }
+
+        //resetting the filter keeps the pages
+        itemAdapter.getItemFilter().filterAsync(null);
+        assertEquals(1000, fastAdapter.getItemCount());
+        assertTrue(list.isLoaded(49));
+        list.onBind(500);
+        assertEquals(3, requests.size());
+        assertEquals(-502, fastAdapter.getItem(500).getIdentifier());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void set_IsNotSupported() {
+        itemAdapter.set(TestItem.list(5000, 130));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void add_IsNotSupported() {
+        itemAdapter.add(new TestItem(1));
+    }
+
+    private void deliverAll() {
+        List<PagedItemList.PageRequest<TestItem>> pending = new ArrayList<>(requests);
+        requests.clear();
+        for (PagedItemList.PageRequest<TestItem> request : pending) {
+            deliver(request);
+        }
+    }
+
+    private void deliver(PagedItemList.PageRequest<TestItem> request) {
+        request.deliver(TestItem.list(request.offset, request.count));
+        //the results are applied on the main thread
+        shadowOf(Looper.getMainLooper()).idle();
+    }
+}
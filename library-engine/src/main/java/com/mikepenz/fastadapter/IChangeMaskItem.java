@@ -0,0 +1,16 @@
+package com.mikepenz.fastadapter;
+
+/**
+ * An item which can tell which of its bindable fields changed, so a diff notifies the change with a
+ * {@link com.mikepenz.fastadapter.utils.ChangeMask} payload and only the affected views are bound again.
+ */
+public interface IChangeMaskItem<T> {
+    /**
+     * compares the bindable fields of this (new) item with the ones of the old item
+     *
+     * @param oldItem the old item with the same identifier (and the same class)
+     * @return the fields which changed (see `ChangeMask.field(int)`), `ChangeMask.ALL` if everything has to be bound
+     * again, 0 if no field changed
+     */
+    long getChangeMask(T oldItem);
+}
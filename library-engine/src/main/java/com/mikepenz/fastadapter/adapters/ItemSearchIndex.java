@@ -0,0 +1,316 @@
+package com.mikepenz.fastadapter.adapters;
+
+import androidx.annotation.Nullable;
+
+import com.mikepenz.fastadapter.utils.IdentifierIndex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * A trigram index over the text of items, used by the {@link ItemFilter} to find the items containing a constraint
+ * (case insensitive) without checking every item.
+ * <p>
+ * Each item gets a document id in the order of the indexed list. For every trigram of its text a sorted int array
+ * (posting) holds the ids of the documents containing it. A constraint is answered by intersecting the postings of its
+ * trigrams and verifying the remaining candidates. Constraints shorter than three characters are checked against the
+ * cached texts of all items.
+ * <p>
+ * Appending, removing and replacing items updates the index in place, all other modifications mark it as outdated
+ * and it is rebuilt with the next search. The index is synchronized, as the ItemFilter may search on a background thread.
+ */
+public class ItemSearchIndex<Item> {
+    private static final int GRAM = 3;
+    //rebuild once more documents are removed or outdated than are live, but not before this count of them
+    private static final int MIN_GARBAGE = 64;
+
+    /**
+     * extracts the text which is indexed for an item
+     */
+    public interface TextExtractor<Item> {
+        /**
+         * @param item the item to index
+         * @return the text of the item, may be null
+         */
+        @Nullable
+        CharSequence getText(Item item);
+    }
+
+    private final TextExtractor<Item> mTextExtractor;
+
+    //the documents in the order of the indexed list, removed ones are null
+    private final ArrayList<Item> mDocuments = new ArrayList<>();
+    private final ArrayList<String> mTexts = new ArrayList<>();
+    private final IdentityHashMap<Item, Integer> mDocumentIds = new IdentityHashMap<>();
+    private int mLiveCount = 0;
+    //removed documents and postings which may reference a text which was replaced
+    private int mGarbage = 0;
+
+    //maps the trigram to the slot of its posting
+    private final IdentifierIndex mGrams = new IdentifierIndex();
+    private int[][] mPostings = new int[16][];
+    private int[] mPostingSizes = new int[16];
+    private int mPostingCount = 0;
+
+    private boolean mValid = false;
+
+    public ItemSearchIndex(TextExtractor<Item> textExtractor) {
+        this.mTextExtractor = textExtractor;
+    }
+
+    /**
+     * marks this index as outdated, it is rebuilt with the next search
+     */
+    public synchronized void invalidate() {
+        mValid = false;
+    }
+
+    /**
+     * @return true if this index reflects the list it was built for
+     */
+    public synchronized boolean isValid() {
+        return mValid;
+    }
+
+    /**
+     * rebuilds this index from the given list
+     *
+     * @param items the items to index
+     */
+    public synchronized void rebuild(List<Item> items) {
+        mDocuments.clear();
+        mTexts.clear();
+        mDocumentIds.clear();
+        mLiveCount = 0;
+        mGarbage = 0;
+        mGrams.clear();
+        mPostingCount = 0;
+        for (int i = 0, size = items.size(); i < size; i++) {
+            append(items.get(i));
+        }
+        mValid = true;
+    }
+
+    /**
+     * indexes items which were added to the end of the list
+     *
+     * @param items the appended items
+     */
+    public synchronized void addAll(List<Item> items) {
+        if (!mValid) {
+            return;
+        }
+        for (int i = 0, size = items.size(); i < size; i++) {
+            append(items.get(i));
+        }
+    }
+
+    /**
+     * removes an item from the index
+     *
+     * @param item the removed item
+     */
+    public synchronized void remove(Item item) {
+        if (!mValid) {
+            return;
+        }
+        Integer documentId = mDocumentIds.remove(item);
+        if (documentId == null) {
+            mValid = false;
+            return;
+        }
+        mDocuments.set(documentId, null);
+        mTexts.set(documentId, null);
+        mLiveCount--;
+        mGarbage++;
+        checkGarbage();
+    }
+
+    /**
+     * replaces an item, the new item takes over the position of the old one
+     *
+     * @param oldItem the replaced item
+     * @param newItem the new item
+     */
+    public synchronized void replace(Item oldItem, Item newItem) {
+        if (!mValid) {
+            return;
+        }
+        Integer documentId = mDocumentIds.remove(oldItem);
+        if (documentId == null || mDocumentIds.containsKey(newItem)) {
+            mValid = false;
+            return;
+        }
+        String text = textOf(newItem);
+        mDocumentIds.put(newItem, documentId);
+        mDocuments.set(documentId, newItem);
+        mTexts.set(documentId, text);
+        //the postings of the old text are kept, the candidates are verified anyways
+        for (int i = 0, end = text.length() - GRAM; i <= end; i++) {
+            int slot = postingSlot(gram(text, i));
+            insertSorted(slot, documentId);
+        }
+        mGarbage++;
+        checkGarbage();
+    }
+
+    /**
+     * searches the items whose text contains the constraint, ignoring the case
+     *
+     * @param items      the list this index was built for, it is rebuilt if the index is outdated
+     * @param constraint the constraint to search for
+     * @return the matching items in the order of the list
+     */
+    public synchronized List<Item> search(List<Item> items, CharSequence constraint) {
+        if (!mValid || mLiveCount != items.size()) {
+            rebuild(items);
+        }
+        String query = constraint.toString().toLowerCase(Locale.ROOT);
+        List<Item> result = new ArrayList<>();
+        if (query.length() < GRAM) {
+            for (int i = 0, size = mDocuments.size(); i < size; i++) {
+                String text = mTexts.get(i);
+                if (text != null && text.contains(query)) {
+                    result.add(mDocuments.get(i));
+                }
+            }
+            return result;
+        }
+
+        //collect the postings of all trigrams of the query, the shortest first
+        int gramCount = query.length() - GRAM + 1;
+        int[] slots = new int[gramCount];
+        for (int i = 0; i < gramCount; i++) {
+            int slot = mGrams.get(gram(query, i));
+            if (slot == -1) {
+                return result;
+            }
+            slots[i] = slot;
+        }
+        sortBySize(slots);
+
+        int[] candidates = Arrays.copyOf(mPostings[slots[0]], mPostingSizes[slots[0]]);
+        int candidateCount = candidates.length;
+        for (int i = 1; i < gramCount && candidateCount > 0; i++) {
+            if (slots[i] != slots[i - 1]) {
+                candidateCount = intersect(candidates, candidateCount, mPostings[slots[i]], mPostingSizes[slots[i]]);
+            }
+        }
+
+        //verify the candidates, the postings do not know the order of the trigrams
+        for (int i = 0; i < candidateCount; i++) {
+            String text = mTexts.get(candidates[i]);
+            if (text != null && text.contains(query)) {
+                result.add(mDocuments.get(candidates[i]));
+            }
+        }
+        return result;
+    }
+
+    private void append(Item item) {
+        int documentId = mDocuments.size();
+        String text = textOf(item);
+        mDocuments.add(item);
+        mTexts.add(text);
+        if (mDocumentIds.put(item, documentId) != null) {
+            //the same instance is contained twice, only the last one can be found
+            mGarbage++;
+        }
+        mLiveCount++;
+        for (int i = 0, end = text.length() - GRAM; i <= end; i++) {
+            int slot = postingSlot(gram(text, i));
+            int size = mPostingSizes[slot];
+            //the same trigram may occur more than once within a text
+            if (size > 0 && mPostings[slot][size - 1] == documentId) {
+                continue;
+            }
+            if (size == mPostings[slot].length) {
+                mPostings[slot] = Arrays.copyOf(mPostings[slot], size * 2);
+            }
+            mPostings[slot][size] = documentId;
+            mPostingSizes[slot] = size + 1;
+        }
+    }
+
+    private void insertSorted(int slot, int documentId) {
+        int size = mPostingSizes[slot];
+        int index = Arrays.binarySearch(mPostings[slot], 0, size, documentId);
+        if (index >= 0) {
+            return;
+        }
+        index = -index - 1;
+        if (size == mPostings[slot].length) {
+            mPostings[slot] = Arrays.copyOf(mPostings[slot], size * 2);
+        }
+        System.arraycopy(mPostings[slot], index, mPostings[slot], index + 1, size - index);
+        mPostings[slot][index] = documentId;
+        mPostingSizes[slot] = size + 1;
+    }
+
+    private int postingSlot(long gram) {
+        int slot = mGrams.get(gram);
+        if (slot != -1) {
+            return slot;
+        }
+        slot = mPostingCount++;
+        if (slot == mPostings.length) {
+            mPostings = Arrays.copyOf(mPostings, slot * 2);
+            mPostingSizes = Arrays.copyOf(mPostingSizes, slot * 2);
+        }
+        mPostings[slot] = new int[4];
+        mPostingSizes[slot] = 0;
+        mGrams.put(gram, slot);
+        return slot;
+    }
+
+    /**
+     * keeps the values of `candidates` which are contained in `posting`, both are sorted
+     *
+     * @return the count of remaining candidates
+     */
+    private static int intersect(int[] candidates, int candidateCount, int[] posting, int postingSize) {
+        int count = 0;
+        int from = 0;
+        for (int i = 0; i < candidateCount && from < postingSize; i++) {
+            int index = Arrays.binarySearch(posting, from, postingSize, candidates[i]);
+            if (index >= 0) {
+                candidates[count++] = candidates[i];
+                from = index + 1;
+            } else {
+                from = -index - 1;
+            }
+        }
+        return count;
+    }
+
+    private void sortBySize(int[] slots) {
+        //queries are short, an insertion sort is enough
+        for (int i = 1; i < slots.length; i++) {
+            int slot = slots[i];
+            int j = i - 1;
+            while (j >= 0 && mPostingSizes[slots[j]] > mPostingSizes[slot]) {
+                slots[j + 1] = slots[j];
+                j--;
+            }
+            slots[j + 1] = slot;
+        }
+    }
+
+    private void checkGarbage() {
+        if (mGarbage > MIN_GARBAGE && mGarbage > mLiveCount) {
+            mValid = false;
+        }
+    }
+
+    private String textOf(Item item) {
+        CharSequence text = mTextExtractor.getText(item);
+        return text == null ? "" : text.toString().toLowerCase(Locale.ROOT);
+    }
+
+    private static long gram(String text, int index) {
+        return ((long) text.charAt(index) << 32) | ((long) text.charAt(index + 1) << 16) | text.charAt(index + 2);
+    }
+}
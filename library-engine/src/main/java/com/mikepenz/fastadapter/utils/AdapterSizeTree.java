@@ -0,0 +1,121 @@
+package com.mikepenz.fastadapter.utils;
+
+import java.util.Arrays;
+
+/**
+ * A Fenwick tree (binary indexed tree) over the sizes of the adapters of a FastAdapter.
+ * It allows to update the size of a single adapter, to count the items before an adapter and to find the adapter
+ * responsible for a global position in O(log A), where A is the count of adapters.
+ */
+public class AdapterSizeTree {
+    private int[] mSizes = new int[0];
+    //1-based Fenwick tree, mTree[i] holds the sum of the sizes (i - lowbit(i), i]
+    private int[] mTree = new int[1];
+    private int mCount = 0;
+    private int mTotal = 0;
+    //the highest power of two <= mCount, used to descend the tree
+    private int mHighBit = 0;
+
+    /**
+     * replaces all sizes, this rebuilds the tree in O(A)
+     *
+     * @param sizes the sizes of the adapters
+     * @param count the count of adapters (the first `count` values of `sizes` are used)
+     */
+    public void setSizes(int[] sizes, int count) {
+        if (mSizes.length < count) {
+            mSizes = new int[count];
+            mTree = new int[count + 1];
+        } else {
+            Arrays.fill(mTree, 0);
+        }
+        mCount = count;
+        mTotal = 0;
+        for (int i = 0; i < count; i++) {
+            mSizes[i] = sizes[i];
+            mTotal += sizes[i];
+            int node = i + 1;
+            mTree[node] += sizes[i];
+            int parent = node + (node & -node);
+            if (parent <= count) {
+                mTree[parent] += mTree[node];
+            }
+        }
+        mHighBit = count == 0 ? 0 : Integer.highestOneBit(count);
+    }
+
+    /**
+     * updates the size of a single adapter
+     *
+     * @param index the index (order) of the adapter
+     * @param size  the new size of the adapter
+     */
+    public void setSize(int index, int size) {
+        int delta = size - mSizes[index];
+        if (delta == 0) {
+            return;
+        }
+        mSizes[index] = size;
+        mTotal += delta;
+        for (int node = index + 1; node <= mCount; node += node & -node) {
+            mTree[node] += delta;
+        }
+    }
+
+    /**
+     * @param index the index (order) of the adapter
+     * @return the size stored for this adapter
+     */
+    public int getSize(int index) {
+        return mSizes[index];
+    }
+
+    /**
+     * @return the count of adapters
+     */
+    public int getCount() {
+        return mCount;
+    }
+
+    /**
+     * @return the sum of all sizes
+     */
+    public int getTotal() {
+        return mTotal;
+    }
+
+    /**
+     * @param index the index (order) of the adapter, may be equal to the count of adapters
+     * @return the count of items of all adapters before the given one
+     */
+    public int getPrefix(int index) {
+        int sum = 0;
+        for (int node = Math.min(index, mCount); node > 0; node -= node & -node) {
+            sum += mTree[node];
+        }
+        return sum;
+    }
+
+    /**
+     * finds the adapter responsible for the given global position, empty adapters are skipped
+     *
+     * @param position the global position
+     * @return the index (order) of the adapter or the count of adapters if the position is out of range
+     */
+    public int indexOf(int position) {
+        if (position < 0) {
+            return mCount;
+        }
+        //descend the tree to the last node whose prefix is <= position
+        int node = 0;
+        int remaining = position;
+        for (int step = mHighBit; step > 0; step >>= 1) {
+            int next = node + step;
+            if (next <= mCount && mTree[next] <= remaining) {
+                node = next;
+                remaining -= mTree[next];
+            }
+        }
+        return node;
+    }
+}
@@ -0,0 +1,129 @@
+package com.mikepenz.fastadapter.utils;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.mikepenz.fastadapter.IChangeMaskItem;
+
+import java.util.List;
+
+/**
+ * A payload telling which fields of an item changed as bitmask, so `bindView` only has to bind the affected views.
+ * <p>
+ * The lowest 8 bits are reserved for the states managed by the library ({@link #SELECTION}, {@link #EXPANSION}), the
+ * fields of an item use the bits of {@link #field(int)}. In `bindView` the payloads are combined with
+ * {@link #of(List)}, no (or any other) payload results in {@link #ALL}.
+ */
+public final class ChangeMask {
+    /**
+     * all fields, the item has to be bound completely
+     */
+    public static final long ALL = -1L;
+    /**
+     * the selection state changed
+     */
+    public static final long SELECTION = 1L;
+    /**
+     * the expanded state changed
+     */
+    public static final long EXPANSION = 1L << 1;
+    /**
+     * the count of bits available for the fields of an item
+     */
+    public static final int FIELD_COUNT = 56;
+
+    private static final int FIRST_FIELD_BIT = 8;
+    private static final ChangeMask SELECTION_PAYLOAD = new ChangeMask(SELECTION);
+    private static final ChangeMask EXPANSION_PAYLOAD = new ChangeMask(EXPANSION);
+
+    private final long mMask;
+
+    private ChangeMask(long mask) {
+        this.mMask = mask;
+    }
+
+    /**
+     * @param index the index of the field of an item, 0 to {@link #FIELD_COUNT} - 1
+     * @return the bit of the field
+     */
+    public static long field(int index) {
+        if (index < 0 || index >= FIELD_COUNT) {
+            throw new IllegalArgumentException("field index out of range: " + index);
+        }
+        return 1L << (FIRST_FIELD_BIT + index);
+    }
+
+    /**
+     * @param mask the changed fields
+     * @return the payload for the changed fields
+     */
+    @NonNull
+    public static ChangeMask payload(long mask) {
+        if (mask == SELECTION) {
+            return SELECTION_PAYLOAD;
+        } else if (mask == EXPANSION) {
+            return EXPANSION_PAYLOAD;
+        }
+        return new ChangeMask(mask);
+    }
+
+    /**
+     * combines the payloads of a bind
+     *
+     * @param payloads the payloads passed to `bindView`
+     * @return the changed fields, {@link #ALL} if there is no payload or one which is not a ChangeMask
+     */
+    public static long of(@Nullable List<Object> payloads) {
+        if (payloads == null || payloads.isEmpty()) {
+            return ALL;
+        }
+        long mask = 0;
+        for (int i = 0, size = payloads.size(); i < size; i++) {
+            Object payload = payloads.get(i);
+            if (!(payload instanceof ChangeMask)) {
+                return ALL;
+            }
+            mask |= ((ChangeMask) payload).mMask;
+        }
+        return mask;
+    }
+
+    /**
+     * @param mask the changed fields, e.g. of {@link #of(List)}
+     * @param bits the fields to check
+     * @return true if any of the fields changed
+     */
+    public static boolean contains(long mask, long bits) {
+        return (mask & bits) != 0;
+    }
+
+    /**
+     * calculates the payload for the change of an item implementing {@link IChangeMaskItem}
+     *
+     * @param oldItem the old item
+     * @param newItem the new item with the same identifier
+     * @return the payload, null if the items don't provide a change mask or it requires a full bind
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public static ChangeMask diff(@Nullable Object oldItem, @Nullable Object newItem) {
+        if (!(newItem instanceof IChangeMaskItem) || oldItem == null || oldItem.getClass() != newItem.getClass()) {
+            return null;
+        }
+        long mask = ((IChangeMaskItem<Object>) newItem).getChangeMask(oldItem);
+        //no changed field means something else changed
+        return mask == 0 || mask == ALL ? null : payload(mask);
+    }
+
+    /**
+     * @return the changed fields
+     */
+    public long getMask() {
+        return mMask;
+    }
+
+    @Override
+    public String toString() {
+        return "ChangeMask{" + Long.toHexString(mMask) + "}";
+    }
+}
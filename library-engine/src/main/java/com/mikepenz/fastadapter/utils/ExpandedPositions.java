@@ -0,0 +1,8 @@
+package com.mikepenz.fastadapter.utils;
+
+/**
+ * The global positions of the visible expanded items, sorted ascending, together with the items.
+ * Lookups use a binary search, inserted and removed ranges shift the following positions.
+ */
+public class ExpandedPositions<Item> extends PositionMap<Item> {
+}
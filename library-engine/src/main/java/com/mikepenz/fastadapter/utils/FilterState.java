@@ -0,0 +1,105 @@
+package com.mikepenz.fastadapter.utils;
+
+import androidx.annotation.Nullable;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The state of a filter whose filtering may run on another thread. Every filtering and every modification of the
+ * items starts a new generation, a filtering only publishes its result if its generation is still the current one.
+ * The last result is kept for a following filtering with a narrowed constraint, which only checks its items.
+ */
+public class FilterState<Item> {
+    //incremented by every filtering and every modification, older results are dropped
+    private final AtomicInteger mGeneration = new AtomicInteger();
+    //incremented whenever the last result gets invalid, a result is only reused if it was computed for the current one
+    private final AtomicInteger mLastResultGeneration = new AtomicInteger();
+    //the last constraint and the items it matched
+    private volatile LastResult<Item> mLastResult;
+
+    /**
+     * starts a new generation, a running filtering of an older one becomes stale
+     *
+     * @return the new generation
+     */
+    public int nextGeneration() {
+        return mGeneration.incrementAndGet();
+    }
+
+    /**
+     * @return the current generation
+     */
+    public int getGeneration() {
+        return mGeneration.get();
+    }
+
+    /**
+     * @param generation the generation of a filtering
+     * @return true if no other filtering was started and the items were not modified since
+     */
+    public boolean isCurrent(int generation) {
+        return generation == mGeneration.get();
+    }
+
+    /**
+     * @return the generation of the last result, to pass it to `getLastResult` and `setLastResult` later on
+     */
+    public int getLastResultGeneration() {
+        return mLastResultGeneration.get();
+    }
+
+    /**
+     * forgets the last result, so the next filtering checks all items again
+     */
+    public void invalidateLastResult() {
+        mLastResultGeneration.incrementAndGet();
+        mLastResult = null;
+    }
+
+    /**
+     * forgets the last result and drops a running filtering, which works with the previous items
+     */
+    public void onItemsChanged() {
+        invalidateLastResult();
+        mGeneration.incrementAndGet();
+    }
+
+    /**
+     * @param lastResultGeneration the generation of the last result when the filtering was started
+     * @return the last result, null if there is none or it was invalidated since
+     */
+    @Nullable
+    public LastResult<Item> getLastResult(int lastResultGeneration) {
+        LastResult<Item> lastResult = mLastResult;
+        return lastResult != null && lastResult.generation == lastResultGeneration ? lastResult : null;
+    }
+
+    /**
+     * keeps the result of a filtering, unless the last result was invalidated since the filtering was started
+     *
+     * @param lastResultGeneration the generation of the last result when the filtering was started
+     * @param constraint           the constraint
+     * @param items                the matched items, they are not copied
+     */
+    public void setLastResult(int lastResultGeneration, String constraint, List<Item> items) {
+        if (lastResultGeneration == mLastResultGeneration.get()) {
+            mLastResult = new LastResult<>(lastResultGeneration, constraint, items);
+        }
+    }
+
+    /**
+     * the constraint and the items matched by the last filtering
+     */
+    public static class LastResult<Item> {
+        final int generation;
+        public final String constraint;
+        public final List<Item> items;
+
+        LastResult(int generation, String constraint, List<Item> items) {
+            this.generation = generation;
+            this.constraint = constraint;
+            this.items = items;
+        }
+    }
+}
@@ -0,0 +1,329 @@
+package com.mikepenz.fastadapter.utils;
+
+import androidx.annotation.Nullable;
+
+import com.mikepenz.fastadapter.IIdentifyable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A diff for lists with stable and unique identifiers, without any dependency on Android, so it can run on any thread
+ * (or the JVM).
+ * <p>
+ * Items are matched by their identifier using hash maps, the items which keep their relative order are found with a
+ * longest increasing subsequence, all other common items are reported as moves. This runs in O(N + C log C) where C is
+ * the count of items contained in both lists, independent of the count of moves.
+ */
+public class IdentifierDiff {
+    private static final int INSERTED = 0;
+    private static final int REMOVED = 1;
+    private static final int MOVED = 2;
+    private static final int CHANGED = 3;
+
+    /**
+     * compares the contents of two items with the same identifier
+     */
+    public interface ContentCallback<Item> {
+        /**
+         * @return true if the contents of the items are the same
+         */
+        boolean areContentsTheSame(Item oldItem, Item newItem);
+
+        /**
+         * @return the payload for the change of the item, or null
+         */
+        @Nullable
+        Object getChangePayload(Item oldItem, int oldItemPosition, Item newItem, int newItemPosition);
+    }
+
+    /**
+     * receives the updates of a {@link Result}, the positions are valid at the time each update is dispatched
+     */
+    public interface UpdateListener {
+        void onInserted(int position, int count);
+
+        void onRemoved(int position, int count);
+
+        void onMoved(int fromPosition, int toPosition);
+
+        void onChanged(int position, int count, @Nullable Object payload);
+    }
+
+    /**
+     * calculates the updates required to transform the old list into the new list
+     *
+     * @param oldItems the current items
+     * @param newItems the new items
+     * @param callback the callback used to identify changes of the contents of items
+     * @return the updates, or null if one of the lists contains an identifier more than once
+     */
+    @Nullable
+    public static <Item extends IIdentifyable<?>> Result calculate(final List<Item> oldItems, final List<Item> newItems, final ContentCallback<Item> callback) {
+        final int oldSize = oldItems.size();
+        final int newSize = newItems.size();
+
+        IdentifierIndex newIndex = new IdentifierIndex(newSize);
+        newIndex.rebuild(newItems);
+        IdentifierIndex oldIndex = new IdentifierIndex(oldSize);
+        oldIndex.rebuild(oldItems);
+        if (newIndex.hasDuplicates() || oldIndex.hasDuplicates()) {
+            return null;
+        }
+
+        Result result = new Result();
+
+        //map the items of both lists onto each other
+        int[] oldToNew = new int[oldSize];
+        int[] newToOld = new int[newSize];
+        Arrays.fill(newToOld, -1);
+        int common = 0;
+        for (int i = 0; i < oldSize; i++) {
+            int newPosition = newIndex.get(oldItems.get(i).getIdentifier());
+            oldToNew[i] = newPosition;
+            if (newPosition != -1) {
+                newToOld[newPosition] = i;
+                common++;
+            }
+        }
+
+        //1. remove the items which are gone, from the end so the positions stay valid
+        for (int i = oldSize - 1; i >= 0; ) {
+            if (oldToNew[i] != -1) {
+                i--;
+                continue;
+            }
+            int end = i;
+            while (i >= 0 && oldToNew[i] == -1) {
+                i--;
+            }
+            result.add(REMOVED, i + 1, end - i);
+        }
+
+        //the common items in their old order, as their new positions, and the slot of each new position within this order
+        int[] sequence = new int[common];
+        int[] slotOfNew = new int[newSize];
+        for (int i = 0, slot = 0; i < oldSize; i++) {
+            if (oldToNew[i] != -1) {
+                sequence[slot] = oldToNew[i];
+                slotOfNew[oldToNew[i]] = slot;
+                slot++;
+            }
+        }
+
+        //2. the longest increasing subsequence keeps its positions, all other common items are moved
+        boolean[] keep = longestIncreasingSubsequence(sequence, newSize);
+        dispatchMoves(result, newToOld, slotOfNew, keep, common);
+
+        //3. insert the new items, from the start so all items before are already in place
+        for (int i = 0; i < newSize; ) {
+            if (newToOld[i] != -1) {
+                i++;
+                continue;
+            }
+            int start = i;
+            while (i < newSize && newToOld[i] == -1) {
+                i++;
+            }
+            result.add(INSERTED, start, i - start);
+        }
+
+        //4. changes of the contents, using the final positions
+        int changeStart = -1;
+        for (int i = 0; i < newSize; i++) {
+            int oldPosition = newToOld[i];
+            Object payload = null;
+            boolean changed = false;
+            if (oldPosition != -1) {
+                Item oldItem = oldItems.get(oldPosition);
+                Item newItem = newItems.get(i);
+                if (!callback.areContentsTheSame(oldItem, newItem)) {
+                    changed = true;
+                    payload = callback.getChangePayload(oldItem, oldPosition, newItem, i);
+                }
+            }
+            if (changeStart != -1 && (!changed || payload != null)) {
+                result.add(CHANGED, changeStart, i - changeStart);
+                changeStart = -1;
+            }
+            if (changed) {
+                if (payload != null) {
+                    result.addChange(i, payload);
+                } else if (changeStart == -1) {
+                    changeStart = i;
+                }
+            }
+        }
+        if (changeStart != -1) {
+            result.add(CHANGED, changeStart, newSize - changeStart);
+        }
+
+        return result;
+    }
+
+    /**
+     * finds a longest increasing subsequence of the given values
+     *
+     * @param values   the values, all of them distinct and smaller than maxValue
+     * @param maxValue the upper bound of the values
+     * @return an array indexed by value, true for the values which are part of the subsequence
+     */
+    private static boolean[] longestIncreasingSubsequence(int[] values, int maxValue) {
+        boolean[] inSubsequence = IncreasingSubsequence.longest(values);
+        boolean[] keep = new boolean[maxValue];
+        for (int i = 0; i < values.length; i++) {
+            if (inSubsequence[i]) {
+                keep[values[i]] = true;
+            }
+        }
+        return keep;
+    }
+
+    /**
+     * moves the common items which are not part of the subsequence. each one is moved right behind the item preceding it
+     * in the new list. the current positions are tracked with a Fenwick tree over the ordered slots an item can take
+     */
+    private static void dispatchMoves(Result result, int[] newToOld, int[] slotOfNew, boolean[] keep, int common) {
+        int newSize = newToOld.length;
+
+        //the moved items form chains behind the kept item (anchor) preceding them, index 0 is the chain at the start
+        int[] chainLength = new int[common + 1];
+        int moved = 0;
+        int anchor = 0;
+        for (int i = 0; i < newSize; i++) {
+            if (newToOld[i] == -1) {
+                continue;
+            }
+            if (keep[i]) {
+                anchor = slotOfNew[i] + 1;
+            } else {
+                chainLength[anchor]++;
+                moved++;
+            }
+        }
+        if (moved == 0) {
+            return;
+        }
+
+        //order all keys: the chain at the start, then each slot followed by the chain behind it
+        int[] slotKey = new int[common];
+        int[] chainStart = new int[common + 1];
+        int key = 0;
+        chainStart[0] = key;
+        key += chainLength[0];
+        for (int slot = 0; slot < common; slot++) {
+            slotKey[slot] = key++;
+            chainStart[slot + 1] = key;
+            key += chainLength[slot + 1];
+        }
+
+        //a Fenwick tree counting the occupied keys, initially all slots are occupied
+        int[] tree = new int[key + 1];
+        for (int slot = 0; slot < common; slot++) {
+            for (int node = slotKey[slot] + 1; node <= key; node += node & -node) {
+                tree[node]++;
+            }
+        }
+
+        anchor = 0;
+        for (int i = 0; i < newSize; i++) {
+            if (newToOld[i] == -1) {
+                continue;
+            }
+            int slot = slotOfNew[i];
+            if (keep[i]) {
+                anchor = slot + 1;
+                continue;
+            }
+            int from = countBefore(tree, slotKey[slot]);
+            for (int node = slotKey[slot] + 1; node <= key; node += node & -node) {
+                tree[node]--;
+            }
+            int target = chainStart[anchor]++;
+            int to = countBefore(tree, target);
+            for (int node = target + 1; node <= key; node += node & -node) {
+                tree[node]++;
+            }
+            if (from != to) {
+                result.add(MOVED, from, to);
+            }
+        }
+    }
+
+    private static int countBefore(int[] tree, int key) {
+        int sum = 0;
+        for (int node = key; node > 0; node -= node & -node) {
+            sum += tree[node];
+        }
+        return sum;
+    }
+
+    /**
+     * the updates calculated by {@link IdentifierDiff#calculate(List, List, ContentCallback)}
+     */
+    public static class Result {
+        //type, first and second argument of each update
+        private int[] mUpdates = new int[48];
+        private int mUpdateCount = 0;
+        //the payloads of change updates, stored at the index of the update
+        private List<Object> mPayloads;
+
+        Result() {
+        }
+
+        private void add(int type, int first, int second) {
+            if ((mUpdateCount + 1) * 3 > mUpdates.length) {
+                mUpdates = Arrays.copyOf(mUpdates, mUpdates.length * 2);
+            }
+            mUpdates[mUpdateCount * 3] = type;
+            mUpdates[mUpdateCount * 3 + 1] = first;
+            mUpdates[mUpdateCount * 3 + 2] = second;
+            mUpdateCount++;
+        }
+
+        private void addChange(int position, Object payload) {
+            if (mPayloads == null) {
+                mPayloads = new ArrayList<>();
+            }
+            while (mPayloads.size() < mUpdateCount) {
+                mPayloads.add(null);
+            }
+            mPayloads.add(payload);
+            add(CHANGED, position, 1);
+        }
+
+        /**
+         * @return the count of updates which will be dispatched
+         */
+        public int getUpdateCount() {
+            return mUpdateCount;
+        }
+
+        /**
+         * dispatches the updates to the given listener
+         *
+         * @param listener the listener to notify about the updates
+         */
+        public void dispatchUpdatesTo(UpdateListener listener) {
+            for (int i = 0; i < mUpdateCount; i++) {
+                int first = mUpdates[i * 3 + 1];
+                int second = mUpdates[i * 3 + 2];
+                switch (mUpdates[i * 3]) {
+                    case INSERTED:
+                        listener.onInserted(first, second);
+                        break;
+                    case REMOVED:
+                        listener.onRemoved(first, second);
+                        break;
+                    case MOVED:
+                        listener.onMoved(first, second);
+                        break;
+                    case CHANGED:
+                        listener.onChanged(first, second, mPayloads != null && i < mPayloads.size() ? mPayloads.get(i) : null);
+                        break;
+                }
+            }
+        }
+    }
+}
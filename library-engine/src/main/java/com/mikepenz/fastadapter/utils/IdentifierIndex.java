@@ -0,0 +1,265 @@
+package com.mikepenz.fastadapter.utils;
+
+import com.mikepenz.fastadapter.IIdentifyable;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A primitive map from item identifiers to their position inside a list.
+ * It uses open addressing on plain long / int arrays, so lookups run in constant time without boxing the identifiers.
+ * <p>
+ * The index is rebuilt lazily: callers may `invalidate()` it after a structural change and the next `indexOf` call
+ * will rebuild it from the list. A hit is always verified against the list, so a stale index never returns a wrong position.
+ */
+public class IdentifierIndex {
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] mKeys;
+    //the stored position + 1, 0 marks a free slot
+    private int[] mValues;
+    private int mMask;
+    private int mSize;
+    //count of identifiers which were put more than once (only the first position is remembered)
+    private int mDuplicates;
+    private boolean mValid;
+
+    public IdentifierIndex() {
+        this(MIN_CAPACITY);
+    }
+
+    public IdentifierIndex(int expectedSize) {
+        allocate(capacityFor(expectedSize));
+    }
+
+    /**
+     * @param identifier the identifier to search for
+     * @return the position stored for the given identifier or -1 if it is not known
+     */
+    public int get(long identifier) {
+        int slot = hash(identifier) & mMask;
+        int value;
+        while ((value = mValues[slot]) != 0) {
+            if (mKeys[slot] == identifier) {
+                return value - 1;
+            }
+            slot = (slot + 1) & mMask;
+        }
+        return -1;
+    }
+
+    /**
+     * @param identifier the identifier to search for
+     * @return true if the identifier is contained in this index
+     */
+    public boolean contains(long identifier) {
+        return get(identifier) != -1;
+    }
+
+    /**
+     * stores the position for the given identifier, replacing a previous one
+     *
+     * @param identifier the identifier
+     * @param position   the position (must be >= 0)
+     * @return the previous position or -1 if there was none
+     */
+    public int put(long identifier, int position) {
+        int slot = hash(identifier) & mMask;
+        int value;
+        while ((value = mValues[slot]) != 0) {
+            if (mKeys[slot] == identifier) {
+                mValues[slot] = position + 1;
+                return value - 1;
+            }
+            slot = (slot + 1) & mMask;
+        }
+        mKeys[slot] = identifier;
+        mValues[slot] = position + 1;
+        if (++mSize * 3 > mValues.length * 2) {
+            allocate(mValues.length * 2);
+        }
+        return -1;
+    }
+
+    /**
+     * stores the position for the given identifier only if the identifier is not known yet
+     * this keeps the first occurrence of an identifier, the same as a linear search would find it
+     *
+     * @param identifier the identifier
+     * @param position   the position (must be >= 0)
+     * @return true if the position was stored, false if the identifier was already contained
+     */
+    public boolean putIfAbsent(long identifier, int position) {
+        if (get(identifier) != -1) {
+            mDuplicates++;
+            return false;
+        }
+        put(identifier, position);
+        return true;
+    }
+
+    /**
+     * removes the given identifier
+     *
+     * @param identifier the identifier to remove
+     * @return the position which was stored for the identifier or -1 if it was not contained
+     */
+    public int remove(long identifier) {
+        int slot = hash(identifier) & mMask;
+        int value;
+        while ((value = mValues[slot]) != 0) {
+            if (mKeys[slot] == identifier) {
+                deleteSlot(slot);
+                mSize--;
+                return value - 1;
+            }
+            slot = (slot + 1) & mMask;
+        }
+        return -1;
+    }
+
+    /**
+     * moves the stored positions after items were inserted into or removed from the list, without rebuilding the index
+     *
+     * @param from  the first position to move
+     * @param delta the count of inserted (positive) or removed (negative) items
+     */
+    public void shift(int from, int delta) {
+        //the values are the positions + 1
+        for (int i = 0; i < mValues.length; i++) {
+            if (mValues[i] > from) {
+                mValues[i] += delta;
+            }
+        }
+    }
+
+    /**
+     * removes all identifiers, the index is valid (for an empty list) afterwards
+     */
+    public void clear() {
+        Arrays.fill(mValues, 0);
+        mSize = 0;
+        mDuplicates = 0;
+        mValid = true;
+    }
+
+    /**
+     * @return the count of distinct identifiers within this index
+     */
+    public int size() {
+        return mSize;
+    }
+
+    /**
+     * @return true if an identifier was added more than once since the last rebuild
+     */
+    public boolean hasDuplicates() {
+        return mDuplicates > 0;
+    }
+
+    /**
+     * @return true if this index reflects the list it was built for
+     */
+    public boolean isValid() {
+        return mValid;
+    }
+
+    /**
+     * marks this index as outdated, it will be rebuilt with the next call to `indexOf`
+     */
+    public void invalidate() {
+        mValid = false;
+    }
+
+    /**
+     * rebuilds this index from the given list, mapping each identifier to its first position
+     *
+     * @param items the list to index
+     */
+    public <Item extends IIdentifyable<?>> void rebuild(List<Item> items) {
+        int size = items.size();
+        int capacity = capacityFor(size);
+        if (capacity > mValues.length) {
+            allocate(capacity);
+        } else {
+            Arrays.fill(mValues, 0);
+        }
+        mSize = 0;
+        mDuplicates = 0;
+        for (int i = 0; i < size; i++) {
+            putIfAbsent(items.get(i).getIdentifier(), i);
+        }
+        mValid = true;
+    }
+
+    /**
+     * searches the position of the given identifier within the given list
+     * the index is rebuilt if it was invalidated or does not match the list anymore
+     *
+     * @param items      the list this index was built for
+     * @param identifier the identifier to search for
+     * @return the position of the first item with the given identifier or -1 if it is not contained
+     */
+    public <Item extends IIdentifyable<?>> int indexOf(List<Item> items, long identifier) {
+        if (!mValid || mSize + mDuplicates != items.size()) {
+            rebuild(items);
+        }
+        int position = get(identifier);
+        if (position == -1 || (position < items.size() && items.get(position).getIdentifier() == identifier)) {
+            return position;
+        }
+        //the list was modified without notifying this index
+        rebuild(items);
+        return get(identifier);
+    }
+
+    private void deleteSlot(int slot) {
+        //shift back following entries of the same probe sequence, so no tombstones are needed
+        int free = slot;
+        int current = slot;
+        mValues[free] = 0;
+        while (true) {
+            current = (current + 1) & mMask;
+            if (mValues[current] == 0) {
+                return;
+            }
+            int home = hash(mKeys[current]) & mMask;
+            boolean keep = free <= current ? (free < home && home <= current) : (free < home || home <= current);
+            if (!keep) {
+                mKeys[free] = mKeys[current];
+                mValues[free] = mValues[current];
+                mValues[current] = 0;
+                free = current;
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        long[] oldKeys = mKeys;
+        int[] oldValues = mValues;
+        mKeys = new long[capacity];
+        mValues = new int[capacity];
+        mMask = capacity - 1;
+        mSize = 0;
+        if (oldValues != null) {
+            for (int i = 0; i < oldValues.length; i++) {
+                if (oldValues[i] != 0) {
+                    put(oldKeys[i], oldValues[i] - 1);
+                }
+            }
+        }
+    }
+
+    private static int capacityFor(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity * 2 < expectedSize * 3) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    private static int hash(long identifier) {
+        long h = identifier * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,47 @@
+package com.mikepenz.fastadapter.utils;
+
+/**
+ * Finds a longest increasing subsequence, the largest group of values which are already in the right order. Used by
+ * {@link IdentifierDiff} and {@link SortMoves} to move only the items which are out of order.
+ */
+final class IncreasingSubsequence {
+
+    private IncreasingSubsequence() {
+    }
+
+    /**
+     * runs in O(n log n) with a binary search over the smallest tails of the subsequences found so far
+     *
+     * @param values the values, all of them distinct
+     * @return for every position if it is part of the longest increasing subsequence of the values
+     */
+    static boolean[] longest(int[] values) {
+        int size = values.length;
+        //tails[k] is the position of the smallest last value of all increasing subsequences of length k + 1
+        int[] tails = new int[size];
+        int[] previous = new int[size];
+        int length = 0;
+        for (int i = 0; i < size; i++) {
+            int low = 0;
+            int high = length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (values[tails[mid]] < values[i]) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            previous[i] = low > 0 ? tails[low - 1] : -1;
+            tails[low] = i;
+            if (low == length) {
+                length++;
+            }
+        }
+        boolean[] keep = new boolean[size];
+        for (int i = length > 0 ? tails[length - 1] : -1; i != -1; i = previous[i]) {
+            keep[i] = true;
+        }
+        return keep;
+    }
+}
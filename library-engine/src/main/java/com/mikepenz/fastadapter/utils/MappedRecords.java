@@ -0,0 +1,248 @@
+package com.mikepenz.fastadapter.utils;
+
+import androidx.annotation.NonNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+
+/**
+ * Read-only records within a buffer (usually a memory-mapped file), either of a fixed size or located by an index of
+ * offsets. Every record contains its identifier as a long at the same offset, so identifiers are read without
+ * materializing anything.
+ * <p>
+ * The buffer is only read with absolute gets, so it can be shared by several threads. The first lookup of an identifier
+ * checks if the identifiers are ascending, then they are found by binary search without using any heap. Otherwise a
+ * primitive index of all identifiers is built once, which takes about 24 bytes of heap per record (e.g. 24 MB for a
+ * million records). Write the records sorted by identifier to keep the heap usage constant.
+ */
+public final class MappedRecords {
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final ByteBuffer mData;
+    //the offset of every record, followed by the end of the last one. null for fixed size records
+    private final ByteBuffer mOffsets;
+    private final int mRecordSize;
+    private final int mIdentifierOffset;
+    private final int mSize;
+    //built by the first lookup, null if the identifiers are ascending
+    private IdentifierIndex mIdentifierIndex;
+    private boolean mLookupPrepared = false;
+
+    private MappedRecords(ByteBuffer data, ByteBuffer offsets, int recordSize, int identifierOffset, int size) {
+        this.mData = data;
+        this.mOffsets = offsets;
+        this.mRecordSize = recordSize;
+        this.mIdentifierOffset = identifierOffset;
+        this.mSize = size;
+    }
+
+    /**
+     * @param data             the records, one after the other
+     * @param recordSize       the size of every record in bytes
+     * @param identifierOffset the offset of the identifier (a long) within a record
+     * @return the records
+     */
+    public static MappedRecords fixed(@NonNull ByteBuffer data, int recordSize, int identifierOffset) {
+        if (recordSize <= 0 || identifierOffset < 0 || identifierOffset + 8 > recordSize) {
+            throw new IllegalArgumentException("the identifier has to be within the record");
+        }
+        return new MappedRecords(data, null, recordSize, identifierOffset, data.limit() / recordSize);
+    }
+
+    /**
+     * @param data             the records
+     * @param offsets          the offset (an int) of every record within `data`, followed by the end of the last record
+     * @param identifierOffset the offset of the identifier (a long) within a record
+     * @return the records
+     */
+    public static MappedRecords indexed(@NonNull ByteBuffer data, @NonNull ByteBuffer offsets, int identifierOffset) {
+        if (identifierOffset < 0) {
+            throw new IllegalArgumentException("the identifier has to be within the record");
+        }
+        return new MappedRecords(data, offsets, 0, identifierOffset, Math.max(0, offsets.limit() / 4 - 1));
+    }
+
+    /**
+     * maps a whole file read-only, the mapping stays valid after the file was closed
+     *
+     * @param file the file to map
+     * @return the mapped buffer
+     */
+    public static MappedByteBuffer map(@NonNull File file) throws IOException {
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+        try {
+            FileChannel channel = randomAccessFile.getChannel();
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } finally {
+            randomAccessFile.close();
+        }
+    }
+
+    /**
+     * @return the count of records
+     */
+    public int size() {
+        return mSize;
+    }
+
+    /**
+     * @param index the index of the record
+     * @return the offset of the record within the data
+     */
+    public int offset(int index) {
+        if (mOffsets == null) {
+            return index * mRecordSize;
+        }
+        return mOffsets.getInt(index * 4);
+    }
+
+    /**
+     * @param index the index of the record
+     * @return the size of the record in bytes
+     */
+    public int length(int index) {
+        if (mOffsets == null) {
+            return mRecordSize;
+        }
+        return mOffsets.getInt(index * 4 + 4) - mOffsets.getInt(index * 4);
+    }
+
+    /**
+     * @param index the index of the record
+     * @return the identifier of the record
+     */
+    public long getIdentifier(int index) {
+        return mData.getLong(offset(index) + mIdentifierOffset);
+    }
+
+    /**
+     * @param identifier the identifier to search for
+     * @return the index of the first record with the identifier, -1 if there is none. if the identifiers are not
+     * ascending, the first call indexes all of them on the heap
+     */
+    public int indexOf(long identifier) {
+        IdentifierIndex identifierIndex;
+        synchronized (this) {
+            if (!mLookupPrepared) {
+                prepareLookup();
+            }
+            identifierIndex = mIdentifierIndex;
+        }
+        if (identifierIndex != null) {
+            return identifierIndex.get(identifier);
+        }
+        //the first record which is not smaller
+        int low = 0;
+        int high = mSize;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (getIdentifier(mid) < identifier) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low < mSize && getIdentifier(low) == identifier ? low : -1;
+    }
+
+    /**
+     * checks if the identifiers are ascending, otherwise indexes them
+     */
+    private void prepareLookup() {
+        mLookupPrepared = true;
+        for (int i = 1; i < mSize; i++) {
+            if (getIdentifier(i) < getIdentifier(i - 1)) {
+                IdentifierIndex identifierIndex = new IdentifierIndex(mSize);
+                for (int j = 0; j < mSize; j++) {
+                    identifierIndex.putIfAbsent(getIdentifier(j), j);
+                }
+                mIdentifierIndex = identifierIndex;
+                return;
+            }
+        }
+    }
+
+    /**
+     * @param index the index of the record
+     * @return a lightweight view of the record
+     */
+    public Record get(int index) {
+        if (index < 0 || index >= mSize) {
+            throw new IndexOutOfBoundsException("index " + index + ", size " + mSize);
+        }
+        return new Record(mData, index, offset(index), length(index));
+    }
+
+    /**
+     * a view of a single record, all offsets are relative to the start of the record
+     */
+    public static final class Record {
+        private final ByteBuffer mData;
+        private final int mIndex;
+        private final int mOffset;
+        private final int mLength;
+
+        Record(ByteBuffer data, int index, int offset, int length) {
+            this.mData = data;
+            this.mIndex = index;
+            this.mOffset = offset;
+            this.mLength = length;
+        }
+
+        /**
+         * @return the index of this record
+         */
+        public int getIndex() {
+            return mIndex;
+        }
+
+        /**
+         * @return the size of this record in bytes
+         */
+        public int length() {
+            return mLength;
+        }
+
+        public byte getByte(int offset) {
+            return mData.get(mOffset + offset);
+        }
+
+        public short getShort(int offset) {
+            return mData.getShort(mOffset + offset);
+        }
+
+        public int getInt(int offset) {
+            return mData.getInt(mOffset + offset);
+        }
+
+        public long getLong(int offset) {
+            return mData.getLong(mOffset + offset);
+        }
+
+        public float getFloat(int offset) {
+            return mData.getFloat(mOffset + offset);
+        }
+
+        public double getDouble(int offset) {
+            return mData.getDouble(mOffset + offset);
+        }
+
+        /**
+         * @param offset the offset of the string within this record
+         * @param length the size of the string in bytes
+         * @return the UTF-8 string
+         */
+        public String getString(int offset, int length) {
+            byte[] bytes = new byte[length];
+            for (int i = 0; i < length; i++) {
+                bytes[i] = mData.get(mOffset + offset + i);
+            }
+            return new String(bytes, UTF_8);
+        }
+    }
+}
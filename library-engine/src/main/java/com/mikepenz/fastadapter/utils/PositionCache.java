@@ -0,0 +1,194 @@
+package com.mikepenz.fastadapter.utils;
+
+import androidx.annotation.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * A bounded cache of items by position, evicting the least recently used item once it is full. The entries are sorted
+ * by their position, so inserted and removed ranges shift the following positions in place instead of copying the
+ * cache. Evicting scans the access stamps of all entries, which is fine for caches of a few hundred items.
+ */
+public class PositionCache<Item> {
+    private final int mCapacity;
+    private final int[] mPositions;
+    private final Object[] mItems;
+    //the access stamp of every entry, the smallest one is the least recently used
+    private final long[] mStamps;
+    private long mClock = 0;
+    private int mSize = 0;
+
+    /**
+     * @param capacity the count of items which are kept
+     */
+    public PositionCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity has to be positive");
+        }
+        this.mCapacity = capacity;
+        this.mPositions = new int[capacity];
+        this.mItems = new Object[capacity];
+        this.mStamps = new long[capacity];
+    }
+
+    /**
+     * @return the count of cached items
+     */
+    public int size() {
+        return mSize;
+    }
+
+    /**
+     * @param index the index within this cache, the entries are sorted by position
+     * @return the position of the entry
+     */
+    public int positionAt(int index) {
+        return mPositions[index];
+    }
+
+    /**
+     * @param index the index within this cache, the entries are sorted by position
+     * @return the item of the entry
+     */
+    @SuppressWarnings("unchecked")
+    public Item itemAt(int index) {
+        return (Item) mItems[index];
+    }
+
+    /**
+     * @param position the position
+     * @return the index of the first entry at or after the given position
+     */
+    public int lowerBound(int position) {
+        int low = 0;
+        int high = mSize;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (mPositions[mid] < position) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @param position the position
+     * @return true if an item is cached for the position, this doesn't count as a use
+     */
+    public boolean contains(int position) {
+        int index = lowerBound(position);
+        return index < mSize && mPositions[index] == position;
+    }
+
+    /**
+     * @param position the position
+     * @return the cached item, which becomes the most recently used one, or null
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public Item get(int position) {
+        int index = lowerBound(position);
+        if (index == mSize || mPositions[index] != position) {
+            return null;
+        }
+        mStamps[index] = ++mClock;
+        return (Item) mItems[index];
+    }
+
+    /**
+     * caches the item as the most recently used one, evicting the least recently used item if the cache is full
+     */
+    public void put(int position, Item item) {
+        int index = lowerBound(position);
+        if (index < mSize && mPositions[index] == position) {
+            mItems[index] = item;
+            mStamps[index] = ++mClock;
+            return;
+        }
+        if (mSize == mCapacity) {
+            int eldest = 0;
+            for (int i = 1; i < mSize; i++) {
+                if (mStamps[i] < mStamps[eldest]) {
+                    eldest = i;
+                }
+            }
+            int eldestPosition = mPositions[eldest];
+            Item eldestItem = itemAt(eldest);
+            removeAt(eldest, eldest + 1);
+            if (eldest < index) {
+                index--;
+            }
+            onEvicted(eldestPosition, eldestItem);
+        }
+        System.arraycopy(mPositions, index, mPositions, index + 1, mSize - index);
+        System.arraycopy(mItems, index, mItems, index + 1, mSize - index);
+        System.arraycopy(mStamps, index, mStamps, index + 1, mSize - index);
+        mPositions[index] = position;
+        mItems[index] = item;
+        mStamps[index] = ++mClock;
+        mSize++;
+    }
+
+    /**
+     * @param position the position
+     * @return the removed item, or null if none was cached
+     */
+    @Nullable
+    public Item remove(int position) {
+        int index = lowerBound(position);
+        if (index == mSize || mPositions[index] != position) {
+            return null;
+        }
+        Item item = itemAt(index);
+        removeAt(index, index + 1);
+        return item;
+    }
+
+    /**
+     * shifts the positions after items were inserted
+     */
+    public void onInserted(int position, int itemCount) {
+        for (int i = lowerBound(position); i < mSize; i++) {
+            mPositions[i] += itemCount;
+        }
+    }
+
+    /**
+     * drops the items within the removed range and shifts the following positions
+     */
+    public void onRemoved(int position, int itemCount) {
+        int from = lowerBound(position);
+        removeAt(from, lowerBound(position + itemCount));
+        for (int i = from; i < mSize; i++) {
+            mPositions[i] -= itemCount;
+        }
+    }
+
+    public void clear() {
+        Arrays.fill(mItems, 0, mSize, null);
+        mSize = 0;
+    }
+
+    /**
+     * called after the least recently used item was evicted to make room for another one
+     *
+     * @param position the position of the evicted item
+     * @param item     the evicted item
+     */
+    protected void onEvicted(int position, Item item) {
+    }
+
+    private void removeAt(int from, int to) {
+        int count = to - from;
+        if (count <= 0) {
+            return;
+        }
+        System.arraycopy(mPositions, to, mPositions, from, mSize - to);
+        System.arraycopy(mItems, to, mItems, from, mSize - to);
+        System.arraycopy(mStamps, to, mStamps, from, mSize - to);
+        Arrays.fill(mItems, mSize - count, mSize, null);
+        mSize -= count;
+    }
+}
@@ -0,0 +1,151 @@
+package com.mikepenz.fastadapter.utils;
+
+import java.util.Arrays;
+
+/**
+ * Global positions sorted ascending, each together with an item.
+ * Lookups use a binary search, inserted and removed ranges shift the following positions.
+ */
+public class PositionMap<Item> {
+    private int[] mPositions = new int[16];
+    private Object[] mItems = new Object[16];
+    private int mSize = 0;
+
+    /**
+     * @return the count of positions
+     */
+    public int size() {
+        return mSize;
+    }
+
+    /**
+     * @param index the index within this list
+     * @return the global position
+     */
+    public int positionAt(int index) {
+        return mPositions[index];
+    }
+
+    /**
+     * @param index the index within this list
+     * @return the item at the position
+     */
+    @SuppressWarnings("unchecked")
+    public Item itemAt(int index) {
+        return (Item) mItems[index];
+    }
+
+    /**
+     * @param position the global position
+     * @return the index of the first position at or after the given position
+     */
+    public int lowerBound(int position) {
+        int low = 0;
+        int high = mSize;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (mPositions[mid] < position) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @param position the global position
+     * @return the index of the given position or -1
+     */
+    public int indexOf(int position) {
+        int index = lowerBound(position);
+        return index < mSize && mPositions[index] == position ? index : -1;
+    }
+
+    /**
+     * adds (or replaces) the item at the given position
+     */
+    public void put(int position, Item item) {
+        int index = lowerBound(position);
+        if (index < mSize && mPositions[index] == position) {
+            mItems[index] = item;
+            return;
+        }
+        if (mSize == mPositions.length) {
+            mPositions = Arrays.copyOf(mPositions, mSize * 2);
+            mItems = Arrays.copyOf(mItems, mSize * 2);
+        }
+        System.arraycopy(mPositions, index, mPositions, index + 1, mSize - index);
+        System.arraycopy(mItems, index, mItems, index + 1, mSize - index);
+        mPositions[index] = position;
+        mItems[index] = item;
+        mSize++;
+    }
+
+    /**
+     * removes the item at the given position (if any)
+     */
+    public void remove(int position) {
+        int index = indexOf(position);
+        if (index != -1) {
+            removeAt(index, index + 1);
+        }
+    }
+
+    /**
+     * shifts the positions after items were inserted
+     */
+    public void onInserted(int position, int itemCount) {
+        for (int i = lowerBound(position); i < mSize; i++) {
+            mPositions[i] += itemCount;
+        }
+    }
+
+    /**
+     * drops the items within the removed range and shifts the following positions
+     */
+    public void onRemoved(int position, int itemCount) {
+        int from = lowerBound(position);
+        int to = lowerBound(position + itemCount);
+        removeAt(from, to);
+        for (int i = from; i < mSize; i++) {
+            mPositions[i] -= itemCount;
+        }
+    }
+
+    /**
+     * moves the item at the given position (if any), the positions in between are shifted
+     */
+    public void onMoved(int fromPosition, int toPosition) {
+        int index = indexOf(fromPosition);
+        Item item = index != -1 ? itemAt(index) : null;
+        onRemoved(fromPosition, 1);
+        onInserted(toPosition, 1);
+        if (index != -1) {
+            put(toPosition, item);
+        }
+    }
+
+    /**
+     * removes all items from the given index on
+     */
+    public void truncate(int index) {
+        Arrays.fill(mItems, index, mSize, null);
+        mSize = index;
+    }
+
+    public void clear() {
+        truncate(0);
+    }
+
+    private void removeAt(int from, int to) {
+        int count = to - from;
+        if (count <= 0) {
+            return;
+        }
+        System.arraycopy(mPositions, to, mPositions, from, mSize - to);
+        System.arraycopy(mItems, to, mItems, from, mSize - to);
+        Arrays.fill(mItems, mSize - count, mSize, null);
+        mSize -= count;
+    }
+}
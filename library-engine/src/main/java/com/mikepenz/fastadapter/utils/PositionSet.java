@@ -0,0 +1,119 @@
+package com.mikepenz.fastadapter.utils;
+
+import java.util.Arrays;
+
+/**
+ * A set of positions, sorted ascending. Lookups use a binary search, inserted and removed ranges shift the following
+ * positions in place.
+ */
+public class PositionSet {
+    private int[] mPositions = new int[16];
+    private int mSize = 0;
+
+    /**
+     * @return the count of positions
+     */
+    public int size() {
+        return mSize;
+    }
+
+    /**
+     * @param index the index within this set
+     * @return the position
+     */
+    public int positionAt(int index) {
+        return mPositions[index];
+    }
+
+    /**
+     * @param position the position
+     * @return the index of the first position at or after the given position
+     */
+    public int lowerBound(int position) {
+        int low = 0;
+        int high = mSize;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (mPositions[mid] < position) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @param position the position
+     * @return true if the position is contained
+     */
+    public boolean contains(int position) {
+        int index = lowerBound(position);
+        return index < mSize && mPositions[index] == position;
+    }
+
+    /**
+     * @param from the position to start at
+     * @return the first position at or after the given one, -1 if there is none
+     */
+    public int next(int from) {
+        int index = lowerBound(from);
+        return index < mSize ? mPositions[index] : -1;
+    }
+
+    /**
+     * @return true if the position was added, false if it was contained already
+     */
+    public boolean add(int position) {
+        int index = lowerBound(position);
+        if (index < mSize && mPositions[index] == position) {
+            return false;
+        }
+        if (mSize == mPositions.length) {
+            mPositions = Arrays.copyOf(mPositions, mSize * 2);
+        }
+        System.arraycopy(mPositions, index, mPositions, index + 1, mSize - index);
+        mPositions[index] = position;
+        mSize++;
+        return true;
+    }
+
+    /**
+     * @return true if the position was removed, false if it wasn't contained
+     */
+    public boolean remove(int position) {
+        int index = lowerBound(position);
+        if (index == mSize || mPositions[index] != position) {
+            return false;
+        }
+        System.arraycopy(mPositions, index + 1, mPositions, index, mSize - index - 1);
+        mSize--;
+        return true;
+    }
+
+    /**
+     * shifts the positions after items were inserted
+     */
+    public void onInserted(int position, int itemCount) {
+        for (int i = lowerBound(position); i < mSize; i++) {
+            mPositions[i] += itemCount;
+        }
+    }
+
+    /**
+     * drops the positions within the removed range and shifts the following positions
+     */
+    public void onRemoved(int position, int itemCount) {
+        int from = lowerBound(position);
+        int to = lowerBound(position + itemCount);
+        System.arraycopy(mPositions, to, mPositions, from, mSize - to);
+        mSize -= to - from;
+        for (int i = from; i < mSize; i++) {
+            mPositions[i] -= itemCount;
+        }
+    }
+
+    public void clear() {
+        mSize = 0;
+    }
+}
@@ -0,0 +1,219 @@
+package com.mikepenz.fastadapter.utils;
+
+import com.mikepenz.fastadapter.IIdentifyable;
+
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+
+/**
+ * The selected items by their identifier, in the order they were selected, together with the global positions of the
+ * displayed ones. Selecting, deselecting and counting don't scan the items.
+ * <p>
+ * The index is rebuilt lazily: callers `invalidate()` it if the selection was changed without them and `reset()` it
+ * before adding all selected items again. The positions can be invalidated on their own, if an item was selected or
+ * deselected without knowing whether it is displayed.
+ * <p>
+ * The bound is raw, as the adapters declare their items as a raw `IItem`.
+ */
+@SuppressWarnings("rawtypes")
+public class SelectionIndex<Item extends IIdentifyable> {
+    //maps the identifier to the slot within mItems
+    private final IdentifierIndex mIndex = new IdentifierIndex();
+    //the selected items in the order they were selected, deselected items leave a null slot until the list is compacted
+    private final ArrayList<Item> mItems = new ArrayList<>();
+    private int mCount = 0;
+    private boolean mValid = false;
+    //true if different selected items share an identifier, the index can't be used to list them
+    private boolean mConflict = false;
+    private final PositionMap<Item> mPositions = new PositionMap<>();
+    private boolean mPositionsValid = false;
+
+    /**
+     * @return true if the index contains all selected items
+     */
+    public boolean isValid() {
+        return mValid;
+    }
+
+    /**
+     * marks the index and the positions as outdated
+     */
+    public void invalidate() {
+        mValid = false;
+        mPositionsValid = false;
+    }
+
+    /**
+     * empties the index and marks it as valid, the selected items are added afterwards
+     */
+    public void reset() {
+        mIndex.clear();
+        mItems.clear();
+        mCount = 0;
+        mPositions.clear();
+        mValid = true;
+        mPositionsValid = true;
+        mConflict = false;
+    }
+
+    /**
+     * @return the count of the selected items, without the duplicates of a conflict
+     */
+    public int size() {
+        return mCount;
+    }
+
+    /**
+     * @return true if different selected items share an identifier, then the slots don't list all of them
+     */
+    public boolean hasConflict() {
+        return mConflict;
+    }
+
+    /**
+     * @return the count of slots, including the ones of deselected items
+     */
+    public int getSlotCount() {
+        return mItems.size();
+    }
+
+    /**
+     * @param slot the slot
+     * @return the selected item, null if it was deselected
+     */
+    @Nullable
+    public Item getSlot(int slot) {
+        return mItems.get(slot);
+    }
+
+    /**
+     * @return true if the positions of all displayed selected items are known
+     */
+    public boolean hasPositions() {
+        return mPositionsValid;
+    }
+
+    /**
+     * @return the global positions of the displayed selected items, only complete if `hasPositions()`
+     */
+    public PositionMap<Item> getPositions() {
+        return mPositions;
+    }
+
+    /**
+     * marks the positions as unknown, they have to be collected again
+     */
+    public void invalidatePositions() {
+        mPositionsValid = false;
+    }
+
+    /**
+     * empties the positions and marks them as valid, the displayed selected items are put afterwards
+     *
+     * @return the positions to fill
+     */
+    public PositionMap<Item> resetPositions() {
+        mPositions.clear();
+        mPositionsValid = true;
+        return mPositions;
+    }
+
+    /**
+     * @return true if the positions are known and all selected items are displayed, so the index can follow removed
+     * and replaced rows by their position. a removed row may otherwise be the parent of a hidden selected item
+     */
+    public boolean canUpdateIncrementally() {
+        return mPositionsValid && !mConflict && mCount == mPositions.size();
+    }
+
+    /**
+     * @param item     the selected item
+     * @param position the global position, &lt; 0 if the item is not displayed or its position is unknown
+     */
+    public void add(Item item, int position) {
+        if (!mValid) {
+            return;
+        }
+        if (position >= 0 && mPositionsValid) {
+            mPositions.put(position, item);
+        }
+        int slot = mIndex.get(item.getIdentifier());
+        if (slot != -1) {
+            if (mItems.get(slot) != item) {
+                mConflict = true;
+            }
+            return;
+        }
+        mIndex.put(item.getIdentifier(), mItems.size());
+        mItems.add(item);
+        mCount++;
+    }
+
+    /**
+     * @param item     the deselected item
+     * @param position the global position, &lt; 0 if it is not known
+     */
+    public void remove(Item item, int position) {
+        if (!mValid) {
+            return;
+        }
+        boolean indexed = remove(item);
+        if (position >= 0) {
+            mPositions.remove(position);
+        } else if (indexed || mConflict) {
+            //the item may have been displayed
+            mPositionsValid = false;
+        }
+    }
+
+    /**
+     * @param item the item to remove from the index, its position is not touched
+     * @return true if the item was indexed
+     */
+    public boolean remove(Item item) {
+        if (!mValid) {
+            return false;
+        }
+        int slot = mIndex.remove(item.getIdentifier());
+        if (slot == -1) {
+            return false;
+        }
+        mItems.set(slot, null);
+        mCount--;
+        if (mCount == 0) {
+            mItems.clear();
+        } else if (mCount * 2 < mItems.size()) {
+            //compact the slots, keeping the order of the selection
+            int count = 0;
+            for (int i = 0, size = mItems.size(); i < size; i++) {
+                Item selected = mItems.get(i);
+                if (selected != null) {
+                    mItems.set(count, selected);
+                    mIndex.put(selected.getIdentifier(), count);
+                    count++;
+                }
+            }
+            mItems.subList(count, mItems.size()).clear();
+        }
+        return true;
+    }
+
+    /**
+     * shifts the positions after rows were inserted
+     */
+    public void onInserted(int position, int itemCount) {
+        if (mValid) {
+            mPositions.onInserted(position, itemCount);
+        }
+    }
+
+    /**
+     * shifts the positions after a row was moved
+     */
+    public void onMoved(int fromPosition, int toPosition) {
+        if (mValid) {
+            mPositions.onMoved(fromPosition, toPosition);
+        }
+    }
+}
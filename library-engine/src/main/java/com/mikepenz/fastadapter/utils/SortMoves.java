@@ -0,0 +1,194 @@
+package com.mikepenz.fastadapter.utils;
+
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Sorts a list without modifying it and calculates the moves which turn the list into its sorted order. Only the items
+ * which are not part of the longest increasing subsequence (the largest group of items already in the right order)
+ * are moved, so re-sorting a list which is almost sorted results in just a few moves.
+ * <p>
+ * Both methods only read their arguments, so they can run on a background thread working on a snapshot.
+ */
+public final class SortMoves {
+
+    private SortMoves() {
+    }
+
+    /**
+     * stable sorts the indices of the items, in chunks in parallel if there are at least `threshold` items
+     *
+     * @param items      the items, should be a snapshot allowing random access
+     * @param comparator the comparator to sort by, has to be thread safe if the items are sorted in parallel
+     * @param executor   the executor to sort the chunks on, null to sort on the calling thread
+     * @param threshold  the minimum count of items to sort in parallel
+     * @return the previous index of every item in sorted order
+     */
+    public static <T> int[] sortedOrder(final List<T> items, final Comparator<? super T> comparator, @Nullable ExecutorService executor, int threshold) {
+        int size = items.size();
+        final Integer[] indices = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            indices[i] = i;
+        }
+        final Comparator<Integer> indexComparator = new Comparator<Integer>() {
+            @Override
+            public int compare(Integer lhs, Integer rhs) {
+                return comparator.compare(items.get(lhs), items.get(rhs));
+            }
+        };
+
+        int chunks = executor == null || size < threshold ? 1 : Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), size / Math.max(1, threshold / 2)));
+        if (chunks == 1) {
+            Arrays.sort(indices, indexComparator);
+        } else {
+            int chunkSize = (size + chunks - 1) / chunks;
+            List<Callable<Void>> tasks = new ArrayList<>(chunks);
+            final List<int[]> ranges = new ArrayList<>(chunks);
+            for (int start = 0; start < size; start += chunkSize) {
+                final int from = start;
+                final int to = Math.min(size, start + chunkSize);
+                ranges.add(new int[]{from, to});
+                tasks.add(new Callable<Void>() {
+                    @Override
+                    public Void call() {
+                        Arrays.sort(indices, from, to, indexComparator);
+                        return null;
+                    }
+                });
+            }
+            try {
+                for (Future<Void> future : executor.invokeAll(tasks)) {
+                    future.get();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("sorting was interrupted", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException(e.getCause());
+            }
+            mergeRanges(indices, ranges, indexComparator);
+        }
+
+        int[] order = new int[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = indices[i];
+        }
+        return order;
+    }
+
+    /**
+     * merges the sorted ranges pairwise until the whole array is sorted, on equal items the left one goes first
+     */
+    private static void mergeRanges(Integer[] indices, List<int[]> ranges, Comparator<Integer> comparator) {
+        Integer[] source = indices;
+        Integer[] target = new Integer[indices.length];
+        while (ranges.size() > 1) {
+            List<int[]> merged = new ArrayList<>((ranges.size() + 1) / 2);
+            for (int r = 0; r < ranges.size(); r += 2) {
+                int from = ranges.get(r)[0];
+                if (r + 1 == ranges.size()) {
+                    int to = ranges.get(r)[1];
+                    System.arraycopy(source, from, target, from, to - from);
+                    merged.add(new int[]{from, to});
+                    continue;
+                }
+                int mid = ranges.get(r)[1];
+                int to = ranges.get(r + 1)[1];
+                int i = from;
+                int j = mid;
+                int k = from;
+                while (i < mid && j < to) {
+                    target[k++] = comparator.compare(source[j], source[i]) < 0 ? source[j++] : source[i++];
+                }
+                while (i < mid) {
+                    target[k++] = source[i++];
+                }
+                while (j < to) {
+                    target[k++] = source[j++];
+                }
+                merged.add(new int[]{from, to});
+            }
+            ranges = merged;
+            Integer[] swap = source;
+            source = target;
+            target = swap;
+        }
+        if (source != indices) {
+            System.arraycopy(source, 0, indices, 0, indices.length);
+        }
+    }
+
+    /**
+     * calculates the moves which reorder the items into the given order, applied one after the other
+     *
+     * @param order    the previous index of every item in the new order, see {@link #sortedOrder}
+     * @param maxMoves the maximum count of moves
+     * @return the from and to position of every move, one pair after the other, null if more moves are required
+     */
+    @Nullable
+    public static int[] moves(int[] order, int maxMoves) {
+        int size = order.length;
+        boolean[] keep = IncreasingSubsequence.longest(order);
+        int moveCount = 0;
+        for (int i = 0; i < size; i++) {
+            if (!keep[i]) {
+                moveCount++;
+            }
+        }
+        if (moveCount > maxMoves) {
+            return null;
+        }
+
+        //the previous indices in their current order, while the moves are applied
+        int[] current = new int[size];
+        for (int i = 0; i < size; i++) {
+            current[i] = i;
+        }
+        int[] moves = new int[moveCount * 2];
+        int count = 0;
+        //every moved item is put behind its predecessor, which is either kept or already moved to its place. the
+        //positions are found by a linear search, O(moves * n), which is fine as the moves are capped by `maxMoves`
+        //and this runs on a background thread
+        for (int t = 0; t < size; t++) {
+            if (keep[t]) {
+                continue;
+            }
+            int from = indexOf(current, order[t]);
+            int to = 0;
+            if (t > 0) {
+                int predecessor = indexOf(current, order[t - 1]);
+                to = from < predecessor ? predecessor : predecessor + 1;
+            }
+            if (from == to) {
+                continue;
+            }
+            int item = current[from];
+            if (from < to) {
+                System.arraycopy(current, from + 1, current, from, to - from);
+            } else {
+                System.arraycopy(current, to, current, to + 1, from - to);
+            }
+            current[to] = item;
+            moves[count++] = from;
+            moves[count++] = to;
+        }
+        return count == moves.length ? moves : Arrays.copyOf(moves, count);
+    }
+
+    private static int indexOf(int[] values, int value) {
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,89 @@
+package com.mikepenz.fastadapter.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Searches and inserts into lists which are sorted by a comparator. Items are inserted after the equal items which are
+ * already in the list, the same order a stable sort of the appended items results in.
+ */
+public final class SortedLists {
+
+    private SortedLists() {
+    }
+
+    /**
+     * @return the index of the first item within `low` and `high` which is not smaller than the given item
+     */
+    public static <T> int lowerBound(List<T> items, T item, Comparator<? super T> comparator, int low, int high) {
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (comparator.compare(items.get(mid), item) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @return the index of the first item within `low` and `high` which is larger than the given item
+     */
+    public static <T> int upperBound(List<T> items, T item, Comparator<? super T> comparator, int low, int high) {
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (comparator.compare(items.get(mid), item) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * merges the added items into the sorted items in O(n + k log k), copying the existing items between two added
+     * ones at once
+     *
+     * @param items      the sorted items, modified
+     * @param added      the items to add, in any order
+     * @param comparator the comparator the items are sorted by
+     * @return the start (within the merged items) and the length of every run of added items, one pair after the other
+     * in ascending order. notifying them as inserted in this order inserts every run at its final position
+     */
+    public static <T> int[] merge(List<T> items, List<T> added, Comparator<? super T> comparator) {
+        int count = added.size();
+        if (count == 0) {
+            return new int[0];
+        }
+        List<T> sorted = new ArrayList<>(added);
+        Collections.sort(sorted, comparator);
+        int size = items.size();
+        List<T> merged = new ArrayList<>(size + count);
+        int[] runs = new int[Math.min(size + 1, count) * 2];
+        int runCount = 0;
+        int i = 0;
+        int j = 0;
+        while (j < count) {
+            //copy the existing items in front of the next added one at once, on equal items the existing one goes first
+            int end = upperBound(items, sorted.get(j), comparator, i, size);
+            merged.addAll(items.subList(i, end));
+            i = end;
+            int start = merged.size();
+            while (j < count && (i == size || comparator.compare(items.get(i), sorted.get(j)) > 0)) {
+                merged.add(sorted.get(j++));
+            }
+            runs[runCount * 2] = start;
+            runs[runCount * 2 + 1] = merged.size() - start;
+            runCount++;
+        }
+        merged.addAll(items.subList(i, size));
+        items.clear();
+        items.addAll(merged);
+        return runCount * 2 == runs.length ? runs : Arrays.copyOf(runs, runCount * 2);
+    }
+}
@@ -0,0 +1,166 @@
+package com.mikepenz.fastadapter.utils;
+
+import androidx.annotation.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * Records the updates of a list (in the order they happen, each position valid at its time) and merges an update with
+ * the previous one where possible, so the updates can be dispatched at once with as few notifications as possible.
+ * <p>
+ * Merged are: adjacent inserts, adjacent or overlapping removes, removes of just inserted items, changes of just
+ * inserted items and adjacent or overlapping changes with the same payload. After a change of the whole data set all
+ * other updates are dropped.
+ */
+public class UpdateBatch {
+    private static final int INSERTED = 0;
+    private static final int REMOVED = 1;
+    private static final int MOVED = 2;
+    private static final int CHANGED = 3;
+
+    /**
+     * receives the recorded updates, see {@link #dispatchTo(Listener)}
+     */
+    public interface Listener extends IdentifierDiff.UpdateListener {
+        void onDataSetChanged();
+    }
+
+    private int[] mTypes = new int[16];
+    //the position, or the from position of a move
+    private int[] mPositions = new int[16];
+    //the count, or the to position of a move
+    private int[] mCounts = new int[16];
+    private Object[] mPayloads = new Object[16];
+    private int mSize = 0;
+    private boolean mDataSetChanged = false;
+
+    /**
+     * @return true if no update was recorded
+     */
+    public boolean isEmpty() {
+        return mSize == 0 && !mDataSetChanged;
+    }
+
+    /**
+     * @return the count of updates which will be dispatched
+     */
+    public int size() {
+        return mDataSetChanged ? 1 : mSize;
+    }
+
+    public void dataSetChanged() {
+        clear();
+        mDataSetChanged = true;
+    }
+
+    public void inserted(int position, int count) {
+        if (mDataSetChanged || count <= 0) {
+            return;
+        }
+        int last = mSize - 1;
+        if (last >= 0 && mTypes[last] == INSERTED && position >= mPositions[last] && position <= mPositions[last] + mCounts[last]) {
+            mCounts[last] += count;
+            return;
+        }
+        add(INSERTED, position, count, null);
+    }
+
+    public void removed(int position, int count) {
+        if (mDataSetChanged || count <= 0) {
+            return;
+        }
+        int last = mSize - 1;
+        if (last >= 0 && mTypes[last] == REMOVED && mPositions[last] >= position && mPositions[last] <= position + count) {
+            //the removed range touches the previously removed one
+            mPositions[last] = position;
+            mCounts[last] += count;
+            return;
+        }
+        if (last >= 0 && mTypes[last] == INSERTED && position >= mPositions[last] && position + count <= mPositions[last] + mCounts[last]) {
+            //only just inserted items are removed again
+            mCounts[last] -= count;
+            if (mCounts[last] == 0) {
+                mSize--;
+            }
+            return;
+        }
+        add(REMOVED, position, count, null);
+    }
+
+    public void moved(int fromPosition, int toPosition) {
+        if (mDataSetChanged || fromPosition == toPosition) {
+            return;
+        }
+        add(MOVED, fromPosition, toPosition, null);
+    }
+
+    public void changed(int position, int count, @Nullable Object payload) {
+        if (mDataSetChanged || count <= 0) {
+            return;
+        }
+        int last = mSize - 1;
+        if (last >= 0 && mTypes[last] == INSERTED && position >= mPositions[last] && position + count <= mPositions[last] + mCounts[last]) {
+            //the inserted items are bound anyways
+            return;
+        }
+        if (last >= 0 && mTypes[last] == CHANGED && mPayloads[last] == payload
+                && position <= mPositions[last] + mCounts[last] && mPositions[last] <= position + count) {
+            int end = Math.max(position + count, mPositions[last] + mCounts[last]);
+            mPositions[last] = Math.min(position, mPositions[last]);
+            mCounts[last] = end - mPositions[last];
+            return;
+        }
+        add(CHANGED, position, count, payload);
+    }
+
+    /**
+     * dispatches all recorded updates in order and clears this batch
+     *
+     * @param listener the listener to receive the updates
+     */
+    public void dispatchTo(Listener listener) {
+        if (mDataSetChanged) {
+            clear();
+            listener.onDataSetChanged();
+            return;
+        }
+        for (int i = 0; i < mSize; i++) {
+            switch (mTypes[i]) {
+                case INSERTED:
+                    listener.onInserted(mPositions[i], mCounts[i]);
+                    break;
+                case REMOVED:
+                    listener.onRemoved(mPositions[i], mCounts[i]);
+                    break;
+                case MOVED:
+                    listener.onMoved(mPositions[i], mCounts[i]);
+                    break;
+                default:
+                    listener.onChanged(mPositions[i], mCounts[i], mPayloads[i]);
+                    break;
+            }
+        }
+        clear();
+    }
+
+    public void clear() {
+        Arrays.fill(mPayloads, 0, mSize, null);
+        mSize = 0;
+        mDataSetChanged = false;
+    }
+
+    private void add(int type, int position, int count, @Nullable Object payload) {
+        if (mSize == mTypes.length) {
+            int capacity = mSize * 2;
+            mTypes = Arrays.copyOf(mTypes, capacity);
+            mPositions = Arrays.copyOf(mPositions, capacity);
+            mCounts = Arrays.copyOf(mCounts, capacity);
+            mPayloads = Arrays.copyOf(mPayloads, capacity);
+        }
+        mTypes[mSize] = type;
+        mPositions[mSize] = position;
+        mCounts[mSize] = count;
+        mPayloads[mSize] = payload;
+        mSize++;
+    }
+}
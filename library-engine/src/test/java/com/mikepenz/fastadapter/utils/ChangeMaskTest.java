@@ -0,0 +1,67 @@
+package com.mikepenz.fastadapter.utils;
+
+import com.mikepenz.fastadapter.IChangeMaskItem;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ChangeMaskTest {
+    private static final long NAME = ChangeMask.field(0);
+    private static final long DESCRIPTION = ChangeMask.field(1);
+
+    @Test
+    public void of_CombinesPayloads() {
+        List<Object> payloads = new ArrayList<>();
+        assertEquals(ChangeMask.ALL, ChangeMask.of(payloads));
+
+        payloads.add(ChangeMask.payload(ChangeMask.SELECTION));
+        payloads.add(ChangeMask.payload(NAME));
+        long mask = ChangeMask.of(payloads);
+        assertTrue(ChangeMask.contains(mask, ChangeMask.SELECTION));
+        assertTrue(ChangeMask.contains(mask, NAME));
+        assertFalse(ChangeMask.contains(mask, DESCRIPTION | ChangeMask.EXPANSION));
+
+        //any other payload requires a full bind
+        payloads.add("other");
+        assertEquals(ChangeMask.ALL, ChangeMask.of(payloads));
+    }
+
+    @Test
+    public void diff_ReturnsChangedFields() {
+        ChangeMask payload = ChangeMask.diff(new Item("a", "b"), new Item("a", "c"));
+        assertEquals(DESCRIPTION, ChangeMask.of(Arrays.<Object>asList(payload)));
+
+        assertNull(ChangeMask.diff(new Item("a", "b"), new Item("a", "b")));
+        assertNull(ChangeMask.diff("a", "b"));
+    }
+
+    private static class Item implements IChangeMaskItem<Item> {
+        private final String name;
+        private final String description;
+
+        Item(String name, String description) {
+            this.name = name;
+            this.description = description;
+        }
+
+        @Override
+        public long getChangeMask(Item oldItem) {
+            long mask = 0;
+            if (!name.equals(oldItem.name)) {
+                mask |= NAME;
+            }
+            if (!description.equals(oldItem.description)) {
+                mask |= DESCRIPTION;
+            }
+            return mask;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.mikepenz.fastadapter.utils;
+
+import com.mikepenz.fastadapter.IIdentifyable;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Replays the updates of the {@link IdentifierDiff} on the old list, which has to result in the new list.
+ * Runs on the plain JVM, the engine has no Android dependencies.
+ */
+public class IdentifierDiffTest {
+    private static final IdentifierDiff.ContentCallback<Item> CONTENTS = new IdentifierDiff.ContentCallback<Item>() {
+        @Override
+        public boolean areContentsTheSame(Item oldItem, Item newItem) {
+            return oldItem.content == newItem.content;
+        }
+
+        @Override
+        public Object getChangePayload(Item oldItem, int oldItemPosition, Item newItem, int newItemPosition) {
+            return null;
+        }
+    };
+
+    @Test
+    public void calculate_ReplaysToNewList() {
+        Random random = new Random(42);
+        for (int round = 0; round < 200; round++) {
+            List<Item> oldItems = new ArrayList<>();
+            List<Item> newItems = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                if (random.nextInt(5) != 0) {
+                    oldItems.add(new Item(i, 0));
+                }
+                if (random.nextInt(5) != 0) {
+                    newItems.add(new Item(i, random.nextInt(4) == 0 ? 1 : 0));
+                }
+            }
+            Collections.shuffle(newItems.subList(0, newItems.size() / 3), random);
+
+            final List<Item> replayed = new ArrayList<>(oldItems);
+            final List<Item> target = newItems;
+            IdentifierDiff.calculate(oldItems, newItems, CONTENTS).dispatchUpdatesTo(new IdentifierDiff.UpdateListener() {
+                @Override
+                public void onInserted(int position, int count) {
+                    for (int i = 0; i < count; i++) {
+                        replayed.add(position + i, null);
+                    }
+                }
+
+                @Override
+                public void onRemoved(int position, int count) {
+                    replayed.subList(position, position + count).clear();
+                }
+
+                @Override
+                public void onMoved(int fromPosition, int toPosition) {
+                    replayed.add(toPosition, replayed.remove(fromPosition));
+                }
+
+                @Override
+                public void onChanged(int position, int count, Object payload) {
+                    for (int i = position; i < position + count; i++) {
+                        replayed.set(i, target.get(i));
+                    }
+                }
+            });
+
+            assertEquals(newItems.size(), replayed.size());
+            for (int i = 0; i < newItems.size(); i++) {
+                Item item = replayed.get(i);
+                //inserted items are placeholders, all others have to match the identifier and the content
+                if (item != null) {
+                    assertEquals(newItems.get(i).getIdentifier(), item.getIdentifier());
+                    assertEquals(newItems.get(i).content, item.content);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void calculate_DuplicateIdentifiers_ReturnsNull() {
+        List<Item> oldItems = new ArrayList<>();
+        oldItems.add(new Item(1, 0));
+        oldItems.add(new Item(1, 0));
+        assertNull(IdentifierDiff.calculate(oldItems, new ArrayList<Item>(), CONTENTS));
+    }
+
+    private static class Item implements IIdentifyable<Item> {
+        private long identifier;
+        private final int content;
+
+        Item(long identifier, int content) {
+            this.identifier = identifier;
+            this.content = content;
+        }
+
+        @Override
+        public Item withIdentifier(long identifier) {
+            this.identifier = identifier;
+            return this;
+        }
+
+        @Override
+        public long getIdentifier() {
+            return identifier;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.mikepenz.fastadapter.utils;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Reads fixed size and indexed records, from a heap buffer and from a memory-mapped file.
+ */
+public class MappedRecordsTest {
+
+    @Test
+    public void fixed_ReadsRecordsFromMappedFile() throws Exception {
+        //records of 16 bytes: an int value followed by the identifier at offset 8
+        ByteBuffer buffer = ByteBuffer.allocate(16 * 1000);
+        for (int i = 0; i < 1000; i++) {
+            buffer.putInt(i * 16, i * 3);
+            buffer.putLong(i * 16 + 8, 5000L + i);
+        }
+        File file = File.createTempFile("records", ".bin");
+        file.deleteOnExit();
+        FileOutputStream out = new FileOutputStream(file);
+        try {
+            out.write(buffer.array());
+        } finally {
+            out.close();
+        }
+
+        MappedRecords records = MappedRecords.fixed(MappedRecords.map(file), 16, 8);
+        assertEquals(1000, records.size());
+        assertEquals(5123L, records.getIdentifier(123));
+        assertEquals(369, records.get(123).getInt(0));
+        assertEquals(123, records.get(123).getIndex());
+        assertEquals(999, records.indexOf(5999L));
+        assertEquals(-1, records.indexOf(42L));
+    }
+
+    @Test
+    public void indexed_ReadsRecordsOfDifferentSizes() {
+        String[] names = {"a", "bcd", "", "efghij"};
+        ByteBuffer data = ByteBuffer.allocate(100);
+        ByteBuffer offsets = ByteBuffer.allocate((names.length + 1) * 4);
+        for (int i = 0; i < names.length; i++) {
+            offsets.putInt(data.position());
+            data.putLong(100L + i);
+            data.put(names[i].getBytes());
+        }
+        offsets.putInt(data.position());
+        data.flip();
+        offsets.flip();
+
+        MappedRecords records = MappedRecords.indexed(data, offsets, 0);
+        assertEquals(names.length, records.size());
+        for (int i = 0; i < names.length; i++) {
+            MappedRecords.Record record = records.get(i);
+            assertEquals(100L + i, records.getIdentifier(i));
+            assertEquals(names[i], record.getString(8, record.length() - 8));
+        }
+        assertEquals(3, records.indexOf(103L));
+    }
+
+    @Test
+    public void indexOf_FindsUnsortedAndDuplicateIdentifiers() {
+        long[] identifiers = {7, 3, 9, 3, -1, 12};
+        ByteBuffer buffer = ByteBuffer.allocate(8 * identifiers.length);
+        for (int i = 0; i < identifiers.length; i++) {
+            buffer.putLong(i * 8, identifiers[i]);
+        }
+
+        MappedRecords records = MappedRecords.fixed(buffer, 8, 0);
+        assertEquals(0, records.indexOf(7L));
+        //the first record with the identifier, like a linear search
+        assertEquals(1, records.indexOf(3L));
+        assertEquals(4, records.indexOf(-1L));
+        assertEquals(5, records.indexOf(12L));
+        assertEquals(-1, records.indexOf(8L));
+    }
+}
@@ -0,0 +1,92 @@
+package com.mikepenz.fastadapter.utils;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Runs random operations on a {@link PositionCache}, which has to keep and evict the same items as an access ordered
+ * map whose keys are shifted by copying it.
+ */
+public class PositionCacheTest {
+
+    @Test
+    public void randomOperations_MatchAnAccessOrderedMap() {
+        Random random = new Random(5);
+        for (int round = 0; round < 200; round++) {
+            final int capacity = 1 + random.nextInt(16);
+            final List<Integer> evicted = new ArrayList<>();
+            PositionCache<String> cache = new PositionCache<String>(capacity) {
+                @Override
+                protected void onEvicted(int position, String item) {
+                    evicted.add(position);
+                }
+            };
+            LinkedHashMap<Integer, String> expected = new LinkedHashMap<>(16, 0.75f, true);
+            List<Integer> expectedEvicted = new ArrayList<>();
+
+            for (int op = 0; op < 300; op++) {
+                int position = random.nextInt(40);
+                int count = 1 + random.nextInt(5);
+                switch (random.nextInt(5)) {
+                    case 0:
+                    case 1:
+                        String item = "item" + op;
+                        if (!expected.containsKey(position) && expected.size() == capacity) {
+                            Integer eldest = expected.keySet().iterator().next();
+                            expected.remove(eldest);
+                            expectedEvicted.add(eldest);
+                        }
+                        expected.put(position, item);
+                        cache.put(position, item);
+                        break;
+                    case 2:
+                        assertEquals(expected.get(position), cache.get(position));
+                        break;
+                    case 3:
+                        expected = shift(expected, position, count, 0);
+                        cache.onRemoved(position, count);
+                        break;
+                    default:
+                        expected = shift(expected, position, 0, count);
+                        cache.onInserted(position, count);
+                        break;
+                }
+                assertEquals(expectedEvicted, evicted);
+                assertEquals(expected.size(), cache.size());
+                for (int i = 1; i < cache.size(); i++) {
+                    assertTrue(cache.positionAt(i - 1) < cache.positionAt(i));
+                }
+                //a copy, as reading the access ordered map would change its order
+                Map<Integer, String> entries = new HashMap<>(expected);
+                for (int i = 0; i < cache.size(); i++) {
+                    assertEquals(entries.get(cache.positionAt(i)), cache.itemAt(i));
+                }
+            }
+        }
+    }
+
+    /**
+     * shifts the keys of the map, keeping the access order of the entries
+     */
+    private static LinkedHashMap<Integer, String> shift(LinkedHashMap<Integer, String> map, int position, int removedCount, int insertedCount) {
+        LinkedHashMap<Integer, String> shifted = new LinkedHashMap<>(16, 0.75f, true);
+        for (Map.Entry<Integer, String> entry : map.entrySet()) {
+            int key = entry.getKey();
+            if (key < position) {
+                shifted.put(key, entry.getValue());
+            } else if (key >= position + removedCount) {
+                shifted.put(key - removedCount + insertedCount, entry.getValue());
+            }
+        }
+        return shifted;
+    }
+}
@@ -0,0 +1,105 @@
+package com.mikepenz.fastadapter.utils;
+
+import com.mikepenz.fastadapter.IIdentifyable;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Selects and deselects random items of a {@link SelectionIndex}, which has to list them in the order they were
+ * selected and keep the positions of the displayed ones.
+ */
+public class SelectionIndexTest {
+
+    @Test
+    public void randomOperations_KeepTheSelectionOrder() {
+        Random random = new Random(3);
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            items.add(new Item(i));
+        }
+        SelectionIndex<Item> index = new SelectionIndex<>();
+        index.reset();
+        Set<Item> expected = new LinkedHashSet<>();
+
+        for (int op = 0; op < 5000; op++) {
+            int position = random.nextInt(items.size());
+            Item item = items.get(position);
+            if (random.nextBoolean()) {
+                index.add(item, position);
+                expected.add(item);
+            } else {
+                index.remove(item, position);
+                expected.remove(item);
+            }
+
+            assertEquals(expected.size(), index.size());
+            List<Item> selected = new ArrayList<>();
+            for (int i = 0; i < index.getSlotCount(); i++) {
+                if (index.getSlot(i) != null) {
+                    selected.add(index.getSlot(i));
+                }
+            }
+            assertEquals(new ArrayList<>(expected), selected);
+            assertTrue(index.canUpdateIncrementally());
+            PositionMap<Item> positions = index.getPositions();
+            for (int i = 0; i < positions.size(); i++) {
+                assertTrue(expected.contains(positions.itemAt(i)));
+                assertEquals(items.get(positions.positionAt(i)), positions.itemAt(i));
+            }
+        }
+    }
+
+    @Test
+    public void add_SharedIdentifier_IsAConflict() {
+        SelectionIndex<Item> index = new SelectionIndex<>();
+        index.reset();
+        index.add(new Item(1), 0);
+        assertFalse(index.hasConflict());
+        index.add(new Item(1), 1);
+        assertTrue(index.hasConflict());
+        assertEquals(1, index.size());
+        assertFalse(index.canUpdateIncrementally());
+    }
+
+    @Test
+    public void remove_WithoutPosition_InvalidatesThePositions() {
+        SelectionIndex<Item> index = new SelectionIndex<>();
+        index.reset();
+        Item item = new Item(1);
+        index.add(item, 4);
+        index.onInserted(0, 2);
+        assertEquals(6, index.getPositions().positionAt(0));
+        index.remove(item, -1);
+        assertFalse(index.hasPositions());
+        assertEquals(0, index.size());
+    }
+
+    private static class Item implements IIdentifyable<Item> {
+        private long identifier;
+
+        Item(long identifier) {
+            this.identifier = identifier;
+        }
+
+        @Override
+        public Item withIdentifier(long identifier) {
+            this.identifier = identifier;
+            return this;
+        }
+
+        @Override
+        public long getIdentifier() {
+            return identifier;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.mikepenz.fastadapter.utils;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Sorts random lists (sequentially and in parallel) and replays the calculated moves, which has to result in the same
+ * order as a stable sort.
+ */
+public class SortMovesTest {
+    //compares only the tens, so there are many equal items
+    private static final Comparator<Integer> COMPARATOR = new Comparator<Integer>() {
+        @Override
+        public int compare(Integer lhs, Integer rhs) {
+            return Integer.compare(lhs / 10, rhs / 10);
+        }
+    };
+
+    @Test
+    public void moves_ResultInStableSortedOrder() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            Random random = new Random(7);
+            for (int round = 0; round < 200; round++) {
+                int size = random.nextInt(300);
+                List<Integer> items = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    items.add(random.nextInt(1000));
+                }
+                //some rounds only shuffle a few items of a sorted list
+                if (round % 2 == 0) {
+                    Collections.sort(items, COMPARATOR);
+                    for (int i = 0; i < 3 && size > 1; i++) {
+                        Collections.swap(items, random.nextInt(size), random.nextInt(size));
+                    }
+                }
+                List<Integer> expected = new ArrayList<>(items);
+                Collections.sort(expected, COMPARATOR);
+
+                int[] order = SortMoves.sortedOrder(items, COMPARATOR, round % 3 == 0 ? executor : null, 16);
+                List<Integer> sorted = new ArrayList<>(size);
+                for (int index : order) {
+                    sorted.add(items.get(index));
+                }
+                assertEquals(expected, sorted);
+
+                int[] moves = SortMoves.moves(order, size);
+                List<Integer> replayed = new ArrayList<>(items);
+                for (int i = 0; i < moves.length; i += 2) {
+                    replayed.add(moves[i + 1], replayed.remove(moves[i]));
+                }
+                assertEquals(expected, replayed);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void moves_OnlyMovesItemsOutOfOrder() {
+        //moving the last item to the front is a single move
+        int[] moves = SortMoves.moves(new int[]{4, 0, 1, 2, 3}, 10);
+        assertEquals(2, moves.length);
+        assertEquals(4, moves[0]);
+        assertEquals(0, moves[1]);
+
+        assertEquals(0, SortMoves.moves(new int[]{0, 1, 2}, 0).length);
+        assertNull(SortMoves.moves(new int[]{2, 1, 0}, 1));
+    }
+}
@@ -0,0 +1,99 @@
+package com.mikepenz.fastadapter.utils;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Inserts and merges random items into sorted lists, which has to result in the same order as appending them and
+ * sorting the whole list with a stable sort.
+ */
+public class SortedListsTest {
+    //compares only the tens, so there are many equal items
+    private static final Comparator<Integer> COMPARATOR = new Comparator<Integer>() {
+        @Override
+        public int compare(Integer lhs, Integer rhs) {
+            return Integer.compare(lhs / 10, rhs / 10);
+        }
+    };
+
+    @Test
+    public void merge_ResultsInStableSortedOrder() {
+        Random random = new Random(11);
+        for (int round = 0; round < 500; round++) {
+            List<Integer> items = randomItems(random, random.nextInt(200));
+            Collections.sort(items, COMPARATOR);
+            List<Integer> added = randomItems(random, random.nextInt(round % 10 == 0 ? 300 : 20));
+            List<Integer> expected = new ArrayList<>(items);
+            expected.addAll(added);
+            Collections.sort(expected, COMPARATOR);
+
+            List<Integer> merged = new ArrayList<>(items);
+            int[] runs = SortedLists.merge(merged, added, COMPARATOR);
+            assertEquals(expected, merged);
+
+            //inserting the runs in ascending order has to result in the merged items
+            List<Integer> replayed = new ArrayList<>(items);
+            int inserted = 0;
+            for (int r = 0; r < runs.length; r += 2) {
+                replayed.addAll(runs[r], merged.subList(runs[r], runs[r] + runs[r + 1]));
+                inserted += runs[r + 1];
+            }
+            assertEquals(added.size(), inserted);
+            assertEquals(merged, replayed);
+        }
+    }
+
+    @Test
+    public void upperBound_InsertsLikeAStableSort() {
+        Random random = new Random(13);
+        for (int round = 0; round < 500; round++) {
+            List<Integer> items = randomItems(random, random.nextInt(100));
+            Collections.sort(items, COMPARATOR);
+            List<Integer> expected = new ArrayList<>(items);
+            for (int i = 0; i < 4; i++) {
+                Integer item = random.nextInt(1000);
+                items.add(SortedLists.upperBound(items, item, COMPARATOR, 0, items.size()), item);
+                expected.add(item);
+            }
+            Collections.sort(expected, COMPARATOR);
+            assertEquals(expected, items);
+        }
+    }
+
+    @Test
+    public void bounds_EncloseTheEqualItems() {
+        List<Integer> items = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            items.add(i);
+        }
+        assertEquals(20, SortedLists.lowerBound(items, 25, COMPARATOR, 0, items.size()));
+        assertEquals(30, SortedLists.upperBound(items, 25, COMPARATOR, 0, items.size()));
+        assertEquals(50, SortedLists.upperBound(items, 999, COMPARATOR, 0, items.size()));
+        assertEquals(0, SortedLists.merge(items, new ArrayList<Integer>(), COMPARATOR).length);
+
+        //a run in front of the first item
+        List<Integer> added = new ArrayList<>();
+        added.add(1000);
+        added.add(-50);
+        int[] runs = SortedLists.merge(items, added, COMPARATOR);
+        assertEquals(4, runs.length);
+        assertEquals(0, runs[0]);
+        assertEquals(Integer.valueOf(-50), items.get(0));
+        assertEquals(51, runs[2]);
+    }
+
+    private static List<Integer> randomItems(Random random, int count) {
+        List<Integer> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            items.add(random.nextInt(1000));
+        }
+        return items;
+    }
+}
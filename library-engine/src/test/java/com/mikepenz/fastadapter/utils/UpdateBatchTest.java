@@ -0,0 +1,140 @@
+package com.mikepenz.fastadapter.utils;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Applies random updates to a list while recording them, then replays the merged updates on the original list, which
+ * has to result in the same list with all changed items notified.
+ */
+public class UpdateBatchTest {
+
+    @Test
+    public void dispatchTo_ReplaysToSameList() {
+        Random random = new Random(42);
+        for (int round = 0; round < 500; round++) {
+            List<Integer> list = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                list.add(i);
+            }
+            final List<Integer> replayed = new ArrayList<>(list);
+            Set<Integer> changed = new HashSet<>();
+            UpdateBatch batch = new UpdateBatch();
+            int next = 1000;
+            int last = 0;
+
+            for (int step = 0; step < 30; step++) {
+                int size = list.size();
+                //favor runs at (or next to) the same position, those are merged
+                int position = random.nextBoolean() ? Math.min(last + random.nextInt(3) - 1, size) : random.nextInt(size + 1);
+                position = Math.max(0, position);
+                last = position;
+                int count = 1 + random.nextInt(3);
+                switch (random.nextInt(4)) {
+                    case 0:
+                        for (int i = 0; i < count; i++) {
+                            list.add(position, next++);
+                        }
+                        batch.inserted(position, count);
+                        break;
+                    case 1:
+                        count = Math.min(count, size - position);
+                        if (count > 0) {
+                            list.subList(position, position + count).clear();
+                            batch.removed(position, count);
+                        }
+                        break;
+                    case 2:
+                        if (size > 1 && position < size) {
+                            int toPosition = random.nextInt(size);
+                            list.add(toPosition, list.remove(position));
+                            batch.moved(position, toPosition);
+                        }
+                        break;
+                    default:
+                        count = Math.min(count, size - position);
+                        if (count > 0) {
+                            changed.addAll(list.subList(position, position + count));
+                            batch.changed(position, count, null);
+                        }
+                        break;
+                }
+            }
+
+            final Set<Integer> notified = new HashSet<>();
+            batch.dispatchTo(new UpdateBatch.Listener() {
+                @Override
+                public void onDataSetChanged() {
+                    throw new AssertionError();
+                }
+
+                @Override
+                public void onInserted(int position, int count) {
+                    for (int i = 0; i < count; i++) {
+                        replayed.add(position + i, null);
+                    }
+                }
+
+                @Override
+                public void onRemoved(int position, int count) {
+                    replayed.subList(position, position + count).clear();
+                }
+
+                @Override
+                public void onMoved(int fromPosition, int toPosition) {
+                    replayed.add(toPosition, replayed.remove(fromPosition));
+                }
+
+                @Override
+                public void onChanged(int position, int count, Object payload) {
+                    for (int i = position; i < position + count; i++) {
+                        notified.add(replayed.get(i));
+                    }
+                }
+            });
+
+            assertTrue(batch.isEmpty());
+            assertEquals(list.size(), replayed.size());
+            for (int i = 0; i < list.size(); i++) {
+                //inserted items are placeholders, all others have to be at the same position
+                if (replayed.get(i) != null) {
+                    assertEquals(list.get(i), replayed.get(i));
+                } else {
+                    assertTrue(list.get(i) >= 1000);
+                }
+            }
+            for (Integer item : changed) {
+                //changed items which were inserted are bound anyways
+                assertTrue(item >= 1000 || !list.contains(item) || notified.contains(item));
+            }
+        }
+    }
+
+    @Test
+    public void adjacentUpdates_AreMerged() {
+        UpdateBatch batch = new UpdateBatch();
+        for (int i = 0; i < 10; i++) {
+            batch.removed(5, 1);
+        }
+        assertEquals(1, batch.size());
+        batch.clear();
+
+        batch.inserted(3, 2);
+        batch.inserted(5, 1);
+        batch.changed(4, 2, null);
+        batch.removed(3, 3);
+        assertTrue(batch.isEmpty());
+
+        batch.dataSetChanged();
+        batch.inserted(0, 1);
+        assertEquals(1, batch.size());
+    }
+}
@@ -3,7 +3,6 @@ package com.mikepenz.fastadapter.expandable;
 import android.os.Bundle;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
-import androidx.collection.ArraySet;
 import android.util.SparseIntArray;
 import android.view.MotionEvent;
 import android.view.View;
@@ -15,12 +14,17 @@ import com.mikepenz.fastadapter.IExpandable;
 import com.mikepenz.fastadapter.IItem;
 import com.mikepenz.fastadapter.IItemAdapter;
 import com.mikepenz.fastadapter.ISubItem;
+import com.mikepenz.fastadapter.adapters.ModelAdapter;
 import com.mikepenz.fastadapter.select.SelectExtension;
-import com.mikepenz.fastadapter.utils.AdapterPredicate;
 import com.mikepenz.fastadapter.utils.AdapterUtil;
+import com.mikepenz.fastadapter.utils.ChangeMask;
+import com.mikepenz.fastadapter.utils.ExpandedPositions;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Created by mikepenz on 04/06/2017.
@@ -36,6 +40,9 @@ public class ExpandableExtension<Item extends IItem> implements IAdapterExtensio
     private boolean mOnlyOneExpandedItem = false;
     // we need to remember all expanded items to recreate them after orientation change
     private SparseIntArray mExpanded = new SparseIntArray();
+    // the positions of the visible expanded items, kept up to date by the notify callbacks
+    private final ExpandedPositions<Item> mExpandedPositions = new ExpandedPositions<>();
+    private boolean mExpandedPositionsValid = false;
 
     @Override
     public ExpandableExtension<Item> init(FastAdapter<Item> fastAdapter) {
@@ -67,12 +74,16 @@ public class ExpandableExtension<Item extends IItem> implements IAdapterExtensio
         if (savedInstanceState == null) {
             return;
         }
-        ArrayList<String> expandedItems = savedInstanceState.getStringArrayList(BUNDLE_EXPANDED + prefix);
+        ArrayList<String> expandedItemsList = savedInstanceState.getStringArrayList(BUNDLE_EXPANDED + prefix);
+        if (expandedItemsList == null) {
+            return;
+        }
+        Set<String> expandedItems = new HashSet<>(expandedItemsList);
         String id;
         for (int i = 0, size = mFastAdapter.getItemCount(); i < size; i++) {
             Item item = mFastAdapter.getItem(i);
             id = String.valueOf(item.getIdentifier());
-            if (expandedItems != null && expandedItems.contains(id)) {
+            if (expandedItems.contains(id)) {
                 expand(i);
                 size = mFastAdapter.getItemCount();
             }
@@ -86,12 +97,9 @@ public class ExpandableExtension<Item extends IItem> implements IAdapterExtensio
         }
         ArrayList<String> expandedItems = new ArrayList<>();
 
-        Item item;
-        for (int i = 0, size = mFastAdapter.getItemCount(); i < size; i++) {
-            item = mFastAdapter.getItem(i);
-            if (item instanceof IExpandable && ((IExpandable) item).isExpanded()) {
-                expandedItems.add(String.valueOf(item.getIdentifier()));
-            }
+        ExpandedPositions<Item> expandedPositions = getExpandedPositions();
+        for (int i = 0, size = expandedPositions.size(); i < size; i++) {
+            expandedItems.add(String.valueOf(expandedPositions.itemAt(i).getIdentifier()));
         }
         //remember the collapsed states
         savedInstanceState.putStringArrayList(BUNDLE_EXPANDED + prefix, expandedItems);
@@ -133,14 +141,29 @@ public class ExpandableExtension<Item extends IItem> implements IAdapterExtensio
 
     @Override
     public void notifyAdapterDataSetChanged() {
+        mExpandedPositionsValid = false;
     }
 
     @Override
     public void notifyAdapterItemRangeInserted(int position, int itemCount) {
+        if (!mExpandedPositionsValid) {
+            return;
+        }
+        mExpandedPositions.onInserted(position, itemCount);
+        //the new items may be expanded already
+        for (int i = position; i < position + itemCount; i++) {
+            Item item = mFastAdapter.getItem(i);
+            if (item instanceof IExpandable && ((IExpandable) item).isExpanded()) {
+                mExpandedPositions.put(i, item);
+            }
+        }
     }
 
     @Override
     public void notifyAdapterItemRangeRemoved(int position, int itemCount) {
+        if (mExpandedPositionsValid) {
+            mExpandedPositions.onRemoved(position, itemCount);
+        }
     }
 
     @Override
@@ -148,14 +171,16 @@ public class ExpandableExtension<Item extends IItem> implements IAdapterExtensio
         //collapse items we move. just in case :D
         collapse(fromPosition);
         collapse(toPosition);
+        mExpandedPositionsValid = false;
     }
 
     @Override
     public void notifyAdapterItemRangeChanged(int position, int itemCount, Object payload) {
-        for (int i = position; i < position + itemCount; i++) {
-            Item item = mFastAdapter.getItem(position);
+        ///[FIX#ExpandableExtension#notifyAdapterItemRangeChanged()#check every item of the range, from the end as collapsing removes the following items]
+        for (int i = position + itemCount - 1; i >= position; i--) {
+            Item item = mFastAdapter.getItem(i);
             if (item instanceof IExpandable && ((IExpandable) item).isExpanded()) {
-                collapse(position);
+                collapse(i);
             }
         }
     }
@@ -207,12 +232,9 @@ public class ExpandableExtension<Item extends IItem> implements IAdapterExtensio
      */
     public SparseIntArray getExpanded() {
         SparseIntArray expandedItems = new SparseIntArray();
-        Item item;
-        for (int i = 0, size = mFastAdapter.getItemCount(); i < size; i++) {
-            item = mFastAdapter.getItem(i);
-            if (item instanceof IExpandable && ((IExpandable) item).isExpanded()) {
-                expandedItems.put(i, ((IExpandable) item).getSubItems().size());
-            }
+        ExpandedPositions<Item> expandedPositions = getExpandedPositions();
+        for (int i = 0, size = expandedPositions.size(); i < size; i++) {
+            expandedItems.append(expandedPositions.positionAt(i), subItemCount(expandedPositions.itemAt(i)));
         }
         return expandedItems;
     }
@@ -221,22 +243,67 @@ public class ExpandableExtension<Item extends IItem> implements IAdapterExtensio
      * @return a set with the global positions of all expanded items
      */
     public int[] getExpandedItems() {
-        int[] expandedItems;
-        ArrayList<Integer> expandedItemsList = new ArrayList<>();
-        Item item;
-        for (int i = 0, size = mFastAdapter.getItemCount(); i < size; i++) {
-            item = mFastAdapter.getItem(i);
-            if (item instanceof IExpandable && ((IExpandable) item).isExpanded()) {
-                expandedItemsList.add(i);
+        ExpandedPositions<Item> expandedPositions = getExpandedPositions();
+        int[] expandedItems = new int[expandedPositions.size()];
+        for (int i = 0; i < expandedItems.length; i++) {
+            expandedItems[i] = expandedPositions.positionAt(i);
+        }
+        return expandedItems;
+    }
+
+    /**
+     * returns the positions of the visible expanded items. they are tracked by the notify callbacks, if they do not
+     * match the items anymore (e.g. an item was expanded or collapsed without this extension) they are collected again
+     *
+     * @return the tracked expanded positions
+     */
+    private ExpandedPositions<Item> getExpandedPositions() {
+        if (mExpandedPositionsValid) {
+            for (int i = 0, size = mExpandedPositions.size(); i < size; i++) {
+                Item item = mExpandedPositions.itemAt(i);
+                if (mFastAdapter.getItem(mExpandedPositions.positionAt(i)) != item || !((IExpandable) item).isExpanded()) {
+                    mExpandedPositionsValid = false;
+                    break;
+                }
             }
         }
+        if (!mExpandedPositionsValid) {
+            mExpandedPositions.clear();
+            for (int i = 0, size = mFastAdapter.getItemCount(); i < size; i++) {
+                Item item = mFastAdapter.getItem(i);
+                if (item instanceof IExpandable && ((IExpandable) item).isExpanded()) {
+                    mExpandedPositions.put(i, item);
+                }
+            }
+            mExpandedPositionsValid = true;
+        }
+        return mExpandedPositions;
+    }
 
-        int expandedItemsListLength = expandedItemsList.size();
-        expandedItems = new int[expandedItemsListLength];
-        for (int i = 0; i < expandedItemsListLength; i++) {
-            expandedItems[i] = expandedItemsList.get(i);
+    /**
+     * finds the last visible expanded item within the sub hierarchy of the tracked expanded item at the given index, and
+     * verifies the tracked items on the way
+     *
+     * @param first the index of the expanded item within the tracked positions
+     * @return the index of the last expanded item within its sub hierarchy, -1 if a tracked position is outdated
+     */
+    private int lastInHierarchy(int first) {
+        int end = mExpandedPositions.positionAt(first) + 1;
+        int index = first;
+        for (int size = mExpandedPositions.size(); index < size && mExpandedPositions.positionAt(index) < end; index++) {
+            Item item = mExpandedPositions.itemAt(index);
+            if (mFastAdapter.getItem(mExpandedPositions.positionAt(index)) != item || !((IExpandable) item).isExpanded()) {
+                mExpandedPositionsValid = false;
+                return -1;
+            }
+            end += subItemCount(item);
         }
-        return expandedItems;
+        return index - 1;
+    }
+
+    private static int subItemCount(IItem item) {
+        List subItems = ((IExpandable) item).getSubItems();
+        return subItems != null ? subItems.size() : 0;
     }
 
     /**
@@ -278,25 +345,23 @@ public class ExpandableExtension<Item extends IItem> implements IAdapterExtensio
      */
     public int[] getExpandedItemsRootLevel(int position) {
         int[] expandedItems;
-        ArraySet<Integer> expandedItemsList = new ArraySet<>();
+        ArrayList<Integer> expandedItemsList = new ArrayList<>();
         Item item = mFastAdapter.getItem(position);
 
-        for (int i = 0, size = mFastAdapter.getItemCount(); i < size; i++) {
-            Item currItem = mFastAdapter.getItem(i);
-            if (currItem instanceof ISubItem) {
-                IItem parent = ((ISubItem) currItem).getParent();
-                if (parent instanceof IExpandable && ((IExpandable) parent).isExpanded()) {
-                    i += ((IExpandable) parent).getSubItems().size();
-                    if (parent != item)
-                        expandedItemsList.add(mFastAdapter.getPosition((Item) parent));
-                }
+        ExpandedPositions<Item> expandedPositions = getExpandedPositions();
+        for (int i = 0, size = expandedPositions.size(); i < size; i++) {
+            Item expandedItem = expandedPositions.itemAt(i);
+            //only items without an expandable parent are on the root level
+            if (expandedItem != item && subItemCount(expandedItem) > 0
+                    && !(expandedItem instanceof ISubItem && ((ISubItem) expandedItem).getParent() instanceof IExpandable)) {
+                expandedItemsList.add(expandedPositions.positionAt(i));
             }
         }
 
         int expandedItemsListLength = expandedItemsList.size();
         expandedItems = new int[expandedItemsListLength];
         for (int i = 0; i < expandedItemsListLength; i++) {
-            expandedItems[i] = expandedItemsList.valueAt(i);
+            expandedItems[i] = expandedItemsList.get(i);
         }
         return expandedItems;
     }
@@ -328,10 +393,79 @@ public class ExpandableExtension<Item extends IItem> implements IAdapterExtensio
      * @param notifyItemChanged true if we need to call notifyItemChanged. DEFAULT: false
      */
     public void collapse(boolean notifyItemChanged) {
-        int[] expandedItems = getExpandedItems();
-        for (int i = expandedItems.length - 1; i >= 0; i--) {
-            collapse(expandedItems[i], notifyItemChanged);
+        ExpandedPositions<Item> expandedPositions = getExpandedPositions();
+        //collapse adapter by adapter, starting with the last one
+        int last = expandedPositions.size() - 1;
+        while (last >= 0) {
+            int position = expandedPositions.positionAt(last);
+            IAdapter<Item> adapter = mFastAdapter.getAdapter(position);
+            int preItemCount = mFastAdapter.getPreItemCount(position);
+            int first = last;
+            while (first > 0 && expandedPositions.positionAt(first - 1) >= preItemCount) {
+                first--;
+            }
+            if (adapter instanceof ModelAdapter) {
+                collapseAll((ModelAdapter<?, Item>) adapter, preItemCount, first, last, notifyItemChanged);
+            } else {
+                for (int i = last; i >= first; i--) {
+                    collapse(expandedPositions.positionAt(i), notifyItemChanged);
+                }
+            }
+            last = first - 1;
+        }
+    }
+
+    /**
+     * collapses all expanded items of one adapter within a single transaction, the sub items of all collapsed
+     * hierarchies are removed with one `removeRanges` call, which compacts the items once
+     *
+     * @param adapter           the adapter containing the expanded items
+     * @param preItemCount      the count of items before this adapter
+     * @param first             the index of the first expanded position within this adapter
+     * @param last              the index of the last expanded position within this adapter
+     * @param notifyItemChanged true if we need to call notifyItemChanged for the collapsed items
+     */
+    private void collapseAll(ModelAdapter<?, Item> adapter, int preItemCount, int first, int last, boolean notifyItemChanged) {
+        int itemCount = preItemCount + adapter.getAdapterItemCount();
+        //the removed ranges (global start and count) and the global positions of the collapsed items
+        int[] removedRanges = new int[(last - first + 1) * 2];
+        int rangeCount = 0;
+        List<Integer> collapsedPositions = new ArrayList<>();
+
+        int removedCount = 0;
+        int index = first;
+        while (index <= last) {
+            int position = mExpandedPositions.positionAt(index);
+            //all visible expanded items within the sub hierarchy are collapsed as well
+            int end = position + 1;
+            while (index <= last && mExpandedPositions.positionAt(index) < end) {
+                Item item = mExpandedPositions.itemAt(index);
+                ((IExpandable) item).withIsExpanded(false);
+                end += subItemCount(item);
+                index++;
+            }
+            end = Math.min(end, itemCount);
+            //the position after the ranges before were removed
+            collapsedPositions.add(position - removedCount);
+            if (end > position + 1) {
+                removedRanges[rangeCount++] = position + 1;
+                removedRanges[rangeCount++] = end - position - 1;
+                removedCount += end - position - 1;
+            }
         }
+        //all expanded items of this adapter are collapsed now, the ones before are not affected by the removed ranges
+        mExpandedPositions.truncate(first);
+
+        mFastAdapter.beginUpdate();
+        adapter.removeRanges(rangeCount == removedRanges.length ? removedRanges : Arrays.copyOf(removedRanges, rangeCount));
+
+        //we need to notify to get the correct drawable if there is one showing the current state
+        if (notifyItemChanged) {
+            for (Integer collapsedPosition : collapsedPositions) {
+                mFastAdapter.notifyViewItemStateChanged(collapsedPosition, ChangeMask.EXPANSION);
+            }
+        }
+        mFastAdapter.endUpdate();
     }
 
 
@@ -351,50 +485,42 @@ public class ExpandableExtension<Item extends IItem> implements IAdapterExtensio
      * @param notifyItemChanged true if we need to call notifyItemChanged. DEFAULT: false
      */
     public void collapse(int position, boolean notifyItemChanged) {
-        final int[] expandedItemsCount = {0};
-        mFastAdapter.recursive(new AdapterPredicate<Item>() {
-            ArraySet<IItem> allowedParents = new ArraySet<>();
-
-            @Override
-            public boolean apply(@NonNull IAdapter<Item> lastParentAdapter, int lastParentPosition, @NonNull Item item, int position) {
-                //we do not care about non visible items
-                if (position == -1) {
-                    return false;
-                }
-
-                //this is the entrance parent
-                if (allowedParents.size() > 0 && item instanceof ISubItem) {
-                    // Go on until we hit an item with a parent which was not in our expandable hierarchy
-                    IItem parent = ((ISubItem) item).getParent();
-                    if (parent == null || !allowedParents.contains(parent)) {
-                        return true;
-                    }
-                }
-
-                if (item instanceof IExpandable) {
-                    IExpandable expandable = (IExpandable) item;
-                    if (expandable.isExpanded()) {
-                        expandable.withIsExpanded(false);
-
-                        if (expandable.getSubItems() != null) {
-                            expandedItemsCount[0] += expandable.getSubItems().size();
-                            allowedParents.add(item);
-                        }
-                    }
-                }
-
-                return false;
+        //nothing to remove, this avoids walking all following items
+        Item collapsedItem = mFastAdapter.getItem(position);
+        if (!(collapsedItem instanceof IExpandable) || !((IExpandable) collapsedItem).isExpanded()) {
+            if (notifyItemChanged) {
+                mFastAdapter.notifyViewItemStateChanged(position, ChangeMask.EXPANSION);
             }
-        }, position, true);
+            return;
+        }
+
+        //the visible expanded items within the sub hierarchy, they are collapsed as well
+        int first = mExpandedPositionsValid ? mExpandedPositions.indexOf(position) : -1;
+        int last = first != -1 ? lastInHierarchy(first) : -1;
+        if (last == -1) {
+            first = getExpandedPositions().indexOf(position);
+            last = lastInHierarchy(first);
+        }
+        int end = position + 1;
+        for (int i = first; i <= last; i++) {
+            Item item = mExpandedPositions.itemAt(i);
+            ((IExpandable) item).withIsExpanded(false);
+            end += subItemCount(item);
+        }
 
         IAdapter adapter = mFastAdapter.getAdapter(position);
         if (adapter != null && adapter instanceof IItemAdapter) {
-            ((IItemAdapter) adapter).removeRange(position + 1, expandedItemsCount[0]);
+            end = Math.min(end, mFastAdapter.getPreItemCount(position) + adapter.getAdapterItemCount());
+            ((IItemAdapter) adapter).removeRange(position + 1, end - position - 1);
+        }
+        //the expanded items within the removed range are dropped by its notification
+        if (mExpandedPositionsValid) {
+            mExpandedPositions.remove(position);
         }
 
         //we need to notify to get the correct drawable if there is one showing the current state
         if (notifyItemChanged) {
-            mFastAdapter.notifyItemChanged(position);
+            mFastAdapter.notifyViewItemStateChanged(position, ChangeMask.EXPANSION);
         }
     }
 
@@ -446,10 +572,13 @@ public class ExpandableExtension<Item extends IItem> implements IAdapterExtensio
 
                 //remember that this item is now opened (not collapsed)
                 expandable.withIsExpanded(true);
+                if (mExpandedPositionsValid) {
+                    mExpandedPositions.put(position, item);
+                }
 
                 //we need to notify to get the correct drawable if there is one showing the current state
                 if (notifyItemChanged) {
-                    mFastAdapter.notifyItemChanged(position);
+                    mFastAdapter.notifyViewItemStateChanged(position, ChangeMask.EXPANSION);
                 }
             }
         }
@@ -463,18 +592,27 @@ public class ExpandableExtension<Item extends IItem> implements IAdapterExtensio
      * @return the count of expandable items before a given position
      */
     public int getExpandedItemsCount(int from, int position) {
+        //only the tracked items within the range are verified, so this does not walk all expanded items
+        int totalAddedItems = mExpandedPositionsValid ? countSubItems(from, position) : -1;
+        if (totalAddedItems == -1) {
+            getExpandedPositions();
+            totalAddedItems = countSubItems(from, position);
+        }
+        return totalAddedItems;
+    }
+
+    /**
+     * @return the count of sub items of the tracked expanded items within the range, -1 if one of them is outdated
+     */
+    private int countSubItems(int from, int position) {
         int totalAddedItems = 0;
-        //first we find out how many items were added in total
-        //also counting subItems
-        Item tmp;
-        for (int i = from; i < position; i++) {
-            tmp = mFastAdapter.getItem(i);
-            if (tmp instanceof IExpandable) {
-                IExpandable tmpExpandable = ((IExpandable) tmp);
-                if (tmpExpandable.getSubItems() != null && tmpExpandable.isExpanded()) {
-                    totalAddedItems = totalAddedItems + tmpExpandable.getSubItems().size();
-                }
+        for (int i = mExpandedPositions.lowerBound(from), size = mExpandedPositions.size(); i < size && mExpandedPositions.positionAt(i) < position; i++) {
+            Item item = mExpandedPositions.itemAt(i);
+            if (mFastAdapter.getItem(mExpandedPositions.positionAt(i)) != item || !((IExpandable) item).isExpanded()) {
+                mExpandedPositionsValid = false;
+                return -1;
             }
+            totalAddedItems = totalAddedItems + subItemCount(item);
         }
         return totalAddedItems;
     }
@@ -490,7 +628,7 @@ public class ExpandableExtension<Item extends IItem> implements IAdapterExtensio
         for (Item item : AdapterUtil.getAllItems(mFastAdapter)) {
             selectExtension.deselect(item);
         }
-        mFastAdapter.notifyDataSetChanged();
+        mFastAdapter.notifyViewDataSetChanged();
     }
 
     /**
@@ -506,7 +644,7 @@ public class ExpandableExtension<Item extends IItem> implements IAdapterExtensio
         for (Item item : AdapterUtil.getAllItems(mFastAdapter)) {
             selectExtension.select(item, considerSelectableFlag);
         }
-        mFastAdapter.notifyDataSetChanged();
+        mFastAdapter.notifyViewDataSetChanged();
     }
 
 }
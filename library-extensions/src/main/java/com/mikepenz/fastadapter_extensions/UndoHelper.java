@@ -194,12 +194,18 @@ public class UndoHelper<Item extends IItem> {
         int doChangeCount = 0;    ///[UndoHelper#UndoListener#postDoChange()/postUnDoChange()]
         if (mHistory != null) {
             if (mHistory.action == ACTION_REMOVE) {
-                for (int i = mHistory.items.size() - 1; i >= 0; i--) {
-                    FastAdapter.RelativeInfo<Item> relativeInfo = mHistory.items.get(i);
-                    if (relativeInfo.adapter instanceof IItemAdapter) {
-                        ((IItemAdapter) relativeInfo.adapter).remove(relativeInfo.position);
-                        doChangeCount++;  ///[UndoHelper#UndoListener#postDoChange()/postUnDoChange()]
+                //the removals are dispatched at once, adjacent ones merged
+                mAdapter.beginUpdate();
+                try {
+                    for (int i = mHistory.items.size() - 1; i >= 0; i--) {
+                        FastAdapter.RelativeInfo<Item> relativeInfo = mHistory.items.get(i);
+                        if (relativeInfo.adapter instanceof IItemAdapter) {
+                            ((IItemAdapter) relativeInfo.adapter).remove(relativeInfo.position);
+                            doChangeCount++;  ///[UndoHelper#UndoListener#postDoChange()/postUnDoChange()]
+                        }
                     }
+                } finally {
+                    mAdapter.endUpdate();
                 }
             }
         }
@@ -211,16 +217,22 @@ public class UndoHelper<Item extends IItem> {
         int unDoChangeCount = 0;  ///[UndoHelper#UndoListener#postDoChange()/postUnDoChange()]
         if (mHistory != null) {
             if (mHistory.action == ACTION_REMOVE) {
-                for (int i = 0, size = mHistory.items.size(); i < size; i++) {
-                    FastAdapter.RelativeInfo<Item> relativeInfo = mHistory.items.get(i);
-                    if (relativeInfo.adapter instanceof IItemAdapter) {
-                        IItemAdapter<?, Item> adapter = (IItemAdapter<?, Item>) relativeInfo.adapter;
-                        adapter.addInternal(relativeInfo.position, asList(relativeInfo.item));
-                        if (relativeInfo.item.isSelected()) {
-                            mAdapter.select(relativeInfo.position);
-                            unDoChangeCount++;
+                //the insertions are dispatched at once, adjacent ones merged
+                mAdapter.beginUpdate();
+                try {
+                    for (int i = 0, size = mHistory.items.size(); i < size; i++) {
+                        FastAdapter.RelativeInfo<Item> relativeInfo = mHistory.items.get(i);
+                        if (relativeInfo.adapter instanceof IItemAdapter) {
+                            IItemAdapter<?, Item> adapter = (IItemAdapter<?, Item>) relativeInfo.adapter;
+                            adapter.addInternal(relativeInfo.position, asList(relativeInfo.item));
+                            if (relativeInfo.item.isSelected()) {
+                                mAdapter.select(relativeInfo.position);
+                                unDoChangeCount++;
+                            }
                         }
                     }
+                } finally {
+                    mAdapter.endUpdate();
                 }
             }
         }
@@ -11,7 +11,7 @@ import com.mikepenz.fastadapter.ISubItem;
 import com.mikepenz.fastadapter.expandable.ExpandableExtension;
 import com.mikepenz.fastadapter.select.SelectExtension;
 import com.mikepenz.fastadapter.utils.AdapterPredicate;
-import com.mikepenz.fastadapter.utils.Triple;
+import com.mikepenz.fastadapter.utils.TraversalMatch;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -247,11 +247,16 @@ public class SubItemUtil {
                 if (header.getSubItems().get(i) instanceof IExpandable)
                     selectAllSubItems(adapter, header, select, notifyParent, payload);
             }
+            //the selection state was changed directly, let the extension know
+            SelectExtension extension = (SelectExtension) adapter.getExtension(SelectExtension.class);
+            if (extension != null) {
+                extension.invalidateSelections();
+            }
         }
 
         // we must notify the view only!
         if (notifyParent && position >= 0) {
-            adapter.notifyItemChanged(position, payload);
+            adapter.notifyViewItemChanged(position, payload);
         }
     }
 
@@ -267,28 +272,27 @@ public class SubItemUtil {
     @Deprecated
     @SuppressWarnings("unchecked")
     public static boolean selectItem(final FastAdapter adapter, final long identifier, final boolean select) {
-        Triple<Boolean, IItem, Integer> res = adapter.recursive(new AdapterPredicate() {
-            @Override
-            public boolean apply(@NonNull IAdapter lastParentAdapter, int lastParentPosition, @NonNull IItem item, int position) {
-                if (item.getIdentifier() == identifier) {
-                    if (position != -1) {
-                        SelectExtension extension = (SelectExtension) adapter.getExtension(SelectExtension.class);
-                        if (extension != null) {
-                            if (select) {
-                                extension.select(position);
-                            } else {
-                                extension.deselect(position);
-                            }
-                        }
-                    } else {
-                        item.withSetSelected(select);
-                    }
-                    return true;
+        TraversalMatch match = new TraversalMatch();
+        if (!adapter.findByIdentifier(identifier, match)) {
+            return false;
+        }
+        if (match.position != -1) {
+            SelectExtension extension = (SelectExtension) adapter.getExtension(SelectExtension.class);
+            if (extension != null) {
+                if (select) {
+                    extension.select(match.position);
+                } else {
+                    extension.deselect(match.position);
                 }
-                return false;
             }
-        }, true);
-        return res.first;
+        } else {
+            match.item.withSetSelected(select);
+            SelectExtension extension = (SelectExtension) adapter.getExtension(SelectExtension.class);
+            if (extension != null) {
+                extension.invalidateSelections();
+            }
+        }
+        return true;
     }
 
     /**
@@ -310,6 +314,10 @@ public class SubItemUtil {
                     }
                 } else {
                     item.withSetSelected(false);
+                    SelectExtension extension = (SelectExtension) adapter.getExtension(SelectExtension.class);
+                    if (extension != null) {
+                        extension.invalidateSelections();
+                    }
                 }
                 return true;
             }
@@ -347,50 +355,56 @@ public class SubItemUtil {
         int pos, parentPos;
         boolean expanded;
         ListIterator<IItem> it = selectedItems.listIterator();
-        while (it.hasNext()) {
-            item = it.next();
-
-            pos = fastAdapter.getPosition(item);
-
-            // search for parent - if we find one, we remove the item from the parent's subitems directly
-            parent = getParent(item);
-            if (parent != null) {
-                parentPos = fastAdapter.getPosition(parent);
-                boolean success = ((IExpandable) parent).getSubItems().remove(item);
-//                Log.d("DELETE", "success=" + success + " | deletedId=" + item.getIdentifier() + " | parentId=" + parent.getIdentifier() + " (sub items: " + ((IExpandable) parent).getSubItems().size() + ") | parentPos=" + parentPos);
-
-                // check if parent is expanded and notify the adapter about the removed item, if necessary (only if parent is visible)
-                if (parentPos != -1 && ((IExpandable) parent).isExpanded()) {
-                    expandableExtension.notifyAdapterSubItemsChanged(parentPos, ((IExpandable) parent).getSubItems().size() + 1);
-                }
+        // the removals are dispatched at once, adjacent ones merged
+        fastAdapter.beginUpdate();
+        try {
+            while (it.hasNext()) {
+                item = it.next();
+
+                pos = fastAdapter.getPosition(item);
+
+                // search for parent - if we find one, we remove the item from the parent's subitems directly
+                parent = getParent(item);
+                if (parent != null) {
+                    parentPos = fastAdapter.getPosition(parent);
+                    boolean success = ((IExpandable) parent).getSubItems().remove(item);
+//                    Log.d("DELETE", "success=" + success + " | deletedId=" + item.getIdentifier() + " | parentId=" + parent.getIdentifier() + " (sub items: " + ((IExpandable) parent).getSubItems().size() + ") | parentPos=" + parentPos);
+
+                    // check if parent is expanded and notify the adapter about the removed item, if necessary (only if parent is visible)
+                    if (parentPos != -1 && ((IExpandable) parent).isExpanded()) {
+                        expandableExtension.notifyAdapterSubItemsChanged(parentPos, ((IExpandable) parent).getSubItems().size() + 1);
+                    }
 
-                // if desired, notify the parent about its changed items (only if parent is visible!)
-                if (parentPos != -1 && notifyParent) {
-                    expanded = ((IExpandable) parent).isExpanded();
-                    fastAdapter.notifyAdapterItemChanged(parentPos);
-                    // expand the item again if it was expanded before calling notifyAdapterItemChanged
-                    if (expanded) {
-                        expandableExtension.expand(parentPos);
+                    // if desired, notify the parent about its changed items (only if parent is visible!)
+                    if (parentPos != -1 && notifyParent) {
+                        expanded = ((IExpandable) parent).isExpanded();
+                        fastAdapter.notifyAdapterItemChanged(parentPos);
+                        // expand the item again if it was expanded before calling notifyAdapterItemChanged
+                        if (expanded) {
+                            expandableExtension.expand(parentPos);
+                        }
                     }
-                }
 
-                deleted.add(item);
+                    deleted.add(item);
 
-                if (deleteEmptyHeaders && ((IExpandable) parent).getSubItems().size() == 0) {
-                    it.add(parent);
-                    it.previous();
-                }
-            } else if (pos != -1) {
-                // if we did not find a parent, we remove the item from the adapter
-                IAdapter adapter = fastAdapter.getAdapter(pos);
-                boolean success = false;
-                if (adapter instanceof IItemAdapter) {
-                    success = ((IItemAdapter) adapter).remove(pos) != null;
+                    if (deleteEmptyHeaders && ((IExpandable) parent).getSubItems().size() == 0) {
+                        it.add(parent);
+                        it.previous();
+                    }
+                } else if (pos != -1) {
+                    // if we did not find a parent, we remove the item from the adapter
+                    IAdapter adapter = fastAdapter.getAdapter(pos);
+                    boolean success = false;
+                    if (adapter instanceof IItemAdapter) {
+                        success = ((IItemAdapter) adapter).remove(pos) != null;
+                    }
+                    boolean isHeader = item instanceof IExpandable && ((IExpandable) item).getSubItems() != null;
+//                    Log.d("DELETE", "success=" + success + " | deletedId=" + item.getIdentifier() + "(" + (isHeader ? "EMPTY HEADER" : "ITEM WITHOUT HEADER") + ")");
+                    deleted.add(item);
                 }
-                boolean isHeader = item instanceof IExpandable && ((IExpandable) item).getSubItems() != null;
-//                Log.d("DELETE", "success=" + success + " | deletedId=" + item.getIdentifier() + "(" + (isHeader ? "EMPTY HEADER" : "ITEM WITHOUT HEADER") + ")");
-                deleted.add(item);
             }
+        } finally {
+            fastAdapter.endUpdate();
         }
 
 //        Log.d("DELETE", "deleted (incl. empty headers): " + deleted.size());
@@ -425,54 +439,60 @@ public class SubItemUtil {
         boolean expanded;
         Long identifier;
         ListIterator<Long> it = identifiers.listIterator();
-        while (it.hasNext()) {
-            identifier = it.next();
-
-            pos = fastAdapter.getPosition(identifier);
-            item = fastAdapter.getItem(pos);
-
-            // search for parent - if we find one, we remove the item from the parent's subitems directly
-            parent = getParent(item);
-            if (parent != null) {
-                parentPos = fastAdapter.getPosition(parent);
-                boolean success = ((IExpandable) parent).getSubItems().remove(item);
-//                Log.d("DELETE", "success=" + success + " | deletedId=" + item.getIdentifier() + " | parentId=" + parent.getIdentifier() + " (sub items: " + ((IExpandable) parent).getSubItems().size() + ") | parentPos=" + parentPos);
-
-                // check if parent is expanded and notify the adapter about the removed item, if necessary (only if parent is visible)
-                if (parentPos != -1 && ((IExpandable) parent).isExpanded()) {
-                    expandableExtension.notifyAdapterSubItemsChanged(parentPos, ((IExpandable) parent).getSubItems().size() + 1);
-                }
+        // the removals are dispatched at once, adjacent ones merged
+        fastAdapter.beginUpdate();
+        try {
+            while (it.hasNext()) {
+                identifier = it.next();
+
+                pos = fastAdapter.getPosition(identifier);
+                item = fastAdapter.getItem(pos);
+
+                // search for parent - if we find one, we remove the item from the parent's subitems directly
+                parent = getParent(item);
+                if (parent != null) {
+                    parentPos = fastAdapter.getPosition(parent);
+                    boolean success = ((IExpandable) parent).getSubItems().remove(item);
+//                    Log.d("DELETE", "success=" + success + " | deletedId=" + item.getIdentifier() + " | parentId=" + parent.getIdentifier() + " (sub items: " + ((IExpandable) parent).getSubItems().size() + ") | parentPos=" + parentPos);
+
+                    // check if parent is expanded and notify the adapter about the removed item, if necessary (only if parent is visible)
+                    if (parentPos != -1 && ((IExpandable) parent).isExpanded()) {
+                        expandableExtension.notifyAdapterSubItemsChanged(parentPos, ((IExpandable) parent).getSubItems().size() + 1);
+                    }
 
-                // if desired, notify the parent about it's changed items (only if parent is visible!)
-                if (parentPos != -1 && notifyParent) {
-                    expanded = ((IExpandable) parent).isExpanded();
-                    fastAdapter.notifyAdapterItemChanged(parentPos);
-                    // expand the item again if it was expanded before calling notifyAdapterItemChanged
-                    if (expanded) {
-                        expandableExtension.expand(parentPos);
+                    // if desired, notify the parent about it's changed items (only if parent is visible!)
+                    if (parentPos != -1 && notifyParent) {
+                        expanded = ((IExpandable) parent).isExpanded();
+                        fastAdapter.notifyAdapterItemChanged(parentPos);
+                        // expand the item again if it was expanded before calling notifyAdapterItemChanged
+                        if (expanded) {
+                            expandableExtension.expand(parentPos);
+                        }
                     }
-                }
 
-                deleted.add(item);
+                    deleted.add(item);
 
-                if (deleteEmptyHeaders && ((IExpandable) parent).getSubItems().size() == 0) {
-                    it.add(parent.getIdentifier());
-                    it.previous();
-                }
-            } else if (pos != -1) {
-                // if we did not find a parent, we remove the item from the adapter
-                IAdapter adapter = fastAdapter.getAdapter(pos);
-                boolean success = false;
-                if (adapter instanceof IItemAdapter) {
-                    success = ((IItemAdapter) adapter).remove(pos) != null;
-                    if (success) {
-                        fastAdapter.notifyAdapterItemRemoved(pos);
+                    if (deleteEmptyHeaders && ((IExpandable) parent).getSubItems().size() == 0) {
+                        it.add(parent.getIdentifier());
+                        it.previous();
+                    }
+                } else if (pos != -1) {
+                    // if we did not find a parent, we remove the item from the adapter
+                    IAdapter adapter = fastAdapter.getAdapter(pos);
+                    boolean success = false;
+                    if (adapter instanceof IItemAdapter) {
+                        success = ((IItemAdapter) adapter).remove(pos) != null;
+                        if (success) {
+                            fastAdapter.notifyAdapterItemRemoved(pos);
+                        }
                     }
+                    boolean isHeader = item instanceof IExpandable && ((IExpandable) item).getSubItems() != null;
+//                    Log.d("DELETE", "success=" + success + " | deletedId=" + item.getIdentifier() + "(" + (isHeader ? "EMPTY HEADER" : "ITEM WITHOUT HEADER") + ")");
+                    deleted.add(item);
                 }
-                boolean isHeader = item instanceof IExpandable && ((IExpandable) item).getSubItems() != null;
-//                Log.d("DELETE", "success=" + success + " | deletedId=" + item.getIdentifier() + "(" + (isHeader ? "EMPTY HEADER" : "ITEM WITHOUT HEADER") + ")");
-                deleted.add(item);
             }
+        } finally {
+            fastAdapter.endUpdate();
         }
 
 //        Log.d("DELETE", "deleted (incl. empty headers): " + deleted.size());
@@ -0,0 +1,238 @@
+package com.mikepenz.fastadapter.commons.utils;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.mikepenz.fastadapter.FastAdapter;
+import com.mikepenz.fastadapter.IItem;
+import com.mikepenz.fastadapter.adapters.ModelAdapter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * Computes the difference between the items of a {@link ModelAdapter} and a new list of items on a background thread,
+ * similar to the {@link androidx.recyclerview.widget.AsyncListDiffer}.
+ * <p>
+ * The diff is calculated against a snapshot of the current items. The result is applied on the main thread, but only if
+ * no newer list was submitted in the meantime. If the adapter was changed while the diff was running, the diff is
+ * calculated again against the new state. Use one instance per adapter.
+ * <p>
+ * NOTE: the {@link DiffCallback} is called on the background thread.
+ */
+public class FastAdapterAsyncDiffer<Model, Item extends IItem> {
+    // the executor shared by all differs which do not define their own
+    private static Executor sDefaultExecutor;
+
+    private final ModelAdapter<Model, Item> mAdapter;
+    private final Handler mMainHandler = new Handler(Looper.getMainLooper());
+
+    private Executor mExecutor;
+    private DiffCallback<Item> mDiffCallback = new DiffCallbackImpl<>();
+    private boolean mDetectMoves = true;
+    private boolean mIdentifierDiff = false;
+
+    // the generation of the latest submitted list, older diffs are dropped
+    private volatile int mMaxScheduledGeneration = 0;
+    // counts the changes of the FastAdapter, a diff is only valid if no change happened while it was calculated
+    private int mAdapterGeneration = 0;
+    private FastAdapter<Item> mObservedFastAdapter;
+    private final RecyclerView.AdapterDataObserver mAdapterDataObserver = new RecyclerView.AdapterDataObserver() {
+        @Override
+        public void onChanged() {
+            mAdapterGeneration++;
+        }
+
+        @Override
+        public void onItemRangeChanged(int positionStart, int itemCount) {
+            mAdapterGeneration++;
+        }
+
+        @Override
+        public void onItemRangeChanged(int positionStart, int itemCount, @Nullable Object payload) {
+            mAdapterGeneration++;
+        }
+
+        @Override
+        public void onItemRangeInserted(int positionStart, int itemCount) {
+            mAdapterGeneration++;
+        }
+
+        @Override
+        public void onItemRangeRemoved(int positionStart, int itemCount) {
+            mAdapterGeneration++;
+        }
+
+        @Override
+        public void onItemRangeMoved(int fromPosition, int toPosition, int itemCount) {
+            mAdapterGeneration++;
+        }
+    };
+
+    /**
+     * @param adapter the adapter the new items will be set to
+     */
+    public FastAdapterAsyncDiffer(ModelAdapter<Model, Item> adapter) {
+        this.mAdapter = adapter;
+    }
+
+    /**
+     * defines the executor used to calculate the diff. by default a shared pool of two threads is used
+     *
+     * @param executor the executor to calculate the diff on
+     * @return this
+     */
+    public FastAdapterAsyncDiffer<Model, Item> withExecutor(Executor executor) {
+        this.mExecutor = executor;
+        return this;
+    }
+
+    /**
+     * @param diffCallback the callback used to implement the required checks to identify changes of items
+     * @return this
+     */
+    public FastAdapterAsyncDiffer<Model, Item> withDiffCallback(DiffCallback<Item> diffCallback) {
+        this.mDiffCallback = diffCallback;
+        return this;
+    }
+
+    /**
+     * @param detectMoves configuration for the {@link DiffUtil#calculateDiff(DiffUtil.Callback, boolean)} method
+     * @return this
+     */
+    public FastAdapterAsyncDiffer<Model, Item> withDetectMoves(boolean detectMoves) {
+        this.mDetectMoves = detectMoves;
+        return this;
+    }
+
+    /**
+     * uses the {@link IdentifierDiffUtil} instead of the {@link DiffUtil}. this is a lot faster for big lists with
+     * stable and unique identifiers, moves are always detected
+     *
+     * @param identifierDiff true to match the items by their identifier
+     * @return this
+     */
+    public FastAdapterAsyncDiffer<Model, Item> withIdentifierDiff(boolean identifierDiff) {
+        this.mIdentifierDiff = identifierDiff;
+        return this;
+    }
+
+    /**
+     * submits a new list of items, the diff is calculated in the background and applied afterwards
+     *
+     * @param items the new set of items we want to put into the adapter
+     */
+    @MainThread
+    public void submit(List<Item> items) {
+        submit(items, null);
+    }
+
+    /**
+     * submits a new list of items, the diff is calculated in the background and applied afterwards.
+     * a previously submitted list which was not applied yet will be dropped
+     *
+     * @param items          the new set of items we want to put into the adapter
+     * @param commitCallback optional runnable which is called after the items were applied to the adapter
+     */
+    @MainThread
+    public void submit(List<Item> items, @Nullable final Runnable commitCallback) {
+        final int runGeneration = ++mMaxScheduledGeneration;
+        observeFastAdapter();
+
+        //prepare on the main thread, as this may collapse items and maps the types
+        final List<Item> newItems = new ArrayList<>(items);
+        FastAdapterDiffUtil.prepareItems(mAdapter, newItems);
+
+        //diff against a snapshot, the adapter keeps its items until the result is applied
+        final List<Item> oldItems = new ArrayList<>(mAdapter.getAdapterItems());
+        final int adapterGeneration = mAdapterGeneration;
+        final DiffCallback<Item> diffCallback = mDiffCallback;
+        final boolean detectMoves = mDetectMoves;
+        final boolean identifierDiff = mIdentifierDiff;
+
+        getExecutor().execute(new Runnable() {
+            @Override
+            public void run() {
+                //skip the work if a newer list was submitted already
+                if (runGeneration != mMaxScheduledGeneration) {
+                    return;
+                }
+                final DiffUtil.DiffResult result;
+                final IdentifierDiffUtil.IdentifierDiffResult identifierResult;
+                if (identifierDiff) {
+                    result = null;
+                    identifierResult = IdentifierDiffUtil.calculateDiff(oldItems, newItems, diffCallback);
+                } else {
+                    result = DiffUtil.calculateDiff(new FastAdapterDiffUtil.FastAdapterCallback<>(oldItems, newItems, diffCallback), detectMoves);
+                    identifierResult = null;
+                }
+                mMainHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (runGeneration != mMaxScheduledGeneration) {
+                            return;
+                        }
+                        if (adapterGeneration != mAdapterGeneration) {
+                            //the adapter changed while we calculated the diff, the result is not valid anymore
+                            submit(newItems, commitCallback);
+                            return;
+                        }
+                        FastAdapterDiffUtil.replaceItems(mAdapter, newItems);
+                        if (identifierResult != null) {
+                            IdentifierDiffUtil.set(mAdapter, identifierResult);
+                        } else {
+                            FastAdapterDiffUtil.set(mAdapter, result);
+                        }
+                        if (commitCallback != null) {
+                            commitCallback.run();
+                        }
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * drops the diff which is currently calculated (if any)
+     */
+    @MainThread
+    public void cancel() {
+        mMaxScheduledGeneration++;
+    }
+
+    /**
+     * registers the observer used to detect changes of the adapter during a diff
+     */
+    private void observeFastAdapter() {
+        FastAdapter<Item> fastAdapter = mAdapter.getFastAdapter();
+        if (fastAdapter == mObservedFastAdapter) {
+            return;
+        }
+        if (mObservedFastAdapter != null) {
+            mObservedFastAdapter.unregisterAdapterDataObserver(mAdapterDataObserver);
+        }
+        mObservedFastAdapter = fastAdapter;
+        if (fastAdapter != null) {
+            fastAdapter.registerAdapterDataObserver(mAdapterDataObserver);
+        }
+    }
+
+    private Executor getExecutor() {
+        if (mExecutor != null) {
+            return mExecutor;
+        }
+        synchronized (FastAdapterAsyncDiffer.class) {
+            if (sDefaultExecutor == null) {
+                sDefaultExecutor = Executors.newFixedThreadPool(2);
+            }
+            return sDefaultExecutor;
+        }
+    }
+}
@@ -9,7 +9,9 @@ import com.mikepenz.fastadapter.IAdapterExtension;
 import com.mikepenz.fastadapter.IItem;
 import com.mikepenz.fastadapter.adapters.ModelAdapter;
 import com.mikepenz.fastadapter.commons.adapters.FastItemAdapter;
+import com.mikepenz.fastadapter.utils.ChangeMask;
 import com.mikepenz.fastadapter.utils.ComparableItemListImpl;
+import com.mikepenz.fastadapter.utils.DefaultItemListImpl;
 
 import java.lang.reflect.Method;
 import java.util.ArrayList;
@@ -41,6 +43,27 @@ public class FastAdapterDiffUtil {
      * @return the {@link androidx.recyclerview.widget.DiffUtil.DiffResult} computed.
      */
     public static <A extends ModelAdapter<Model, Item>, Model, Item extends IItem> DiffUtil.DiffResult calculateDiff(final A adapter, final List<Item> items, final DiffCallback<Item> callback, final boolean detectMoves) {
+        prepareItems(adapter, items);
+
+        //remember the old items
+        final List<Item> oldItems = new ArrayList<>(adapter.getAdapterItems());
+
+        //pass in the oldItem list copy as we will update the one in the adapter itself
+        DiffUtil.DiffResult result = DiffUtil.calculateDiff(new FastAdapterCallback<>(oldItems, items, callback), detectMoves);
+
+        replaceItems(adapter, items);
+
+        return result;
+    }
+
+    /**
+     * prepares the adapter and the new items for a diff. checks the ids, collapses all expandables (if enabled)
+     * as they are not supported by the diff util, sorts the items based on the comparator if available and maps the new item types
+     *
+     * @param adapter the adapter containing the current items
+     * @param items   the new set of items we want to put into the adapter
+     */
+    static <A extends ModelAdapter<Model, Item>, Model, Item extends IItem> void prepareItems(final A adapter, final List<Item> items) {
         if (adapter.isUseIdDistributor()) {
             adapter.getIdDistributor().checkIds(items);
         }
@@ -55,13 +78,16 @@ public class FastAdapterDiffUtil {
 
         //map the types
         adapter.mapPossibleTypes(items);
+    }
 
-        //remember the old items
+    /**
+     * replaces the items inside the adapter with the new set of items, without notifying the adapter
+     *
+     * @param adapter the adapter containing the current items
+     * @param items   the new set of items we want to put into the adapter
+     */
+    static <A extends ModelAdapter<Model, Item>, Model, Item extends IItem> void replaceItems(final A adapter, final List<Item> items) {
         final List<Item> adapterItems = adapter.getAdapterItems();
-        final List<Item> oldItems = new ArrayList<>(adapterItems);
-
-        //pass in the oldItem list copy as we will update the one in the adapter itself
-        DiffUtil.DiffResult result = DiffUtil.calculateDiff(new FastAdapterCallback<>(oldItems, items, callback), detectMoves);
 
         //make sure the new items list is not a reference of the already mItems list
         if (items != adapterItems) {
@@ -74,7 +100,10 @@ public class FastAdapterDiffUtil {
             adapterItems.addAll(items);
         }
 
-        return result;
+        //the list was modified directly, so the identifier index has to be rebuilt
+        if (adapter.getItemList() instanceof DefaultItemListImpl) {
+            ((DefaultItemListImpl) adapter.getItemList()).invalidateIdentifierIndex();
+        }
     }
 
     /**
@@ -262,7 +291,7 @@ public class FastAdapterDiffUtil {
      *
      * @param <Item> the item type in the adapter
      */
-    private static final class FastAdapterCallback<Item extends IItem> extends DiffUtil.Callback {
+    static final class FastAdapterCallback<Item extends IItem> extends DiffUtil.Callback {
 
         private final List<Item> oldItems;
         private final List<Item> newItems;
@@ -297,7 +326,13 @@ public class FastAdapterDiffUtil {
         @Nullable
         @Override
         public Object getChangePayload(int oldItemPosition, int newItemPosition) {
-            Object result = callback.getChangePayload(oldItems.get(oldItemPosition), oldItemPosition, newItems.get(newItemPosition), newItemPosition);
+            Item oldItem = oldItems.get(oldItemPosition);
+            Item newItem = newItems.get(newItemPosition);
+            Object result = callback.getChangePayload(oldItem, oldItemPosition, newItem, newItemPosition);
+            if (result == null) {
+                //fall back to the changed fields of the item
+                result = ChangeMask.diff(oldItem, newItem);
+            }
             return result == null ? super.getChangePayload(oldItemPosition, newItemPosition) : result;
         }
     }
@@ -305,7 +340,7 @@ public class FastAdapterDiffUtil {
     /**
      * Default implementation of the {@link ListUpdateCallback} to apply changes to the adapter and notify about the changes.
      */
-    private static final class FastAdapterListUpdateCallback<A extends ModelAdapter<Model, Item>, Model, Item extends IItem> implements ListUpdateCallback {
+    static final class FastAdapterListUpdateCallback<A extends ModelAdapter<Model, Item>, Model, Item extends IItem> implements ListUpdateCallback {
 
         private final A adapter;
 
@@ -325,7 +360,9 @@ public class FastAdapterDiffUtil {
 
         @Override
         public void onMoved(int fromPosition, int toPosition) {
-            adapter.getFastAdapter().notifyAdapterItemMoved(adapter.getFastAdapter().getPreItemCountByOrder(adapter.getOrder()) + fromPosition, toPosition);
+            ///[FIX#FastAdapterListUpdateCallback#onMoved(int fromPosition, int toPosition)#toPosition also needs the offset of the previous adapters]
+            int preItemCount = adapter.getFastAdapter().getPreItemCountByOrder(adapter.getOrder());
+            adapter.getFastAdapter().notifyAdapterItemMoved(preItemCount + fromPosition, preItemCount + toPosition);
         }
 
         @Override
@@ -0,0 +1,177 @@
+package com.mikepenz.fastadapter.commons.utils;
+
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListUpdateCallback;
+
+import com.mikepenz.fastadapter.IItem;
+import com.mikepenz.fastadapter.adapters.ModelAdapter;
+import com.mikepenz.fastadapter.utils.ChangeMask;
+import com.mikepenz.fastadapter.utils.IdentifierDiff;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A diff engine for lists with stable and unique identifiers, as an alternative to the Myers algorithm used by {@link FastAdapterDiffUtil}.
+ * <p>
+ * This binds the {@link IdentifierDiff} of the engine to the adapters, see there for the algorithm.
+ * <p>
+ * {@link DiffCallback#areItemsTheSame(Object, Object)} is not used, items are the same if they share the identifier.
+ * If one of the lists contains an identifier more than once, the diff falls back to the {@link DiffUtil}.
+ */
+public class IdentifierDiffUtil {
+    /**
+     * This method will compute a {@link IdentifierDiffResult} based on the given adapter, and the list of new items.
+     * It prepares the items the same way as {@link FastAdapterDiffUtil#calculateDiff(ModelAdapter, List, DiffCallback, boolean)}
+     * and replaces the items inside the adapter with the new set of items as the last step.
+     *
+     * @param adapter  the adapter containing the current items.
+     * @param items    the new set of items we want to put into the adapter
+     * @param callback the callback used to identify changes of the contents of items
+     * @return the {@link IdentifierDiffResult} computed.
+     */
+    public static <A extends ModelAdapter<Model, Item>, Model, Item extends IItem> IdentifierDiffResult calculateDiff(final A adapter, final List<Item> items, final DiffCallback<Item> callback) {
+        FastAdapterDiffUtil.prepareItems(adapter, items);
+
+        //remember the old items
+        final List<Item> oldItems = new ArrayList<>(adapter.getAdapterItems());
+
+        IdentifierDiffResult result = calculateDiff(oldItems, items, callback);
+
+        FastAdapterDiffUtil.replaceItems(adapter, items);
+
+        return result;
+    }
+
+    /**
+     * convenient function for {@link #calculateDiff(ModelAdapter, List, DiffCallback)}
+     *
+     * @return the {@link IdentifierDiffResult} computed.
+     */
+    public static <A extends ModelAdapter<Model, Item>, Model, Item extends IItem> IdentifierDiffResult calculateDiff(final A adapter, final List<Item> items) {
+        return calculateDiff(adapter, items, new DiffCallbackImpl<Item>());
+    }
+
+    /**
+     * Dispatches a {@link IdentifierDiffResult} to the given Adapter.
+     *
+     * @param adapter the adapter to dispatch the updates to
+     * @param result  the computed {@link IdentifierDiffResult}
+     * @return the adapter to allow chaining
+     */
+    public static <A extends ModelAdapter<Model, Item>, Model, Item extends IItem> A set(final A adapter, IdentifierDiffResult result) {
+        result.dispatchUpdatesTo(new FastAdapterDiffUtil.FastAdapterListUpdateCallback<>(adapter));
+        return adapter;
+    }
+
+    /**
+     * Calculates a {@link IdentifierDiffResult} given the adapter and the items, and will directly dispatch them to the adapter.
+     *
+     * @param adapter  the adapter containing the current items.
+     * @param items    the new set of items we want to put into the adapter
+     * @param callback the callback used to identify changes of the contents of items
+     * @return the adapter to allow chaining
+     */
+    public static <A extends ModelAdapter<Model, Item>, Model, Item extends IItem> A set(final A adapter, final List<Item> items, final DiffCallback<Item> callback) {
+        return set(adapter, calculateDiff(adapter, items, callback));
+    }
+
+    /**
+     * convenient function for {@link #set(ModelAdapter, List, DiffCallback)}
+     *
+     * @return the adapter to allow chaining
+     */
+    public static <A extends ModelAdapter<Model, Item>, Model, Item extends IItem> A set(final A adapter, final List<Item> items) {
+        return set(adapter, items, new DiffCallbackImpl<Item>());
+    }
+
+    /**
+     * calculates the updates required to transform the old list into the new list. this does not touch any adapter and
+     * can be called from a background thread
+     *
+     * @param oldItems the current items
+     * @param newItems the new items
+     * @param callback the callback used to identify changes of the contents of items
+     * @return the {@link IdentifierDiffResult} computed.
+     */
+    public static <Item extends IItem> IdentifierDiffResult calculateDiff(final List<Item> oldItems, final List<Item> newItems, final DiffCallback<Item> callback) {
+        IdentifierDiff.Result result = IdentifierDiff.calculate(oldItems, newItems, new IdentifierDiff.ContentCallback<Item>() {
+            @Override
+            public boolean areContentsTheSame(Item oldItem, Item newItem) {
+                return callback.areContentsTheSame(oldItem, newItem);
+            }
+
+            @Override
+            public Object getChangePayload(Item oldItem, int oldItemPosition, Item newItem, int newItemPosition) {
+                Object payload = callback.getChangePayload(oldItem, oldItemPosition, newItem, newItemPosition);
+                //fall back to the changed fields of the item
+                return payload == null ? ChangeMask.diff(oldItem, newItem) : payload;
+            }
+        });
+        if (result == null) {
+            //an identifier is contained more than once
+            return new IdentifierDiffResult(DiffUtil.calculateDiff(new FastAdapterDiffUtil.FastAdapterCallback<>(oldItems, newItems, callback), true));
+        }
+        return new IdentifierDiffResult(result);
+    }
+
+    /**
+     * The result of {@link IdentifierDiffUtil#calculateDiff(List, List, DiffCallback)}, the recorded updates can be
+     * dispatched to any {@link ListUpdateCallback}
+     */
+    public static class IdentifierDiffResult {
+        private final IdentifierDiff.Result mResult;
+        //set if the diff had to fall back to the DiffUtil
+        private final DiffUtil.DiffResult mFallback;
+
+        IdentifierDiffResult(IdentifierDiff.Result result) {
+            mResult = result;
+            mFallback = null;
+        }
+
+        IdentifierDiffResult(DiffUtil.DiffResult fallback) {
+            mResult = null;
+            mFallback = fallback;
+        }
+
+        /**
+         * @return the count of updates which will be dispatched, or -1 if the DiffUtil was used
+         */
+        public int getUpdateCount() {
+            return mFallback != null ? -1 : mResult.getUpdateCount();
+        }
+
+        /**
+         * dispatches the updates to the given callback
+         *
+         * @param callback the callback to notify about the updates
+         */
+        public void dispatchUpdatesTo(final ListUpdateCallback callback) {
+            if (mFallback != null) {
+                mFallback.dispatchUpdatesTo(callback);
+                return;
+            }
+            mResult.dispatchUpdatesTo(new IdentifierDiff.UpdateListener() {
+                @Override
+                public void onInserted(int position, int count) {
+                    callback.onInserted(position, count);
+                }
+
+                @Override
+                public void onRemoved(int position, int count) {
+                    callback.onRemoved(position, count);
+                }
+
+                @Override
+                public void onMoved(int fromPosition, int toPosition) {
+                    callback.onMoved(fromPosition, toPosition);
+                }
+
+                @Override
+                public void onChanged(int position, int count, Object payload) {
+                    callback.onChanged(position, count, payload);
+                }
+            });
+        }
+    }
+}